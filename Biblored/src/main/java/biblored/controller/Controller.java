@@ -1,12 +1,16 @@
 package biblored.controller;
 
 import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
 import biblored.model.Status;
+import biblored.model.analytics.PopularItem;
 import biblored.model.generic.*;
+import biblored.model.search.FuzzyMatch;
 import biblored.view.ConsoleView;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 public class Controller {
     private ConsoleView console;
@@ -124,16 +128,16 @@ public class Controller {
     private void addLibrary() {
         console.printMessage("\n===== ADD LIBRARY =====\n");
 
-        int id = console.getIntegerInput("Enter library ID: ");
+        int id = console.getIntegerInput("Enter library ID (0 for a new one): ");
         String name = console.getStringInput("Enter library name: ");
 
         // Create address
-        Address address = new Address();
-        address.setStreet(console.getStringInput("Enter street: "));
-        address.setNumber(console.getStringInput("Enter number: "));
-        address.setCity(console.getStringInput("Enter city: "));
-        address.setZipCode(console.getStringInput("Enter zip code: "));
-        address.setCountry(console.getStringInput("Enter country: "));
+        Address address = Address.of(
+                console.getStringInput("Enter street: "),
+                console.getStringInput("Enter number: "),
+                console.getStringInput("Enter city: "),
+                console.getStringInput("Enter zip code: "),
+                console.getStringInput("Enter country: "));
 
         // Create library
         Library library = new Library();
@@ -142,10 +146,10 @@ public class Controller {
         library.setAddress(address);
 
         // Add library to the system
-        boolean success = libraryNetwork.addLibrary(library);
+        boolean success = id == 0 ? libraryNetwork.addNewLibrary(library) : libraryNetwork.addLibrary(library);
 
         if (success) {
-            console.printMessage("Library added successfully!");
+            console.printMessage("Library added successfully! ID: " + library.getId());
         } else {
             console.printMessage("Failed to add library. A library with ID " + id + " may already exist.");
         }
@@ -180,14 +184,14 @@ public class Controller {
             String name = console.getStringInput("Enter new library name (current: " + existingLibrary.getName() + "): ");
 
             // Create new address
-            Address address = new Address();
             Address currentAddress = existingLibrary.getAddress();
 
-            address.setStreet(console.getStringInput("Enter new street (current: " + currentAddress.getStreet() + "): "));
-            address.setNumber(console.getStringInput("Enter new number (current: " + currentAddress.getNumber() + "): "));
-            address.setCity(console.getStringInput("Enter new city (current: " + currentAddress.getCity() + "): "));
-            address.setZipCode(console.getStringInput("Enter new zip code (current: " + currentAddress.getZipCode() + "): "));
-            address.setCountry(console.getStringInput("Enter new country (current: " + currentAddress.getCountry() + "): "));
+            Address address = Address.of(
+                    console.getStringInput("Enter new street (current: " + currentAddress.getStreet() + "): "),
+                    console.getStringInput("Enter new number (current: " + currentAddress.getNumber() + "): "),
+                    console.getStringInput("Enter new city (current: " + currentAddress.getCity() + "): "),
+                    console.getStringInput("Enter new zip code (current: " + currentAddress.getZipCode() + "): "),
+                    console.getStringInput("Enter new country (current: " + currentAddress.getCountry() + "): "));
 
             // Create updated library
             Library updatedLibrary = new Library();
@@ -325,18 +329,18 @@ public class Controller {
         String password = console.getStringInput("Enter user password: ");
 
         // Create phone
-        Phone phone = new Phone();
-        phone.setCountryCode(console.getStringInput("Enter country code: "));
-        phone.setAreaCode(console.getStringInput("Enter area code: "));
-        phone.setNumber(console.getStringInput("Enter phone number: "));
+        Phone phone = Phone.of(
+                console.getStringInput("Enter country code: "),
+                console.getStringInput("Enter area code: "),
+                console.getStringInput("Enter phone number: "));
 
         // Create address
-        Address address = new Address();
-        address.setStreet(console.getStringInput("Enter street: "));
-        address.setNumber(console.getStringInput("Enter number: "));
-        address.setCity(console.getStringInput("Enter city: "));
-        address.setZipCode(console.getStringInput("Enter zip code: "));
-        address.setCountry(console.getStringInput("Enter country: "));
+        Address address = Address.of(
+                console.getStringInput("Enter street: "),
+                console.getStringInput("Enter number: "),
+                console.getStringInput("Enter city: "),
+                console.getStringInput("Enter zip code: "),
+                console.getStringInput("Enter country: "));
 
         // Create user
         User user = new User();
@@ -353,7 +357,7 @@ public class Controller {
         if (success) {
             console.printMessage("User registered successfully!");
         } else {
-            console.printMessage("Failed to register user. A user with ID " + id + " may already exist.");
+            console.printMessage("Failed to register user. A user with ID " + id + ", the same email or the same phone may already exist.");
         }
     }
 
@@ -362,14 +366,54 @@ public class Controller {
      */
     private void viewUserDetails() {
         console.printMessage("\n===== VIEW USER DETAILS =====\n");
+        console.printMessage("1. Find by ID");
+        console.printMessage("2. Find by Email");
+        console.printMessage("3. Find by Phone");
+        console.printMessage("4. Find by Name");
 
-        int id = console.getIntegerInput("Enter user ID: ");
-        User user = libraryNetwork.getUser(id);
+        int option = console.getIntegerInput("Enter your choice: ");
+        User user;
+        String criteria;
+
+        switch (option) {
+            case 1:
+                int id = console.getIntegerInput("Enter user ID: ");
+                user = libraryNetwork.getUser(id);
+                criteria = "ID " + id;
+                break;
+            case 2:
+                String email = console.getStringInput("Enter email: ");
+                user = libraryNetwork.findUserByEmail(email);
+                criteria = "email " + email;
+                break;
+            case 3:
+                String phone = console.getStringInput("Enter phone number (with country and area code): ");
+                user = libraryNetwork.findUserByPhone(phone);
+                criteria = "phone " + phone;
+                break;
+            case 4:
+                String prefix = console.getStringInput("Enter the beginning of the name: ");
+                List<User> users = libraryNetwork.findUsersByNamePrefix(prefix, 20);
+                if (users.isEmpty()) {
+                    console.printMessage("No users found with a name starting with \"" + prefix + "\".");
+                    return;
+                }
+                for (User u : users) {
+                    console.printMessage("ID: " + u.getId() + ", Name: " + u.getName() + ", Email: " + u.getEmail());
+                }
+                int selectedId = console.getIntegerInput("Enter user ID to view: ");
+                user = libraryNetwork.getUser(selectedId);
+                criteria = "ID " + selectedId;
+                break;
+            default:
+                console.printMessage("Invalid option.");
+                return;
+        }
 
         if (user != null) {
             displayUserDetails(user);
         } else {
-            console.printMessage("User with ID " + id + " not found.");
+            console.printMessage("User with " + criteria + " not found.");
         }
     }
 
@@ -388,22 +432,22 @@ public class Controller {
             String password = console.getStringInput("Enter new password (current: " + existingUser.getPassword() + "): ");
 
             // Create new phone
-            Phone phone = new Phone();
             Phone currentPhone = existingUser.getPhone();
 
-            phone.setCountryCode(console.getStringInput("Enter new country code (current: " + currentPhone.getCountryCode() + "): "));
-            phone.setAreaCode(console.getStringInput("Enter new area code (current: " + currentPhone.getAreaCode() + "): "));
-            phone.setNumber(console.getStringInput("Enter new phone number (current: " + currentPhone.getNumber() + "): "));
+            Phone phone = Phone.of(
+                    console.getStringInput("Enter new country code (current: " + currentPhone.getCountryCode() + "): "),
+                    console.getStringInput("Enter new area code (current: " + currentPhone.getAreaCode() + "): "),
+                    console.getStringInput("Enter new phone number (current: " + currentPhone.getNumber() + "): "));
 
             // Create new address
-            Address address = new Address();
             Address currentAddress = existingUser.getAddress();
 
-            address.setStreet(console.getStringInput("Enter new street (current: " + currentAddress.getStreet() + "): "));
-            address.setNumber(console.getStringInput("Enter new number (current: " + currentAddress.getNumber() + "): "));
-            address.setCity(console.getStringInput("Enter new city (current: " + currentAddress.getCity() + "): "));
-            address.setZipCode(console.getStringInput("Enter new zip code (current: " + currentAddress.getZipCode() + "): "));
-            address.setCountry(console.getStringInput("Enter new country (current: " + currentAddress.getCountry() + "): "));
+            Address address = Address.of(
+                    console.getStringInput("Enter new street (current: " + currentAddress.getStreet() + "): "),
+                    console.getStringInput("Enter new number (current: " + currentAddress.getNumber() + "): "),
+                    console.getStringInput("Enter new city (current: " + currentAddress.getCity() + "): "),
+                    console.getStringInput("Enter new zip code (current: " + currentAddress.getZipCode() + "): "),
+                    console.getStringInput("Enter new country (current: " + currentAddress.getCountry() + "): "));
 
             // Create updated user
             User updatedUser = new User();
@@ -420,7 +464,7 @@ public class Controller {
             if (success) {
                 console.printMessage("User updated successfully!");
             } else {
-                console.printMessage("Failed to update user.");
+                console.printMessage("Failed to update user. The email or phone may belong to another user.");
             }
         } else {
             console.printMessage("User with ID " + id + " not found.");
@@ -510,7 +554,8 @@ public class Controller {
             console.printMessage("4. Update Material");
             console.printMessage("5. Delete Material");
             console.printMessage("6. List All Materials");
-            console.printMessage("7. Back to Main Menu");
+            console.printMessage("7. Search Materials");
+            console.printMessage("8. Back to Main Menu");
 
             int option = console.getIntegerInput("Enter your choice: ");
 
@@ -534,6 +579,9 @@ public class Controller {
                     listAllMaterials();
                     break;
                 case 7:
+                    searchMaterials();
+                    break;
+                case 8:
                     back = true;
                     break;
                 default:
@@ -584,10 +632,11 @@ public class Controller {
         Material book = createMaterial();
 
         // Add book to the system
-        boolean success = libraryNetwork.addBook(book);
+        boolean success = book.getId() == 0 ? libraryNetwork.addNewMaterial(MaterialType.BOOK, book)
+                : libraryNetwork.addBook(book);
 
         if (success) {
-            console.printMessage("Book added successfully!");
+            console.printMessage("Book added successfully! ID: " + book.getId());
         } else {
             console.printMessage("Failed to add book. A book with ID " + book.getId() + " may already exist.");
         }
@@ -602,10 +651,11 @@ public class Controller {
         Material film = createMaterial();
 
         // Add film to the system
-        boolean success = libraryNetwork.addFilm(film);
+        boolean success = film.getId() == 0 ? libraryNetwork.addNewMaterial(MaterialType.FILM, film)
+                : libraryNetwork.addFilm(film);
 
         if (success) {
-            console.printMessage("Film added successfully!");
+            console.printMessage("Film added successfully! ID: " + film.getId());
         } else {
             console.printMessage("Failed to add film. A film with ID " + film.getId() + " may already exist.");
         }
@@ -620,10 +670,11 @@ public class Controller {
         Material documentary = createMaterial();
 
         // Add documentary to the system
-        boolean success = libraryNetwork.addDocumentary(documentary);
+        boolean success = documentary.getId() == 0 ? libraryNetwork.addNewMaterial(MaterialType.DOCUMENTARY, documentary)
+                : libraryNetwork.addDocumentary(documentary);
 
         if (success) {
-            console.printMessage("Documentary added successfully!");
+            console.printMessage("Documentary added successfully! ID: " + documentary.getId());
         } else {
             console.printMessage("Failed to add documentary. A documentary with ID " + documentary.getId() + " may already exist.");
         }
@@ -638,10 +689,11 @@ public class Controller {
         Material compactDisk = createMaterial();
 
         // Add compact disk to the system
-        boolean success = libraryNetwork.addCompactDisks(compactDisk);
+        boolean success = compactDisk.getId() == 0 ? libraryNetwork.addNewMaterial(MaterialType.COMPACT_DISK, compactDisk)
+                : libraryNetwork.addCompactDisks(compactDisk);
 
         if (success) {
-            console.printMessage("Compact disk added successfully!");
+            console.printMessage("Compact disk added successfully! ID: " + compactDisk.getId());
         } else {
             console.printMessage("Failed to add compact disk. A compact disk with ID " + compactDisk.getId() + " may already exist.");
         }
@@ -651,7 +703,7 @@ public class Controller {
      * Helper method to create a material from user input
      */
     private Material createMaterial() {
-        int id = console.getIntegerInput("Enter material ID: ");
+        int id = console.getIntegerInput("Enter material ID (0 for a new one): ");
         String name = console.getStringInput("Enter material name: ");
         String author = console.getStringInput("Enter author: ");
         String language = console.getStringInput("Enter language: ");
@@ -683,7 +735,7 @@ public class Controller {
         material.setName(name);
         material.setAuthor(author);
         material.setLanguage(language);
-        material.setLibrary(library);
+        material.setLibraryId(library.getId());
         material.setDateRegistered(LocalDate.now());
         material.setStatus(Status.AVAILABLE);
 
@@ -784,12 +836,11 @@ public class Controller {
                 console.printMessage("ID: " + library.getId() + ", Name: " + library.getName());
             }
 
-            int libraryId = console.getIntegerInput("Enter new library ID (current: " + existingMaterial.getLibrary().getId() + "): ");
-            Library library = libraryNetwork.getLibrary(libraryId);
+            int libraryId = console.getIntegerInput("Enter new library ID (current: " + existingMaterial.getLibraryId() + "): ");
 
-            if (library == null) {
+            if (libraryNetwork.getLibrary(libraryId) == null) {
                 console.printMessage("Library with ID " + libraryId + " not found. Using current library.");
-                library = existingMaterial.getLibrary();
+                libraryId = existingMaterial.getLibraryId();
             }
 
             // Create updated material
@@ -798,7 +849,7 @@ public class Controller {
             updatedMaterial.setName(name);
             updatedMaterial.setAuthor(author);
             updatedMaterial.setLanguage(language);
-            updatedMaterial.setLibrary(library);
+            updatedMaterial.setLibraryId(libraryId);
             updatedMaterial.setDateRegistered(existingMaterial.getDateRegistered());
             updatedMaterial.setStatus(existingMaterial.getStatus());
 
@@ -909,6 +960,61 @@ public class Controller {
         }
     }
 
+    /**
+     * Searches materials of one type by name or author
+     */
+    private void searchMaterials() {
+        console.printMessage("\n===== SEARCH MATERIALS =====\n");
+        console.printMessage("1. Books");
+        console.printMessage("2. Audiovisuals");
+        console.printMessage("3. Films");
+        console.printMessage("4. Documentaries");
+        console.printMessage("5. Compact Disks");
+
+        int option = console.getIntegerInput("Enter your choice: ");
+
+        MaterialType type;
+        switch (option) {
+            case 1:
+                type = MaterialType.BOOK;
+                break;
+            case 2:
+                type = MaterialType.AUDIOVISUAL;
+                break;
+            case 3:
+                type = MaterialType.FILM;
+                break;
+            case 4:
+                type = MaterialType.DOCUMENTARY;
+                break;
+            case 5:
+                type = MaterialType.COMPACT_DISK;
+                break;
+            default:
+                console.printMessage("Invalid option.");
+                return;
+        }
+
+        String text = console.getStringInput("Enter part of the name or author: ");
+        List<Material> materials = libraryNetwork.searchMaterials(type, text);
+
+        if (materials.isEmpty()) {
+            console.printMessage("No materials found for \"" + text + "\".");
+            List<FuzzyMatch> suggestions = libraryNetwork.fuzzySearchMaterials(text, 5);
+            if (!suggestions.isEmpty()) {
+                console.printMessage("Did you mean:");
+                for (FuzzyMatch match : suggestions) {
+                    Material material = match.getMaterial();
+                    console.printMessage("[" + match.getType() + "] ID: " + material.getId() + ", Name: " + material.getName() + ", Author: " + material.getAuthor() + ", Status: " + material.getStatus());
+                }
+            }
+        } else {
+            for (Material material : materials) {
+                console.printMessage("ID: " + material.getId() + ", Name: " + material.getName() + ", Author: " + material.getAuthor() + ", Status: " + material.getStatus());
+            }
+        }
+    }
+
     /**
      * Lists all materials in the system
      */
@@ -972,7 +1078,8 @@ public class Controller {
         console.printMessage("Language: " + material.getLanguage());
         console.printMessage("Date Registered: " + material.getDateRegistered());
         console.printMessage("Status: " + material.getStatus());
-        console.printMessage("Library: " + material.getLibrary().getName() + " (ID: " + material.getLibrary().getId() + ")");
+        Library library = libraryNetwork.getResolver().libraryOf(material);
+        console.printMessage("Library: " + (library == null ? "-" : library.getName()) + " (ID: " + material.getLibraryId() + ")");
     }
 
     /**
@@ -985,7 +1092,8 @@ public class Controller {
             console.printMessage("1. Borrow Material");
             console.printMessage("2. Return Material");
             console.printMessage("3. View Borrowed Materials by Library");
-            console.printMessage("4. Back to Main Menu");
+            console.printMessage("4. View Most Borrowed This Week");
+            console.printMessage("5. Back to Main Menu");
 
             int option = console.getIntegerInput("Enter your choice: ");
 
@@ -1000,6 +1108,9 @@ public class Controller {
                     viewBorrowedMaterialsByLibrary();
                     break;
                 case 4:
+                    viewMostBorrowed();
+                    break;
+                case 5:
                     back = true;
                     break;
                 default:
@@ -1037,7 +1148,7 @@ public class Controller {
         }
 
         // Get borrowed materials from the library
-        ArrayList<Material> borrowedMaterials = library.getBorrowedMaterials();
+        List<Material> borrowedMaterials = libraryNetwork.getResolver().borrowedMaterials(library);
 
         if (borrowedMaterials.isEmpty()) {
             console.printMessage("\nNo materials are currently borrowed from " + library.getName() + " library.");
@@ -1054,6 +1165,53 @@ public class Controller {
         console.printMessage("\nTotal borrowed materials: " + borrowedMaterials.size());
     }
 
+    /**
+     * Displays the most borrowed materials of the week for a library or for the whole network
+     */
+    private void viewMostBorrowed() {
+        console.printMessage("\n===== MOST BORROWED THIS WEEK =====\n");
+
+        int libraryId = console.getIntegerInput("Enter library ID (0 for the whole network): ");
+        List<PopularItem> items;
+        if (libraryId == 0) {
+            items = libraryNetwork.getMostBorrowedInNetwork();
+        } else {
+            items = libraryNetwork.getMostBorrowed(libraryId);
+        }
+
+        if (items.isEmpty()) {
+            console.printMessage("No borrows recorded this week.");
+            return;
+        }
+
+        int rank = 1;
+        for (PopularItem item : items) {
+            Material material = libraryNetwork.getMaterial(item.getMaterialType(), item.getMaterialId());
+            String name = material != null ? material.getName() : "(deleted)";
+            console.printMessage(rank + ". " + name + " [" + item.getMaterialType() + " ID: " + item.getMaterialId() + "] - ~" + item.getCount() + " borrows");
+            rank++;
+        }
+    }
+
+    /**
+     * Displays the materials most often borrowed by the patrons of a material
+     * @param ref The reference to the material
+     */
+    private void displayAlsoBorrowed(MaterialRef ref) {
+        List<PopularItem> items = libraryNetwork.getAlsoBorrowed(ref);
+        if (items.isEmpty()) {
+            return;
+        }
+        console.printMessage("\nPatrons who borrowed this material also borrowed:");
+        for (PopularItem item : items) {
+            Material material = libraryNetwork.getMaterial(item.getMaterialType(), item.getMaterialId());
+            // Deleted materials may still be listed by the index
+            if (material != null) {
+                console.printMessage("- " + material.getName() + " [" + item.getMaterialType() + " ID: " + item.getMaterialId() + "]");
+            }
+        }
+    }
+
     /**
      * Handles the process of borrowing a material
      */
@@ -1088,29 +1246,31 @@ public class Controller {
         // Get material ID
         int materialId = console.getIntegerInput("Enter material ID: ");
 
-        Material material = null;
+        MaterialType type;
 
         // Get the material based on type
         switch (materialTypeOption) {
             case 1:
-                material = libraryNetwork.getBook(materialId);
+                type = MaterialType.BOOK;
                 break;
             case 2:
-                material = libraryNetwork.getAudiovisual(materialId);
+                type = MaterialType.AUDIOVISUAL;
                 break;
             case 3:
-                material = libraryNetwork.getFilm(materialId);
+                type = MaterialType.FILM;
                 break;
             case 4:
-                material = libraryNetwork.getDocumentary(materialId);
+                type = MaterialType.DOCUMENTARY;
                 break;
             case 5:
-                material = libraryNetwork.getCompactDisk(materialId);
+                type = MaterialType.COMPACT_DISK;
                 break;
             default:
                 console.printMessage("Invalid option.");
                 return;
         }
+        MaterialRef ref = new MaterialRef(type, materialId);
+        Material material = libraryNetwork.getResolver().material(ref);
 
         if (material == null) {
             console.printMessage("Material with ID " + materialId + " not found.");
@@ -1124,7 +1284,7 @@ public class Controller {
         }
 
         // Get the library that owns the material
-        Library library = material.getLibrary();
+        Library library = libraryNetwork.getResolver().libraryOf(material);
         if (library == null || library.getId() == 0) {
             console.printMessage("This material is not associated with a valid library.");
             return;
@@ -1143,12 +1303,13 @@ public class Controller {
         }
 
         // Borrow the material
-        user.borrowMaterial(material);
+        libraryNetwork.borrowMaterial(user, ref);
 
         // Check if borrowing was successful by verifying the user's borrowed material
-        if (user.getBorrowedMaterial() != null && user.getBorrowedMaterial().getId() == material.getId()) {
+        if (ref.equals(user.getBorrowedMaterial())) {
             console.printMessage("\nMaterial successfully borrowed!");
             console.printMessage("Due date: " + LocalDate.now().plusDays(14) + " (14 days from today)");
+            displayAlsoBorrowed(ref);
         } else {
             console.printMessage("\nFailed to borrow material. Please try again.");
         }
@@ -1170,18 +1331,23 @@ public class Controller {
         }
 
         // Check if user has a borrowed material
-        Material borrowedMaterial = user.getBorrowedMaterial();
-        if (borrowedMaterial == null) {
+        if (user.getBorrowedMaterial() == null) {
             console.printMessage("This user has no borrowed materials.");
             return;
         }
 
+        // Get the material and the library that owns it
+        Material borrowedMaterial = libraryNetwork.getResolver().borrowedMaterial(user);
+        Library library = borrowedMaterial == null ? null : libraryNetwork.getResolver().libraryOf(borrowedMaterial);
+        if (library == null) {
+            console.printMessage("The borrowed material or its library is no longer registered.");
+            return;
+        }
+
         // Display borrowed material details
         console.printMessage("\nBorrowed Material Details:");
         displayMaterialDetails(borrowedMaterial);
 
-        // Get the library that owns the material
-        Library library = borrowedMaterial.getLibrary();
         console.printMessage("\nReturning to Library: " + library.getName() + " (ID: " + library.getId() + ")");
 
         String confirmation = console.getStringInput("\nConfirm return? (yes/no): ");
@@ -1191,7 +1357,7 @@ public class Controller {
         }
 
         // Return the material
-        user.returnMaterial();
+        libraryNetwork.returnMaterial(user);
 
         // Check if return was successful by verifying the user no longer has a borrowed material
         if (user.getBorrowedMaterial() == null) {
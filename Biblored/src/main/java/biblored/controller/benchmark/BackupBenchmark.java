@@ -0,0 +1,101 @@
+package biblored.controller.benchmark;
+
+import biblored.controller.workload.ReplayDriver;
+import biblored.controller.workload.TraceFile;
+import biblored.controller.workload.WorkloadGenerator;
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.backup.BackupReport;
+import biblored.model.backup.NetworkExporter;
+import biblored.model.backup.NetworkRestorer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Takes an online backup while a synthetic workload is replayed against the network, then
+ * restores it into an empty network. Reports how long writers were blocked, the latency of
+ * the replay with and without the backup, and checks that the restored network has the
+ * snapshot counts.
+ * Usage: java biblored.controller.benchmark.BackupBenchmark [materials per type] [users] [threads]
+ */
+public class BackupBenchmark {
+
+    private static final int OPERATIONS = 40_000;
+    private static final double RATE = 500;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional materials of each type (default 20000), users (default 50000)
+     *             and backup threads (default 4)
+     * @throws IOException if the backup cannot be written or read
+     * @throws InterruptedException if the replay is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int materials = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        Path directory = Files.createTempDirectory("biblored-backup");
+        Path tracePath = directory.resolve("trace.bin");
+        TraceFile.Header header = new TraceFile.Header(42, 20, materials, users, 2_000);
+        new WorkloadGenerator(header, 50).generate(tracePath.toString(), OPERATIONS);
+        TraceFile trace = TraceFile.read(tracePath.toString());
+
+        // The same replay without a backup gives the latency to compare with
+        LibraryNetwork baseline = new LibraryNetwork();
+        WorkloadGenerator.populate(baseline, header);
+        ReplayDriver.Report alone = new ReplayDriver(baseline, 4, RATE).replay(trace.getOperations());
+        // Warms up the exporter, so the measured backup is not run by the interpreter
+        new NetworkExporter(baseline, threads).export(directory.resolve("warmup"));
+        baseline = null;
+
+        LibraryNetwork network = new LibraryNetwork();
+        WorkloadGenerator.populate(network, header);
+        ReplayDriver.Report[] replay = new ReplayDriver.Report[1];
+        Thread desk = new Thread(() -> {
+            try {
+                replay[0] = new ReplayDriver(network, 4, RATE).replay(trace.getOperations());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        desk.start();
+        // Let the replay reach its rate before the backup starts
+        Thread.sleep(1_000);
+        BackupReport backup = new NetworkExporter(network, threads).export(directory.resolve("backup"));
+        desk.join();
+
+        System.out.println("Backup while replaying " + OPERATIONS + " operations at " + RATE + " ops/s");
+        backup.print();
+        System.out.printf("%-22s | %-10s | %-10s | %-10s%n", "Replay", "p50 (us)", "p99 (us)", "max (us)");
+        printReplay("without backup", alone);
+        printReplay("during backup", replay[0]);
+
+        LibraryNetwork restored = new LibraryNetwork();
+        BackupReport restore = new NetworkRestorer(restored, threads).restore(directory.resolve("backup"));
+        System.out.println("Restore");
+        restore.print();
+        boolean matches = restored.getLibraries().size() == backup.getRecords().get("libraries")
+                && restored.getUsers().size() == backup.getRecords().get("users");
+        for (MaterialType type : MaterialType.values()) {
+            matches &= restored.getMaterialDAO(type).readAll().size()
+                    == backup.getRecords().get(type.name().toLowerCase(Locale.ROOT));
+        }
+        System.out.println("Restored counts match the snapshot: " + matches);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static void printReplay(String label, ReplayDriver.Report report) {
+        System.out.printf(Locale.US, "%-22s | %-10.1f | %-10.1f | %-10.1f%n", label, report.getPercentile(50) / 1_000.0,
+                report.getPercentile(99) / 1_000.0, report.getPercentile(100) / 1_000.0);
+    }
+}
@@ -0,0 +1,103 @@
+package biblored.controller.benchmark;
+
+import biblored.model.MaterialType;
+import biblored.model.analytics.CoBorrowIndex;
+import biblored.model.analytics.PopularItem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures the "patrons also borrowed" index: the cost of recording a borrow, the latency
+ * of a lookup, the retained heap, and for comparison the time to compute the same list on
+ * demand by scanning the loan history. Borrowed materials follow a Zipf law.
+ * Usage: java biblored.controller.benchmark.CoBorrowBenchmark [materials] [users] [borrows]
+ */
+public class CoBorrowBenchmark {
+
+    private static final int LOOKUPS = 1_000_000;
+    private static final int ON_DEMAND_LOOKUPS = 20;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional materials (default 200000), users (default 100000) and borrows
+     *             (default 2000000)
+     */
+    public static void main(String[] args) {
+        int materials = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int borrows = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+
+        Random random = new Random(5);
+        ZipfGenerator zipf = new ZipfGenerator(materials, 1.0, random);
+        int[] borrowUsers = new int[borrows];
+        long[] borrowKeys = new long[borrows];
+        for (int i = 0; i < borrows; i++) {
+            borrowUsers[i] = random.nextInt(users) + 1;
+            borrowKeys[i] = PopularItem.keyOf(MaterialType.BOOK, zipf.next() + 1);
+        }
+
+        long baseline = usedHeap();
+        CoBorrowIndex index = new CoBorrowIndex();
+        long start = System.nanoTime();
+        for (int i = 0; i < borrows; i++) {
+            index.recordBorrow(borrowUsers[i], borrowKeys[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+        long heap = usedHeap() - baseline;
+        System.out.printf(Locale.US, "%d borrows of %d materials by %d users%n", borrows, materials, users);
+        System.out.printf(Locale.US, "Update: %.1f ns per borrow, index heap %.1f MB%n",
+                (double) elapsed / borrows, heap / (1024.0 * 1024.0));
+
+        long[] latencies = new long[LOOKUPS];
+        long found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            long key = borrowKeys[random.nextInt(borrows)];
+            long begin = System.nanoTime();
+            found += index.alsoBorrowed(key).size();
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        System.out.printf(Locale.US, "Lookup: p50 %d ns, p99 %d ns, %.1f results on average%n",
+                latencies[LOOKUPS / 2], latencies[LOOKUPS * 99 / 100], (double) found / LOOKUPS);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ON_DEMAND_LOOKUPS; i++) {
+            onDemand(borrowUsers, borrowKeys, borrowKeys[random.nextInt(borrows)]);
+        }
+        System.out.printf(Locale.US, "On demand from the loan history: %.1f ms per lookup%n",
+                (System.nanoTime() - start) / 1_000_000.0 / ON_DEMAND_LOOKUPS);
+    }
+
+    /**
+     * Counts the materials borrowed by the patrons of a material, scanning every loan twice
+     */
+    private static int onDemand(int[] borrowUsers, long[] borrowKeys, long key) {
+        Set<Integer> patrons = new HashSet<>();
+        for (int i = 0; i < borrowKeys.length; i++) {
+            if (borrowKeys[i] == key) {
+                patrons.add(borrowUsers[i]);
+            }
+        }
+        HashMap<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < borrowKeys.length; i++) {
+            if (borrowKeys[i] != key && patrons.contains(borrowUsers[i])) {
+                counts.merge(borrowKeys[i], 1, Integer::sum);
+            }
+        }
+        return counts.size();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,75 @@
+package biblored.controller.benchmark;
+
+import biblored.model.DAO.LibraryDAO;
+import biblored.model.generic.Library;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the cost of DAO deletes as the number of stored records grows.
+ * With slot storage the time per delete should stay flat between sizes.
+ * Usage: java biblored.controller.benchmark.DeleteBenchmark [size...]
+ */
+public class DeleteBenchmark {
+
+    private static final int[] DEFAULT_SIZES = {10_000, 100_000, 1_000_000};
+    private static final double DELETE_FRACTION = 0.5;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional record counts, e.g. 10000000
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%-12s | %-12s | %-15s | %-15s%n", "Records", "Deletes", "Total (ms)", "Avg/delete (ns)");
+        for (int size : sizes) {
+            runOnce(size);
+        }
+    }
+
+    /**
+     * Populates a DAO with the given number of records and deletes a random half of them
+     *
+     * @param size the number of records
+     */
+    private static void runOnce(int size) {
+        LibraryDAO dao = new LibraryDAO();
+        for (int id = 1; id <= size; id++) {
+            Library library = new Library();
+            library.setId(id);
+            dao.add(library);
+        }
+
+        // Shuffle the ids so deletes hit the whole array
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i + 1;
+        }
+        Random random = new Random(42);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+
+        int deletes = (int) (size * DELETE_FRACTION);
+        long start = System.nanoTime();
+        for (int i = 0; i < deletes; i++) {
+            dao.delete(ids[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf(Locale.US, "%-12d | %-12d | %-15.3f | %-15.3f%n",
+                size, deletes, elapsed / 1_000_000.0, (double) elapsed / deletes);
+    }
+}
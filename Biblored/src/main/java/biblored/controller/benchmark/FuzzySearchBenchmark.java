@@ -0,0 +1,132 @@
+package biblored.controller.benchmark;
+
+import biblored.model.search.TrigramIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the latency and recall of typo tolerant searches on a large synthetic catalog.
+ * Every query is an indexed title or author with one or two random typos, and it counts as
+ * found when the original record is among the first ten results.
+ * Usage: java biblored.controller.benchmark.FuzzySearchBenchmark [titles] [queries]
+ */
+public class FuzzySearchBenchmark {
+
+    private static final String CONSONANTS = "bcdfglmnprstvzjqh";
+    private static final String VOWELS = "aeiou";
+    private static final String CODAS = "   nrslz";
+    private static final int WORDS = 20_000;
+    private static final int FIRST_NAMES = 2_000;
+    private static final int LAST_NAMES = 20_000;
+    private static final int LIMIT = 10;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional number of titles (default 5000000) and queries (default 2000)
+     */
+    public static void main(String[] args) {
+        int titles = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Random random = new Random(42);
+
+        String[] words = new String[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            words[i] = word(random, 2 + random.nextInt(3));
+        }
+        String[] firstNames = new String[FIRST_NAMES];
+        for (int i = 0; i < FIRST_NAMES; i++) {
+            firstNames[i] = capitalize(word(random, 2 + random.nextInt(2)));
+        }
+        String[] lastNames = new String[LAST_NAMES];
+        for (int i = 0; i < LAST_NAMES; i++) {
+            lastNames[i] = capitalize(word(random, 3 + random.nextInt(2)));
+        }
+
+        TrigramIndex index = new TrigramIndex();
+        String[] names = new String[titles];
+        String[] authors = new String[titles];
+        long start = System.nanoTime();
+        for (int key = 0; key < titles; key++) {
+            StringBuilder title = new StringBuilder();
+            int length = 2 + random.nextInt(4);
+            for (int w = 0; w < length; w++) {
+                if (w > 0) {
+                    title.append(' ');
+                }
+                title.append(words[random.nextInt(WORDS)]);
+            }
+            names[key] = title.toString();
+            authors[key] = firstNames[random.nextInt(FIRST_NAMES)] + " " + lastNames[random.nextInt(LAST_NAMES)];
+            index.add(key, names[key], authors[key]);
+        }
+        System.out.printf(Locale.US, "Indexed %d titles in %.1f s%n", titles, (System.nanoTime() - start) / 1e9);
+
+        long[] latencies = new long[queries];
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            int key = random.nextInt(titles);
+            String text = random.nextBoolean() ? names[key] : authors[key];
+            String query = typo(random, text, 1 + random.nextInt(2));
+            long begin = System.nanoTime();
+            List<TrigramIndex.Hit> hits = index.search(query, LIMIT);
+            latencies[q] = System.nanoTime() - begin;
+            for (TrigramIndex.Hit hit : hits) {
+                if (hit.getKey() == key) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-10s | %-10s | %-10s | %-10s | %-10s%n", "Queries", "Recall@10", "p50 (ms)", "p99 (ms)", "max (ms)");
+        System.out.printf(Locale.US, "%-10d | %-10.3f | %-10.3f | %-10.3f | %-10.3f%n", queries, (double) found / queries,
+                latencies[queries / 2] / 1e6, latencies[(int) (queries * 0.99)] / 1e6, latencies[queries - 1] / 1e6);
+    }
+
+    // Pronounceable words made of consonant, vowel and optional final consonant syllables
+    private static String word(Random random, int syllables) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            sb.append(CONSONANTS.charAt(random.nextInt(CONSONANTS.length())));
+            sb.append(VOWELS.charAt(random.nextInt(VOWELS.length())));
+            char coda = CODAS.charAt(random.nextInt(CODAS.length()));
+            if (coda != ' ') {
+                sb.append(coda);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    // Applies random substitutions, deletions, insertions or transpositions of letters
+    private static String typo(Random random, String text, int edits) {
+        StringBuilder sb = new StringBuilder(text);
+        for (int e = 0; e < edits && sb.length() > 2; e++) {
+            int position = random.nextInt(sb.length() - 1);
+            char letter = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(4)) {
+                case 0:
+                    sb.setCharAt(position, letter);
+                    break;
+                case 1:
+                    sb.deleteCharAt(position);
+                    break;
+                case 2:
+                    sb.insert(position, letter);
+                    break;
+                default:
+                    char c = sb.charAt(position);
+                    sb.setCharAt(position, sb.charAt(position + 1));
+                    sb.setCharAt(position + 1, c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package biblored.controller.benchmark;
+
+import biblored.model.DAO.MaterialDAO;
+import biblored.model.generic.Material;
+import biblored.model.id.IdAllocator;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Measures id generation from 1 to 64 threads: the IdAllocator with blocks of 64 ids, the
+ * same with recycling while every id is released again, one AtomicInteger shared by all
+ * threads and a synchronized counter. Then it compares adding materials to a heap DAO with
+ * add and with addNew. The heap DAOs check the id with the same probe that stores its slot,
+ * so both take one map operation; through the network both are dominated by the title index.
+ * Usage: java biblored.controller.benchmark.IdBenchmark [ids per run] [materials]
+ */
+public class IdBenchmark {
+
+    private static final int MAX_THREADS = 64;
+    private static final int BLOCK = 64;
+
+    private static int counter;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional ids per run (default 20000000) and materials added (default 1000000)
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int ids = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        int materials = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.printf(Locale.US, "%d ids per run, %d processors%n", ids, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s | %-16s | %-16s | %-16s | %-16s%n", "Threads", "Blocks (M/s)", "Recycling (M/s)",
+                "Atomic (M/s)", "Synchronized (M/s)");
+        // Warm up every generator
+        runAll(4, ids / 4);
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            double[] rates = runAll(threads, ids);
+            System.out.printf(Locale.US, "%-8d | %-16.1f | %-16.1f | %-16.1f | %-16.1f%n", threads, rates[0], rates[1],
+                    rates[2], rates[3]);
+        }
+
+        for (int round = 0; round < 2; round++) {
+            double generated = addMaterials(materials, true);
+            double manual = addMaterials(materials, false);
+            if (round == 1) {
+                System.out.printf(Locale.US, "Adding %d materials to a heap DAO: add %.0f ms, addNew %.0f ms%n",
+                        materials, manual, generated);
+            }
+        }
+    }
+
+    private static double[] runAll(int threads, int ids) throws InterruptedException {
+        IdAllocator blocks = new IdAllocator(BLOCK, false, () -> 0);
+        IdAllocator recycling = new IdAllocator(BLOCK, true, () -> 0);
+        AtomicInteger atomic = new AtomicInteger();
+        Object lock = new Object();
+        return new double[]{
+                run(threads, ids, blocks::allocate),
+                run(threads, ids, () -> {
+                    int id = recycling.allocate();
+                    recycling.release(id);
+                    return id;
+                }),
+                run(threads, ids, atomic::incrementAndGet),
+                run(threads, ids, () -> {
+                    synchronized (lock) {
+                        return ++counter;
+                    }
+                })
+        };
+    }
+
+    /**
+     * Generates ids from several threads
+     *
+     * @return millions of ids per second
+     */
+    private static double run(int threads, int ids, IntSupplier generator) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        int share = ids / threads;
+        long[] sinks = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers[t] = new Thread(() -> {
+                long sum = 0;
+                for (int i = 0; i < share; i++) {
+                    sum += generator.getAsInt();
+                }
+                sinks[index] = sum;
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        return (double) share * threads / (elapsed / 1e3);
+    }
+
+    /**
+     * Adds materials to a new heap DAO
+     *
+     * @return the elapsed milliseconds
+     */
+    private static double addMaterials(int materials, boolean generated) {
+        MaterialDAO dao = new MaterialDAO();
+        IdAllocator allocator = new IdAllocator(BLOCK, false, () -> 0);
+        Material[] records = new Material[materials];
+        for (int i = 0; i < materials; i++) {
+            records[i] = new Material();
+            records[i].setId(allocator.allocate());
+            records[i].setName("Title " + i);
+        }
+        long start = System.nanoTime();
+        for (Material material : records) {
+            if (generated) {
+                dao.addNew(material);
+            } else {
+                dao.add(material);
+            }
+        }
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
@@ -0,0 +1,99 @@
+package biblored.controller.benchmark;
+
+import biblored.model.generic.Address;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the heap used by the phones and addresses of a synthetic user base, built once
+ * with plain objects, as they were before the value types were canonicalized, and once
+ * through Address.of and Phone.of. Every string is a new copy, like the strings read from
+ * the console, a mapped DAO or a backup.
+ * Users live in households of about three people that share an address, in a few hundred
+ * cities, and every user has a mobile number of their own.
+ * Usage: java -Xmx4g biblored.controller.benchmark.InternBenchmark [users]
+ */
+public class InternBenchmark {
+
+    private static final int CITIES = 300;
+    private static final int STREETS = 2_000;
+    private static final int AREA_CODES = 50;
+    private static final int HOUSEHOLD_SIZE = 3;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional number of users (default 5000000)
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        long baseline = usedHeap();
+        List<User> users = createUsers(size, false);
+        long plain = usedHeap() - baseline;
+        users = null;
+
+        baseline = usedHeap();
+        users = createUsers(size, true);
+        long interned = usedHeap() - baseline;
+
+        System.out.printf("%-12s | %-12s | %-15s%n", "Values", "Heap (MB)", "Bytes per user");
+        report("plain", plain, size);
+        report("interned", interned, size);
+        System.out.printf(Locale.US, "Heap reduction: %.1f %% for %d users%n",
+                100.0 * (plain - interned) / plain, users.size());
+    }
+
+    private static List<User> createUsers(int size, boolean intern) {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            // Members of a household are registered at different times
+            int household = random.nextInt(Math.max(1, size / HOUSEHOLD_SIZE));
+            int city = household % CITIES;
+            String street = copy("Calle " + (household / CITIES % STREETS + 1));
+            String number = copy(String.valueOf(household / CITIES / STREETS + 1));
+            String cityName = copy("Ciudad " + city);
+            String zipCode = copy(String.valueOf(110_000 + city * 10));
+            String country = copy("Colombia");
+            String countryCode = copy("57");
+            String areaCode = copy(String.valueOf(600 + city % AREA_CODES));
+            String mobile = copy(String.valueOf(3_000_000_000L + id));
+
+            User user = new User();
+            user.setId(id);
+            if (intern) {
+                user.setAddress(Address.of(street, number, cityName, zipCode, country));
+                user.setPhone(Phone.of(countryCode, areaCode, mobile));
+            } else {
+                user.setAddress(new Address(street, number, cityName, zipCode, country));
+                user.setPhone(new Phone(countryCode, areaCode, mobile));
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    // new String(String) would share the characters of the literal
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String label, long bytes, int users) {
+        System.out.printf(Locale.US, "%-12s | %-12.1f | %-15.1f%n", label, bytes / (1024.0 * 1024.0),
+                (double) bytes / users);
+    }
+}
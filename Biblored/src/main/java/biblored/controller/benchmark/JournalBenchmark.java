@@ -0,0 +1,169 @@
+package biblored.controller.benchmark;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.DAO.HeapDAOFactory;
+import biblored.model.backup.WriteBehindJournal;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures the borrow and return throughput with the write-behind journal, against a log
+ * forced after every operation. Each operation changes a material and a user, so it logs
+ * two records. The runs are: one thread waiting for durability after every operation (one
+ * fsync per operation), several threads waiting after every operation (their changes share
+ * the fsync of a batch), and threads that never wait, flushed by the size and time triggers.
+ * The log must be on the storage device to measure, a tmpfs makes fsync free.
+ * Usage: java biblored.controller.benchmark.JournalBenchmark [directory] [operations] [threads]
+ */
+public class JournalBenchmark {
+
+    private static final int LIBRARIES = 20;
+    private static final int MATERIALS = 20_000;
+    private static final int USERS = 20_000;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional directory of the log (default a temporary one), operations of the
+     *             batched runs (default 200000) and threads (default 16)
+     * @throws Exception if the log cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        Path directory = args.length > 0 ? Paths.get(args[0]) : Files.createTempDirectory("biblored-journal");
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        Files.createDirectories(directory);
+
+        LibraryNetwork network = new LibraryNetwork(0, new HeapDAOFactory());
+        populate(network);
+        PrintStream console = System.out;
+        // Library and User report every borrow on the console
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()) {
+            @Override
+            public void println(String line) {
+            }
+        });
+        try {
+            console.printf("Log in %s%n", directory);
+            console.printf("%-34s | %-12s | %-10s | %-10s | %-10s%n", "Run", "Ops/s", "Batches", "Entries",
+                    "Coalesced");
+            Result perOperation = run(network, directory, 1, Math.max(1, operations / 40), 1, 0, true);
+            console.printf(Locale.US, "%-34s | %s%n", "fsync per operation, 1 thread", perOperation);
+            Result group = run(network, directory, threads, operations, 256, 2, true);
+            console.printf(Locale.US, "%-34s | %s%n", "group commit, " + threads + " waiting threads", group);
+            Result behind = run(network, directory, threads, operations, 4096, 10, false);
+            console.printf(Locale.US, "%-34s | %s%n", "write-behind, " + threads + " threads", behind);
+            console.printf(Locale.US, "Gain over fsync per operation: group commit %.1fx, write-behind %.1fx%n",
+                    group.opsPerSecond / perOperation.opsPerSecond, behind.opsPerSecond / perOperation.opsPerSecond);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void populate(LibraryNetwork network) {
+        for (int id = 1; id <= LIBRARIES; id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (int id = 1; id <= MATERIALS; id++) {
+            Material material = new Material();
+            material.setId(id);
+            material.setName("Title " + id);
+            material.setLibraryId(id % LIBRARIES + 1);
+            material.setStatus(Status.AVAILABLE);
+            network.addBook(material);
+        }
+        for (int id = 1; id <= USERS; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setEmail("user" + id + "@biblored.org");
+            network.addUser(user);
+        }
+    }
+
+    private static Result run(LibraryNetwork network, Path directory, int threads, int operations, int maxBatch,
+                              long maxDelayMillis, boolean waitEach) throws Exception {
+        Path log = directory.resolve("run-" + System.nanoTime() + ".journal");
+        WriteBehindJournal journal = WriteBehindJournal.open(network, log, maxBatch, maxDelayMillis);
+        Thread[] workers = new Thread[threads];
+        int share = operations / threads;
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < share; i++) {
+                    User user = network.getUser(random.nextInt(USERS) + 1);
+                    if (user.getBorrowedMaterial() == null) {
+                        network.borrowMaterial(user, new MaterialRef(MaterialType.BOOK, random.nextInt(MATERIALS) + 1));
+                    } else {
+                        network.returnMaterial(user);
+                    }
+                    if (waitEach) {
+                        try {
+                            journal.durable().get();
+                        } catch (InterruptedException | ExecutionException e) {
+                            failure[0] = e;
+                            return;
+                        }
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        journal.durable().get();
+        long elapsed = System.nanoTime() - start;
+        journal.close();
+        if (failure[0] != null) {
+            throw new IOException(failure[0]);
+        }
+        Result result = new Result((double) share * threads / (elapsed / 1e9), journal.getBatches(),
+                journal.getEntriesWritten(), journal.getCoalesced());
+        Files.delete(log);
+        return result;
+    }
+
+    /**
+     * Throughput and counters of one run
+     */
+    private static final class Result {
+        private final double opsPerSecond;
+        private final long batches;
+        private final long entries;
+        private final long coalesced;
+
+        private Result(double opsPerSecond, long batches, long entries, long coalesced) {
+            this.opsPerSecond = opsPerSecond;
+            this.batches = batches;
+            this.entries = entries;
+            this.coalesced = coalesced;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-12.0f | %-10d | %-10d | %-10d", opsPerSecond, batches, entries,
+                    coalesced);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package biblored.controller.benchmark;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.DAO.HeapDAOFactory;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures the throughput of a borrow, return and lookup mix from 1 to 64 threads, once
+ * with the locks of LibraryNetwork (optimistic lookups, borrows that only lock their records)
+ * and once with every operation serialized on the network, like the workload driver did
+ * before. Half of the operations are lookups of a material, its library and a user, a
+ * quarter borrows and a quarter returns, on uniformly chosen records.
+ * Usage: java biblored.controller.benchmark.LockBenchmark [materials] [users] [operations]
+ */
+public class LockBenchmark {
+
+    private static final int LIBRARIES = 20;
+    private static final int MAX_THREADS = 64;
+    private static final MaterialType[] TYPES = MaterialType.values();
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional materials (default 200000), users (default 100000) and
+     *             operations per run (default 2000000)
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int materials = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int operations = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+
+        LibraryNetwork network = new LibraryNetwork(0, new HeapDAOFactory());
+        populate(network, materials / TYPES.length, users);
+        PrintStream console = System.out;
+        // Library and User report every borrow on the console, a PrintStream would also serialize the threads
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()) {
+            @Override
+            public void println(String line) {
+            }
+        });
+        console.printf(Locale.US, "%d materials, %d users, %d operations per run, %d processors%n", materials, users,
+                operations, Runtime.getRuntime().availableProcessors());
+        console.printf("%-8s | %-16s | %-16s | %-8s%n", "Threads", "Striped (ops/s)", "Global (ops/s)", "Ratio");
+        try {
+            // Warm up both paths
+            run(network, 4, operations / 4, materials / TYPES.length, users, false);
+            run(network, 4, operations / 4, materials / TYPES.length, users, true);
+            for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+                double striped = run(network, threads, operations, materials / TYPES.length, users, false);
+                double global = run(network, threads, operations, materials / TYPES.length, users, true);
+                console.printf(Locale.US, "%-8d | %-16.0f | %-16.0f | %-8.2f%n", threads, striped, global,
+                        striped / global);
+            }
+        } finally {
+            System.setOut(console);
+        }
+        System.out.printf("Optimistic reads retried under a read lock: %d%n", network.getLocks().getOptimisticMisses());
+    }
+
+    private static void populate(LibraryNetwork network, int perType, int users) {
+        for (int id = 1; id <= LIBRARIES; id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (MaterialType type : TYPES) {
+            for (int id = 1; id <= perType; id++) {
+                Material material = new Material();
+                material.setId(id);
+                material.setName("Title " + id);
+                material.setLibraryId(id % LIBRARIES + 1);
+                material.setStatus(Status.AVAILABLE);
+                network.getMaterialDAO(type).add(material);
+            }
+        }
+        for (int id = 1; id <= users; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setEmail("user" + id + "@biblored.org");
+            network.addUser(user);
+        }
+    }
+
+    /**
+     * Runs the mix on several threads and returns the operations per second
+     */
+    private static double run(LibraryNetwork network, int threads, int operations, int perType, int users,
+                              boolean global) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        int share = operations / threads;
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < share; i++) {
+                    int kind = random.nextInt(4);
+                    MaterialType type = TYPES[random.nextInt(TYPES.length)];
+                    int materialId = random.nextInt(perType) + 1;
+                    int userId = random.nextInt(users) + 1;
+                    if (global) {
+                        synchronized (network) {
+                            execute(network, kind, type, materialId, userId);
+                        }
+                    } else {
+                        execute(network, kind, type, materialId, userId);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (double) share * threads / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void execute(LibraryNetwork network, int kind, MaterialType type, int materialId, int userId) {
+        User user = network.getUser(userId);
+        if (kind == 0) {
+            network.borrowMaterial(user, new MaterialRef(type, materialId));
+        } else if (kind == 1) {
+            network.returnMaterial(user);
+        } else {
+            Material material = network.getMaterial(type, materialId);
+            network.getResolver().libraryOf(material);
+        }
+    }
+}
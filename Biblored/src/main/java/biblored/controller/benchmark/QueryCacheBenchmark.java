@@ -0,0 +1,105 @@
+package biblored.controller.benchmark;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Runs a Zipf distributed mix of catalog queries against a LibraryNetwork with and
+ * without the query cache, interleaving status changes to exercise invalidation.
+ * Usage: java biblored.controller.benchmark.QueryCacheBenchmark [materials] [queries]
+ */
+public class QueryCacheBenchmark {
+
+    private static final int AUTHORS = 2_000;
+    private static final int DISTINCT_QUERIES = 5_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int STATUS_CHANGE_EVERY = 50;
+    private static final String[] LANGUAGES = {"Spanish", "English", "French", "Portuguese", "German"};
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional number of materials and number of queries
+     */
+    public static void main(String[] args) {
+        int materials = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        System.out.printf("%-10s | %-12s | %-12s | %-12s%n", "Cache", "Queries", "Total (ms)", "Avg (us)");
+        run("off", new LibraryNetwork(0), materials, queries);
+        LibraryNetwork cached = new LibraryNetwork(materials);
+        run("on", cached, materials, queries);
+        System.out.println(cached.getQueryCacheStats());
+    }
+
+    private static void run(String label, LibraryNetwork network, int materials, int queries) {
+        populate(network, materials);
+        Random random = new Random(7);
+        ZipfGenerator zipf = new ZipfGenerator(DISTINCT_QUERIES, ZIPF_EXPONENT, random);
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            checksum += runQuery(network, zipf.next()).size();
+            if (i % STATUS_CHANGE_EVERY == 0) {
+                toggleStatus(network, random.nextInt(materials) + 1);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf(Locale.US, "%-10s | %-12d | %-12.3f | %-12.3f (checksum %d)%n",
+                label, queries, elapsed / 1_000_000.0, elapsed / 1_000.0 / queries, checksum);
+    }
+
+    /**
+     * Maps a query rank to a concrete query, popular ranks are author lookups and text searches
+     */
+    private static List<Material> runQuery(LibraryNetwork network, int rank) {
+        switch (rank % 4) {
+            case 0:
+                return network.findMaterialsByAuthor(MaterialType.BOOK, author(rank % AUTHORS));
+            case 1:
+                return network.searchMaterials(MaterialType.BOOK, "title " + (rank % 997));
+            case 2:
+                return network.findMaterialsByLanguage(MaterialType.BOOK, LANGUAGES[rank % LANGUAGES.length]);
+            default:
+                return network.findMaterialsByStatus(MaterialType.BOOK, Status.values()[rank % Status.values().length]);
+        }
+    }
+
+    private static void toggleStatus(LibraryNetwork network, int id) {
+        Material material = network.getBook(id);
+        Material previous = new Material(material);
+        material.setStatus(material.getStatus() == Status.AVAILABLE ? Status.MISSING : Status.AVAILABLE);
+        network.getBookDAO().markUpdated(previous, material);
+    }
+
+    private static void populate(LibraryNetwork network, int materials) {
+        Library library = new Library();
+        library.setId(1);
+        library.setName("Virgilio Barco");
+        network.addLibrary(library);
+
+        Random random = new Random(42);
+        for (int id = 1; id <= materials; id++) {
+            Material material = new Material();
+            material.setId(id);
+            material.setName("Title " + id);
+            material.setAuthor(author(random.nextInt(AUTHORS)));
+            material.setLanguage(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+            material.setLibraryId(library.getId());
+            network.addBook(material);
+        }
+    }
+
+    private static String author(int index) {
+        return "Author " + index;
+    }
+}
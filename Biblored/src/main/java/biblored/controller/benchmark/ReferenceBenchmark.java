@@ -0,0 +1,151 @@
+package biblored.controller.benchmark;
+
+import biblored.model.EntityResolver;
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.DAO.DAOFactory;
+import biblored.model.DAO.HeapDAOFactory;
+import biblored.model.DAO.MappedDAOFactory;
+import biblored.model.backup.NetworkExporter;
+import biblored.model.backup.NetworkRestorer;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Measures a network whose materials, users and libraries refer to each other by id: the
+ * retained heap with half of the users holding a loan, the time to take a snapshot and
+ * serialize it (NetworkExporter) and to restore it, and the time to resolve the library of
+ * random materials with and without the per thread resolution cache.
+ * Usage: java -Xmx3g biblored.controller.benchmark.ReferenceBenchmark [heap|mapped] [materials per type] [users]
+ */
+public class ReferenceBenchmark {
+
+    private static final int LIBRARIES = 20;
+    private static final int RUNS = 5;
+    private static final int RESOLUTIONS = 2_000_000;
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional backend (default heap), materials of each type (default 200000)
+     *             and users (default 500000)
+     * @throws IOException if the backup cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        String backend = args.length > 0 ? args[0] : "heap";
+        int materials = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int users = args.length > 2 ? Integer.parseInt(args[2]) : 500_000;
+
+        Path directory = Files.createTempDirectory("biblored-references");
+        DAOFactory factory = backend.equals("mapped") ? new MappedDAOFactory(directory.resolve("data"))
+                : new HeapDAOFactory();
+        long baseline = usedHeap();
+        LibraryNetwork network = new LibraryNetwork(0, factory);
+        int loans = populate(network, materials, users);
+        long heap = usedHeap() - baseline;
+        System.out.printf(Locale.US, "%s backend: %d materials, %d users, %d loans, heap %.1f MB%n", backend,
+                materials * MaterialType.values().length, users, loans, heap / (1024.0 * 1024.0));
+
+        long export = Long.MAX_VALUE;
+        long restore = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            new NetworkExporter(network, 1).export(directory.resolve("backup"));
+            export = Math.min(export, System.nanoTime() - start);
+            LibraryNetwork target = new LibraryNetwork(0, new HeapDAOFactory());
+            start = System.nanoTime();
+            new NetworkRestorer(target, 1).restore(directory.resolve("backup"));
+            restore = Math.min(restore, System.nanoTime() - start);
+        }
+        System.out.printf(Locale.US, "Snapshot and export: %.1f ms, restore: %.1f ms (best of %d)%n",
+                export / 1_000_000.0, restore / 1_000_000.0, RUNS);
+
+        System.out.printf("%-22s | %-15s%n", "Resolver", "Avg (ns)");
+        resolve("direct", network.getResolver(), materials);
+        resolve("per thread cache", network.getResolver().cached(4096), materials);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static int populate(LibraryNetwork network, int materials, int users) {
+        // Library and User report every borrow on the console
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        for (int id = 1; id <= LIBRARIES; id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (MaterialType type : MaterialType.values()) {
+            for (int id = 1; id <= materials; id++) {
+                Material material = new Material();
+                material.setId(id);
+                material.setName("Title " + id);
+                material.setAuthor("Author " + id % 5_000);
+                material.setLanguage("Spanish");
+                material.setLibraryId(id % LIBRARIES + 1);
+                network.getMaterialDAO(type).add(material);
+            }
+        }
+        for (int id = 1; id <= users; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setName("Patron " + id);
+            user.setEmail("patron" + id + "@biblored.gov.co");
+            user.setPhone(Phone.of("57", "601", String.valueOf(10_000_000 + id)));
+            network.addUser(user);
+        }
+        Random random = new Random(7);
+        MaterialType[] types = MaterialType.values();
+        int loans = 0;
+        for (int id = 1; id <= users; id += 2) {
+            MaterialRef ref = new MaterialRef(types[random.nextInt(types.length)], random.nextInt(materials) + 1);
+            if (network.borrowMaterial(network.getUser(id), ref)) {
+                loans++;
+            }
+        }
+        System.setOut(console);
+        return loans;
+    }
+
+    private static void resolve(String label, EntityResolver resolver, int materials) {
+        // A few hot materials, like the loans shown on the desks of a library
+        Random random = new Random(11);
+        MaterialRef[] refs = new MaterialRef[1_024];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = new MaterialRef(MaterialType.BOOK, random.nextInt(materials) + 1);
+        }
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < RESOLUTIONS; i++) {
+            Material material = resolver.material(refs[random.nextInt(refs.length)]);
+            checksum += resolver.libraryOf(material).getId();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf(Locale.US, "%-22s | %-15.1f (checksum %d)%n", label, (double) elapsed / RESOLUTIONS, checksum);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,124 @@
+package biblored.controller.benchmark;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.DAO.DAOFactory;
+import biblored.model.DAO.HeapDAOFactory;
+import biblored.model.DAO.MappedDAOFactory;
+import biblored.model.analytics.ReportDimension;
+import biblored.model.analytics.ReportEngine;
+import biblored.model.generic.Material;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Runs the monthly report set over a large catalog with the ReportEngine, from 1 to N worker
+ * threads, and once as a plain loop over readAll like the Controller would, to show the
+ * scaling. The reports group by library and registration month, by language, by status
+ * and by material type, plus the top 10 library and language pairs.
+ * Usage: java -Xmx3g biblored.controller.benchmark.ReportBenchmark [heap|mapped] [materials] [max threads]
+ */
+public class ReportBenchmark {
+
+    private static final int LIBRARIES = 20;
+    private static final int RUNS = 3;
+    private static final String[] LANGUAGES = {"Spanish", "English", "French", "Portuguese", "German"};
+    private static final LocalDate FIRST_REGISTRATION = LocalDate.of(2015, 1, 1);
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional backend (default mapped), total materials (default 10000000)
+     *             and the largest number of threads (default the available processors)
+     * @throws IOException if the mapped files cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        String backend = args.length > 0 ? args[0] : "mapped";
+        int materials = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Path directory = Files.createTempDirectory("biblored-reports");
+        DAOFactory factory = backend.equals("mapped") ? new MappedDAOFactory(directory) : new HeapDAOFactory();
+        LibraryNetwork network = new LibraryNetwork(0, factory);
+        long start = System.nanoTime();
+        populate(network, materials);
+        System.out.printf(Locale.US, "%s backend: %d materials loaded in %.1f s, %d processors%n", backend,
+                materials, (System.nanoTime() - start) / 1e9, Runtime.getRuntime().availableProcessors());
+
+        System.out.printf("%-10s | %-18s | %-10s%n", "Threads", "Report set (ms)", "Speedup");
+        double single = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ReportEngine engine = new ReportEngine(network, threads);
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long begin = System.nanoTime();
+                runReports(engine);
+                best = Math.min(best, System.nanoTime() - begin);
+            }
+            engine.shutdown();
+            double millis = best / 1_000_000.0;
+            if (threads == 1) {
+                single = millis;
+            }
+            System.out.printf(Locale.US, "%-10d | %-18.1f | %-10.2f%n", threads, millis, single / millis);
+        }
+
+        long begin = System.nanoTime();
+        long groups = loopReport(network);
+        System.out.printf(Locale.US, "readAll loop, library and month only: %.1f ms (%d groups)%n",
+                (System.nanoTime() - begin) / 1_000_000.0, groups);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static void populate(LibraryNetwork network, int materials) {
+        Random random = new Random(3);
+        MaterialType[] types = MaterialType.values();
+        int perType = materials / types.length;
+        for (MaterialType type : types) {
+            for (int id = 1; id <= perType; id++) {
+                Material material = new Material();
+                material.setId(id);
+                material.setName("Title " + id);
+                material.setAuthor("Author " + id % 5_000);
+                material.setLanguage(LANGUAGES[Math.min(random.nextInt(8), LANGUAGES.length - 1)]);
+                material.setLibraryId(random.nextInt(LIBRARIES) + 1);
+                material.setStatus(random.nextInt(10) == 0 ? Status.RESERVED : Status.AVAILABLE);
+                material.setDateRegistered(FIRST_REGISTRATION.plusDays(random.nextInt(3_650)));
+                network.getMaterialDAO(type).add(material);
+            }
+        }
+    }
+
+    private static void runReports(ReportEngine engine) {
+        engine.groupBy(null, ReportDimension.LIBRARY, ReportDimension.REGISTRATION_MONTH);
+        engine.groupBy(null, ReportDimension.LANGUAGE);
+        engine.groupBy(null, ReportDimension.STATUS);
+        engine.groupBy(null, ReportDimension.MATERIAL_TYPE);
+        engine.topN(10, material -> material.getStatus() == Status.AVAILABLE, ReportDimension.LIBRARY,
+                ReportDimension.LANGUAGE);
+    }
+
+    private static long loopReport(LibraryNetwork network) {
+        HashMap<String, Integer> counts = new HashMap<>();
+        for (MaterialType type : MaterialType.values()) {
+            for (Material material : network.getMaterialDAO(type).readAll()) {
+                String key = material.getLibraryId() + " " + YearMonth.from(material.getDateRegistered());
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+        return counts.size();
+    }
+}
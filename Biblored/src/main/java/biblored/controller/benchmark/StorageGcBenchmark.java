@@ -0,0 +1,138 @@
+package biblored.controller.benchmark;
+
+import biblored.model.DAO.InterfaceDAO;
+import biblored.model.DAO.MappedMaterialDAO;
+import biblored.model.DAO.MaterialDAO;
+import biblored.model.Status;
+import biblored.model.generic.Material;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Compares the garbage collector cost of the heap and memory-mapped material DAOs as the
+ * catalog grows. For every size it loads the catalog, measures the heap in use and the
+ * duration of a full collection, then serves random reads and status changes while
+ * counting the collections and their time. The mapped DAO should stay flat with size.
+ * Usage: java biblored.controller.benchmark.StorageGcBenchmark [heap|mapped] [size...]
+ */
+public class StorageGcBenchmark {
+
+    private static final int[] DEFAULT_SIZES = {1_000_000, 5_000_000, 20_000_000};
+    private static final int OPERATIONS = 2_000_000;
+    private static final LocalDate REGISTERED = LocalDate.of(2024, 1, 1);
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional backend (heap or mapped, default mapped) and record counts
+     * @throws IOException if the mapped files cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        String backend = args.length > 0 ? args[0] : "mapped";
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                sizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.println("Backend: " + backend);
+        System.out.printf("%-12s | %-14s | %-14s | %-10s | %-14s | %-14s%n",
+                "Records", "Heap used (MB)", "Full GC (ms)", "GCs", "GC time (ms)", "Ops time (ms)");
+        for (int size : sizes) {
+            runOnce(backend, size);
+        }
+    }
+
+    /**
+     * Loads a catalog of the given size and measures the collector while it is used
+     *
+     * @param backend heap or mapped
+     * @param size the number of materials
+     * @throws IOException if the mapped files cannot be created
+     */
+    private static void runOnce(String backend, int size) throws IOException {
+        Path directory = null;
+        InterfaceDAO<Material> dao;
+        if (backend.equals("mapped")) {
+            directory = Files.createTempDirectory("biblored-gc");
+            dao = new MappedMaterialDAO(directory, "materials");
+        } else {
+            dao = new MaterialDAO();
+        }
+
+        for (int id = 1; id <= size; id++) {
+            Material material = new Material();
+            material.setId(id);
+            material.setName("Title " + id);
+            material.setAuthor("Author " + id % 50_000);
+            material.setLanguage("Spanish");
+            material.setDateRegistered(REGISTERED);
+            material.setLibraryId(1);
+            dao.add(material);
+        }
+
+        long fullStart = System.nanoTime();
+        System.gc();
+        long fullGc = System.nanoTime() - fullStart;
+        long heapUsed = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+
+        // Random reads with a status change on one read out of ten
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        Random random = new Random(42);
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            Material material = dao.read(random.nextInt(size) + 1);
+            checksum += material.getName().length();
+            if (i % 10 == 0) {
+                Material previous = new Material(material);
+                material.setStatus(material.getStatus() == Status.AVAILABLE ? Status.RESERVED : Status.AVAILABLE);
+                dao.markUpdated(previous, material);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long gcs = gcCount() - gcCountBefore;
+        long gcMillis = gcTime() - gcTimeBefore;
+
+        System.out.printf(Locale.US, "%-12d | %-14.1f | %-14.1f | %-10d | %-14d | %-14.1f%n",
+                size, heapUsed / (1024.0 * 1024.0), fullGc / 1_000_000.0, gcs, gcMillis, elapsed / 1_000_000.0);
+        if (checksum == 0) {
+            System.out.println("Unexpected empty names");
+        }
+
+        if (dao instanceof MappedMaterialDAO) {
+            ((MappedMaterialDAO) dao).close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+}
@@ -0,0 +1,101 @@
+package biblored.controller.benchmark;
+
+import biblored.model.DAO.UserDAO;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares user lookups by email, phone and name prefix through the UserDAO indexes
+ * against a linear scan over readAll.
+ * Usage: java -Xmx8g biblored.controller.benchmark.UserIndexBenchmark [users] [lookups]
+ */
+public class UserIndexBenchmark {
+
+    private static final int SCAN_LOOKUPS = 20;
+    private static final String[] FIRST_NAMES = {"Ana", "Andres", "Camila", "Carlos", "Daniela", "David",
+            "Juan", "Laura", "Maria", "Santiago", "Sofia", "Valentina"};
+
+    /**
+     * Main method to run the benchmark
+     *
+     * @param args optional number of users (5000000 for the full run) and number of lookups
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        UserDAO dao = new UserDAO();
+        long start = System.nanoTime();
+        for (int id = 1; id <= size; id++) {
+            dao.add(createUser(id));
+        }
+        System.out.printf(Locale.US, "Loaded %d users in %.1f ms%n", size, (System.nanoTime() - start) / 1_000_000.0);
+
+        Random random = new Random(42);
+        int[] ids = new int[lookups];
+        for (int i = 0; i < lookups; i++) {
+            ids[i] = random.nextInt(size) + 1;
+        }
+
+        System.out.printf("%-20s | %-10s | %-15s%n", "Lookup", "Count", "Avg (ns)");
+
+        long found = 0;
+        start = System.nanoTime();
+        for (int id : ids) {
+            found += dao.findByEmail(" USER" + id + "@Biblored.gov.co ") != null ? 1 : 0;
+        }
+        report("email index", lookups, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int id : ids) {
+            found += dao.findByPhone("+57 (601) " + phoneNumber(id)) != null ? 1 : 0;
+        }
+        report("phone index", lookups, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            found += dao.findByNamePrefix(FIRST_NAMES[i % FIRST_NAMES.length] + " " + (ids[i] % 1000), 10).size();
+        }
+        report("name prefix index", lookups, System.nanoTime() - start);
+
+        // The scan is so slow that only a few lookups are timed
+        List<User> all = dao.readAll();
+        start = System.nanoTime();
+        for (int i = 0; i < SCAN_LOOKUPS; i++) {
+            found += scanByEmail(all, "user" + ids[i] + "@biblored.gov.co") != null ? 1 : 0;
+        }
+        report("email linear scan", SCAN_LOOKUPS, System.nanoTime() - start);
+
+        System.out.println("Matches: " + found);
+    }
+
+    private static User createUser(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName(FIRST_NAMES[id % FIRST_NAMES.length] + " " + id);
+        user.setEmail("user" + id + "@biblored.gov.co");
+        user.setPhone(Phone.of("57", "601", phoneNumber(id)));
+        return user;
+    }
+
+    private static String phoneNumber(int id) {
+        return String.format("%08d", id);
+    }
+
+    private static User scanByEmail(List<User> users, String email) {
+        for (User user : users) {
+            if (user.getEmail().equalsIgnoreCase(email)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private static void report(String label, int count, long elapsedNs) {
+        System.out.printf(Locale.US, "%-20s | %-10d | %-15.1f%n", label, count, (double) elapsedNs / count);
+    }
+}
@@ -0,0 +1,47 @@
+package biblored.controller.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks between 0 and n - 1 following a Zipf distribution,
+ * rank 0 being the most popular. Deterministic for a given Random.
+ */
+public class ZipfGenerator {
+    private final double[] cumulative;
+    private final Random random;
+
+    /**
+     * Constructor for ZipfGenerator
+     *
+     * @param n the number of ranks
+     * @param exponent the skew, 1.0 is the classic Zipf law
+     * @param random the source of randomness
+     */
+    public ZipfGenerator(int n, double exponent, Random random) {
+        this.cumulative = new double[n];
+        this.random = random;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * Draws the next rank
+     * Complexity: O(log n)
+     *
+     * @return a rank between 0 and n - 1
+     */
+    public int next() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,287 @@
+package biblored.controller.workload;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a trace against a LibraryNetwork with several worker threads at a target rate.
+ * Operations are split between the workers by user id, so the operations of one patron keep
+ * their order. The trace timestamps are scaled so the mean rate equals the target rate while
+ * keeping the bursts, and latency is measured from the scheduled start of every operation,
+ * so a stalled system is not hidden by the driver waiting for it.
+ * Usage: java biblored.controller.workload.ReplayDriver [file] [threads] [opsPerSecond]
+ */
+public class ReplayDriver {
+    private static final TraceOperation.Type[] TYPES = TraceOperation.Type.values();
+
+    private final LibraryNetwork network;
+    private final int threads;
+    private final double targetRate;
+
+    /**
+     * Constructor for ReplayDriver
+     *
+     * @param network the network to drive, already populated
+     * @param threads the number of worker threads
+     * @param targetRate the mean number of operations per second
+     */
+    public ReplayDriver(LibraryNetwork network, int threads, double targetRate) {
+        this.network = network;
+        this.threads = threads;
+        this.targetRate = targetRate;
+    }
+
+    /**
+     * Replays the operations and waits for every worker to finish
+     *
+     * @param operations the operations in trace order
+     * @return the measured throughput, latencies and error counts
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public Report replay(List<TraceOperation> operations) throws InterruptedException {
+        List<List<TraceOperation>> partitions = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (TraceOperation operation : operations) {
+            partitions.get(Math.floorMod(operation.getUserId(), threads)).add(operation);
+        }
+
+        long traceMicros = operations.isEmpty() ? 1 : Math.max(1, operations.get(operations.size() - 1).getTimeMicros());
+        double wallMicros = operations.size() / targetRate * 1_000_000.0;
+        double nanosPerTraceMicro = wallMicros / traceMicros * 1_000.0;
+
+        Worker[] workers = new Worker[threads];
+        PrintStream stdout = System.out;
+        // Library and User report every borrow on the console, keep that out of the measurement
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime() + 10_000_000L;
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Worker(partitions.get(i), start, nanosPerTraceMicro);
+                workers[i].start();
+            }
+            for (Worker worker : workers) {
+                worker.join();
+            }
+        } finally {
+            System.setOut(stdout);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Report(workers, operations.size(), elapsed);
+    }
+
+    /**
+     * Runs one operation against the network
+     *
+     * @param operation the operation
+     * @return true if the network accepted it
+     */
+    private boolean execute(TraceOperation operation) {
+        // LibraryNetwork locks what each call touches, so the workers run in parallel
+        switch (operation.getType()) {
+            case REGISTER_USER:
+                return network.addUser(WorkloadGenerator.createUser(operation.getUserId()));
+            case LOOKUP_USER:
+                return network.findUserByEmail(WorkloadGenerator.emailOf(operation.getUserId())) != null;
+            case SEARCH_TEXT:
+                network.searchMaterials(operation.getMaterialType(), operation.searchText());
+                return true;
+            case FIND_BY_AUTHOR:
+                network.findMaterialsByAuthor(operation.getMaterialType(), operation.authorText());
+                return true;
+            case BORROW: {
+                User user = network.getUser(operation.getUserId());
+                MaterialRef material = new MaterialRef(operation.getMaterialType(), operation.getMaterialId());
+                return user != null && network.borrowMaterial(user, material);
+            }
+            case RETURN: {
+                User user = network.getUser(operation.getUserId());
+                return user != null && network.returnMaterial(user);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation.getType());
+        }
+    }
+
+    /**
+     * Thread that replays one partition and records the latency of every operation
+     */
+    private class Worker extends Thread {
+        private final List<TraceOperation> operations;
+        private final long start;
+        private final double nanosPerTraceMicro;
+        private final long[] latencies;
+        private final byte[] types;
+        private final int[] failures;
+        private final int[] errors;
+
+        private Worker(List<TraceOperation> operations, long start, double nanosPerTraceMicro) {
+            this.operations = operations;
+            this.start = start;
+            this.nanosPerTraceMicro = nanosPerTraceMicro;
+            this.latencies = new long[operations.size()];
+            this.types = new byte[operations.size()];
+            this.failures = new int[TYPES.length];
+            this.errors = new int[TYPES.length];
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < operations.size(); i++) {
+                TraceOperation operation = operations.get(i);
+                long scheduled = start + (long) (operation.getTimeMicros() * nanosPerTraceMicro);
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int type = operation.getType().ordinal();
+                try {
+                    if (!execute(operation)) {
+                        failures[type]++;
+                    }
+                } catch (RuntimeException e) {
+                    errors[type]++;
+                }
+                latencies[i] = System.nanoTime() - scheduled;
+                types[i] = (byte) type;
+            }
+        }
+    }
+
+    /**
+     * Results of a replay
+     */
+    public static class Report {
+        private final int operations;
+        private final long elapsedNanos;
+        private final long[][] latenciesByType;
+        private final long[] allLatencies;
+        private final int[] failures;
+        private final int[] errors;
+
+        private Report(Worker[] workers, int operations, long elapsedNanos) {
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+            this.failures = new int[TYPES.length];
+            this.errors = new int[TYPES.length];
+            int[] counts = new int[TYPES.length];
+            for (Worker worker : workers) {
+                for (byte type : worker.types) {
+                    counts[type]++;
+                }
+                for (int t = 0; t < TYPES.length; t++) {
+                    failures[t] += worker.failures[t];
+                    errors[t] += worker.errors[t];
+                }
+            }
+            this.latenciesByType = new long[TYPES.length][];
+            for (int t = 0; t < TYPES.length; t++) {
+                latenciesByType[t] = new long[counts[t]];
+            }
+            this.allLatencies = new long[operations];
+            int[] filled = new int[TYPES.length];
+            int all = 0;
+            for (Worker worker : workers) {
+                for (int i = 0; i < worker.latencies.length; i++) {
+                    int type = worker.types[i];
+                    latenciesByType[type][filled[type]++] = worker.latencies[i];
+                    allLatencies[all++] = worker.latencies[i];
+                }
+            }
+            for (long[] latencies : latenciesByType) {
+                Arrays.sort(latencies);
+            }
+            Arrays.sort(allLatencies);
+        }
+
+        /**
+         * Gets the achieved throughput
+         *
+         * @return operations per second
+         */
+        public double getThroughput() {
+            return operations / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        /**
+         * Gets a latency percentile over every operation
+         *
+         * @param percentile the percentile between 0 and 100
+         * @return the latency in nanoseconds
+         */
+        public long getPercentile(double percentile) {
+            return percentile(allLatencies, percentile);
+        }
+
+        public int getTotalFailures() {
+            return Arrays.stream(failures).sum();
+        }
+
+        public int getTotalErrors() {
+            return Arrays.stream(errors).sum();
+        }
+
+        /**
+         * Prints the report to the console
+         */
+        public void print() {
+            System.out.printf(Locale.US, "Operations: %d, elapsed: %.3f s, throughput: %.1f ops/s%n",
+                    operations, elapsedNanos / 1_000_000_000.0, getThroughput());
+            System.out.printf("%-15s | %-9s | %-9s | %-7s | %-10s | %-10s | %-10s | %-10s | %-10s%n",
+                    "Operation", "Count", "Failures", "Errors", "p50 (us)", "p90 (us)", "p99 (us)", "p99.9 (us)", "max (us)");
+            for (int t = 0; t < TYPES.length; t++) {
+                printLine(TYPES[t].name(), latenciesByType[t], failures[t], errors[t]);
+            }
+            printLine("ALL", allLatencies, getTotalFailures(), getTotalErrors());
+        }
+
+        private static void printLine(String label, long[] latencies, int failures, int errors) {
+            System.out.printf(Locale.US, "%-15s | %-9d | %-9d | %-7d | %-10.1f | %-10.1f | %-10.1f | %-10.1f | %-10.1f%n",
+                    label, latencies.length, failures, errors,
+                    percentile(latencies, 50) / 1_000.0, percentile(latencies, 90) / 1_000.0,
+                    percentile(latencies, 99) / 1_000.0, percentile(latencies, 99.9) / 1_000.0,
+                    percentile(latencies, 100) / 1_000.0);
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    /**
+     * Main method to replay a trace
+     *
+     * @param args optional trace file, number of threads and target operations per second
+     * @throws IOException if the trace cannot be read
+     * @throws InterruptedException if the replay is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String path = args.length > 0 ? args[0] : "biblored_trace.bin";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        double rate = args.length > 2 ? Double.parseDouble(args[2]) : 5_000;
+
+        TraceFile trace = TraceFile.read(path);
+        LibraryNetwork network = new LibraryNetwork();
+        WorkloadGenerator.populate(network, trace.getHeader());
+
+        System.out.println("Replaying " + trace.getOperations().size() + " operations with " + threads
+                + " threads at " + rate + " ops/s (seed " + trace.getHeader().getSeed() + ")");
+        Report report = new ReplayDriver(network, threads, rate).replay(trace.getOperations());
+        report.print();
+    }
+}
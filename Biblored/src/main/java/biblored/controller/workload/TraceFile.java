@@ -0,0 +1,204 @@
+package biblored.controller.workload;
+
+import biblored.model.MaterialType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary trace format.
+ * The file starts with a header describing the initial catalog, followed by one record per
+ * operation: a byte with the operation and material type, then the time delta, user id,
+ * material id and argument as variable length integers. A 0xFF byte ends the trace.
+ */
+public class TraceFile {
+    private static final int MAGIC = 0x42424C54;
+    private static final int VERSION = 1;
+    private static final int END_MARKER = 0xFF;
+
+    private final Header header;
+    private final List<TraceOperation> operations;
+
+    private TraceFile(Header header, List<TraceOperation> operations) {
+        this.header = header;
+        this.operations = operations;
+    }
+
+    public Header getHeader() {
+        return header;
+    }
+
+    public List<TraceOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Opens a writer for a new trace file
+     *
+     * @param path the file to create
+     * @param header the description of the initial catalog
+     * @return the writer, it must be closed to end the trace
+     * @throws IOException if the file cannot be written
+     */
+    public static Writer create(String path, Header header) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(header.seed);
+        out.writeInt(header.libraries);
+        out.writeInt(header.materials);
+        out.writeInt(header.initialUsers);
+        out.writeInt(header.authors);
+        return new Writer(out);
+    }
+
+    /**
+     * Reads a whole trace file
+     *
+     * @param path the file to read
+     * @return the header and the operations in trace order
+     * @throws IOException if the file cannot be read or is not a trace
+     */
+    public static TraceFile read(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a Biblored trace file: " + path);
+            }
+            Header header = new Header(in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            List<TraceOperation> operations = new ArrayList<>();
+            TraceOperation.Type[] types = TraceOperation.Type.values();
+            MaterialType[] materialTypes = MaterialType.values();
+            long time = 0;
+            int tag;
+            while ((tag = in.readUnsignedByte()) != END_MARKER) {
+                time += readVarLong(in);
+                int userId = (int) readVarLong(in);
+                int materialId = (int) readVarLong(in);
+                int argument = (int) readVarLong(in);
+                operations.add(new TraceOperation(types[tag & 0x0F], time, userId, materialTypes[tag >>> 4],
+                        materialId, argument));
+            }
+            return new TraceFile(header, operations);
+        }
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Description of the catalog loaded before the operations are replayed
+     */
+    public static class Header {
+        private final long seed;
+        private final int libraries;
+        private final int materials;
+        private final int initialUsers;
+        private final int authors;
+
+        /**
+         * Constructor for Header
+         *
+         * @param seed the seed the trace was generated with
+         * @param libraries the number of libraries
+         * @param materials the number of materials of each generated type (books and films)
+         * @param initialUsers the number of users registered before the trace starts
+         * @param authors the number of distinct authors
+         */
+        public Header(long seed, int libraries, int materials, int initialUsers, int authors) {
+            this.seed = seed;
+            this.libraries = libraries;
+            this.materials = materials;
+            this.initialUsers = initialUsers;
+            this.authors = authors;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getLibraries() {
+            return libraries;
+        }
+
+        public int getMaterials() {
+            return materials;
+        }
+
+        public int getInitialUsers() {
+            return initialUsers;
+        }
+
+        public int getAuthors() {
+            return authors;
+        }
+    }
+
+    /**
+     * Appends operations to a trace file, times must not decrease
+     */
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long lastTime;
+        private int count;
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+            this.lastTime = 0;
+            this.count = 0;
+        }
+
+        /**
+         * Appends an operation
+         *
+         * @param operation the operation
+         * @throws IOException if the file cannot be written
+         */
+        public void write(TraceOperation operation) throws IOException {
+            if (operation.getTimeMicros() < lastTime) {
+                throw new IllegalArgumentException("Operations must be written in time order");
+            }
+            out.writeByte(operation.getType().ordinal() | (operation.getMaterialType().ordinal() << 4));
+            writeVarLong(operation.getTimeMicros() - lastTime);
+            writeVarLong(operation.getUserId());
+            writeVarLong(operation.getMaterialId());
+            writeVarLong(operation.getArgument());
+            lastTime = operation.getTimeMicros();
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(END_MARKER);
+            out.close();
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package biblored.controller.workload;
+
+import biblored.model.MaterialType;
+
+/**
+ * One operation of a workload trace. Strings such as search texts are not stored,
+ * they are derived from the integer argument so traces stay compact.
+ */
+public class TraceOperation {
+
+    /**
+     * Operations a trace can contain, each one maps to a LibraryNetwork call
+     */
+    public enum Type {
+        REGISTER_USER, LOOKUP_USER, SEARCH_TEXT, FIND_BY_AUTHOR, BORROW, RETURN
+    }
+
+    private final Type type;
+    private final long timeMicros;
+    private final int userId;
+    private final MaterialType materialType;
+    private final int materialId;
+    private final int argument;
+
+    /**
+     * Constructor for TraceOperation
+     *
+     * @param type the operation
+     * @param timeMicros the scheduled time in microseconds since the start of the trace
+     * @param userId the user performing the operation
+     * @param materialType the material type involved, ignored by user operations
+     * @param materialId the material involved, 0 if none
+     * @param argument the query rank for searches, 0 otherwise
+     */
+    public TraceOperation(Type type, long timeMicros, int userId, MaterialType materialType, int materialId, int argument) {
+        this.type = type;
+        this.timeMicros = timeMicros;
+        this.userId = userId;
+        this.materialType = materialType;
+        this.materialId = materialId;
+        this.argument = argument;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTimeMicros() {
+        return timeMicros;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public MaterialType getMaterialType() {
+        return materialType;
+    }
+
+    public int getMaterialId() {
+        return materialId;
+    }
+
+    public int getArgument() {
+        return argument;
+    }
+
+    /**
+     * Gets the text searched by a SEARCH_TEXT operation
+     *
+     * @return the search text
+     */
+    public String searchText() {
+        return WorkloadGenerator.titleOf(argument);
+    }
+
+    /**
+     * Gets the author searched by a FIND_BY_AUTHOR operation
+     *
+     * @return the author name
+     */
+    public String authorText() {
+        return WorkloadGenerator.authorOf(argument);
+    }
+
+    @Override
+    public String toString() {
+        return type + "@" + timeMicros + "us{user=" + userId + ", material=" + materialType + "#" + materialId
+                + ", arg=" + argument + '}';
+    }
+}
@@ -0,0 +1,228 @@
+package biblored.controller.workload;
+
+import biblored.controller.benchmark.ZipfGenerator;
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates synthetic traces of patrons registering, looking up accounts, searching,
+ * borrowing and returning. Materials and search texts follow a Zipf popularity, and the
+ * arrival rate follows the opening hours of a library with peaks before noon and in the
+ * afternoon. The same seed always produces the same trace.
+ * Usage: java biblored.controller.workload.WorkloadGenerator [file] [operations] [seed]
+ */
+public class WorkloadGenerator {
+    static final MaterialType[] MATERIAL_TYPES = {MaterialType.BOOK, MaterialType.FILM};
+
+    // Relative arrival rate for every opening hour, from 8:00 to 19:00
+    private static final double[] HOURLY_WEIGHTS = {0.4, 0.8, 1.4, 1.6, 1.0, 0.7, 0.9, 1.2, 1.5, 1.3, 0.8, 0.4};
+    private static final long MICROS_PER_HOUR = 3_600_000_000L;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int MAX_TRIES = 5;
+
+    private static final String[] LANGUAGES = {"Spanish", "English", "French", "Portuguese"};
+
+    // Operation mix, must add up to 1
+    private static final double REGISTER_SHARE = 0.03;
+    private static final double LOOKUP_SHARE = 0.12;
+    private static final double SEARCH_SHARE = 0.35;
+    private static final double AUTHOR_SHARE = 0.15;
+    private static final double BORROW_SHARE = 0.20;
+
+    private final TraceFile.Header header;
+    private final double meanRatePerSecond;
+
+    /**
+     * Constructor for WorkloadGenerator
+     *
+     * @param header the initial catalog, its seed drives every random choice
+     * @param meanRatePerSecond the average number of operations per second of trace time
+     */
+    public WorkloadGenerator(TraceFile.Header header, double meanRatePerSecond) {
+        this.header = header;
+        this.meanRatePerSecond = meanRatePerSecond;
+    }
+
+    /**
+     * Writes a trace with the given number of operations
+     *
+     * @param path the trace file to create
+     * @param operations the number of operations
+     * @throws IOException if the file cannot be written
+     */
+    public void generate(String path, int operations) throws IOException {
+        Random random = new Random(header.getSeed());
+        ZipfGenerator materialPopularity = new ZipfGenerator(header.getMaterials(), ZIPF_EXPONENT, random);
+        ZipfGenerator queryPopularity = new ZipfGenerator(header.getMaterials(), ZIPF_EXPONENT, random);
+        ZipfGenerator authorPopularity = new ZipfGenerator(header.getAuthors(), ZIPF_EXPONENT, random);
+
+        // Simulated loan state so borrows and returns are mostly valid
+        int registered = header.getInitialUsers();
+        ArrayList<Integer> holders = new ArrayList<>();
+        ArrayList<Integer> heldMaterials = new ArrayList<>();
+        ArrayList<Integer> heldTypes = new ArrayList<>();
+        boolean[] userHolds = new boolean[header.getInitialUsers() + operations + 1];
+        boolean[][] materialHeld = new boolean[MATERIAL_TYPES.length][header.getMaterials() + 1];
+
+        double maxWeight = 0;
+        double sumWeight = 0;
+        for (double weight : HOURLY_WEIGHTS) {
+            maxWeight = Math.max(maxWeight, weight);
+            sumWeight += weight;
+        }
+        double meanWeight = sumWeight / HOURLY_WEIGHTS.length;
+        double maxRatePerMicro = meanRatePerSecond * maxWeight / meanWeight / 1_000_000.0;
+
+        try (TraceFile.Writer writer = TraceFile.create(path, header)) {
+            double time = 0;
+            while (writer.getCount() < operations) {
+                // Thinning: draw arrivals at the peak rate and keep them with probability rate(t) / peak
+                time += -Math.log(1 - random.nextDouble()) / maxRatePerMicro;
+                int hour = (int) ((long) time / MICROS_PER_HOUR % HOURLY_WEIGHTS.length);
+                if (random.nextDouble() * maxWeight > HOURLY_WEIGHTS[hour]) {
+                    continue;
+                }
+
+                long now = (long) time;
+                int typeIndex = random.nextInt(MATERIAL_TYPES.length);
+                MaterialType materialType = MATERIAL_TYPES[typeIndex];
+                double choice = random.nextDouble();
+                TraceOperation operation;
+
+                if (choice < REGISTER_SHARE) {
+                    registered++;
+                    operation = new TraceOperation(TraceOperation.Type.REGISTER_USER, now, registered, materialType, 0, 0);
+                } else if (choice < REGISTER_SHARE + LOOKUP_SHARE) {
+                    int userId = random.nextInt(registered) + 1;
+                    operation = new TraceOperation(TraceOperation.Type.LOOKUP_USER, now, userId, materialType, 0, 0);
+                } else if (choice < REGISTER_SHARE + LOOKUP_SHARE + SEARCH_SHARE) {
+                    int userId = random.nextInt(registered) + 1;
+                    operation = new TraceOperation(TraceOperation.Type.SEARCH_TEXT, now, userId, materialType, 0,
+                            queryPopularity.next() + 1);
+                } else if (choice < REGISTER_SHARE + LOOKUP_SHARE + SEARCH_SHARE + AUTHOR_SHARE) {
+                    int userId = random.nextInt(registered) + 1;
+                    operation = new TraceOperation(TraceOperation.Type.FIND_BY_AUTHOR, now, userId, materialType, 0,
+                            authorPopularity.next());
+                } else if (choice < REGISTER_SHARE + LOOKUP_SHARE + SEARCH_SHARE + AUTHOR_SHARE + BORROW_SHARE
+                        || holders.isEmpty()) {
+                    int userId = random.nextInt(registered) + 1;
+                    for (int i = 0; i < MAX_TRIES && userHolds[userId]; i++) {
+                        userId = random.nextInt(registered) + 1;
+                    }
+                    int materialId = materialPopularity.next() + 1;
+                    for (int i = 0; i < MAX_TRIES && materialHeld[typeIndex][materialId]; i++) {
+                        materialId = materialPopularity.next() + 1;
+                    }
+                    if (!userHolds[userId] && !materialHeld[typeIndex][materialId]) {
+                        userHolds[userId] = true;
+                        materialHeld[typeIndex][materialId] = true;
+                        holders.add(userId);
+                        heldMaterials.add(materialId);
+                        heldTypes.add(typeIndex);
+                    }
+                    operation = new TraceOperation(TraceOperation.Type.BORROW, now, userId, materialType, materialId, 0);
+                } else {
+                    int index = random.nextInt(holders.size());
+                    int userId = holders.get(index);
+                    int heldType = heldTypes.get(index);
+                    int materialId = heldMaterials.get(index);
+                    removeSwap(holders, index);
+                    removeSwap(heldMaterials, index);
+                    removeSwap(heldTypes, index);
+                    userHolds[userId] = false;
+                    materialHeld[heldType][materialId] = false;
+                    operation = new TraceOperation(TraceOperation.Type.RETURN, now, userId, MATERIAL_TYPES[heldType],
+                            materialId, 0);
+                }
+                writer.write(operation);
+            }
+        }
+    }
+
+    /**
+     * Loads the initial catalog described by a trace header. Deterministic for a given header.
+     *
+     * @param network the network to populate
+     * @param header the trace header
+     */
+    public static void populate(LibraryNetwork network, TraceFile.Header header) {
+        Random random = new Random(header.getSeed());
+        for (int id = 1; id <= header.getLibraries(); id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (MaterialType type : MATERIAL_TYPES) {
+            for (int id = 1; id <= header.getMaterials(); id++) {
+                Material material = new Material();
+                material.setId(id);
+                material.setName(titleOf(id));
+                material.setAuthor(authorOf(random.nextInt(header.getAuthors())));
+                material.setLanguage(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+                material.setLibraryId(id % header.getLibraries() + 1);
+                network.getMaterialDAO(type).add(material);
+            }
+        }
+        for (int id = 1; id <= header.getInitialUsers(); id++) {
+            network.addUser(createUser(id));
+        }
+    }
+
+    /**
+     * Creates the user registered with a given id
+     *
+     * @param id the user id
+     * @return a new user with a unique email and phone
+     */
+    public static User createUser(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Patron " + id);
+        user.setEmail(emailOf(id));
+        user.setPhone(Phone.of("57", "601", String.valueOf(10_000_000 + id)));
+        return user;
+    }
+
+    static String emailOf(int userId) {
+        return "patron" + userId + "@biblored.gov.co";
+    }
+
+    static String titleOf(int rank) {
+        return "Title " + rank;
+    }
+
+    static String authorOf(int rank) {
+        return "Author " + rank;
+    }
+
+    private static void removeSwap(ArrayList<Integer> list, int index) {
+        int last = list.size() - 1;
+        list.set(index, list.get(last));
+        list.remove(last);
+    }
+
+    /**
+     * Main method to generate a trace
+     *
+     * @param args optional file, number of operations and seed
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String path = args.length > 0 ? args[0] : "biblored_trace.bin";
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        TraceFile.Header header = new TraceFile.Header(seed, 20, 20_000, 50_000, 2_000);
+        new WorkloadGenerator(header, 50).generate(path, operations);
+        System.out.println("Trace with " + operations + " operations written to " + path);
+    }
+}
@@ -0,0 +1,57 @@
+package biblored.model.DAO;
+
+import java.util.ArrayList;
+
+/**
+ * Base class for the DAOs that keeps the registered listeners
+ * and notifies them about every mutation.
+ *
+ * @param <T> the type of record stored in the DAO
+ */
+public abstract class AbstractDAO<T> implements InterfaceDAO<T> {
+    private final ArrayList<DAOListener<T>> listeners = new ArrayList<>();
+
+    @Override
+    public void addListener(DAOListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(DAOListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies the listeners about a change made directly on a stored record,
+     * for example a status change while borrowing a material
+     *
+     * @param previous a copy of the record before the change
+     * @param current the stored record after the change
+     */
+    @Override
+    public void markUpdated(T previous, T current) {
+        fireUpdate(previous, current);
+    }
+
+    protected boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    protected void fireAdd(T record) {
+        for (DAOListener<T> listener : listeners) {
+            listener.onAdd(record);
+        }
+    }
+
+    protected void fireUpdate(T previous, T current) {
+        for (DAOListener<T> listener : listeners) {
+            listener.onUpdate(previous, current);
+        }
+    }
+
+    protected void fireDelete(T record) {
+        for (DAOListener<T> listener : listeners) {
+            listener.onDelete(record);
+        }
+    }
+}
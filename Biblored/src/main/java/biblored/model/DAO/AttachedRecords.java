@@ -0,0 +1,99 @@
+package biblored.model.DAO;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+
+/**
+ * Objects materialized from a mapped DAO that are still referenced by the application.
+ * While an object is reachable, reading its id again returns the same instance, so code
+ * that compares records by identity keeps working. Objects are only weakly held.
+ * The methods are synchronized, two threads materializing the same record get the same
+ * object through putIfAbsent.
+ *
+ * @param <T> the type of record
+ */
+public class AttachedRecords<T> {
+    private final HashMap<Integer, Entry<T>> attached;
+    private final ReferenceQueue<T> collected;
+
+    /**
+     * Constructor for AttachedRecords
+     */
+    public AttachedRecords() {
+        this.attached = new HashMap<>();
+        this.collected = new ReferenceQueue<>();
+    }
+
+    /**
+     * Gets the object attached to an id
+     * Complexity: O(1)
+     *
+     * @param id the record id
+     * @return the object, or null if none is reachable
+     */
+    public synchronized T get(int id) {
+        purge();
+        Entry<T> entry = attached.get(id);
+        return entry == null ? null : entry.get();
+    }
+
+    /**
+     * Attaches an object to an id
+     *
+     * @param id the record id
+     * @param record the materialized object
+     */
+    public synchronized void put(int id, T record) {
+        purge();
+        attached.put(id, new Entry<>(id, record, collected));
+    }
+
+    /**
+     * Attaches an object to an id unless another one is already attached
+     * Complexity: O(1)
+     *
+     * @param id the record id
+     * @param record the materialized object
+     * @return the object attached to the id, record or the one attached before
+     */
+    public synchronized T putIfAbsent(int id, T record) {
+        T current = get(id);
+        if (current != null) {
+            return current;
+        }
+        put(id, record);
+        return record;
+    }
+
+    /**
+     * Forgets the object of a deleted record
+     *
+     * @param id the record id
+     */
+    public synchronized void remove(int id) {
+        attached.remove(id);
+    }
+
+    public synchronized int size() {
+        purge();
+        return attached.size();
+    }
+
+    private void purge() {
+        Object reference;
+        while ((reference = collected.poll()) != null) {
+            Entry<?> entry = (Entry<?>) reference;
+            attached.remove(entry.id, entry);
+        }
+    }
+
+    private static class Entry<T> extends WeakReference<T> {
+        private final int id;
+
+        private Entry(int id, T record, ReferenceQueue<T> queue) {
+            super(record, queue);
+            this.id = id;
+        }
+    }
+}
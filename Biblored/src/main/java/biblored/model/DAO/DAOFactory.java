@@ -0,0 +1,58 @@
+package biblored.model.DAO;
+
+import biblored.model.MaterialType;
+import biblored.model.generic.Material;
+
+import java.nio.file.Paths;
+
+/**
+ * Creates the DAOs of a LibraryNetwork, one implementation per storage backend.
+ * Libraries are always kept on the heap, they are few and hold the loans and listeners.
+ */
+public interface DAOFactory {
+    String BACKEND_PROPERTY = "biblored.storage";
+    String DIRECTORY_PROPERTY = "biblored.storage.dir";
+
+    /**
+     * Creates the DAO of the users
+     *
+     * @return the new DAO
+     */
+    InterfaceUserDAO createUserDAO();
+
+    /**
+     * Creates the DAO of a type of material
+     *
+     * @param type the material type
+     * @return the new DAO
+     */
+    InterfaceDAO<Material> createMaterialDAO(MaterialType type);
+
+    /**
+     * Tells if the ids of deleted records should be generated again, for storage indexed
+     * by id that stays dense that way
+     *
+     * @return true to recycle the ids of the users and the materials
+     */
+    default boolean recyclesIds() {
+        return false;
+    }
+
+    /**
+     * Gets the factory selected by the system properties: biblored.storage is heap (default)
+     * or mapped, and biblored.storage.dir is the directory of the mapped files
+     *
+     * @return the configured factory
+     */
+    static DAOFactory fromConfiguration() {
+        String backend = System.getProperty(BACKEND_PROPERTY, "heap");
+        switch (backend) {
+            case "heap":
+                return new HeapDAOFactory();
+            case "mapped":
+                return new MappedDAOFactory(Paths.get(System.getProperty(DIRECTORY_PROPERTY, "biblored-data")));
+            default:
+                throw new IllegalArgumentException("Unknown storage backend: " + backend);
+        }
+    }
+}
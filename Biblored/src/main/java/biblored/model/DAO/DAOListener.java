@@ -0,0 +1,32 @@
+package biblored.model.DAO;
+
+/**
+ * Listener notified after every successful mutation of a DAO.
+ * Used by caches and indexes that must stay consistent with the stored records.
+ *
+ * @param <T> the type of record stored in the DAO
+ */
+public interface DAOListener<T> {
+
+    /**
+     * Called after a record is added
+     *
+     * @param record the added record
+     */
+    void onAdd(T record);
+
+    /**
+     * Called after a record is updated
+     *
+     * @param previous a copy of the record before the update
+     * @param current the record after the update
+     */
+    void onUpdate(T previous, T current);
+
+    /**
+     * Called after a record is deleted
+     *
+     * @param record the deleted record
+     */
+    void onDelete(T record);
+}
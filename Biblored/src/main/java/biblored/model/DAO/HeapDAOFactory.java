@@ -0,0 +1,20 @@
+package biblored.model.DAO;
+
+import biblored.model.MaterialType;
+import biblored.model.generic.Material;
+
+/**
+ * Creates DAOs that keep the records as objects on the Java heap
+ */
+public class HeapDAOFactory implements DAOFactory {
+
+    @Override
+    public InterfaceUserDAO createUserDAO() {
+        return new UserDAO();
+    }
+
+    @Override
+    public InterfaceDAO<Material> createMaterialDAO(MaterialType type) {
+        return new MaterialDAO();
+    }
+}
@@ -0,0 +1,150 @@
+package biblored.model.DAO;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Hash index from a 64 bit key hash to record ids, stored in two primitive arrays with
+ * linear probing. It keeps no key objects, so different keys may share a hash and
+ * lookups confirm the candidates against the stored record.
+ */
+public class IdHashIndex {
+    private static final long EMPTY = 0;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] hashes;
+    private int[] ids;
+    private int size;
+
+    /**
+     * Constructor for IdHashIndex
+     */
+    public IdHashIndex() {
+        this.hashes = new long[16];
+        this.ids = new int[16];
+        this.size = 0;
+    }
+
+    /**
+     * Adds an id under a hash
+     * Complexity: O(1) amortized
+     *
+     * @param hash the key hash
+     * @param id the record id
+     */
+    public void add(long hash, int id) {
+        if (size + 1 > hashes.length * MAX_LOAD) {
+            resize(hashes.length * 2);
+        }
+        insert(slotHash(hash), id);
+        size++;
+    }
+
+    /**
+     * Removes an id stored under a hash
+     * Complexity: O(1)
+     *
+     * @param hash the key hash
+     * @param id the record id
+     * @return true if it was stored
+     */
+    public boolean remove(long hash, int id) {
+        long h = slotHash(hash);
+        int mask = hashes.length - 1;
+        for (int i = index(h); hashes[i] != EMPTY; i = (i + 1) & mask) {
+            if (hashes[i] == h && ids[i] == id) {
+                deleteAt(i);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the first id stored under a hash that the record check accepts
+     * Complexity: O(1)
+     *
+     * @param hash the key hash
+     * @param matches confirms that the record of a candidate id has the key
+     * @return the id, or -1 if not found
+     */
+    public int find(long hash, IntPredicate matches) {
+        long h = slotHash(hash);
+        int mask = hashes.length - 1;
+        for (int i = index(h); hashes[i] != EMPTY; i = (i + 1) & mask) {
+            if (hashes[i] == h && matches.test(ids[i])) {
+                return ids[i];
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Hashes a string key with 64 bit FNV-1a
+     *
+     * @param key the key
+     * @return the hash
+     */
+    public static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private void insert(long h, int id) {
+        int mask = hashes.length - 1;
+        int i = index(h);
+        while (hashes[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        hashes[i] = h;
+        ids[i] = id;
+    }
+
+    // Backward shift deletion keeps every probe chain without gaps
+    private void deleteAt(int hole) {
+        int mask = hashes.length - 1;
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (hashes[i] == EMPTY) {
+                break;
+            }
+            int home = index(hashes[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                hashes[hole] = hashes[i];
+                ids[hole] = ids[i];
+                hole = i;
+            }
+        }
+        hashes[hole] = EMPTY;
+    }
+
+    private void resize(int capacity) {
+        long[] oldHashes = hashes;
+        int[] oldIds = ids;
+        hashes = new long[capacity];
+        ids = new int[capacity];
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != EMPTY) {
+                insert(oldHashes[i], oldIds[i]);
+            }
+        }
+    }
+
+    private int index(long h) {
+        long mixed = h * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & (hashes.length - 1);
+    }
+
+    private static long slotHash(long hash) {
+        return hash == EMPTY ? 1 : hash;
+    }
+}
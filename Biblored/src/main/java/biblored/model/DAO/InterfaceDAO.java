@@ -1,13 +1,66 @@
 package biblored.model.DAO;
 
 import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.function.Predicate;
 
 public interface InterfaceDAO <T> {
     boolean add(T t);
     T read(int id);
+
+    /**
+     * Reads every record into a new list, so changing the list does not change the DAO.
+     * The heap DAOs keep the insertion order, deleted records leave no gap and are not
+     * replaced by later ones. The mapped material DAOs address records by id and read
+     * them in id order, the mapped user DAO reads them in the order of its slots.
+     *
+     * @return the stored records
+     */
     ArrayList<T> readAll();
     boolean update(int id,T t);
     boolean delete(int id);
+    void addListener(DAOListener<T> listener);
+    void removeListener(DAOListener<T> listener);
+    void markUpdated(T previous, T t);
+
+    /**
+     * Adds a record whose id was generated by an IdAllocator, so no other record can have
+     * it and implementations may skip the id check
+     *
+     * @param t the record
+     * @return true if the record was added
+     */
+    default boolean addNew(T t) {
+        return add(t);
+    }
+
+    /**
+     * Reads the records accepted by a filter. The filter may receive a reused view of the
+     * record instead of the stored object, so it must not keep a reference to it.
+     *
+     * @param filter the condition the records must meet
+     * @return the stored records that meet it
+     */
+    default ArrayList<T> readMatching(Predicate<? super T> filter) {
+        ArrayList<T> matches = new ArrayList<>();
+        for (T t : readAll()) {
+            if (filter.test(t)) {
+                matches.add(t);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Gets a view of the records that can be split for a parallel scan. Like readMatching,
+     * the view may hand out reused views of the records, which must not be kept, and the
+     * records must not change while it is traversed.
+     *
+     * @return a spliterator over the stored records
+     */
+    default Spliterator<T> spliterator() {
+        return readAll().spliterator();
+    }
 
 
     /* T findById(int id);
@@ -0,0 +1,36 @@
+package biblored.model.DAO;
+
+import biblored.model.generic.User;
+
+import java.util.List;
+
+/**
+ * Operations of a user DAO, adds the lookups by the indexed user fields
+ */
+public interface InterfaceUserDAO extends InterfaceDAO<User> {
+
+    /**
+     * Finds a user by email
+     *
+     * @param email the email, case and surrounding spaces are ignored
+     * @return the user, or null if not found
+     */
+    User findByEmail(String email);
+
+    /**
+     * Finds a user by phone number
+     *
+     * @param fullNumber the number including country and area code
+     * @return the user, or null if not found
+     */
+    User findByPhone(String fullNumber);
+
+    /**
+     * Finds the users whose name starts with a prefix, ordered by name
+     *
+     * @param prefix the name prefix, case is ignored
+     * @param limit the maximum number of users returned
+     * @return the matching users
+     */
+    List<User> findByNamePrefix(String prefix, int limit);
+}
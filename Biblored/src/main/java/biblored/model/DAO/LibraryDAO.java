@@ -4,17 +4,17 @@ import biblored.model.generic.Library;
 
 import java.util.ArrayList;
 
-public class LibraryDAO implements InterfaceDAO<Library>{
-    private final ArrayList<Library> libraries;
+public class LibraryDAO extends AbstractDAO<Library> {
+    private final SlotStorage<Library> libraries;
 
     public LibraryDAO() {
-        libraries = new ArrayList<>();
+        libraries = new SlotStorage<>(Library::getId);
     }
 
     @Override
     public boolean add(Library library) {
-        if (read(library.getId()) == null) {
-            libraries.add(library);
+        if (libraries.insert(library)) {
+            fireAdd(library);
             return true;
         }
         return false;
@@ -22,26 +22,24 @@ public class LibraryDAO implements InterfaceDAO<Library>{
 
     @Override
     public Library read(int id) {
-        Library library = null;
-        for (Library l : libraries) {
-            if (l.getId() == id) {
-                library = l;
-            }
-        }
-        return library;
+        return libraries.get(id);
     }
 
     @Override
     public ArrayList<Library> readAll() {
-        return libraries;
+        return libraries.toList();
     }
 
     @Override
     public boolean update(int id , Library library) {
         Library found = read(id);
         if (found != null) {
+            Library previous = hasListeners() ? new Library(found) : null;
             found.setName(library.getName());
             found.setAddress(library.getAddress());
+            if (previous != null) {
+                fireUpdate(previous, found);
+            }
             return true;
         }
         return false;
@@ -49,12 +47,11 @@ public class LibraryDAO implements InterfaceDAO<Library>{
 
     @Override
     public boolean delete(int id) {
-        Library found = read(id);
-        if (found != null) {
-            libraries.remove(found);
+        Library removed = libraries.remove(id);
+        if (removed != null) {
+            fireDelete(removed);
             return true;
         }
-
         return false;
     }
 }
@@ -0,0 +1,50 @@
+package biblored.model.DAO;
+
+import biblored.model.MaterialType;
+import biblored.model.generic.Material;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Creates DAOs that keep the records in memory-mapped files of a directory.
+ * Opening the same directory again restores the stored users and materials.
+ */
+public class MappedDAOFactory implements DAOFactory {
+    private final Path directory;
+
+    /**
+     * Constructor for MappedDAOFactory
+     *
+     * @param directory the directory of the files, created if missing
+     */
+    public MappedDAOFactory(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InterfaceUserDAO createUserDAO() {
+        return new MappedUserDAO(directory, "users");
+    }
+
+    @Override
+    public InterfaceDAO<Material> createMaterialDAO(MaterialType type) {
+        return new MappedMaterialDAO(directory, type.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * The material record files are addressed by id, recycled ids fill the holes of deleted records
+     */
+    @Override
+    public boolean recyclesIds() {
+        return true;
+    }
+}
@@ -0,0 +1,413 @@
+package biblored.model.DAO;
+
+import biblored.model.Status;
+import biblored.model.generic.Material;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Material DAO that keeps the records in memory-mapped files instead of the Java heap.
+ * Every material is a fixed-width record addressed by its id, with the strings in a
+ * separate heap file, so the garbage collector does not have to trace the catalog.
+ * Objects are only materialized when they are read, and stay attached to their record
+ * while the application references them.
+ * The library is a plain id, so records are flat and materializing one allocates no library.
+ * Material ids come from an IdAllocator and are dense, so they address the records
+ * directly, and scans follow the live bitmap of the record file past deleted ids.
+ */
+public class MappedMaterialDAO extends AbstractDAO<Material> implements Closeable {
+    private static final int STATUS = 1;
+    private static final int ID = 4;
+    private static final int LIBRARY = 8;
+    private static final int DATE = 12;
+    private static final int NAME = 16;
+    private static final int AUTHOR = 24;
+    private static final int LANGUAGE = 32;
+    private static final int RECORD_SIZE = 40;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final Status[] STATUSES = Status.values();
+
+    private final MappedRecordFile records;
+    private final MappedStringHeap strings;
+    private final AttachedRecords<Material> attached;
+    // Flyweights of read(int, Consumer), one per thread since reads can be concurrent
+    private final ThreadLocal<Cursor> cursors;
+    private int size;
+
+    /**
+     * Opens or creates the files of a material DAO, existing records are kept
+     *
+     * @param directory the directory of the files
+     * @param name the base name of the files
+     */
+    public MappedMaterialDAO(Path directory, String name) {
+        this.records = new MappedRecordFile(directory.resolve(name + ".records"), RECORD_SIZE);
+        this.strings = new MappedStringHeap(directory.resolve(name + ".strings"));
+        this.attached = new AttachedRecords<>();
+        this.cursors = ThreadLocal.withInitial(Cursor::new);
+        this.size = records.liveCount();
+    }
+
+    @Override
+    public boolean add(Material material) {
+        return material.getId() >= 0 && addNew(material);
+    }
+
+    /**
+     * Adds a material with a generated id, only the live bit of the id is checked
+     * Complexity: O(1)
+     */
+    @Override
+    public boolean addNew(Material material) {
+        int id = material.getId();
+        if (records.isLive(id)) {
+            return false;
+        }
+        writeFixed(material);
+        records.putLong(id, NAME, strings.append(material.getName()));
+        records.putLong(id, AUTHOR, strings.append(material.getAuthor()));
+        records.putLong(id, LANGUAGE, strings.append(material.getLanguage()));
+        records.setLive(id, true);
+        attached.put(id, material);
+        size++;
+        fireAdd(material);
+        return true;
+    }
+
+    /**
+     * Reads a material, returns the same object while the previous one is still referenced.
+     * A material that is not referenced anymore is materialized again, which allocates it and
+     * its strings; read(int, Consumer) reads it without materializing.
+     * Complexity: O(1)
+     */
+    @Override
+    public Material read(int id) {
+        if (!records.isLive(id)) {
+            return null;
+        }
+        Material material = attached.get(id);
+        if (material == null) {
+            material = attached.putIfAbsent(id, materialize(id));
+        }
+        return material;
+    }
+
+    /**
+     * Reads a material without materializing it. The visitor gets the referenced object if
+     * there is one, otherwise a flyweight of the calling thread that reads the record, so like
+     * readMatching it must not keep a reference to it.
+     * Complexity: O(1), nothing is allocated but the strings the visitor reads
+     *
+     * @param id the material id
+     * @param visitor receives the material
+     * @return true if the material exists
+     */
+    public boolean read(int id, Consumer<? super Material> visitor) {
+        if (!records.isLive(id)) {
+            return false;
+        }
+        Material material = attached.get(id);
+        if (material != null) {
+            visitor.accept(material);
+            return true;
+        }
+        Cursor cursor = cursors.get();
+        // The visitor may read another material through the same cursor
+        int previous = cursor.current;
+        cursor.moveTo(id);
+        try {
+            visitor.accept(cursor);
+        } finally {
+            cursor.moveTo(previous);
+        }
+        return true;
+    }
+
+    /**
+     * Materializes every material, prefer readMatching for large catalogs
+     * Complexity: O(N)
+     */
+    @Override
+    public ArrayList<Material> readAll() {
+        ArrayList<Material> all = new ArrayList<>(size);
+        for (int id = records.nextLive(0); id >= 0; id = records.nextLive(id + 1)) {
+            all.add(read(id));
+        }
+        return all;
+    }
+
+    /**
+     * Tests the records through a flyweight of the call and only materializes the matches
+     * Complexity: O(N)
+     */
+    @Override
+    public ArrayList<Material> readMatching(Predicate<? super Material> filter) {
+        ArrayList<Material> matches = new ArrayList<>();
+        Cursor cursor = new Cursor();
+        for (int id = records.nextLive(0); id >= 0; id = records.nextLive(id + 1)) {
+            cursor.moveTo(id);
+            if (filter.test(cursor)) {
+                matches.add(read(id));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Splits the id range, every part tests the records through its own flyweight so the
+     * parts can be traversed by different threads. Nothing is materialized.
+     * Complexity: O(1), plus mapping the string segments that are not mapped yet
+     */
+    @Override
+    public Spliterator<Material> spliterator() {
+        strings.mapAll();
+        return new RecordSpliterator(0, records.highestId() + 1);
+    }
+
+    @Override
+    public boolean update(int id, Material material) {
+        Material found = read(id);
+        if (found == null) {
+            return false;
+        }
+        Material previous = new Material(found);
+        found.setAuthor(material.getAuthor());
+        found.setName(material.getName());
+        found.setDateRegistered(material.getDateRegistered());
+        found.setLibraryId(material.getLibraryId());
+        found.setLanguage(material.getLanguage());
+        found.setStatus(material.getStatus());
+        write(previous, found);
+        fireUpdate(previous, found);
+        return true;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        Material removed = read(id);
+        if (removed == null) {
+            return false;
+        }
+        records.setLive(id, false);
+        attached.remove(id);
+        size--;
+        fireDelete(removed);
+        return true;
+    }
+
+    /**
+     * Writes a change made directly on a stored material to its record before notifying
+     * the listeners
+     */
+    @Override
+    public void markUpdated(Material previous, Material current) {
+        if (records.isLive(current.getId()) && attached.get(current.getId()) == current) {
+            write(previous, current);
+        }
+        super.markUpdated(previous, current);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the mapped files to the storage device
+     */
+    public void force() {
+        records.force();
+        strings.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+        strings.close();
+    }
+
+    private void write(Material previous, Material current) {
+        int id = current.getId();
+        writeFixed(current);
+        // Unchanged strings keep their offset so the string heap does not grow
+        if (!Objects.equals(previous.getName(), current.getName())) {
+            records.putLong(id, NAME, strings.append(current.getName()));
+        }
+        if (!Objects.equals(previous.getAuthor(), current.getAuthor())) {
+            records.putLong(id, AUTHOR, strings.append(current.getAuthor()));
+        }
+        if (!Objects.equals(previous.getLanguage(), current.getLanguage())) {
+            records.putLong(id, LANGUAGE, strings.append(current.getLanguage()));
+        }
+    }
+
+    private void writeFixed(Material material) {
+        int id = material.getId();
+        records.putInt(id, ID, id);
+        records.putByte(id, STATUS, (byte) (material.getStatus() == null ? 0 : material.getStatus().ordinal() + 1));
+        records.putInt(id, LIBRARY, material.getLibraryId());
+        LocalDate date = material.getDateRegistered();
+        records.putInt(id, DATE, date == null ? NO_DATE : (int) date.toEpochDay());
+    }
+
+    private Material materialize(int id) {
+        Material material = new Material();
+        material.setId(id);
+        material.setName(strings.read(records.getLong(id, NAME)));
+        material.setAuthor(strings.read(records.getLong(id, AUTHOR)));
+        material.setLanguage(strings.read(records.getLong(id, LANGUAGE)));
+        material.setStatus(statusOf(id));
+        material.setDateRegistered(dateOf(id));
+        material.setLibraryId(records.getInt(id, LIBRARY));
+        return material;
+    }
+
+    private Status statusOf(int id) {
+        int status = records.getByte(id, STATUS);
+        return status == 0 ? null : STATUSES[status - 1];
+    }
+
+    private LocalDate dateOf(int id) {
+        int day = records.getInt(id, DATE);
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * Flyweight view of the current record, the getters read the mapped file directly.
+     * Ids, status and library do not allocate, strings are decoded on each call.
+     */
+    private class Cursor extends Material {
+        private int current;
+
+        private void moveTo(int id) {
+            this.current = id;
+        }
+
+        @Override
+        public int getId() {
+            return current;
+        }
+
+        @Override
+        public String getName() {
+            return strings.read(records.getLong(current, NAME));
+        }
+
+        @Override
+        public String getAuthor() {
+            return strings.read(records.getLong(current, AUTHOR));
+        }
+
+        @Override
+        public String getLanguage() {
+            return strings.read(records.getLong(current, LANGUAGE));
+        }
+
+        @Override
+        public Status getStatus() {
+            return statusOf(current);
+        }
+
+        @Override
+        public LocalDate getDateRegistered() {
+            return dateOf(current);
+        }
+
+        @Override
+        public int getLibraryId() {
+            return records.getInt(current, LIBRARY);
+        }
+
+        @Override
+        public void setId(int id) {
+            throw new UnsupportedOperationException("Records are read only through the cursor");
+        }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("Records are read only through the cursor");
+        }
+
+        @Override
+        public void setAuthor(String author) {
+            throw new UnsupportedOperationException("Records are read only through the cursor");
+        }
+
+        @Override
+        public void setLanguage(String language) {
+            throw new UnsupportedOperationException("Records are read only through the cursor");
+        }
+
+        @Override
+        public void setStatus(Status status) {
+            throw new UnsupportedOperationException("Records are read only through the cursor");
+        }
+
+        @Override
+        public void setDateRegistered(LocalDate dateRegistered) {
+            throw new UnsupportedOperationException("Records are read only through the cursor");
+        }
+
+        @Override
+        public void setLibraryId(int libraryId) {
+            throw new UnsupportedOperationException("Records are read only through the cursor");
+        }
+    }
+
+    /**
+     * Spliterator over a range of ids that halves the range on every split
+     */
+    private class RecordSpliterator implements Spliterator<Material> {
+        private final Cursor view;
+        private int id;
+        private final int end;
+
+        private RecordSpliterator(int id, int end) {
+            this.view = new Cursor();
+            this.id = id;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Material> action) {
+            int current = id < end ? records.nextLive(id) : -1;
+            if (current < 0 || current >= end) {
+                id = end;
+                return false;
+            }
+            id = current + 1;
+            view.moveTo(current);
+            action.accept(view);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Material> trySplit() {
+            int middle = (id + end) >>> 1;
+            if (middle <= id) {
+                return null;
+            }
+            Spliterator<Material> prefix = new RecordSpliterator(id, middle);
+            id = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            // Deleted ids are counted, the estimate is an upper bound
+            return end - id;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
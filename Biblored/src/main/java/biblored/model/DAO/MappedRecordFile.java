@@ -0,0 +1,214 @@
+package biblored.model.DAO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * File of fixed-width records mapped into memory, the record with number n is stored at
+ * n * recordSize, so no index is needed. The DAOs choose the numbers: generated ids when
+ * they are dense, slots of an id index otherwise. The file is mapped in segments that are
+ * added when a larger number is written, and unused numbers are holes of the (sparse) file.
+ * The first byte of every record is used as the live flag, and a bitmap of the live
+ * records rebuilt on open lets scans skip the holes a word at a time.
+ * Reads and writes use absolute positions of the mapped buffers and do not allocate.
+ * Mapping a segment is synchronized, so records can be read while others are written.
+ * The bitmap is only changed by setLive and only read by nextLive, so scans must not
+ * overlap writes.
+ */
+public class MappedRecordFile implements Closeable {
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int RECORDS_PER_SEGMENT = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = RECORDS_PER_SEGMENT - 1;
+    private static final byte LIVE = 1;
+
+    private final FileChannel channel;
+    private final int recordSize;
+    // Replaced on every mapping, so lookups read it without locking
+    private volatile MappedByteBuffer[] segments;
+    private volatile int highestId;
+    private final BitSet live;
+
+    /**
+     * Opens or creates a record file, existing records are kept
+     *
+     * @param path the file
+     * @param recordSize the width of a record in bytes, including the live flag
+     */
+    public MappedRecordFile(Path path, int recordSize) {
+        this.recordSize = recordSize;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long segmentBytes = (long) RECORDS_PER_SEGMENT * recordSize;
+            int count = (int) ((channel.size() + segmentBytes - 1) / segmentBytes);
+            this.segments = new MappedByteBuffer[Math.max(1, count)];
+            for (int i = 0; i < count; i++) {
+                segments[i] = map(i);
+            }
+            this.highestId = maxId();
+            while (highestId >= 0 && !isLive(highestId)) {
+                highestId--;
+            }
+            this.live = new BitSet(highestId + 1);
+            for (int id = 0; id <= highestId; id++) {
+                if (isLive(id)) {
+                    live.set(id);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets an upper bound of the live ids, scans can stop there
+     *
+     * @return the highest id ever set live, -1 for an empty file
+     */
+    public int highestId() {
+        return highestId;
+    }
+
+    /**
+     * Gets the number of live records
+     * Complexity: O(highest id / 64)
+     *
+     * @return the number of records set live and not deleted
+     */
+    public int liveCount() {
+        return live.cardinality();
+    }
+
+    /**
+     * Finds the first live record at or after a number, for scans that skip the holes
+     * Complexity: O(distance / 64)
+     *
+     * @param from the first record number checked
+     * @return the number of the live record, -1 if there is none
+     */
+    public int nextLive(int from) {
+        return live.nextSetBit(from);
+    }
+
+    /**
+     * Checks if the record of an id holds a live record
+     * Complexity: O(1)
+     *
+     * @param id the record id
+     * @return true if a record was written and not deleted
+     */
+    public boolean isLive(int id) {
+        MappedByteBuffer segment = segmentOrNull(id);
+        return segment != null && segment.get(position(id)) == LIVE;
+    }
+
+    /**
+     * Sets the live flag of a record, mapping its segment if needed
+     *
+     * @param id the record id
+     * @param live true for a stored record, false for a deleted one
+     */
+    public void setLive(int id, boolean live) {
+        segment(id).put(position(id), live ? LIVE : 0);
+        this.live.set(id, live);
+        if (live && id > highestId) {
+            highestId = id;
+        }
+    }
+
+    public byte getByte(int id, int offset) {
+        return segment(id).get(position(id) + offset);
+    }
+
+    public void putByte(int id, int offset, byte value) {
+        segment(id).put(position(id) + offset, value);
+    }
+
+    public int getInt(int id, int offset) {
+        return segment(id).getInt(position(id) + offset);
+    }
+
+    public void putInt(int id, int offset, int value) {
+        segment(id).putInt(position(id) + offset, value);
+    }
+
+    public long getLong(int id, int offset) {
+        return segment(id).getLong(position(id) + offset);
+    }
+
+    public void putLong(int id, int offset, long value) {
+        segment(id).putLong(position(id) + offset, value);
+    }
+
+    /**
+     * Writes the mapped segments to the storage device
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int position(int id) {
+        return (id & SEGMENT_MASK) * recordSize;
+    }
+
+    private MappedByteBuffer segmentOrNull(int id) {
+        if (id < 0) {
+            return null;
+        }
+        int index = id >>> SEGMENT_SHIFT;
+        MappedByteBuffer[] current = segments;
+        return index < current.length ? current[index] : null;
+    }
+
+    private MappedByteBuffer segment(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Record ids must not be negative: " + id);
+        }
+        MappedByteBuffer segment = segmentOrNull(id);
+        return segment != null ? segment : mapSegment(id >>> SEGMENT_SHIFT);
+    }
+
+    private synchronized MappedByteBuffer mapSegment(int index) {
+        MappedByteBuffer[] current = segments;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(current, Math.max(index + 1, current.length));
+        try {
+            grown[index] = map(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments = grown;
+        return grown[index];
+    }
+
+    private int maxId() {
+        int last = segments.length - 1;
+        while (last >= 0 && segments[last] == null) {
+            last--;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (long) (last + 1) * RECORDS_PER_SEGMENT - 1);
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        long segmentBytes = (long) RECORDS_PER_SEGMENT * recordSize;
+        return channel.map(FileChannel.MapMode.READ_WRITE, index * segmentBytes, segmentBytes);
+    }
+}
@@ -0,0 +1,171 @@
+package biblored.model.DAO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only file of strings mapped into memory. Records keep the offset returned by
+ * append instead of the string, offset 0 is the empty string. Every entry is its length
+ * followed by the UTF-8 bytes, and an entry never crosses a segment.
+ * Replaced strings are not reclaimed, the file only grows.
+ */
+public class MappedStringHeap implements Closeable {
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final int MAX_LENGTH = (int) SEGMENT_SIZE - Integer.BYTES;
+
+    private final FileChannel channel;
+    // Replaced on every mapping, so reads get the segments without locking
+    private volatile MappedByteBuffer[] segments;
+    // One reusable view per segment for the relative bulk writes of append
+    private volatile ByteBuffer[] views;
+    private volatile long end;
+
+    /**
+     * Opens or creates a string heap, existing strings are kept
+     *
+     * @param path the file
+     */
+    public MappedStringHeap(Path path) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.segments = new MappedByteBuffer[4];
+            this.views = new ByteBuffer[4];
+            this.end = segment(0).getLong(0);
+            if (end < HEADER_SIZE) {
+                end = HEADER_SIZE;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a string
+     * Complexity: O(L)
+     *
+     * @param value the string, null is stored as empty
+     * @return the offset to read it back
+     */
+    public long append(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("String too long for the heap: " + bytes.length + " bytes");
+        }
+        long entrySize = Integer.BYTES + bytes.length;
+        if ((end & (SEGMENT_SIZE - 1)) + entrySize > SEGMENT_SIZE) {
+            end = ((end >>> SEGMENT_SHIFT) + 1) << SEGMENT_SHIFT;
+        }
+        long offset = end;
+        ByteBuffer view = view(offset);
+        int position = (int) (offset & (SEGMENT_SIZE - 1));
+        view.putInt(position, bytes.length);
+        view.position(position + Integer.BYTES);
+        view.put(bytes);
+        end = offset + entrySize;
+        segments[0].putLong(0, end);
+        return offset;
+    }
+
+    /**
+     * Reads a string with absolute gets only, so several threads can read at the same time,
+     * also while one thread appends
+     * Complexity: O(L)
+     *
+     * @param offset the offset returned by append
+     * @return the string
+     */
+    public String read(long offset) {
+        if (offset == 0) {
+            return "";
+        }
+        MappedByteBuffer segment = segment(offset);
+        int position = (int) (offset & (SEGMENT_SIZE - 1));
+        int length = segment.getInt(position);
+        byte[] bytes = new byte[length];
+        position += Integer.BYTES;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = segment.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps every segment that holds strings, after this call reads do not change the heap
+     */
+    public void mapAll() {
+        for (long offset = 0; offset < end; offset += SEGMENT_SIZE) {
+            segment(offset);
+        }
+    }
+
+    /**
+     * Gets the number of bytes used by the heap
+     *
+     * @return the offset where the next string will be written
+     */
+    public long size() {
+        return end;
+    }
+
+    /**
+     * Writes the mapped segments to the storage device
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer view(long offset) {
+        segment(offset);
+        return views[(int) (offset >>> SEGMENT_SHIFT)];
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        int index = (int) (offset >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] current = segments;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        return mapSegment(index);
+    }
+
+    private synchronized MappedByteBuffer mapSegment(int index) {
+        MappedByteBuffer[] current = segments;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+        ByteBuffer[] grownViews = Arrays.copyOf(views, grown.length);
+        try {
+            grown[index] = channel.map(FileChannel.MapMode.READ_WRITE, index * SEGMENT_SIZE, SEGMENT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        grownViews[index] = grown[index].duplicate();
+        views = grownViews;
+        segments = grown;
+        return grown[index];
+    }
+}
@@ -0,0 +1,362 @@
+package biblored.model.DAO;
+
+import biblored.model.generic.Address;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * User DAO that keeps the records in memory-mapped files instead of the Java heap.
+ * Every user is a fixed-width record with the strings of the user, its phone and its
+ * address in a separate heap file. User ids are typed by hand (citizenship numbers), so
+ * they are too sparse to address the records: records are stored in dense slots, a
+ * primitive hash index maps ids to slots and the slots of deleted users are reused.
+ * Ids, email and phone are indexed with primitive hash indexes that hold no objects and
+ * store slots; the id of a slot is kept in its record.
+ * The loan is stored in the record as a material reference key, so users with a loan do
+ * not have to stay in memory.
+ * Reading a user that is not referenced anymore materializes it with its strings, phone
+ * and address. There is no flyweight read path like the one of MappedMaterialDAO: users
+ * are read one at a time by id, email or phone, and the scans of findByNamePrefix read
+ * the name from the record and only materialize the matches.
+ */
+public class MappedUserDAO extends AbstractDAO<User> implements InterfaceUserDAO, Closeable {
+    private static final int ID = 4;
+    private static final int NAME = 8;
+    private static final int EMAIL = 16;
+    private static final int PASSWORD = 24;
+    private static final int PHONE_COUNTRY = 32;
+    private static final int PHONE_AREA = 40;
+    private static final int PHONE_NUMBER = 48;
+    private static final int STREET = 56;
+    private static final int STREET_NUMBER = 64;
+    private static final int CITY = 72;
+    private static final int ZIP_CODE = 80;
+    private static final int COUNTRY = 88;
+    private static final int LOAN = 96;
+    private static final int RECORD_SIZE = 104;
+    private static final long NO_LOAN = -1;
+
+    private final MappedRecordFile records;
+    private final MappedStringHeap strings;
+    private final IdHashIndex byId;
+    private final IdHashIndex byEmail;
+    private final IdHashIndex byPhone;
+    private final AttachedRecords<User> attached;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+    private int size;
+
+    /**
+     * Opens or creates the files of a user DAO, existing records are kept and indexed
+     *
+     * @param directory the directory of the files
+     * @param name the base name of the files
+     */
+    public MappedUserDAO(Path directory, String name) {
+        this.records = new MappedRecordFile(directory.resolve(name + ".records"), RECORD_SIZE);
+        this.strings = new MappedStringHeap(directory.resolve(name + ".strings"));
+        this.byId = new IdHashIndex();
+        this.byEmail = new IdHashIndex();
+        this.byPhone = new IdHashIndex();
+        this.attached = new AttachedRecords<>();
+        this.freeSlots = new int[16];
+        this.freeCount = 0;
+        this.slotCount = records.highestId() + 1;
+        this.size = 0;
+        for (int slot = slotCount - 1; slot >= 0; slot--) {
+            if (records.isLive(slot)) {
+                byId.add(records.getInt(slot, ID), slot);
+                index(slot, emailKeyOf(slot), phoneKeyOf(slot));
+                size++;
+            } else {
+                pushFree(slot);
+            }
+        }
+    }
+
+    /**
+     * Adds a user if the id, the email and the phone are not used by another user
+     */
+    @Override
+    public boolean add(User user) {
+        return user.getId() >= 0 && addNew(user);
+    }
+
+    /**
+     * Adds a user with a generated id if no stored user has the id, the email or the phone
+     */
+    @Override
+    public boolean addNew(User user) {
+        int id = user.getId();
+        String email = UserIndexes.emailKey(user.getEmail());
+        String phone = UserIndexes.phoneKey(user.getPhone());
+        if (slotOf(id) >= 0 || !isFree(email, phone, id)) {
+            return false;
+        }
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        records.putInt(slot, ID, id);
+        write(slot, user);
+        records.setLive(slot, true);
+        byId.add(id, slot);
+        index(slot, email, phone);
+        attached.put(id, user);
+        size++;
+        fireAdd(user);
+        return true;
+    }
+
+    /**
+     * Reads a user, returns the same object while the previous one is still referenced
+     * Complexity: O(1)
+     */
+    @Override
+    public User read(int id) {
+        int slot = slotOf(id);
+        return slot < 0 ? null : readSlot(slot);
+    }
+
+    /**
+     * Reads the users in the order of their slots
+     * Complexity: O(N)
+     */
+    @Override
+    public ArrayList<User> readAll() {
+        ArrayList<User> all = new ArrayList<>(size);
+        for (int slot = records.nextLive(0); slot >= 0; slot = records.nextLive(slot + 1)) {
+            all.add(readSlot(slot));
+        }
+        return all;
+    }
+
+    /**
+     * Updates a user, fails if the new email or phone belongs to another user
+     */
+    @Override
+    public boolean update(int id, User user) {
+        User found = read(id);
+        String email = UserIndexes.emailKey(user.getEmail());
+        String phone = UserIndexes.phoneKey(user.getPhone());
+        if (found == null || !isFree(email, phone, id)) {
+            return false;
+        }
+        int slot = slotOf(id);
+        User previous = new User(found);
+        unindex(slot, UserIndexes.emailKey(found.getEmail()), UserIndexes.phoneKey(found.getPhone()));
+        found.setName(user.getName());
+        found.setEmail(user.getEmail());
+        found.setPassword(user.getPassword());
+        found.setPhone(user.getPhone());
+        found.setAddress(user.getAddress());
+        write(slot, found);
+        index(slot, email, phone);
+        fireUpdate(previous, found);
+        return true;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        User removed = readSlot(slot);
+        unindex(slot, emailKeyOf(slot), phoneKeyOf(slot));
+        records.setLive(slot, false);
+        byId.remove(id, slot);
+        pushFree(slot);
+        attached.remove(id);
+        size--;
+        fireDelete(removed);
+        return true;
+    }
+
+    /**
+     * Writes the loan of a user changed directly to its record before notifying the listeners
+     */
+    @Override
+    public void markUpdated(User previous, User current) {
+        int id = current.getId();
+        int slot = slotOf(id);
+        if (slot >= 0 && attached.get(id) == current) {
+            writeLoan(slot, current);
+        }
+        super.markUpdated(previous, current);
+    }
+
+    /**
+     * Complexity: O(1)
+     */
+    @Override
+    public User findByEmail(String email) {
+        String key = UserIndexes.emailKey(email);
+        int slot = key.isEmpty() ? -1 : byEmail.find(IdHashIndex.hash(key), candidate -> key.equals(emailKeyOf(candidate)));
+        return slot < 0 ? null : readSlot(slot);
+    }
+
+    /**
+     * Complexity: O(1)
+     */
+    @Override
+    public User findByPhone(String fullNumber) {
+        String key = UserIndexes.phoneKey("", "", fullNumber);
+        int slot = key.isEmpty() ? -1 : byPhone.find(IdHashIndex.hash(key), candidate -> key.equals(phoneKeyOf(candidate)));
+        return slot < 0 ? null : readSlot(slot);
+    }
+
+    /**
+     * Names are not indexed to keep the heap free of per user objects, so the records are scanned
+     * Complexity: O(N + M log M), M being the number of matching users
+     */
+    @Override
+    public List<User> findByNamePrefix(String prefix, int limit) {
+        String from = UserIndexes.nameKey(prefix);
+        // Sorted by name, then by id, like the name index of UserDAO
+        TreeMap<String, Integer> matches = new TreeMap<>();
+        for (int slot = records.nextLive(0); slot >= 0; slot = records.nextLive(slot + 1)) {
+            String name = UserIndexes.nameKey(strings.read(records.getLong(slot, NAME)));
+            if (name.startsWith(from)) {
+                matches.put(name + '\u0000' + records.getInt(slot, ID), slot);
+            }
+        }
+        List<User> result = new ArrayList<>();
+        for (int slot : matches.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(readSlot(slot));
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the mapped files to the storage device
+     */
+    public void force() {
+        records.force();
+        strings.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+        strings.close();
+    }
+
+    /**
+     * Finds the slot of a user, the candidates of the id hash are confirmed by their record
+     * Complexity: O(1)
+     */
+    private int slotOf(int id) {
+        return id < 0 ? -1 : byId.find(id, candidate -> records.getInt(candidate, ID) == id);
+    }
+
+    private User readSlot(int slot) {
+        int id = records.getInt(slot, ID);
+        User user = attached.get(id);
+        if (user == null) {
+            user = attached.putIfAbsent(id, materialize(slot));
+        }
+        return user;
+    }
+
+    private void pushFree(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private boolean isFree(String email, String phone, int ownerId) {
+        if (!email.isEmpty()) {
+            int owner = byEmail.find(IdHashIndex.hash(email), candidate -> email.equals(emailKeyOf(candidate)));
+            if (owner >= 0 && records.getInt(owner, ID) != ownerId) {
+                return false;
+            }
+        }
+        if (!phone.isEmpty()) {
+            int owner = byPhone.find(IdHashIndex.hash(phone), candidate -> phone.equals(phoneKeyOf(candidate)));
+            return owner < 0 || records.getInt(owner, ID) == ownerId;
+        }
+        return true;
+    }
+
+    private void index(int slot, String email, String phone) {
+        if (!email.isEmpty()) {
+            byEmail.add(IdHashIndex.hash(email), slot);
+        }
+        if (!phone.isEmpty()) {
+            byPhone.add(IdHashIndex.hash(phone), slot);
+        }
+    }
+
+    private void unindex(int slot, String email, String phone) {
+        if (!email.isEmpty()) {
+            byEmail.remove(IdHashIndex.hash(email), slot);
+        }
+        if (!phone.isEmpty()) {
+            byPhone.remove(IdHashIndex.hash(phone), slot);
+        }
+    }
+
+    private String emailKeyOf(int slot) {
+        return UserIndexes.emailKey(strings.read(records.getLong(slot, EMAIL)));
+    }
+
+    private String phoneKeyOf(int slot) {
+        return UserIndexes.phoneKey(strings.read(records.getLong(slot, PHONE_COUNTRY)),
+                strings.read(records.getLong(slot, PHONE_AREA)), strings.read(records.getLong(slot, PHONE_NUMBER)));
+    }
+
+    // User updates are rare, so every string is appended again
+    private void write(int slot, User user) {
+        Phone phone = user.getPhone() == null ? Phone.EMPTY : user.getPhone();
+        Address address = user.getAddress() == null ? Address.EMPTY : user.getAddress();
+        records.putLong(slot, NAME, strings.append(user.getName()));
+        records.putLong(slot, EMAIL, strings.append(user.getEmail()));
+        records.putLong(slot, PASSWORD, strings.append(user.getPassword()));
+        records.putLong(slot, PHONE_COUNTRY, strings.append(phone.getCountryCode()));
+        records.putLong(slot, PHONE_AREA, strings.append(phone.getAreaCode()));
+        records.putLong(slot, PHONE_NUMBER, strings.append(phone.getNumber()));
+        records.putLong(slot, STREET, strings.append(address.getStreet()));
+        records.putLong(slot, STREET_NUMBER, strings.append(address.getNumber()));
+        records.putLong(slot, CITY, strings.append(address.getCity()));
+        records.putLong(slot, ZIP_CODE, strings.append(address.getZipCode()));
+        records.putLong(slot, COUNTRY, strings.append(address.getCountry()));
+        writeLoan(slot, user);
+    }
+
+    private void writeLoan(int slot, User user) {
+        MaterialRef loan = user.getBorrowedMaterial();
+        records.putLong(slot, LOAN, loan == null ? NO_LOAN : loan.getKey());
+    }
+
+    private User materialize(int slot) {
+        User user = new User();
+        user.setId(records.getInt(slot, ID));
+        user.setName(strings.read(records.getLong(slot, NAME)));
+        user.setEmail(strings.read(records.getLong(slot, EMAIL)));
+        user.setPassword(strings.read(records.getLong(slot, PASSWORD)));
+        user.setPhone(Phone.of(strings.read(records.getLong(slot, PHONE_COUNTRY)),
+                strings.read(records.getLong(slot, PHONE_AREA)), strings.read(records.getLong(slot, PHONE_NUMBER))));
+        user.setAddress(Address.of(strings.read(records.getLong(slot, STREET)),
+                strings.read(records.getLong(slot, STREET_NUMBER)), strings.read(records.getLong(slot, CITY)),
+                strings.read(records.getLong(slot, ZIP_CODE)), strings.read(records.getLong(slot, COUNTRY))));
+        long loan = records.getLong(slot, LOAN);
+        user.setBorrowedMaterial(loan == NO_LOAN ? null : MaterialRef.fromKey(loan));
+        return user;
+    }
+}
@@ -3,18 +3,19 @@ package biblored.model.DAO;
 import biblored.model.generic.Material;
 
 import java.util.ArrayList;
+import java.util.Spliterator;
 
-public class MaterialDAO implements InterfaceDAO<Material>{
-    private ArrayList<Material> materials = new ArrayList<Material>();
+public class MaterialDAO extends AbstractDAO<Material> {
+    private final SlotStorage<Material> materials;
 
     public MaterialDAO() {
-        materials = new ArrayList<Material>();
+        materials = new SlotStorage<>(Material::getId);
     }
 
     @Override
     public boolean add(Material material) {
-        if(read(material.getId()) == null) {
-            materials.add(material);
+        if (materials.insert(material)) {
+            fireAdd(material);
             return true;
         }
         return false;
@@ -22,30 +23,37 @@ public class MaterialDAO implements InterfaceDAO<Material>{
 
     @Override
     public Material read(int id) {
-        Material material = null;
-        for (Material b : materials) {
-            if (b.getId() == id) {
-                material = b;
-            }
-        }
-        return material;
+        return materials.get(id);
     }
 
     @Override
     public ArrayList<Material> readAll() {
-        return materials;
+        return materials.toList();
+    }
+
+    /**
+     * Splits the storage slots without copying them
+     * Complexity: O(1)
+     */
+    @Override
+    public Spliterator<Material> spliterator() {
+        return materials.spliterator();
     }
 
     @Override
     public boolean update(int id, Material material) {
         Material found = read(id);
         if (found != null) {
+            Material previous = hasListeners() ? new Material(found) : null;
             found.setAuthor(material.getAuthor());
             found.setName(material.getName());
             found.setDateRegistered(material.getDateRegistered());
-            found.setLibrary(material.getLibrary());
+            found.setLibraryId(material.getLibraryId());
             found.setLanguage(material.getLanguage());
             found.setStatus(material.getStatus());
+            if (previous != null) {
+                fireUpdate(previous, found);
+            }
             return true;
         }
         return false;
@@ -53,9 +61,9 @@ public class MaterialDAO implements InterfaceDAO<Material>{
 
     @Override
     public boolean delete(int id) {
-        Material found = read(id);
-        if (found != null) {
-            materials.remove(found);
+        Material removed = materials.remove(id);
+        if (removed != null) {
+            fireDelete(removed);
             return true;
         }
         return false;
@@ -0,0 +1,296 @@
+package biblored.model.DAO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Slot based record storage shared by the DAOs.
+ * Records live in an array of slots indexed by an id -> slot map. Deleting a record
+ * only clears its slot, which is pushed to a free list and reused by later inserts, so
+ * deletes never shift the array and records never move once stored.
+ * The iteration order is kept apart from the slots: an order index lists the slot of
+ * every record in insertion order, and a delete leaves a tombstone in it. When the
+ * fraction of tombstones crosses COMPACTION_THRESHOLD an incremental compaction pass
+ * starts. Every following mutation moves at most COMPACTION_STEP entries of the index,
+ * sliding live entries down while keeping their relative order, until the pass reaches
+ * the end and the index is truncated.
+ *
+ * @param <T> the type of record stored
+ */
+public class SlotStorage<T> {
+    private static final double COMPACTION_THRESHOLD = 0.25;
+    private static final int COMPACTION_MIN_SLOTS = 64;
+    private static final int COMPACTION_STEP = 32;
+    private static final int TOMBSTONE = -1;
+
+    private final ToIntFunction<T> idOf;
+    private final ArrayList<T> slots;
+    private final HashMap<Integer, Integer> slotById;
+    private int[] freeSlots;
+    private int freeCount;
+
+    // Order index: order[0, orderSize) holds slots in insertion order or TOMBSTONE,
+    // positionOfSlot maps every used slot back to its entry
+    private int[] order;
+    private int orderSize;
+    private int[] positionOfSlot;
+
+    // Compaction pass state: live entries in [0, compactWrite) are already compacted,
+    // entries in [compactWrite, compactRead) are garbage and [compactRead, orderSize) are pending.
+    private boolean compacting;
+    private int compactRead;
+    private int compactWrite;
+
+    /**
+     * Constructor for SlotStorage
+     *
+     * @param idOf function that extracts the id of a record
+     */
+    public SlotStorage(ToIntFunction<T> idOf) {
+        this.idOf = idOf;
+        this.slots = new ArrayList<>();
+        this.slotById = new HashMap<>();
+        this.freeSlots = new int[16];
+        this.freeCount = 0;
+        this.order = new int[16];
+        this.orderSize = 0;
+        this.positionOfSlot = new int[16];
+        this.compacting = false;
+    }
+
+    /**
+     * Inserts a record if no other record has the same id. The id is checked by the same
+     * map probe that stores its slot, so generated ids cost no extra lookup.
+     * Complexity: O(1) amortized
+     *
+     * @param record the record to insert
+     * @return true if the record was inserted, false if the id is already used
+     */
+    public boolean insert(T record) {
+        int slot = freeCount > 0 ? freeSlots[freeCount - 1] : slots.size();
+        if (slotById.putIfAbsent(idOf.applyAsInt(record), slot) != null) {
+            return false;
+        }
+        if (slot == slots.size()) {
+            slots.add(record);
+            if (slot == positionOfSlot.length) {
+                positionOfSlot = Arrays.copyOf(positionOfSlot, slot * 2);
+            }
+        } else {
+            freeCount--;
+            slots.set(slot, record);
+        }
+        if (orderSize == order.length) {
+            order = Arrays.copyOf(order, orderSize * 2);
+        }
+        positionOfSlot[slot] = orderSize;
+        order[orderSize++] = slot;
+        compactionStep();
+        return true;
+    }
+
+    /**
+     * Gets the record with the given id
+     * Complexity: O(1)
+     *
+     * @param id the id of the record
+     * @return the record, or null if not found
+     */
+    public T get(int id) {
+        Integer slot = slotById.get(id);
+        return slot == null ? null : slots.get(slot);
+    }
+
+    /**
+     * Checks if a record with the given id exists
+     * Complexity: O(1)
+     *
+     * @param id the id of the record
+     * @return true if the record exists
+     */
+    public boolean contains(int id) {
+        return slotById.containsKey(id);
+    }
+
+    /**
+     * Removes the record with the given id, freeing its slot and leaving a tombstone in
+     * the order index
+     * Complexity: O(1) amortized
+     *
+     * @param id the id of the record
+     * @return the removed record, or null if not found
+     */
+    public T remove(int id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return null;
+        }
+        T removed = slots.set(slot, null);
+        order[positionOfSlot[slot]] = TOMBSTONE;
+        pushFree(slot);
+        if (!compacting && shouldCompact()) {
+            startCompaction();
+        }
+        compactionStep();
+        return removed;
+    }
+
+    /**
+     * Gets the number of live records
+     * Complexity: O(1)
+     *
+     * @return the number of live records
+     */
+    public int size() {
+        return slotById.size();
+    }
+
+    /**
+     * Gets the number of slots including the free ones. Free slots are reused, so it is
+     * the largest number of records stored at once.
+     * Complexity: O(1)
+     *
+     * @return the number of slots
+     */
+    public int capacity() {
+        return slots.size();
+    }
+
+    /**
+     * Copies the live records in insertion order
+     * Complexity: O(N)
+     *
+     * @return a new list with the live records
+     */
+    public ArrayList<T> toList() {
+        ArrayList<T> list = new ArrayList<>(slotById.size());
+        for (int i = 0; i < orderSize; i++) {
+            if (order[i] != TOMBSTONE) {
+                list.add(slots.get(order[i]));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Gets a view of the live records in insertion order that splits by ranges of the
+     * order index, tombstones are skipped while traversing. No copy is made, so the
+     * storage must not change while the view is traversed.
+     * Complexity: O(1)
+     *
+     * @return a spliterator over the live records
+     */
+    public Spliterator<T> spliterator() {
+        return new SlotSpliterator<>(slots, order, 0, orderSize);
+    }
+
+    private boolean shouldCompact() {
+        return orderSize >= COMPACTION_MIN_SLOTS
+                && (orderSize - slotById.size()) > orderSize * COMPACTION_THRESHOLD;
+    }
+
+    private void startCompaction() {
+        compacting = true;
+        compactRead = 0;
+        compactWrite = 0;
+    }
+
+    /**
+     * Advances the current compaction pass by at most COMPACTION_STEP entries
+     */
+    private void compactionStep() {
+        if (!compacting) {
+            return;
+        }
+        int end = Math.min(orderSize, compactRead + COMPACTION_STEP);
+        while (compactRead < end) {
+            int slot = order[compactRead];
+            if (slot != TOMBSTONE) {
+                if (compactRead != compactWrite) {
+                    order[compactWrite] = slot;
+                    order[compactRead] = TOMBSTONE;
+                    positionOfSlot[slot] = compactWrite;
+                }
+                compactWrite++;
+            }
+            compactRead++;
+        }
+        if (compactRead >= orderSize) {
+            // Only tombstones are left after the write cursor, dropping them shifts nothing
+            orderSize = compactWrite;
+            compacting = false;
+        }
+    }
+
+    private void pushFree(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Spliterator over a range of the order index that halves the range on every split
+     */
+    private static final class SlotSpliterator<T> implements Spliterator<T> {
+        private final ArrayList<T> slots;
+        private final int[] order;
+        private int index;
+        private final int end;
+
+        private SlotSpliterator(ArrayList<T> slots, int[] order, int index, int end) {
+            this.slots = slots;
+            this.order = order;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index < end) {
+                int slot = order[index++];
+                if (slot != TOMBSTONE) {
+                    action.accept(slots.get(slot));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; index < end; index++) {
+                int slot = order[index];
+                if (slot != TOMBSTONE) {
+                    action.accept(slots.get(slot));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (index + end) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<T> prefix = new SlotSpliterator<>(slots, order, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            // Tombstones are counted, the estimate is an upper bound
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
@@ -3,48 +3,58 @@ package biblored.model.DAO;
 import biblored.model.generic.User;
 
 import java.util.ArrayList;
+import java.util.List;
 
-public class UserDAO implements InterfaceDAO<User> {
-    private final ArrayList<User> users;
+public class UserDAO extends AbstractDAO<User> implements InterfaceUserDAO {
+    private final SlotStorage<User> users;
+    private final UserIndexes indexes;
 
     public UserDAO() {
-        users = new ArrayList<>();
+        users = new SlotStorage<>(User::getId);
+        indexes = new UserIndexes();
     }
 
+    /**
+     * Adds a user if the id, the email and the phone are not used by another user
+     */
     @Override
     public boolean add(User user) {
-        if(read(user.getId()) == null) {
-            users.add(user);
-            return true;
+        if (!indexes.isUnique(user, user.getId()) || !users.insert(user)) {
+            return false;
         }
-        return false;
+        indexes.add(user);
+        fireAdd(user);
+        return true;
     }
 
     @Override
     public User read(int id) {
-        User user = null;
-        for (User u : users) {
-            if (u.getId() == id) {
-                user = u;
-            }
-        }
-        return user;
+        return users.get(id);
     }
 
     @Override
     public ArrayList<User> readAll() {
-        return users;
+        return users.toList();
     }
 
+    /**
+     * Updates a user, fails if the new email or phone belongs to another user
+     */
     @Override
     public boolean update(int id, User user) {
         User found = read(id);
-        if (found != null) {
+        if (found != null && indexes.isUnique(user, id)) {
+            User previous = hasListeners() ? new User(found) : null;
+            indexes.remove(found);
             found.setName(user.getName());
             found.setEmail(user.getEmail());
             found.setPassword(user.getPassword());
             found.setPhone(user.getPhone());
             found.setAddress(user.getAddress());
+            indexes.add(found);
+            if (previous != null) {
+                fireUpdate(previous, found);
+            }
             return true;
         }
         return false;
@@ -52,11 +62,55 @@ public class UserDAO implements InterfaceDAO<User> {
 
     @Override
     public boolean delete(int id) {
-        User found = read(id);
-        if (found != null) {
-            users.remove(found);
+        User removed = users.remove(id);
+        if (removed != null) {
+            indexes.remove(removed);
+            fireDelete(removed);
             return true;
         }
         return false;
     }
+
+    /**
+     * Finds a user by email
+     * Complexity: O(1)
+     *
+     * @param email the email, case and surrounding spaces are ignored
+     * @return the user, or null if not found
+     */
+    @Override
+    public User findByEmail(String email) {
+        Integer id = indexes.findByEmail(email);
+        return id == null ? null : users.get(id);
+    }
+
+    /**
+     * Finds a user by phone number
+     * Complexity: O(1)
+     *
+     * @param fullNumber the number including country and area code
+     * @return the user, or null if not found
+     */
+    @Override
+    public User findByPhone(String fullNumber) {
+        Integer id = indexes.findByPhone(fullNumber);
+        return id == null ? null : users.get(id);
+    }
+
+    /**
+     * Finds the users whose name starts with a prefix, ordered by name
+     * Complexity: O(log N + K)
+     *
+     * @param prefix the name prefix, case is ignored
+     * @param limit the maximum number of users returned
+     * @return the matching users
+     */
+    @Override
+    public List<User> findByNamePrefix(String prefix, int limit) {
+        List<User> result = new ArrayList<>();
+        for (Integer id : indexes.findByNamePrefix(prefix, limit)) {
+            result.add(users.get(id));
+        }
+        return result;
+    }
 }
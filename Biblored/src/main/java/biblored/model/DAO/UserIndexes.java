@@ -0,0 +1,202 @@
+package biblored.model.DAO;
+
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes of the users: unique hash indexes on the normalized email and on the
+ * full phone number, and a sorted index on the normalized name for prefix searches.
+ * Empty emails and phones are not indexed, so users without them do not collide.
+ * The indexes read the values from the User and Phone objects when they are added,
+ * so those objects must only be changed through UserDAO.update.
+ */
+public class UserIndexes {
+    // Separates the name from the id in the keys of the name index
+    private static final char NAME_SEPARATOR = '\u0000';
+
+    private final HashMap<String, Integer> byEmail;
+    private final HashMap<String, Integer> byPhone;
+    private final TreeMap<String, Integer> byName;
+
+    /**
+     * Constructor for UserIndexes
+     */
+    public UserIndexes() {
+        this.byEmail = new HashMap<>();
+        this.byPhone = new HashMap<>();
+        this.byName = new TreeMap<>();
+    }
+
+    /**
+     * Checks that the email and phone of a user are not used by another user
+     * Complexity: O(1)
+     *
+     * @param user the user with the values to check
+     * @param ownerId the id the values will belong to
+     * @return true if the values can be indexed for that id
+     */
+    public boolean isUnique(User user, int ownerId) {
+        return isFree(byEmail, emailKey(user.getEmail()), ownerId)
+                && isFree(byPhone, phoneKey(user.getPhone()), ownerId);
+    }
+
+    /**
+     * Adds a user to every index
+     * Complexity: O(log N)
+     *
+     * @param user the user to index
+     */
+    public void add(User user) {
+        String email = emailKey(user.getEmail());
+        if (!email.isEmpty()) {
+            byEmail.put(email, user.getId());
+        }
+        String phone = phoneKey(user.getPhone());
+        if (!phone.isEmpty()) {
+            byPhone.put(phone, user.getId());
+        }
+        byName.put(nameKey(user.getName(), user.getId()), user.getId());
+    }
+
+    /**
+     * Removes a user from every index, using the values it was indexed with
+     * Complexity: O(log N)
+     *
+     * @param user the user to remove
+     */
+    public void remove(User user) {
+        String email = emailKey(user.getEmail());
+        if (!email.isEmpty()) {
+            byEmail.remove(email, user.getId());
+        }
+        String phone = phoneKey(user.getPhone());
+        if (!phone.isEmpty()) {
+            byPhone.remove(phone, user.getId());
+        }
+        byName.remove(nameKey(user.getName(), user.getId()));
+    }
+
+    /**
+     * Finds the id of the user with the given email
+     * Complexity: O(1)
+     *
+     * @param email the email, case and surrounding spaces are ignored
+     * @return the user id, or null if not found
+     */
+    public Integer findByEmail(String email) {
+        return byEmail.get(emailKey(email));
+    }
+
+    /**
+     * Finds the id of the user with the given phone number
+     * Complexity: O(1)
+     *
+     * @param fullNumber the number including country and area code, non digits are ignored
+     * @return the user id, or null if not found
+     */
+    public Integer findByPhone(String fullNumber) {
+        return byPhone.get(digits(fullNumber));
+    }
+
+    /**
+     * Finds the ids of the users whose name starts with the given prefix, ordered by name
+     * Complexity: O(log N + K)
+     *
+     * @param prefix the prefix, case and surrounding spaces are ignored
+     * @param limit the maximum number of ids returned
+     * @return the user ids
+     */
+    public List<Integer> findByNamePrefix(String prefix, int limit) {
+        String from = normalize(prefix);
+        List<Integer> ids = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : byName.tailMap(from, true).entrySet()) {
+            if (ids.size() >= limit || !entry.getKey().startsWith(from)) {
+                break;
+            }
+            ids.add(entry.getValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Builds the index key of an email
+     *
+     * @param email the raw email
+     * @return the trimmed lower case email
+     */
+    public static String emailKey(String email) {
+        return normalize(email);
+    }
+
+    /**
+     * Builds the index key of a phone: the digits of the country code, area code and number
+     *
+     * @param phone the phone
+     * @return the digits of the full number, empty if the phone has none
+     */
+    public static String phoneKey(Phone phone) {
+        if (phone == null) {
+            return "";
+        }
+        return phoneKey(phone.getCountryCode(), phone.getAreaCode(), phone.getNumber());
+    }
+
+    /**
+     * Builds the index key of a phone from its parts
+     *
+     * @param countryCode the country code
+     * @param areaCode the area code
+     * @param number the number
+     * @return the digits of the full number
+     */
+    public static String phoneKey(String countryCode, String areaCode, String number) {
+        return digits(countryCode + areaCode + number);
+    }
+
+    /**
+     * Builds the key a name is sorted and compared with
+     *
+     * @param name the raw name
+     * @return the trimmed lower case name
+     */
+    public static String nameKey(String name) {
+        return normalize(name);
+    }
+
+    private static boolean isFree(HashMap<String, Integer> index, String key, int id) {
+        if (key.isEmpty()) {
+            return true;
+        }
+        Integer owner = index.get(key);
+        return owner == null || owner == id;
+    }
+
+    private static String nameKey(String name, int id) {
+        return nameKey(name) + NAME_SEPARATOR + id;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
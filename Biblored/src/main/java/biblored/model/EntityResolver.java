@@ -0,0 +1,207 @@
+package biblored.model;
+
+import biblored.model.DAO.DAOListener;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+import biblored.model.lock.LockManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the id references between entities, the library of a material, the loan of a
+ * user and the loans of a library, through the id lookups of the network DAOs.
+ * A resolver made with cached() also keeps the last resolutions of each thread in a small
+ * direct-mapped table, which pays off when the same libraries and materials are resolved
+ * again and again, for example with the mapped DAOs that materialize records on a miss.
+ * Deleting a library or a material, or replacing a DAO, invalidates every cached entry.
+ */
+public class EntityResolver {
+    private static final MaterialType[] TYPES = MaterialType.values();
+    private static final int LIBRARY_KIND = TYPES.length;
+
+    private final LibraryNetwork network;
+    private final AtomicLong epoch;
+    private final ThreadLocal<ResolutionCache> cache;
+
+    /**
+     * Creates the resolver of a network, without cache
+     * @param network The network whose DAOs hold the entities
+     */
+    EntityResolver(LibraryNetwork network) {
+        this(network, new AtomicLong(), 0);
+    }
+
+    private EntityResolver(LibraryNetwork network, AtomicLong epoch, int capacity) {
+        this.network = network;
+        this.epoch = epoch;
+        this.cache = capacity == 0 ? null : ThreadLocal.withInitial(() -> new ResolutionCache(capacity));
+    }
+
+    /**
+     * Creates a resolver of the same network with a cache per thread
+     * @param capacity The entries of each cache, rounded up to a power of two
+     * @return The caching resolver
+     */
+    public EntityResolver cached(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        return new EntityResolver(network, epoch, Integer.highestOneBit(capacity - 1 | 1) << 1);
+    }
+
+    /**
+     * Gets a stored library
+     * Complexity: O(1)
+     * @param id The library id
+     * @return The library, or null if it is not stored
+     */
+    public Library library(int id) {
+        return (Library) resolve(LIBRARY_KIND, id);
+    }
+
+    /**
+     * Gets the library that owns a material
+     * Complexity: O(1)
+     * @param material The material
+     * @return The library, or null if it is not stored
+     */
+    public Library libraryOf(Material material) {
+        return library(material.getLibraryId());
+    }
+
+    /**
+     * Gets a stored material
+     * Complexity: O(1)
+     * @param ref The reference to the material, may be null
+     * @return The material, or null if the reference is null or the material is not stored
+     */
+    public Material material(MaterialRef ref) {
+        return ref == null ? null : (Material) resolve(ref.getType().ordinal(), ref.getId());
+    }
+
+    /**
+     * Gets the material borrowed by a user
+     * Complexity: O(1)
+     * @param user The user
+     * @return The material, or null if the user has no loan
+     */
+    public Material borrowedMaterial(User user) {
+        return material(user.getBorrowedMaterial());
+    }
+
+    /**
+     * Gets the materials borrowed from a library, skipping those no longer stored
+     * Complexity: O(loans of the library)
+     * @param library The library
+     * @return The borrowed materials
+     */
+    public List<Material> borrowedMaterials(Library library) {
+        // Loans change under the lock of the library record, the list is copied under it
+        List<MaterialRef> loans = network.getLocks().readEntity(
+                LockManager.keyOf(LockManager.LIBRARIES, library.getId()),
+                () -> new ArrayList<>(library.getBorrowedMaterials()));
+        List<Material> materials = new ArrayList<>(loans.size());
+        for (MaterialRef ref : loans) {
+            Material material = material(ref);
+            if (material != null) {
+                materials.add(material);
+            }
+        }
+        return materials;
+    }
+
+    /**
+     * Drops every cached resolution, called when an entity is deleted or a DAO replaced
+     */
+    void invalidate() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * Creates a listener that invalidates the cached resolutions when a record is deleted
+     * @param <T> The type of record of the DAO
+     * @return The listener
+     */
+    <T> DAOListener<T> invalidator() {
+        return new DAOListener<T>() {
+            @Override
+            public void onAdd(T record) {
+            }
+
+            @Override
+            public void onUpdate(T previous, T current) {
+            }
+
+            @Override
+            public void onDelete(T record) {
+                invalidate();
+            }
+        };
+    }
+
+    private Object resolve(int kind, int id) {
+        if (cache == null) {
+            return read(kind, id);
+        }
+        ResolutionCache local = cache.get();
+        long key = ((long) kind << 32) | (id & 0xFFFFFFFFL);
+        Object found = local.get(key, epoch.get());
+        if (found == null) {
+            found = read(kind, id);
+            if (found != null) {
+                local.put(key, found);
+            }
+        }
+        return found;
+    }
+
+    private Object read(int kind, int id) {
+        if (kind == LIBRARY_KIND) {
+            return network.getLibrary(id);
+        }
+        return network.getMaterial(TYPES[kind], id);
+    }
+
+    /**
+     * Direct-mapped table of the last resolutions of one thread
+     */
+    private static final class ResolutionCache {
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+        private long epoch;
+
+        private ResolutionCache(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            this.epoch = -1;
+        }
+
+        private Object get(long key, long currentEpoch) {
+            if (epoch != currentEpoch) {
+                Arrays.fill(values, null);
+                epoch = currentEpoch;
+                return null;
+            }
+            int slot = slotOf(key);
+            return keys[slot] == key ? values[slot] : null;
+        }
+
+        private void put(long key, Object value) {
+            int slot = slotOf(key);
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private int slotOf(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed >>> 32) & mask;
+        }
+    }
+}
@@ -1,32 +1,144 @@
 package biblored.model;
 
 
+import biblored.model.DAO.DAOFactory;
+import biblored.model.DAO.DAOListener;
+import biblored.model.DAO.InterfaceDAO;
+import biblored.model.DAO.InterfaceUserDAO;
 import biblored.model.DAO.LibraryDAO;
-import biblored.model.DAO.MaterialDAO;
-import biblored.model.DAO.UserDAO;
+import biblored.model.analytics.CoBorrowIndex;
+import biblored.model.analytics.PopularItem;
+import biblored.model.analytics.PopularityTracker;
+import biblored.model.cache.CacheStats;
+import biblored.model.cache.MaterialQuery;
+import biblored.model.cache.MaterialQueryInvalidator;
+import biblored.model.cache.QueryCache;
+import biblored.model.generic.BorrowListener;
 import biblored.model.generic.Library;
 import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
 import biblored.model.generic.User;
+import biblored.model.id.IdAllocator;
+import biblored.model.lock.LockManager;
+import biblored.model.search.FuzzyMatch;
+import biblored.model.search.TrigramIndex;
+import biblored.model.search.TrigramIndexUpdater;
 
 import java.util.ArrayList;
-
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * The libraries, users and materials of the network and the indexes built on them.
+ * The methods can be called from several threads: adds, removes and updates lock the DAO
+ * they change, lookups run optimistically, and borrows and returns only lock the records
+ * involved (see LockManager). The DAOs returned by the getters are not locked, code that
+ * uses them while other threads call the network holds a scope of getLocks().
+ * The addNew methods give the record an id from the IdAllocator of its table, which the
+ * DAO adds without looking up; ids assigned by hand are still accepted unless they fall
+ * in the range of generated ids. A restore or a journal replay adds records with any id
+ * and then calls resetIds, so the next ids start after them. The backends that index records by id recycle the ids
+ * of deleted records.
+ */
 public class LibraryNetwork {
+    private static final long DEFAULT_QUERY_CACHE_WEIGHT = 100_000;
+    private static final int BOOKS = LockManager.tableOf(MaterialType.BOOK);
+    private static final int AUDIOVISUALS = LockManager.tableOf(MaterialType.AUDIOVISUAL);
+    private static final int FILMS = LockManager.tableOf(MaterialType.FILM);
+    private static final int COMPACT_DISKS = LockManager.tableOf(MaterialType.COMPACT_DISK);
+    private static final int DOCUMENTARIES = LockManager.tableOf(MaterialType.DOCUMENTARY);
+    private static final int ID_BLOCK = 64;
+
     private LibraryDAO libraryDAO;
-    private UserDAO userDAO;
-    private MaterialDAO bookDAO;
-    private MaterialDAO audiovisualDAO;
-    private MaterialDAO filmDAO;
-    private MaterialDAO compactDiskDAO;
-    private MaterialDAO documentaryDAO;
+    private InterfaceUserDAO userDAO;
+    private InterfaceDAO<Material> bookDAO;
+    private InterfaceDAO<Material> audiovisualDAO;
+    private InterfaceDAO<Material> filmDAO;
+    private InterfaceDAO<Material> compactDiskDAO;
+    private InterfaceDAO<Material> documentaryDAO;
+    private final QueryCache<MaterialQuery, List<Material>> queryCache;
+    private final TrigramIndex titleIndex;
+    private final PopularityTracker popularityTracker;
+    private final CoBorrowIndex coBorrowIndex;
+    private final BorrowListener borrowRecorder;
+    private final EntityResolver resolver;
+    private final LockManager locks;
+    private final IdAllocator[] ids;
+    // The listeners registered on the current DAOs, removed again when a DAO is replaced
+    private final List<DAOListener<Library>> libraryListeners;
+    private final DAOListener<User> userListener;
+    private final EnumMap<MaterialType, List<DAOListener<Material>>> materialListeners;
 
     public LibraryNetwork() {
-        this.libraryDAO = new LibraryDAO();
-        this.userDAO = new UserDAO();
-        this.bookDAO = new MaterialDAO();
-        this.audiovisualDAO = new MaterialDAO();
-        this.filmDAO = new MaterialDAO();
-        this.compactDiskDAO = new MaterialDAO();
-        this.documentaryDAO = new MaterialDAO();
+        this(DEFAULT_QUERY_CACHE_WEIGHT);
+    }
+
+    /**
+     * Creates a network whose query cache holds at most the given number of result rows,
+     * the storage backend is selected by the system properties (see DAOFactory)
+     * @param queryCacheWeight The maximum number of cached rows, 0 disables the cache
+     */
+    public LibraryNetwork(long queryCacheWeight) {
+        this(queryCacheWeight, DAOFactory.fromConfiguration());
+    }
+
+    /**
+     * Creates a network that stores users and materials in the DAOs of the given factory
+     * @param queryCacheWeight The maximum number of cached rows, 0 disables the cache
+     * @param daoFactory The storage backend
+     */
+    public LibraryNetwork(long queryCacheWeight, DAOFactory daoFactory) {
+        this.locks = new LockManager();
+        this.queryCache = new QueryCache<>(queryCacheWeight);
+        this.titleIndex = new TrigramIndex();
+        this.popularityTracker = new PopularityTracker();
+        this.coBorrowIndex = new CoBorrowIndex();
+        this.borrowRecorder = this::recordBorrow;
+        this.resolver = new EntityResolver(this);
+        this.ids = new IdAllocator[LockManager.TABLES];
+        ids[LockManager.LIBRARIES] = new IdAllocator(ID_BLOCK, false,
+                () -> highestId(LockManager.LIBRARIES, libraryDAO, Library::getId));
+        ids[LockManager.USERS] = new IdAllocator(ID_BLOCK, daoFactory.recyclesIds(),
+                () -> highestId(LockManager.USERS, userDAO, User::getId));
+        for (MaterialType type : MaterialType.values()) {
+            int table = LockManager.tableOf(type);
+            ids[table] = new IdAllocator(ID_BLOCK, daoFactory.recyclesIds(),
+                    () -> highestId(table, getMaterialDAO(type), Material::getId));
+        }
+        this.libraryListeners = libraryListeners();
+        this.userListener = userListener();
+        this.materialListeners = new EnumMap<>(MaterialType.class);
+        for (MaterialType type : MaterialType.values()) {
+            materialListeners.put(type, materialListeners(type));
+        }
+        setLibraryDAO(new LibraryDAO());
+        setUserDAO(daoFactory.createUserDAO());
+        setBookDAO(daoFactory.createMaterialDAO(MaterialType.BOOK));
+        setAudiovisualDAO(daoFactory.createMaterialDAO(MaterialType.AUDIOVISUAL));
+        setFilmDAO(daoFactory.createMaterialDAO(MaterialType.FILM));
+        setCompactDiskDAO(daoFactory.createMaterialDAO(MaterialType.COMPACT_DISK));
+        setDocumentaryDAO(daoFactory.createMaterialDAO(MaterialType.DOCUMENTARY));
+    }
+
+    /**
+     * Gets the resolver of the id references between libraries, materials and users,
+     * resolver.cached(size) gives one with a cache per thread
+     * @return The resolver, without cache
+     */
+    public EntityResolver getResolver() {
+        return resolver;
+    }
+
+    /**
+     * Gets the locks that protect the DAOs and the records of the network
+     * @return The lock manager
+     */
+    public LockManager getLocks() {
+        return locks;
     }
 
     public LibraryDAO getLibraryDAO() {
@@ -34,205 +146,655 @@ public class LibraryNetwork {
     }
 
     public void setLibraryDAO(LibraryDAO libraryDAO) {
-        this.libraryDAO = libraryDAO;
+        locks.exclusive(() -> {
+            unwatchLibraries(this.libraryDAO);
+            this.libraryDAO = libraryDAO;
+            watchLibraries(libraryDAO);
+        });
     }
 
-    public UserDAO getUserDAO() {
+    public InterfaceUserDAO getUserDAO() {
         return userDAO;
     }
 
-    public void setUserDAO(UserDAO userDAO) {
-        this.userDAO = userDAO;
+    public void setUserDAO(InterfaceUserDAO userDAO) {
+        locks.exclusive(() -> {
+            if (this.userDAO != null) {
+                this.userDAO.removeListener(userListener);
+            }
+            this.userDAO = userDAO;
+            userDAO.addListener(userListener);
+        });
     }
 
-    public MaterialDAO getBookDAO() {
+    public InterfaceDAO<Material> getBookDAO() {
         return bookDAO;
     }
 
-    public void setBookDAO(MaterialDAO bookDAO) {
-        this.bookDAO = bookDAO;
+    public void setBookDAO(InterfaceDAO<Material> bookDAO) {
+        locks.exclusive(() -> {
+            unwatch(this.bookDAO, materialListeners.get(MaterialType.BOOK));
+            this.bookDAO = bookDAO;
+            watchMaterials(MaterialType.BOOK, bookDAO);
+        });
     }
 
-    public MaterialDAO getAudiovisualDAO() {
+    public InterfaceDAO<Material> getAudiovisualDAO() {
         return audiovisualDAO;
     }
 
-    public void setAudiovisualDAO(MaterialDAO audiovisualDAO) {
-        this.audiovisualDAO = audiovisualDAO;
+    public void setAudiovisualDAO(InterfaceDAO<Material> audiovisualDAO) {
+        locks.exclusive(() -> {
+            unwatch(this.audiovisualDAO, materialListeners.get(MaterialType.AUDIOVISUAL));
+            this.audiovisualDAO = audiovisualDAO;
+            watchMaterials(MaterialType.AUDIOVISUAL, audiovisualDAO);
+        });
     }
 
-    public MaterialDAO getFilmDAO() {
+    public InterfaceDAO<Material> getFilmDAO() {
         return filmDAO;
     }
 
-    public void setFilmDAO(MaterialDAO filmDAO) {
-        this.filmDAO = filmDAO;
+    public void setFilmDAO(InterfaceDAO<Material> filmDAO) {
+        locks.exclusive(() -> {
+            unwatch(this.filmDAO, materialListeners.get(MaterialType.FILM));
+            this.filmDAO = filmDAO;
+            watchMaterials(MaterialType.FILM, filmDAO);
+        });
     }
 
-    public MaterialDAO getCompactDiskDAO() {
+    public InterfaceDAO<Material> getCompactDiskDAO() {
         return compactDiskDAO;
     }
 
-    public void setCompactDiskDAO(MaterialDAO compactDiskDAO) {
-        this.compactDiskDAO = compactDiskDAO;
+    public void setCompactDiskDAO(InterfaceDAO<Material> compactDiskDAO) {
+        locks.exclusive(() -> {
+            unwatch(this.compactDiskDAO, materialListeners.get(MaterialType.COMPACT_DISK));
+            this.compactDiskDAO = compactDiskDAO;
+            watchMaterials(MaterialType.COMPACT_DISK, compactDiskDAO);
+        });
     }
 
-    public MaterialDAO getDocumentaryDAO() {
+    public InterfaceDAO<Material> getDocumentaryDAO() {
         return documentaryDAO;
     }
 
-    public void setDocumentaryDAO(MaterialDAO documentaryDAO) {
-        this.documentaryDAO = documentaryDAO;
+    public void setDocumentaryDAO(InterfaceDAO<Material> documentaryDAO) {
+        locks.exclusive(() -> {
+            unwatch(this.documentaryDAO, materialListeners.get(MaterialType.DOCUMENTARY));
+            this.documentaryDAO = documentaryDAO;
+            watchMaterials(MaterialType.DOCUMENTARY, documentaryDAO);
+        });
     }
 
     public boolean addLibrary(Library library) {
-        return libraryDAO.add(library);
+        return write(LockManager.LIBRARIES, () -> ids[LockManager.LIBRARIES].claim(library.getId()) && libraryDAO.add(library));
     }
 
     public boolean addUser(User user) {
-        return userDAO.add(user);
+        return write(LockManager.USERS, () -> ids[LockManager.USERS].claim(user.getId()) && userDAO.add(user));
     }
 
     public boolean addBook(Material book) {
-        return bookDAO.add(book);
+        return write(BOOKS, () -> ids[BOOKS].claim(book.getId()) && bookDAO.add(book));
     }
 
     public boolean addAudiovisual(Material audiovisual) {
-        return audiovisualDAO.add(audiovisual);
+        return write(AUDIOVISUALS, () -> ids[AUDIOVISUALS].claim(audiovisual.getId()) && audiovisualDAO.add(audiovisual));
     }
 
     public boolean addFilm(Material films) {
-        return filmDAO.add(films);
+        return write(FILMS, () -> ids[FILMS].claim(films.getId()) && filmDAO.add(films));
     }
 
     public boolean addCompactDisks(Material compactDisks) {
-        return compactDiskDAO.add(compactDisks);
+        return write(COMPACT_DISKS, () -> ids[COMPACT_DISKS].claim(compactDisks.getId()) && compactDiskDAO.add(compactDisks));
     }
 
     public boolean addDocumentary(Material documentary) {
-        return documentaryDAO.add(documentary);
+        return write(DOCUMENTARIES, () -> ids[DOCUMENTARIES].claim(documentary.getId()) && documentaryDAO.add(documentary));
+    }
+
+    /**
+     * Adds a library with a new id, which is set on the library
+     * @param library The library to add, its id is replaced
+     * @return true if the library was added
+     */
+    public boolean addNewLibrary(Library library) {
+        int id = ids[LockManager.LIBRARIES].allocate();
+        library.setId(id);
+        return write(LockManager.LIBRARIES, () -> addedNew(LockManager.LIBRARIES, libraryDAO, id, libraryDAO.addNew(library)));
+    }
+
+    /**
+     * Adds a user with a new id, which is set on the user
+     * @param user The user to add, its id is replaced
+     * @return true if the user was added, false if the email or the phone is taken
+     */
+    public boolean addNewUser(User user) {
+        int id = ids[LockManager.USERS].allocate();
+        user.setId(id);
+        return write(LockManager.USERS, () -> addedNew(LockManager.USERS, userDAO, id, userDAO.addNew(user)));
+    }
+
+    /**
+     * Adds a material with a new id of its type, which is set on the material
+     * @param type The material type
+     * @param material The material to add, its id is replaced
+     * @return true if the material was added
+     */
+    public boolean addNewMaterial(MaterialType type, Material material) {
+        int table = LockManager.tableOf(type);
+        int id = ids[table].allocate();
+        material.setId(id);
+        return write(table, () -> addedNew(table, getMaterialDAO(type), id, getMaterialDAO(type).addNew(material)));
+    }
+
+    /**
+     * Starts the ids of every table again after the largest stored one, once records were
+     * added to the DAOs without claiming their ids, as a restore or a journal replay does
+     */
+    public void resetIds() {
+        locks.exclusive(() -> {
+            for (IdAllocator allocator : ids) {
+                allocator.reset();
+            }
+        });
     }
 
     public boolean removeLibrary(int id) {
-        return libraryDAO.delete(id);
+        return write(LockManager.LIBRARIES, () -> released(LockManager.LIBRARIES, id, libraryDAO.delete(id)));
     }
 
     public boolean removeUser(int id) {
-        return userDAO.delete(id);
+        return write(LockManager.USERS, () -> released(LockManager.USERS, id, userDAO.delete(id)));
     }
 
     public boolean removeBook(int id) {
-        return bookDAO.delete(id);
+        return write(BOOKS, () -> released(BOOKS, id, bookDAO.delete(id)));
     }
 
     public boolean removeAudiovisual(int id) {
-        return audiovisualDAO.delete(id);
+        return write(AUDIOVISUALS, () -> released(AUDIOVISUALS, id, audiovisualDAO.delete(id)));
     }
 
     public boolean removeFilm(int id) {
-        return filmDAO.delete(id);
+        return write(FILMS, () -> released(FILMS, id, filmDAO.delete(id)));
     }
 
     public boolean removeCompactDisk(int id) {
-        return compactDiskDAO.delete(id);
+        return write(COMPACT_DISKS, () -> released(COMPACT_DISKS, id, compactDiskDAO.delete(id)));
     }
 
     public boolean removeDocumentary(int id) {
-        return documentaryDAO.delete(id);
+        return write(DOCUMENTARIES, () -> released(DOCUMENTARIES, id, documentaryDAO.delete(id)));
+    }
+
+    public User findUserByEmail(String email) {
+        return locks.read(LockManager.USERS, () -> userDAO.findByEmail(email));
+    }
+
+    public User findUserByPhone(String fullNumber) {
+        return locks.read(LockManager.USERS, () -> userDAO.findByPhone(fullNumber));
+    }
+
+    public List<User> findUsersByNamePrefix(String prefix, int limit) {
+        return locks.scan(LockManager.USERS, () -> userDAO.findByNamePrefix(prefix, limit));
     }
 
     public Library getLibrary(int id) {
-        return libraryDAO.read(id);
+        return locks.read(LockManager.LIBRARIES, () -> libraryDAO.read(id));
     }
 
     public User getUser(int id) {
-        return userDAO.read(id);
+        return locks.read(LockManager.USERS, () -> userDAO.read(id));
     }
 
     public Material getBook(int id) {
-        return bookDAO.read(id);
+        return locks.read(BOOKS, () -> bookDAO.read(id));
     }
 
     public Material getAudiovisual(int id) {
-        return audiovisualDAO.read(id);
+        return locks.read(AUDIOVISUALS, () -> audiovisualDAO.read(id));
     }
 
     public Material getFilm(int id) {
-        return filmDAO.read(id);
+        return locks.read(FILMS, () -> filmDAO.read(id));
     }
 
     public Material getCompactDisk(int id) {
-        return compactDiskDAO.read(id);
+        return locks.read(COMPACT_DISKS, () -> compactDiskDAO.read(id));
     }
 
     public Material getDocumentary(int id) {
-        return documentaryDAO.read(id);
+        return locks.read(DOCUMENTARIES, () -> documentaryDAO.read(id));
     }
 
     public boolean updateLibrary(int id, Library library) {
-        return libraryDAO.update(id, library);
+        return write(LockManager.LIBRARIES, () -> libraryDAO.update(id, library));
     }
 
     public boolean updateUser(int id, User user) {
-        return userDAO.update(id, user);
+        return write(LockManager.USERS, () -> userDAO.update(id, user));
     }
 
     public boolean updateBook(int id, Material book) {
-        return bookDAO.update(id, book);
+        return write(BOOKS, () -> bookDAO.update(id, book));
     }
 
     public boolean updateAudiovisual(int id, Material audiovisual) {
-        return audiovisualDAO.update(id, audiovisual);
+        return write(AUDIOVISUALS, () -> audiovisualDAO.update(id, audiovisual));
     }
 
     public boolean updateFilm(int id, Material films) {
-        return filmDAO.update(id, films);
+        return write(FILMS, () -> filmDAO.update(id, films));
     }
 
     public boolean updateCompactDisk(int id, Material compactDisks) {
-        return compactDiskDAO.update(id, compactDisks);
+        return write(COMPACT_DISKS, () -> compactDiskDAO.update(id, compactDisks));
     }
 
     public boolean updateDocumentary(int id, Material documentary) {
-        return documentaryDAO.update(id, documentary);
+        return write(DOCUMENTARIES, () -> documentaryDAO.update(id, documentary));
     }
 
     public ArrayList<Library> getLibraries() {
-        return libraryDAO.readAll();
+        return locks.scan(LockManager.LIBRARIES, libraryDAO::readAll);
     }
 
     public ArrayList<User> getUsers() {
-        return userDAO.readAll();
+        return locks.scan(LockManager.USERS, userDAO::readAll);
     }
 
     public ArrayList<Material> getBooks() {
-        return bookDAO.readAll();
+        return locks.scan(BOOKS, bookDAO::readAll);
     }
 
     public ArrayList<Material> getAudiovisuals() {
-        return audiovisualDAO.readAll();
+        return locks.scan(AUDIOVISUALS, audiovisualDAO::readAll);
     }
 
     public ArrayList<Material> getFilms() {
-        return filmDAO.readAll();
+        return locks.scan(FILMS, filmDAO::readAll);
     }
 
     public ArrayList<Material> getCompactDisks() {
-        return compactDiskDAO.readAll();
+        return locks.scan(COMPACT_DISKS, compactDiskDAO::readAll);
     }
 
     public ArrayList<Material> getDocumentaries() {
-        return documentaryDAO.readAll();
+        return locks.scan(DOCUMENTARIES, documentaryDAO::readAll);
+    }
+
+    /**
+     * Gets the DAO that stores the given type of material
+     * @param type The material type
+     * @return The DAO of that type
+     */
+    public InterfaceDAO<Material> getMaterialDAO(MaterialType type) {
+        switch (type) {
+            case BOOK:
+                return bookDAO;
+            case AUDIOVISUAL:
+                return audiovisualDAO;
+            case FILM:
+                return filmDAO;
+            case DOCUMENTARY:
+                return documentaryDAO;
+            case COMPACT_DISK:
+                return compactDiskDAO;
+            default:
+                throw new IllegalArgumentException("Invalid material type");
+        }
+    }
+
+    public Material getMaterial(MaterialType type, int id) {
+        return locks.read(LockManager.tableOf(type), () -> getMaterialDAO(type).read(id));
+    }
+
+    /**
+     * Finds the type of a stored material by checking which DAO holds it
+     * @param material The stored material
+     * @return The material type, or null if the material is not stored
+     */
+    public MaterialType getMaterialType(Material material) {
+        for (MaterialType type : MaterialType.values()) {
+            if (getMaterial(type, material.getId()) == material) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    public List<Material> findMaterialsByName(MaterialType type, String name) {
+        return query(new MaterialQuery(type, MaterialQuery.Field.NAME, name));
+    }
+
+    public List<Material> findMaterialsByAuthor(MaterialType type, String author) {
+        return query(new MaterialQuery(type, MaterialQuery.Field.AUTHOR, author));
+    }
+
+    public List<Material> findMaterialsByLanguage(MaterialType type, String language) {
+        return query(new MaterialQuery(type, MaterialQuery.Field.LANGUAGE, language));
+    }
+
+    public List<Material> findMaterialsByStatus(MaterialType type, Status status) {
+        return query(new MaterialQuery(type, MaterialQuery.Field.STATUS, status.name()));
+    }
+
+    public List<Material> findMaterialsByLibrary(MaterialType type, int libraryId) {
+        return query(new MaterialQuery(type, MaterialQuery.Field.LIBRARY, String.valueOf(libraryId)));
+    }
+
+    /**
+     * Searches the materials whose name or author contains the given text (case insensitive)
+     * @param type The material type
+     * @param text The text to search
+     * @return The matching materials
+     */
+    public List<Material> searchMaterials(MaterialType type, String text) {
+        return query(new MaterialQuery(type, MaterialQuery.Field.TEXT, text));
+    }
+
+    /**
+     * Searches the names and authors of every material type allowing typos and missing accents,
+     * e.g. "dostoievski" finds "Dostoyevsky"
+     * @param text The text to search
+     * @param limit The maximum number of results
+     * @return The closest materials first
+     */
+    public List<FuzzyMatch> fuzzySearchMaterials(String text, int limit) {
+        List<FuzzyMatch> matches = new ArrayList<>();
+        for (TrigramIndex.Hit hit : titleIndex.search(text, limit)) {
+            MaterialType type = FuzzyMatch.typeOf(hit.getKey());
+            Material material = getMaterial(type, FuzzyMatch.idOf(hit.getKey()));
+            if (material != null) {
+                matches.add(new FuzzyMatch(type, material, hit.getDistance()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Borrows a material for a user and publishes the status change to the material DAO
+     * and the loan to the user DAO, so caches and indexes see them
+     * @param user The user borrowing
+     * @param ref The reference to the material to borrow
+     * @return true if the material was borrowed
+     */
+    public boolean borrowMaterial(User user, MaterialRef ref) {
+        Material material = resolver.material(ref);
+        Library library = material == null ? null : resolver.libraryOf(material);
+        if (library == null) {
+            return false;
+        }
+        return loan(user, library, ref, () -> {
+            if (!isStored(ref, material, library)) {
+                return false;
+            }
+            Material previous = new Material(material);
+            User previousUser = new User(user);
+            user.borrowMaterial(library, ref, material);
+            boolean borrowed = ref.equals(user.getBorrowedMaterial());
+            publishStatusChange(ref.getType(), previous, material);
+            publishLoanChange(previousUser, user);
+            return borrowed;
+        });
+    }
+
+    /**
+     * Returns the material borrowed by a user and publishes the changes to the material and user DAOs
+     * @param user The user returning the material
+     * @return true if the material was returned
+     */
+    public boolean returnMaterial(User user) {
+        MaterialRef ref = user.getBorrowedMaterial();
+        Material material = resolver.material(ref);
+        Library library = material == null ? null : resolver.libraryOf(material);
+        if (library == null) {
+            return false;
+        }
+        return loan(user, library, ref, () -> {
+            if (!ref.equals(user.getBorrowedMaterial()) || !isStored(ref, material, library)) {
+                return false;
+            }
+            Material previous = new Material(material);
+            User previousUser = new User(user);
+            user.returnMaterial(library, material);
+            publishStatusChange(ref.getType(), previous, material);
+            publishLoanChange(previousUser, user);
+            return user.getBorrowedMaterial() == null;
+        });
+    }
+
+    /**
+     * Gets the materials borrowed the most from a library during the last week
+     * @param libraryId The library id
+     * @return Up to 100 materials ordered from the most borrowed, with estimated counts
+     */
+    public List<PopularItem> getMostBorrowed(int libraryId) {
+        return popularityTracker.topK(libraryId);
+    }
+
+    /**
+     * Gets the materials borrowed the most in the whole network during the last week
+     * @return Up to 100 materials ordered from the most borrowed, with estimated counts
+     */
+    public List<PopularItem> getMostBorrowedInNetwork() {
+        return popularityTracker.topK(PopularityTracker.NETWORK);
+    }
+
+    /**
+     * Gets the materials borrowed the most by the patrons who borrowed a material
+     * @param ref The reference to the material
+     * @return Up to 10 materials ordered by the number of shared patrons, deleted ones may be included
+     */
+    public List<PopularItem> getAlsoBorrowed(MaterialRef ref) {
+        return coBorrowIndex.alsoBorrowed(ref.getKey());
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the query cache
+     * @return The cache statistics
+     */
+    public CacheStats getQueryCacheStats() {
+        return queryCache.getStats();
+    }
+
+    private List<Material> query(MaterialQuery query) {
+        List<Material> result = queryCache.get(query);
+        if (result != null) {
+            return result;
+        }
+        // Borrows change statuses under the read lock, a result that overlapped one is not cached
+        long generation = queryCache.generation();
+        ArrayList<Material> matches = locks.scan(LockManager.tableOf(query.getType()),
+                () -> getMaterialDAO(query.getType()).readMatching(query::matches));
+        result = Collections.unmodifiableList(matches);
+        queryCache.put(query, result, matches.size() + 1L, generation);
+        return result;
+    }
+
+    /**
+     * Releases the id of a record that was not added, unless a record added behind the
+     * allocator holds it
+     */
+    private <T> boolean addedNew(int table, InterfaceDAO<T> dao, int id, boolean added) {
+        if (!added && dao.read(id) == null) {
+            ids[table].release(id);
+        }
+        return added;
+    }
+
+    private boolean released(int table, int id, boolean deleted) {
+        if (deleted) {
+            ids[table].release(id);
+        }
+        return deleted;
+    }
+
+    /**
+     * Finds the largest id of a DAO, the first id generated for its table comes after it
+     */
+    private <T> int highestId(int table, InterfaceDAO<T> dao, ToIntFunction<T> idOf) {
+        return locks.scan(table, () -> {
+            int[] highest = new int[1];
+            dao.spliterator().forEachRemaining(record -> highest[0] = Math.max(highest[0], idOf.applyAsInt(record)));
+            return highest[0];
+        });
+    }
+
+    private <T> T write(int table, Supplier<T> change) {
+        LockManager.Scope scope = locks.write(table);
+        try {
+            return change.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Runs a change of a loan with the user, the library and the material locked, the objects
+     * were resolved before and are checked again with isStored
+     */
+    private boolean loan(User user, Library library, MaterialRef ref, BooleanSupplier change) {
+        LockManager.Scope scope = locks.entities(LockManager.keyOf(LockManager.USERS, user.getId()),
+                LockManager.keyOf(LockManager.LIBRARIES, library.getId()),
+                LockManager.keyOf(LockManager.tableOf(ref.getType()), ref.getId()));
+        try {
+            return change.getAsBoolean();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Checks that a material and its library resolved without locks were not deleted or
+     * replaced before the scope of the loan was acquired
+     */
+    private boolean isStored(MaterialRef ref, Material material, Library library) {
+        return resolver.material(ref) == material && resolver.libraryOf(material) == library;
+    }
+
+    private void publishStatusChange(MaterialType type, Material previous, Material material) {
+        if (previous.getStatus() != material.getStatus()) {
+            getMaterialDAO(type).markUpdated(previous, material);
+        }
+    }
+
+    private void publishLoanChange(User previous, User user) {
+        // Lets the user DAO keep the loan of users whose records are not kept as objects
+        if (previous.getBorrowedMaterial() != user.getBorrowedMaterial()) {
+            userDAO.markUpdated(previous, user);
+        }
+    }
+
+    private void recordBorrow(Library library, MaterialRef material, User user) {
+        popularityTracker.recordBorrow(library.getId(), material.getKey());
+        coBorrowIndex.recordBorrow(user.getId(), material.getKey());
+    }
+
+    private void watchLibraries(LibraryDAO dao) {
+        resolver.invalidate();
+        // Stored libraries report their borrows to the popularity tracker
+        for (Library library : dao.readAll()) {
+            library.addBorrowListener(borrowRecorder);
+        }
+        for (DAOListener<Library> listener : libraryListeners) {
+            dao.addListener(listener);
+        }
+    }
+
+    private void unwatchLibraries(LibraryDAO dao) {
+        if (dao == null) {
+            return;
+        }
+        unwatch(dao, libraryListeners);
+        for (Library library : dao.readAll()) {
+            library.removeBorrowListener(borrowRecorder);
+        }
+    }
+
+    private void watchMaterials(MaterialType type, InterfaceDAO<Material> dao) {
+        resolver.invalidate();
+        // Cached results of the replaced DAO are stale
+        queryCache.invalidateIf(query -> query.getType() == type);
+        // Index the materials already stored in the new DAO
+        titleIndex.removeIf(key -> FuzzyMatch.typeOf(key) == type);
+        for (Material material : dao.readAll()) {
+            titleIndex.add(FuzzyMatch.keyOf(type, material.getId()), material.getName(), material.getAuthor());
+        }
+        for (DAOListener<Material> listener : materialListeners.get(type)) {
+            dao.addListener(listener);
+        }
+    }
+
+    private static <T> void unwatch(InterfaceDAO<T> dao, List<DAOListener<T>> listeners) {
+        if (dao != null) {
+            for (DAOListener<T> listener : listeners) {
+                dao.removeListener(listener);
+            }
+        }
+    }
+
+    private List<DAOListener<Library>> libraryListeners() {
+        List<DAOListener<Library>> listeners = new ArrayList<>();
+        listeners.add(resolver.invalidator());
+        listeners.add(new DAOListener<Library>() {
+            @Override
+            public void onAdd(Library library) {
+                library.addBorrowListener(borrowRecorder);
+            }
+
+            @Override
+            public void onUpdate(Library previous, Library current) {
+            }
+
+            @Override
+            public void onDelete(Library library) {
+                library.removeBorrowListener(borrowRecorder);
+                popularityTracker.removeLibrary(library.getId());
+            }
+        });
+        return listeners;
+    }
+
+    private DAOListener<User> userListener() {
+        return new DAOListener<User>() {
+            @Override
+            public void onAdd(User user) {
+            }
+
+            @Override
+            public void onUpdate(User previous, User current) {
+            }
+
+            @Override
+            public void onDelete(User user) {
+                coBorrowIndex.removeUser(user.getId());
+            }
+        };
+    }
+
+    private List<DAOListener<Material>> materialListeners(MaterialType type) {
+        List<DAOListener<Material>> listeners = new ArrayList<>();
+        listeners.add(resolver.invalidator());
+        listeners.add(new MaterialQueryInvalidator(type, queryCache));
+        listeners.add(new TrigramIndexUpdater(type, titleIndex));
+        listeners.add(new DAOListener<Material>() {
+            @Override
+            public void onAdd(Material material) {
+            }
+
+            @Override
+            public void onUpdate(Material previous, Material current) {
+            }
+
+            @Override
+            public void onDelete(Material material) {
+                coBorrowIndex.removeMaterial(PopularItem.keyOf(type, material.getId()));
+            }
+        });
+        return listeners;
     }
-
-
-
-
-
-    // Missing methods for searching by name, author, etc.
-    /* Also, the searches methods from Material's children classes
-    uses the Material DAO class because has the same attributes and methods, however
-    they should be implemented in their respective DAO classes. */
-
-
 }
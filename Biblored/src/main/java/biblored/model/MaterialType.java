@@ -0,0 +1,5 @@
+package biblored.model;
+
+public enum MaterialType {
+    BOOK, AUDIOVISUAL, FILM, DOCUMENTARY, COMPACT_DISK
+}
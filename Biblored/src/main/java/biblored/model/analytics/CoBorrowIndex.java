@@ -0,0 +1,185 @@
+package biblored.model.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * "Patrons also borrowed" statistics maintained on every borrow. Each patron keeps a ring
+ * with the keys of its last borrows, and a borrow counts one co-borrow between the new
+ * material and every material in the ring, in both directions.
+ * Every material keeps at most a fixed number of neighbors ordered by count. When the list
+ * is full a new neighbor replaces the weakest one and inherits its count plus one (the
+ * space-saving rule), so rare pairs are pruned and counts are upper bounds. A count is too
+ * high by at most the co-borrows of the material divided by the capacity, and a neighbor
+ * co-borrowed more often than that is never pruned. A lookup copies the first K neighbors.
+ * Memory is bounded by materials * capacity plus patrons * history.
+ * Materials are identified by the keys of PopularItem.keyOf.
+ */
+public class CoBorrowIndex {
+    private final int k;
+    private final int capacity;
+    private final int history;
+    private final HashMap<Long, Neighbors> neighbors;
+    private final HashMap<Integer, long[]> recentBorrows;
+
+    /**
+     * Creates an index of the 10 best neighbors, with room for 20 and the last 8 borrows
+     * of every patron
+     */
+    public CoBorrowIndex() {
+        this(10, 20, 8);
+    }
+
+    /**
+     * Constructor for CoBorrowIndex
+     *
+     * @param k the number of neighbors returned by a lookup
+     * @param capacity the neighbors kept per material, at least k
+     * @param history the borrows remembered per patron
+     */
+    public CoBorrowIndex(int k, int capacity, int history) {
+        if (k <= 0 || capacity < k || history <= 0) {
+            throw new IllegalArgumentException("Invalid index configuration");
+        }
+        this.k = k;
+        this.capacity = capacity;
+        this.history = history;
+        this.neighbors = new HashMap<>();
+        this.recentBorrows = new HashMap<>();
+    }
+
+    /**
+     * Records a borrow against the recent borrows of the same patron
+     * Complexity: O(history * capacity)
+     *
+     * @param userId the id of the patron
+     * @param materialKey the key of the borrowed material
+     */
+    public synchronized void recordBorrow(int userId, long materialKey) {
+        long[] ring = recentBorrows.get(userId);
+        if (ring == null) {
+            // Slot 0 holds the number of borrows recorded, the keys follow
+            ring = new long[history + 1];
+            recentBorrows.put(userId, ring);
+        }
+        int recorded = (int) Math.min(ring[0], history);
+        for (int i = 1; i <= recorded; i++) {
+            if (ring[i] == materialKey) {
+                // Borrowing a title again does not make its neighbors more related
+                return;
+            }
+        }
+        if (recorded > 0) {
+            Neighbors own = neighborsOf(materialKey);
+            for (int i = 1; i <= recorded; i++) {
+                own.increment(ring[i]);
+                neighborsOf(ring[i]).increment(materialKey);
+            }
+        }
+        ring[1 + (int) (ring[0] % history)] = materialKey;
+        ring[0]++;
+    }
+
+    /**
+     * Gets the materials borrowed the most by the patrons of a material
+     * Complexity: O(K)
+     *
+     * @param materialKey the key of the material
+     * @return up to K materials ordered by the number of co-borrows
+     */
+    public synchronized List<PopularItem> alsoBorrowed(long materialKey) {
+        Neighbors list = neighbors.get(materialKey);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        int count = Math.min(k, list.size);
+        List<PopularItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new PopularItem(list.keys[i], list.counts[i]));
+        }
+        return items;
+    }
+
+    /**
+     * Forgets the neighbors of a deleted material. It may still appear in the lists of other
+     * materials until it is pruned, callers skip materials that do not resolve.
+     *
+     * @param materialKey the key of the material
+     */
+    public synchronized void removeMaterial(long materialKey) {
+        neighbors.remove(materialKey);
+    }
+
+    /**
+     * Forgets the recent borrows of a patron
+     *
+     * @param userId the id of the patron
+     */
+    public synchronized void removeUser(int userId) {
+        recentBorrows.remove(userId);
+    }
+
+    private Neighbors neighborsOf(long materialKey) {
+        Neighbors list = neighbors.get(materialKey);
+        if (list == null) {
+            list = new Neighbors();
+            neighbors.put(materialKey, list);
+        }
+        return list;
+    }
+
+    /**
+     * Neighbors of one material ordered by count, highest first, grown up to the capacity
+     */
+    private class Neighbors {
+        private long[] keys = new long[4];
+        private int[] counts = new int[4];
+        private int size;
+
+        private void increment(long key) {
+            int position = indexOf(key);
+            if (position >= 0) {
+                counts[position]++;
+            } else if (size < capacity) {
+                if (size == keys.length) {
+                    int grown = Math.min(capacity, size * 2);
+                    keys = Arrays.copyOf(keys, grown);
+                    counts = Arrays.copyOf(counts, grown);
+                }
+                position = size++;
+                keys[position] = key;
+                counts[position] = 1;
+            } else {
+                position = size - 1;
+                keys[position] = key;
+                counts[position]++;
+            }
+            // Only the incremented entry can be out of order, it moves up past smaller counts
+            while (position > 0 && counts[position - 1] < counts[position]) {
+                swap(position - 1, position);
+                position--;
+            }
+        }
+
+        private int indexOf(long key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void swap(int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int count = counts[i];
+            counts[i] = counts[j];
+            counts[j] = count;
+        }
+    }
+}
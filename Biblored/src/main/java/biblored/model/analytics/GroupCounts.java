@@ -0,0 +1,112 @@
+package biblored.model.analytics;
+
+/**
+ * Counts per group key in two primitive arrays with linear probing, the partial aggregate
+ * of one report worker. A count of 0 marks a free slot, stored counts are at least 1.
+ */
+class GroupCounts {
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys;
+    private long[] counts;
+    private int size;
+
+    GroupCounts() {
+        this.keys = new long[64];
+        this.counts = new long[64];
+        this.size = 0;
+    }
+
+    /**
+     * Adds to the count of a key
+     * Complexity: O(1) amortized
+     *
+     * @param key the group key
+     * @param amount the amount added, positive
+     */
+    void add(long key, long amount) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (counts[i] != 0) {
+            if (keys[i] == key) {
+                counts[i] += amount;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        counts[i] = amount;
+        if (++size > keys.length * MAX_LOAD) {
+            resize();
+        }
+    }
+
+    /**
+     * Adds every count of another partial aggregate to this one
+     * Complexity: O(groups of other)
+     *
+     * @param other the partial aggregate merged in
+     */
+    void addAll(GroupCounts other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.counts[i] != 0) {
+                add(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the keys, ordered by slot
+     *
+     * @return the keys
+     */
+    long[] keys() {
+        long[] copy = new long[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] != 0) {
+                copy[n++] = keys[i];
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the count of a key
+     * Complexity: O(1)
+     *
+     * @param key the group key
+     * @return the count, 0 if the key was never added
+     */
+    long get(long key) {
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); counts[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new long[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                add(oldKeys[i], oldCounts[i]);
+            }
+        }
+    }
+
+    private static int index(long key, int mask) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & mask;
+    }
+}
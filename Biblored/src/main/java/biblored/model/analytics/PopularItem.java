@@ -0,0 +1,56 @@
+package biblored.model.analytics;
+
+import biblored.model.MaterialType;
+
+/**
+ * A material with its estimated number of borrows in the current window.
+ * Materials are identified by a key that packs the material type and id,
+ * because ids are only unique inside one material DAO.
+ */
+public class PopularItem {
+    private final long key;
+    private final int count;
+
+    /**
+     * Constructor for PopularItem
+     *
+     * @param key the material key, see keyOf
+     * @param count the estimated number of borrows
+     */
+    public PopularItem(long key, int count) {
+        this.key = key;
+        this.count = count;
+    }
+
+    /**
+     * Builds the key of a material
+     *
+     * @param type the material type
+     * @param materialId the material id
+     * @return the packed key
+     */
+    public static long keyOf(MaterialType type, int materialId) {
+        return ((long) type.ordinal() << 32) | (materialId & 0xFFFFFFFFL);
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public MaterialType getMaterialType() {
+        return MaterialType.values()[(int) (key >>> 32)];
+    }
+
+    public int getMaterialId() {
+        return (int) key;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "PopularItem{" + getMaterialType() + " #" + getMaterialId() + ", count=" + count + '}';
+    }
+}
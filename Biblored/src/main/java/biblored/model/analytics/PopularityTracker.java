@@ -0,0 +1,166 @@
+package biblored.model.analytics;
+
+import biblored.model.sketch.CountMinSketch;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Streaming "most borrowed" statistics over a sliding time window, per library and network wide.
+ * The window is split in buckets (for example 7 buckets of one day for "this week"). Every
+ * bucket has its own count-min sketch, so the count of a material in the window is the sum of
+ * its estimates in the live buckets, and expiring a bucket only clears one sketch.
+ * Next to the sketches a TopKHeap keeps the K best candidates, so memory does not depend
+ * on the catalog size. A query sorts the K entries of the heap, O(K log K) whatever the
+ * number of materials, since the heap itself is only ordered by its root.
+ */
+public class PopularityTracker {
+    public static final int NETWORK = -1;
+
+    private static final int SKETCH_DEPTH = 4;
+
+    private final int k;
+    private final int buckets;
+    private final long bucketMillis;
+    private final int sketchWidth;
+    private final Clock clock;
+    private final HashMap<Integer, Window> windows;
+
+    /**
+     * Creates a tracker for the top 100 of the last 7 days with daily buckets
+     */
+    public PopularityTracker() {
+        this(100, Duration.ofDays(7), 7, 2048, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor for PopularityTracker
+     *
+     * @param k the number of materials kept in every top list
+     * @param window the length of the sliding window
+     * @param buckets the number of buckets the window is split in
+     * @param sketchWidth the counters per row of every sketch, the error is about 2N/width
+     * @param clock the source of time
+     */
+    public PopularityTracker(int k, Duration window, int buckets, int sketchWidth, Clock clock) {
+        if (buckets <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Invalid window configuration");
+        }
+        this.k = k;
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.sketchWidth = sketchWidth;
+        this.clock = clock;
+        this.windows = new HashMap<>();
+    }
+
+    /**
+     * Records one borrow of a material in a library and in the network totals
+     * Complexity: O(buckets + log K)
+     *
+     * @param libraryId the id of the lending library
+     * @param materialKey the key of the material, see PopularItem.keyOf
+     */
+    public synchronized void recordBorrow(int libraryId, long materialKey) {
+        long now = clock.millis();
+        windowOf(libraryId).record(materialKey, now);
+        windowOf(NETWORK).record(materialKey, now);
+    }
+
+    /**
+     * Gets the most borrowed materials of a library in the current window
+     * Complexity: O(K log K)
+     *
+     * @param libraryId the library id, or NETWORK for the whole network
+     * @return the materials ordered from the most borrowed
+     */
+    public synchronized List<PopularItem> topK(int libraryId) {
+        Window window = windows.get(libraryId);
+        if (window == null) {
+            return Collections.emptyList();
+        }
+        window.advance(clock.millis());
+        return window.top.toSortedList();
+    }
+
+    /**
+     * Estimates how many times a material was borrowed in the current window
+     * Complexity: O(buckets)
+     *
+     * @param libraryId the library id, or NETWORK for the whole network
+     * @param materialKey the key of the material
+     * @return an upper bound of the real count
+     */
+    public synchronized int estimate(int libraryId, long materialKey) {
+        Window window = windows.get(libraryId);
+        if (window == null) {
+            return 0;
+        }
+        window.advance(clock.millis());
+        return window.estimate(materialKey);
+    }
+
+    /**
+     * Forgets the statistics of a library
+     *
+     * @param libraryId the library id
+     */
+    public synchronized void removeLibrary(int libraryId) {
+        windows.remove(libraryId);
+    }
+
+    private Window windowOf(int libraryId) {
+        return windows.computeIfAbsent(libraryId, id -> new Window(clock.millis()));
+    }
+
+    /**
+     * Ring of sketches plus the top K candidates of one scope
+     */
+    private class Window {
+        private final CountMinSketch[] sketches;
+        private final TopKHeap top;
+        private long epoch;
+
+        private Window(long now) {
+            this.sketches = new CountMinSketch[buckets];
+            for (int i = 0; i < buckets; i++) {
+                sketches[i] = new CountMinSketch(sketchWidth, SKETCH_DEPTH);
+            }
+            this.top = new TopKHeap(k);
+            this.epoch = now / bucketMillis;
+        }
+
+        private void record(long key, long now) {
+            advance(now);
+            sketches[(int) (epoch % buckets)].increment(key);
+            top.offer(key, estimate(key));
+        }
+
+        private int estimate(long key) {
+            int total = 0;
+            for (CountMinSketch sketch : sketches) {
+                total += sketch.estimate(key);
+            }
+            return total;
+        }
+
+        /**
+         * Expires the buckets that left the window and refreshes the counts of the top candidates
+         */
+        private void advance(long now) {
+            long current = now / bucketMillis;
+            if (current <= epoch) {
+                return;
+            }
+            long expired = Math.min(current - epoch, buckets);
+            for (long i = 1; i <= expired; i++) {
+                sketches[(int) ((epoch + i) % buckets)].clear();
+            }
+            epoch = current;
+            top.refresh(this::estimate);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package biblored.model.analytics;
+
+/**
+ * Attributes of a material the ReportEngine can group by
+ */
+public enum ReportDimension {
+    /** The id of the owning library */
+    LIBRARY,
+    /** The language, as written in the catalog */
+    LANGUAGE,
+    /** The loan status */
+    STATUS,
+    /** The DAO the material is stored in */
+    MATERIAL_TYPE,
+    /** The year and month of registration, for example 2024-03 */
+    REGISTRATION_MONTH
+}
@@ -0,0 +1,324 @@
+package biblored.model.analytics;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.generic.Material;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Group-by, count and top-N aggregations over the whole catalog, computed with fork-join
+ * parallelism over the spliterators of the five material DAOs.
+ * Every DAO view is split in halves until the parts are small enough, each leaf counts its
+ * part in its own GroupCounts and the partial results are merged when the tasks are joined,
+ * so the workers share nothing but the dictionary of languages while they scan.
+ * A group key packs the int codes of at most two dimensions in a long, the labels are only
+ * built for the groups of the result. The mapped DAOs hand out flyweights to the scan, so
+ * the records are not materialized.
+ * A scan shares every table of the network (see LockManager), so adds and deletes wait for
+ * it while borrows and returns can still change statuses.
+ */
+public class ReportEngine {
+    private static final MaterialType[] TYPES = MaterialType.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final int NONE = Integer.MIN_VALUE;
+    private static final int MIN_LEAF = 4096;
+    private static final int LEAVES_PER_THREAD = 8;
+
+    private final LibraryNetwork network;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for ReportEngine
+     *
+     * @param network the network whose catalog is aggregated
+     * @param parallelism the number of worker threads
+     */
+    public ReportEngine(LibraryNetwork network, int parallelism) {
+        this.network = network;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Counts the materials of every DAO that a filter accepts
+     * Complexity: O(N / threads)
+     *
+     * @param filter the condition, null to count every material; it may receive reused views
+     * @return the number of materials
+     */
+    public long count(Predicate<? super Material> filter) {
+        return run(filter, new ReportDimension[0]).counts.get(0);
+    }
+
+    /**
+     * Counts the materials of every group
+     * Complexity: O(N / threads + G log G) for G groups
+     *
+     * @param filter the condition, null to count every material; it may receive reused views
+     * @param dimensions one or two dimensions to group by
+     * @return one row per group, ordered by the labels
+     */
+    public List<ReportRow> groupBy(Predicate<? super Material> filter, ReportDimension... dimensions) {
+        Scan scan = run(filter, checked(dimensions));
+        Long[] keys = boxed(scan.counts.keys());
+        Arrays.sort(keys, scan::compareKeys);
+        List<ReportRow> rows = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            rows.add(scan.row(key));
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the groups with the most materials
+     * Complexity: O(N / threads + G log G) for G groups
+     *
+     * @param n the number of groups returned
+     * @param filter the condition, null to count every material; it may receive reused views
+     * @param dimensions one or two dimensions to group by
+     * @return at most n rows, the largest groups first
+     */
+    public List<ReportRow> topN(int n, Predicate<? super Material> filter, ReportDimension... dimensions) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        Scan scan = run(filter, checked(dimensions));
+        GroupCounts counts = scan.counts;
+        Long[] keys = boxed(counts.keys());
+        Arrays.sort(keys, (a, b) -> Long.compare(counts.get(b), counts.get(a)));
+        List<ReportRow> rows = new ArrayList<>(Math.min(n, keys.length));
+        for (int i = 0; i < keys.length && i < n; i++) {
+            rows.add(scan.row(keys[i]));
+        }
+        return rows;
+    }
+
+    /**
+     * Stops the worker threads, the engine cannot be used afterwards
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static ReportDimension[] checked(ReportDimension[] dimensions) {
+        if (dimensions.length < 1 || dimensions.length > 2) {
+            throw new IllegalArgumentException("Reports group by one or two dimensions");
+        }
+        return dimensions;
+    }
+
+    private static Long[] boxed(long[] keys) {
+        Long[] boxed = new Long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            boxed[i] = keys[i];
+        }
+        return boxed;
+    }
+
+    private Scan run(Predicate<? super Material> filter, ReportDimension[] dimensions) {
+        Scan scan = new Scan(filter, dimensions);
+        network.getLocks().shared(() -> {
+            List<Spliterator<Material>> views = new ArrayList<>(TYPES.length);
+            long total = 0;
+            for (MaterialType type : TYPES) {
+                Spliterator<Material> view = network.getMaterialDAO(type).spliterator();
+                total += view.estimateSize();
+                views.add(view);
+            }
+            long leaf = Math.max(MIN_LEAF, total / ((long) pool.getParallelism() * LEAVES_PER_THREAD));
+            List<ScanTask> tasks = new ArrayList<>(TYPES.length);
+            for (MaterialType type : TYPES) {
+                tasks.add(new ScanTask(scan, type, views.get(type.ordinal()), leaf));
+            }
+            scan.counts = pool.invoke(new MergeTask(tasks));
+        });
+        return scan;
+    }
+
+    /**
+     * The parameters of one report run and the dictionary of the languages seen
+     */
+    private static final class Scan {
+        private final Predicate<? super Material> filter;
+        private final ReportDimension[] dimensions;
+        private final ConcurrentHashMap<String, Integer> languages;
+        private final AtomicInteger nextLanguage;
+        private GroupCounts counts;
+        private String[] languageNames;
+
+        private Scan(Predicate<? super Material> filter, ReportDimension[] dimensions) {
+            this.filter = filter;
+            this.dimensions = dimensions;
+            this.languages = new ConcurrentHashMap<>();
+            this.nextLanguage = new AtomicInteger();
+        }
+
+        private long keyOf(MaterialType type, Material material) {
+            if (dimensions.length == 0) {
+                return 0;
+            }
+            long key = codeOf(dimensions[0], type, material) & 0xFFFFFFFFL;
+            if (dimensions.length == 2) {
+                key = key << 32 | (codeOf(dimensions[1], type, material) & 0xFFFFFFFFL);
+            }
+            return key;
+        }
+
+        private int codeOf(ReportDimension dimension, MaterialType type, Material material) {
+            switch (dimension) {
+                case LIBRARY:
+                    return material.getLibraryId();
+                case LANGUAGE:
+                    String language = material.getLanguage();
+                    if (language == null) {
+                        language = "";
+                    }
+                    Integer code = languages.get(language);
+                    return code != null ? code : languages.computeIfAbsent(language, l -> nextLanguage.getAndIncrement());
+                case STATUS:
+                    Status status = material.getStatus();
+                    return status == null ? NONE : status.ordinal();
+                case MATERIAL_TYPE:
+                    return type.ordinal();
+                case REGISTRATION_MONTH:
+                    LocalDate date = material.getDateRegistered();
+                    return date == null ? NONE : date.getYear() * 12 + date.getMonthValue() - 1;
+                default:
+                    throw new IllegalArgumentException("Unknown dimension " + dimension);
+            }
+        }
+
+        private int codeAt(long key, int dimension) {
+            return dimensions.length == 1 || dimension == 1 ? (int) key : (int) (key >>> 32);
+        }
+
+        /**
+         * Orders group keys by the codes of their dimensions, languages alphabetically
+         */
+        private int compareKeys(long a, long b) {
+            for (int i = 0; i < dimensions.length; i++) {
+                int codeA = codeAt(a, i);
+                int codeB = codeAt(b, i);
+                int order = dimensions[i] == ReportDimension.LANGUAGE
+                        ? labelOf(dimensions[i], codeA).compareTo(labelOf(dimensions[i], codeB))
+                        : Integer.compare(codeA, codeB);
+                if (order != 0) {
+                    return order;
+                }
+            }
+            return 0;
+        }
+
+        private ReportRow row(long key) {
+            List<String> labels = new ArrayList<>(dimensions.length);
+            for (int i = 0; i < dimensions.length; i++) {
+                labels.add(labelOf(dimensions[i], codeAt(key, i)));
+            }
+            return new ReportRow(labels, counts.get(key));
+        }
+
+        private String labelOf(ReportDimension dimension, int code) {
+            if (code == NONE) {
+                return "NONE";
+            }
+            switch (dimension) {
+                case LIBRARY:
+                    return String.valueOf(code);
+                case LANGUAGE:
+                    if (languageNames == null) {
+                        languageNames = new String[languages.size()];
+                        for (Map.Entry<String, Integer> entry : languages.entrySet()) {
+                            languageNames[entry.getValue()] = entry.getKey();
+                        }
+                    }
+                    return languageNames[code];
+                case STATUS:
+                    return STATUSES[code].name();
+                case MATERIAL_TYPE:
+                    return TYPES[code].name();
+                case REGISTRATION_MONTH:
+                    return YearMonth.of(Math.floorDiv(code, 12), Math.floorMod(code, 12) + 1).toString();
+                default:
+                    throw new IllegalArgumentException("Unknown dimension " + dimension);
+            }
+        }
+    }
+
+    /**
+     * Scans the DAOs in parallel and merges their counts
+     */
+    private static final class MergeTask extends RecursiveTask<GroupCounts> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ScanTask> tasks;
+
+        private MergeTask(List<ScanTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected GroupCounts compute() {
+            invokeAll(tasks);
+            GroupCounts merged = new GroupCounts();
+            for (ScanTask task : tasks) {
+                merged.addAll(task.join());
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Counts one part of a DAO view, forking the first half of the part while it is larger
+     * than a leaf
+     */
+    private static final class ScanTask extends RecursiveTask<GroupCounts> {
+        private static final long serialVersionUID = 1L;
+
+        private final Scan scan;
+        private final MaterialType type;
+        private final Spliterator<Material> view;
+        private final long leaf;
+
+        private ScanTask(Scan scan, MaterialType type, Spliterator<Material> view, long leaf) {
+            this.scan = scan;
+            this.type = type;
+            this.view = view;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected GroupCounts compute() {
+            List<ScanTask> forked = new ArrayList<>();
+            Spliterator<Material> prefix;
+            while (view.estimateSize() > leaf && (prefix = view.trySplit()) != null) {
+                ScanTask task = new ScanTask(scan, type, prefix, leaf);
+                task.fork();
+                forked.add(task);
+            }
+            GroupCounts counts = new GroupCounts();
+            Predicate<? super Material> filter = scan.filter;
+            view.forEachRemaining(material -> {
+                if (filter == null || filter.test(material)) {
+                    counts.add(scan.keyOf(type, material), 1);
+                }
+            });
+            // The last forked task is on top of the deque of this worker if nobody stole it
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                counts.addAll(forked.get(i).join());
+            }
+            return counts;
+        }
+    }
+}
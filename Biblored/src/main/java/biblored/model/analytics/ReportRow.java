@@ -0,0 +1,36 @@
+package biblored.model.analytics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One group of a report: the value of every grouped dimension and the number of materials
+ */
+public class ReportRow {
+    private final List<String> labels;
+    private final long count;
+
+    /**
+     * Constructor for ReportRow
+     *
+     * @param labels the values of the grouped dimensions, in the order they were requested
+     * @param count the number of materials in the group
+     */
+    public ReportRow(List<String> labels, long count) {
+        this.labels = Collections.unmodifiableList(labels);
+        this.count = count;
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportRow{" + labels + ", count=" + count + '}';
+    }
+}
@@ -0,0 +1,160 @@
+package biblored.model.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Bounded min-heap that keeps the K keys with the highest counts seen so far.
+ * The root is the weakest member, so a new key only enters when it beats it.
+ * A position map allows the count of a member to be updated in place.
+ * Only the root is ordered, so listing the members by count sorts them in O(K log K).
+ */
+public class TopKHeap {
+    private final int capacity;
+    private final long[] keys;
+    private final int[] counts;
+    private final HashMap<Long, Integer> positions;
+    private int size;
+
+    /**
+     * Constructor for TopKHeap
+     *
+     * @param capacity the number of keys kept (K)
+     */
+    public TopKHeap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new int[capacity];
+        this.positions = new HashMap<>();
+        this.size = 0;
+    }
+
+    /**
+     * Offers a key with its current count
+     * Complexity: O(log K)
+     *
+     * @param key the key
+     * @param count the current count of the key
+     */
+    public void offer(long key, int count) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            int old = counts[position];
+            counts[position] = count;
+            if (count > old) {
+                siftDown(position);
+            } else {
+                siftUp(position);
+            }
+        } else if (size < capacity) {
+            place(size, key, count);
+            size++;
+            siftUp(size - 1);
+        } else if (count > counts[0]) {
+            positions.remove(keys[0]);
+            place(0, key, count);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Recomputes the count of every member, drops the ones that reached zero and restores the heap
+     * Complexity: O(K) calls to counter
+     *
+     * @param counter function that gives the current count of a key
+     */
+    public void refresh(LongToIntFunction counter) {
+        int kept = 0;
+        positions.clear();
+        for (int i = 0; i < size; i++) {
+            int count = counter.applyAsInt(keys[i]);
+            if (count > 0) {
+                place(kept++, keys[i], count);
+            }
+        }
+        size = kept;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Removes every key
+     */
+    public void clear() {
+        positions.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the number of keys in the heap
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the members ordered from the highest count to the lowest
+     * Complexity: O(K log K)
+     *
+     * @return the members
+     */
+    public List<PopularItem> toSortedList() {
+        List<PopularItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new PopularItem(keys[i], counts[i]));
+        }
+        items.sort((a, b) -> Integer.compare(b.getCount(), a.getCount()));
+        return items;
+    }
+
+    private void place(int index, long key, int count) {
+        keys[index] = key;
+        counts[index] = count;
+        positions.put(key, index);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (counts[parent] <= counts[index]) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        int count = counts[a];
+        place(a, keys[b], counts[b]);
+        place(b, key, count);
+    }
+}
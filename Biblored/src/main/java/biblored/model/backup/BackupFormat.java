@@ -0,0 +1,275 @@
+package biblored.model.backup;
+
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.generic.Address;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Layout of the backup files. Every DAO is written to its own gzip file that starts with a
+ * header (magic number, version, DAO name and snapshot time) followed by chunks. A chunk is
+ * the number of records, the number of bytes and the records, so it can be decoded apart
+ * from the file, and a chunk of 0 records ends the file to detect truncated backups.
+ * Strings are written as their UTF-8 length and bytes, -1 for null.
+ * Loans are stored with the users, as the material type and id, and the borrowed lists of
+ * the libraries are rebuilt from them.
+ */
+final class BackupFormat {
+    static final int MAGIC = 0x4249424B;
+    static final int VERSION = 1;
+    static final int CHUNK_SIZE = 256;
+    static final String LIBRARIES = "libraries";
+    static final String USERS = "users";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int NO_LOAN = -1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final Status[] STATUSES = Status.values();
+    private static final MaterialType[] TYPES = MaterialType.values();
+
+    private BackupFormat() {
+    }
+
+    /**
+     * Writes a record to a chunk
+     *
+     * @param <T> the type of record
+     */
+    interface RecordWriter<T> {
+        void write(DataOutputStream out, T record) throws IOException;
+    }
+
+    /**
+     * Reads a record from a chunk
+     *
+     * @param <T> the type of record
+     */
+    interface RecordReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * A loan read from a backup, checked and added to the library of the material once
+     * users and materials are restored
+     */
+    static class Loan {
+        final int userId;
+        final MaterialRef material;
+
+        Loan(int userId, MaterialRef material) {
+            this.userId = userId;
+            this.material = material;
+        }
+    }
+
+    static String nameOf(MaterialType type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+
+    static Path fileOf(Path directory, String name) {
+        return directory.resolve(name + ".gz");
+    }
+
+    static DataOutputStream openWriter(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), BUFFER_SIZE));
+    }
+
+    static DataInputStream openReader(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE));
+    }
+
+    static void writeHeader(DataOutputStream out, String name, long snapshotMillis) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(name);
+        out.writeLong(snapshotMillis);
+    }
+
+    /**
+     * Reads and checks the header of a backup file
+     *
+     * @param in the file
+     * @param name the expected DAO name
+     * @return the snapshot time in milliseconds
+     * @throws IOException if the file is not a backup of that DAO
+     */
+    static long readHeader(DataInputStream in, String name) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a backup file: " + name);
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported backup version " + version + " in " + name);
+        }
+        String stored = in.readUTF();
+        if (!stored.equals(name)) {
+            throw new IOException("Backup of " + stored + " found instead of " + name);
+        }
+        return in.readLong();
+    }
+
+    static void writeChunk(DataOutputStream out, int count, ByteArrayOutputStream records) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        out.writeInt(count);
+        out.writeInt(records.size());
+        records.writeTo(out);
+    }
+
+    static void writeEnd(DataOutputStream out) throws IOException {
+        out.writeInt(0);
+    }
+
+    static void writeLibrary(DataOutputStream out, Library library) throws IOException {
+        out.writeInt(library.getId());
+        writeString(out, library.getName());
+        writeAddress(out, library.getAddress());
+    }
+
+    static Library readLibrary(DataInputStream in) throws IOException {
+        Library library = new Library();
+        library.setId(in.readInt());
+        library.setName(readString(in));
+        library.setAddress(readAddress(in));
+        return library;
+    }
+
+    static void writeMaterial(DataOutputStream out, Material material) throws IOException {
+        out.writeInt(material.getId());
+        writeString(out, material.getName());
+        writeString(out, material.getAuthor());
+        LocalDate date = material.getDateRegistered();
+        out.writeLong(date == null ? NO_DATE : date.toEpochDay());
+        out.writeInt(material.getLibraryId());
+        writeString(out, material.getLanguage());
+        out.writeByte(material.getStatus() == null ? -1 : material.getStatus().ordinal());
+    }
+
+    /**
+     * Reads a material into a new object of the right class
+     *
+     * @param in the chunk
+     * @param material the empty material to fill
+     * @return the material
+     */
+    static Material readMaterial(DataInputStream in, Material material) throws IOException {
+        material.setId(in.readInt());
+        material.setName(readString(in));
+        material.setAuthor(readString(in));
+        long date = in.readLong();
+        material.setDateRegistered(date == NO_DATE ? null : LocalDate.ofEpochDay(date));
+        material.setLibraryId(in.readInt());
+        material.setLanguage(readString(in));
+        byte status = in.readByte();
+        material.setStatus(status < 0 ? null : STATUSES[status]);
+        return material;
+    }
+
+    static void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeInt(user.getId());
+        writeString(out, user.getName());
+        writeString(out, user.getEmail());
+        writeString(out, user.getPassword());
+        Phone phone = user.getPhone();
+        out.writeBoolean(phone != null);
+        if (phone != null) {
+            writeString(out, phone.getCountryCode());
+            writeString(out, phone.getAreaCode());
+            writeString(out, phone.getNumber());
+        }
+        writeAddress(out, user.getAddress());
+        MaterialRef loan = user.getBorrowedMaterial();
+        out.writeByte(loan == null ? NO_LOAN : loan.getType().ordinal());
+        if (loan != null) {
+            out.writeInt(loan.getId());
+        }
+    }
+
+    /**
+     * Reads a user, the loan is also added to a list to be checked later
+     *
+     * @param in the chunk
+     * @param loans the list that receives the loan of the user
+     * @return the user
+     */
+    static User readUser(DataInputStream in, List<Loan> loans) throws IOException {
+        User user = new User();
+        user.setId(in.readInt());
+        user.setName(readString(in));
+        user.setEmail(readString(in));
+        user.setPassword(readString(in));
+        if (in.readBoolean()) {
+            user.setPhone(Phone.of(readString(in), readString(in), readString(in)));
+        } else {
+            user.setPhone(null);
+        }
+        user.setAddress(readAddress(in));
+        byte loanType = in.readByte();
+        if (loanType != NO_LOAN) {
+            MaterialRef loan = new MaterialRef(TYPES[loanType], in.readInt());
+            user.setBorrowedMaterial(loan);
+            loans.add(new Loan(user.getId(), loan));
+        }
+        return user;
+    }
+
+    private static void writeAddress(DataOutputStream out, Address address) throws IOException {
+        out.writeBoolean(address != null);
+        if (address != null) {
+            writeString(out, address.getStreet());
+            writeString(out, address.getNumber());
+            writeString(out, address.getCity());
+            writeString(out, address.getZipCode());
+            writeString(out, address.getCountry());
+        }
+    }
+
+    private static Address readAddress(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return Address.of(readString(in), readString(in), readString(in), readString(in), readString(in));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,96 @@
+package biblored.model.backup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Results of a backup or a restore
+ */
+public class BackupReport {
+    private final Map<String, Long> records;
+    private final long rejected;
+    private final long bytes;
+    private final long keptVersions;
+    private final long elapsedNanos;
+    private final long maxLockNanos;
+
+    BackupReport(Map<String, Long> records, long rejected, long bytes, long keptVersions, long elapsedNanos,
+                 long maxLockNanos) {
+        this.records = Collections.unmodifiableMap(new LinkedHashMap<>(records));
+        this.rejected = rejected;
+        this.bytes = bytes;
+        this.keptVersions = keptVersions;
+        this.elapsedNanos = elapsedNanos;
+        this.maxLockNanos = maxLockNanos;
+    }
+
+    /**
+     * Gets the number of records of every file
+     *
+     * @return the counts by DAO name, in file order
+     */
+    public Map<String, Long> getRecords() {
+        return records;
+    }
+
+    public long getTotalRecords() {
+        return records.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Gets the number of records the network did not accept while restoring, for example
+     * because the id was already used
+     *
+     * @return the rejected records, always 0 for a backup
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the compressed size of the files
+     *
+     * @return the number of bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of previous versions kept because writers changed records during
+     * the backup
+     *
+     * @return the number of kept versions, always 0 for a restore
+     */
+    public long getKeptVersions() {
+        return keptVersions;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the longest time a lock of the network was held at once, writers wait at most that long
+     *
+     * @return the time in nanoseconds
+     */
+    public long getMaxLockNanos() {
+        return maxLockNanos;
+    }
+
+    /**
+     * Prints the report to the console
+     */
+    public void print() {
+        for (Map.Entry<String, Long> entry : records.entrySet()) {
+            System.out.printf("%-15s | %-10d%n", entry.getKey(), entry.getValue());
+        }
+        System.out.printf(Locale.US, "Records: %d, rejected: %d, bytes: %d, kept versions: %d%n",
+                getTotalRecords(), rejected, bytes, keptVersions);
+        System.out.printf(Locale.US, "Elapsed: %.3f s, longest lock hold: %.3f ms%n",
+                elapsedNanos / 1_000_000_000.0, maxLockNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,265 @@
+package biblored.model.backup;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.DAO.InterfaceDAO;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.User;
+import biblored.model.lock.LockManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Online backup of a LibraryNetwork. Writes a point-in-time snapshot of the libraries, the
+ * users with their loans and the five material DAOs, one compressed file per DAO, and the
+ * DAOs are exported in parallel (see BackupFormat).
+ * The snapshot point is the registration of a SnapshotTracker on every DAO, which is O(1).
+ * The trackers keep the version every record had at that point when writers change it, so
+ * the DAOs can then be read a chunk at a time and still give the state of the snapshot point.
+ * The trackers are registered with every table of the network locked (see LockManager),
+ * then each DAO is only locked to list its ids and, exclusively, to serialize one chunk, so
+ * the exports of different DAOs do not block each other, and compression and file writes
+ * happen outside of the locks. Memory is bounded by the id lists, one chunk per DAO and the
+ * versions kept for the records changed during the backup.
+ */
+public class NetworkExporter {
+    private final LibraryNetwork network;
+    private final int threads;
+    private final AtomicLong maxLockNanos;
+
+    /**
+     * Constructor for NetworkExporter
+     *
+     * @param network the network to back up
+     * @param threads the number of DAOs exported at the same time
+     */
+    public NetworkExporter(LibraryNetwork network, int threads) {
+        this.network = network;
+        this.threads = threads;
+        this.maxLockNanos = new AtomicLong();
+    }
+
+    /**
+     * Writes a snapshot of the network to a directory, replacing a previous backup there
+     *
+     * @param directory the directory of the backup files
+     * @return the number of records and bytes written and the longest lock hold
+     * @throws IOException if a file cannot be written
+     */
+    public BackupReport export(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        maxLockNanos.set(0);
+        long start = System.nanoTime();
+        long snapshotMillis = System.currentTimeMillis();
+        List<Export<?>> exports = new ArrayList<>();
+        network.getLocks().exclusive(() -> {
+            exports.add(new Export<>(BackupFormat.LIBRARIES, LockManager.LIBRARIES, network.getLibraryDAO(),
+                    Library::getId, BackupFormat::writeLibrary));
+            exports.add(new Export<>(BackupFormat.USERS, LockManager.USERS, network.getUserDAO(), User::getId,
+                    BackupFormat::writeUser));
+            for (MaterialType type : MaterialType.values()) {
+                exports.add(new Export<>(BackupFormat.nameOf(type), LockManager.tableOf(type),
+                        network.getMaterialDAO(type), Material::getId, BackupFormat::writeMaterial));
+            }
+        });
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Export<?> export : exports) {
+            tasks.add(() -> {
+                export.run(directory, snapshotMillis);
+                return null;
+            });
+        }
+        try {
+            runAll(tasks, threads);
+        } finally {
+            for (Export<?> export : exports) {
+                network.getLocks().write(export.table, export::stopTracking);
+            }
+        }
+
+        Map<String, Long> records = new LinkedHashMap<>();
+        long bytes = 0;
+        long kept = 0;
+        for (Export<?> export : exports) {
+            records.put(export.name, export.records);
+            bytes += Files.size(BackupFormat.fileOf(directory, export.name));
+            kept += export.kept;
+        }
+        return new BackupReport(records, 0, bytes, kept, System.nanoTime() - start, maxLockNanos.get());
+    }
+
+    /**
+     * Runs tasks on a pool and waits for all of them
+     *
+     * @param tasks the tasks
+     * @param threads the size of the pool
+     * @throws IOException the first failure of a task
+     */
+    static <V> List<V> runAll(List<Callable<V>> tasks, int threads) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())));
+        try {
+            List<Future<V>> futures = pool.invokeAll(tasks);
+            List<V> results = new ArrayList<>();
+            for (Future<V> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the backup tasks");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void recordLockHold(long begin) {
+        long held = System.nanoTime() - begin;
+        maxLockNanos.accumulateAndGet(held, Math::max);
+    }
+
+    /**
+     * Export of one DAO
+     *
+     * @param <T> the type of record stored in the DAO
+     */
+    private class Export<T> {
+        private final String name;
+        private final int table;
+        private final InterfaceDAO<T> dao;
+        private final ToIntFunction<T> idOf;
+        private final BackupFormat.RecordWriter<T> writer;
+        private final SnapshotTracker<T> tracker;
+        private final ByteArrayOutputStream buffer;
+        private final DataOutputStream chunk;
+        private boolean tracking;
+        private long records;
+        private long kept;
+        // Ids collected by the scan of the DAO
+        private int[] ids;
+        private int idCount;
+
+        // Registers the tracker, so it must be created with every table locked
+        private Export(String name, int table, InterfaceDAO<T> dao, ToIntFunction<T> idOf,
+                       BackupFormat.RecordWriter<T> writer) {
+            this.name = name;
+            this.table = table;
+            this.dao = dao;
+            this.idOf = idOf;
+            this.writer = writer;
+            this.tracker = new SnapshotTracker<>(idOf);
+            this.buffer = new ByteArrayOutputStream(1 << 16);
+            this.chunk = new DataOutputStream(buffer);
+            dao.addListener(tracker);
+            this.tracking = true;
+        }
+
+        private void run(Path directory, long snapshotMillis) throws IOException {
+            int[] sorted = listIds();
+            try (DataOutputStream out = BackupFormat.openWriter(BackupFormat.fileOf(directory, name))) {
+                BackupFormat.writeHeader(out, name, snapshotMillis);
+                for (int from = 0; from < sorted.length; from += BackupFormat.CHUNK_SIZE) {
+                    int first = from;
+                    int to = Math.min(sorted.length, from + BackupFormat.CHUNK_SIZE);
+                    buffer.reset();
+                    int[] count = new int[1];
+                    network.getLocks().write(table, () -> {
+                        long begin = System.nanoTime();
+                        for (int i = first; i < to; i++) {
+                            T record = tracker.snapshotOf(sorted[i], dao);
+                            if (record != null) {
+                                writer.write(chunk, record);
+                                count[0]++;
+                            }
+                        }
+                        tracker.setExported(to);
+                        recordLockHold(begin);
+                    });
+                    BackupFormat.writeChunk(out, count[0], buffer);
+                    records += count[0];
+                }
+
+                // Records deleted before the ids were listed are only kept by the tracker
+                List<T> deleted = new ArrayList<>();
+                network.getLocks().write(table, () -> {
+                    kept = tracker.getKeptVersions();
+                    stopTracking();
+                    deleted.addAll(tracker.takeRemaining());
+                });
+                for (int from = 0; from < deleted.size(); from += BackupFormat.CHUNK_SIZE) {
+                    List<T> part = deleted.subList(from, Math.min(deleted.size(), from + BackupFormat.CHUNK_SIZE));
+                    buffer.reset();
+                    network.getLocks().write(table, () -> {
+                        long begin = System.nanoTime();
+                        for (T record : part) {
+                            writer.write(chunk, record);
+                        }
+                        recordLockHold(begin);
+                    });
+                    BackupFormat.writeChunk(out, part.size(), buffer);
+                    records += part.size();
+                }
+                BackupFormat.writeEnd(out);
+            }
+        }
+
+        private int[] listIds() {
+            ids = new int[1024];
+            idCount = 0;
+            // Adds and deletes wait for the scan, changes to records are kept by the tracker
+            network.getLocks().scan(table, () -> {
+                long begin = System.nanoTime();
+                // The filter only reads the id, so no record is materialized
+                dao.readMatching(record -> {
+                    if (idCount == ids.length) {
+                        ids = Arrays.copyOf(ids, idCount * 2);
+                    }
+                    ids[idCount++] = idOf.applyAsInt(record);
+                    return false;
+                });
+                recordLockHold(begin);
+                return null;
+            });
+            int[] sorted = Arrays.copyOf(ids, idCount);
+            ids = null;
+            Arrays.sort(sorted);
+            tracker.setIds(sorted);
+            return sorted;
+        }
+
+        // Must be called with the table locked exclusively
+        private void stopTracking() {
+            if (tracking) {
+                dao.removeListener(tracker);
+                tracking = false;
+            }
+        }
+    }
+}
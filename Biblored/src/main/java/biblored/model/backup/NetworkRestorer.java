@@ -0,0 +1,201 @@
+package biblored.model.backup;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.generic.AudioVisual;
+import biblored.model.generic.Book;
+import biblored.model.generic.CompactDisk;
+import biblored.model.generic.Documentary;
+import biblored.model.generic.Film;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.User;
+import biblored.model.lock.LockManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Restores a backup written by NetworkExporter into a network, usually an empty one.
+ * Libraries are restored first, then the users and the five material DAOs in parallel, and
+ * finally the loans, which are checked against the restored materials and libraries and
+ * added to the borrowed lists of the libraries. The records go straight to the DAOs with
+ * their ids, the id allocators of the network are reset once they are in. Every file is decompressed and decoded
+ * a chunk at a time without locks, the table of the file is only locked to add a decoded
+ * chunk, and the loans are restored a chunk at a time with every table locked (see
+ * LockManager). The network stays usable and memory is bounded by one chunk per file and
+ * the loans.
+ */
+public class NetworkRestorer {
+    private final LibraryNetwork network;
+    private final int threads;
+    private final AtomicLong maxLockNanos;
+    private final AtomicLong rejected;
+
+    /**
+     * Constructor for NetworkRestorer
+     *
+     * @param network the network that receives the records
+     * @param threads the number of files restored at the same time
+     */
+    public NetworkRestorer(LibraryNetwork network, int threads) {
+        this.network = network;
+        this.threads = threads;
+        this.maxLockNanos = new AtomicLong();
+        this.rejected = new AtomicLong();
+    }
+
+    /**
+     * Adds the records of a backup to the network
+     *
+     * @param directory the directory of the backup files
+     * @return the number of records restored and rejected, and the longest lock hold
+     * @throws IOException if a file is missing, truncated or not a backup
+     */
+    public BackupReport restore(Path directory) throws IOException {
+        maxLockNanos.set(0);
+        rejected.set(0);
+        long start = System.nanoTime();
+        Map<String, Long> records = new LinkedHashMap<>();
+        long bytes = 0;
+
+        records.put(BackupFormat.LIBRARIES, restoreFile(directory, BackupFormat.LIBRARIES, LockManager.LIBRARIES,
+                BackupFormat::readLibrary, network.getLibraryDAO()::add));
+        bytes += Files.size(BackupFormat.fileOf(directory, BackupFormat.LIBRARIES));
+
+        List<BackupFormat.Loan> loans = new ArrayList<>();
+        List<Callable<Long>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            List<BackupFormat.Loan> read = new ArrayList<>();
+            long restored = restoreFile(directory, BackupFormat.USERS, LockManager.USERS,
+                    in -> BackupFormat.readUser(in, read), network.getUserDAO()::add);
+            synchronized (loans) {
+                loans.addAll(read);
+            }
+            return restored;
+        });
+        for (MaterialType type : MaterialType.values()) {
+            tasks.add(() -> restoreFile(directory, BackupFormat.nameOf(type), LockManager.tableOf(type),
+                    in -> BackupFormat.readMaterial(in, newMaterial(type)),
+                    material -> network.getMaterialDAO(type).add(material)));
+        }
+        List<Long> counts = NetworkExporter.runAll(tasks, threads);
+        records.put(BackupFormat.USERS, counts.get(0));
+        bytes += Files.size(BackupFormat.fileOf(directory, BackupFormat.USERS));
+        for (MaterialType type : MaterialType.values()) {
+            records.put(BackupFormat.nameOf(type), counts.get(type.ordinal() + 1));
+            bytes += Files.size(BackupFormat.fileOf(directory, BackupFormat.nameOf(type)));
+        }
+
+        restoreLoans(loans);
+        network.resetIds();
+        return new BackupReport(records, rejected.get(), bytes, 0, System.nanoTime() - start, maxLockNanos.get());
+    }
+
+    /**
+     * Creates an empty material of the class used for a type
+     *
+     * @param type the material type
+     * @return a new material
+     */
+    static Material newMaterial(MaterialType type) {
+        switch (type) {
+            case BOOK:
+                return new Book();
+            case AUDIOVISUAL:
+                return new AudioVisual();
+            case FILM:
+                return new Film();
+            case DOCUMENTARY:
+                return new Documentary();
+            case COMPACT_DISK:
+                return new CompactDisk();
+            default:
+                throw new IllegalArgumentException("Invalid material type");
+        }
+    }
+
+    private <T> long restoreFile(Path directory, String name, int table, BackupFormat.RecordReader<T> reader,
+                                 Predicate<T> add) throws IOException {
+        long[] restored = new long[1];
+        try (DataInputStream in = BackupFormat.openReader(BackupFormat.fileOf(directory, name))) {
+            BackupFormat.readHeader(in, name);
+            List<T> decoded = new ArrayList<>(BackupFormat.CHUNK_SIZE);
+            int count;
+            while ((count = in.readInt()) > 0) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                DataInputStream chunk = new DataInputStream(new ByteArrayInputStream(bytes));
+                decoded.clear();
+                for (int i = 0; i < count; i++) {
+                    decoded.add(reader.read(chunk));
+                }
+                network.getLocks().write(table, () -> {
+                    long begin = System.nanoTime();
+                    for (T record : decoded) {
+                        if (add.test(record)) {
+                            restored[0]++;
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    recordLockHold(begin);
+                });
+            }
+        }
+        return restored[0];
+    }
+
+    /**
+     * Adds the loans of the restored users to the borrowed lists of the libraries, the loans
+     * of materials or libraries that do not exist are dropped from the users
+     *
+     * @param loans the loans read with the users
+     */
+    void restoreLoans(List<BackupFormat.Loan> loans) {
+        Set<Long> listed = new HashSet<>();
+        for (int from = 0; from < loans.size(); from += BackupFormat.CHUNK_SIZE) {
+            List<BackupFormat.Loan> part = loans.subList(from, Math.min(loans.size(), from + BackupFormat.CHUNK_SIZE));
+            network.getLocks().exclusive(() -> {
+                long begin = System.nanoTime();
+                for (BackupFormat.Loan loan : part) {
+                    User user = network.getUser(loan.userId);
+                    if (user == null) {
+                        continue;
+                    }
+                    Material material = network.getResolver().material(loan.material);
+                    Library library = material == null ? null : network.getResolver().libraryOf(material);
+                    if (library == null) {
+                        // The user keeps no loan of a material or library that was not restored
+                        rejected.incrementAndGet();
+                        User previous = new User(user);
+                        user.setBorrowedMaterial(null);
+                        network.getUserDAO().markUpdated(previous, user);
+                        continue;
+                    }
+                    if (listed.add(loan.material.getKey())) {
+                        library.restoreLoan(loan.material);
+                    }
+                }
+                recordLockHold(begin);
+            });
+        }
+    }
+
+    private void recordLockHold(long begin) {
+        long held = System.nanoTime() - begin;
+        maxLockNanos.accumulateAndGet(held, Math::max);
+    }
+}
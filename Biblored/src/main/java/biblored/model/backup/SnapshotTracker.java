@@ -0,0 +1,129 @@
+package biblored.model.backup;
+
+import biblored.model.DAO.DAOListener;
+import biblored.model.DAO.InterfaceDAO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps the state a DAO had when the tracker was registered (the snapshot point) while the
+ * DAO keeps changing. The first time a record of the snapshot is updated or deleted its
+ * previous version is kept, unless it was already exported, and records added later are
+ * remembered so they can be skipped.
+ * The methods are synchronized, as a DAO can publish changes to the fields of records from
+ * several threads at once (see LockManager.entities); adds and deletes, and the export of
+ * the records, happen under the write lock of the DAO table.
+ *
+ * @param <T> the type of record stored in the DAO
+ */
+class SnapshotTracker<T> implements DAOListener<T> {
+    private final ToIntFunction<T> idOf;
+    private final HashMap<Integer, T> originals;
+    private final HashSet<Integer> added;
+    // Ids listed for the export, sorted, and how many of them are already exported
+    private int[] ids;
+    private int exported;
+    private long keptVersions;
+
+    /**
+     * Constructor for SnapshotTracker
+     *
+     * @param idOf function that extracts the id of a record
+     */
+    SnapshotTracker(ToIntFunction<T> idOf) {
+        this.idOf = idOf;
+        this.originals = new HashMap<>();
+        this.added = new HashSet<>();
+        this.ids = new int[0];
+        this.exported = 0;
+        this.keptVersions = 0;
+    }
+
+    @Override
+    public synchronized void onAdd(T record) {
+        added.add(idOf.applyAsInt(record));
+    }
+
+    @Override
+    public synchronized void onUpdate(T previous, T current) {
+        keep(previous);
+    }
+
+    @Override
+    public synchronized void onDelete(T record) {
+        keep(record);
+    }
+
+    /**
+     * Sets the ids that will be exported in order
+     *
+     * @param sortedIds the ids of the DAO, sorted
+     */
+    synchronized void setIds(int[] sortedIds) {
+        this.ids = sortedIds;
+        this.exported = 0;
+    }
+
+    /**
+     * Marks the first ids as exported, later changes to them are not kept
+     *
+     * @param count the number of exported ids
+     */
+    synchronized void setExported(int count) {
+        this.exported = count;
+    }
+
+    /**
+     * Gets the version of a record at the snapshot point
+     * Complexity: O(1)
+     *
+     * @param id the record id
+     * @param dao the tracked DAO
+     * @return the record, or null if it was added after the snapshot point
+     */
+    synchronized T snapshotOf(int id, InterfaceDAO<T> dao) {
+        T original = originals.remove(id);
+        if (original != null) {
+            return original;
+        }
+        return added.contains(id) ? null : dao.read(id);
+    }
+
+    /**
+     * Takes the kept records that were not exported, they were deleted before the ids
+     * were listed
+     *
+     * @return the records
+     */
+    synchronized List<T> takeRemaining() {
+        List<T> remaining = new ArrayList<>(originals.values());
+        originals.clear();
+        return remaining;
+    }
+
+    /**
+     * Gets the number of previous versions kept since the snapshot point
+     *
+     * @return the number of kept versions
+     */
+    synchronized long getKeptVersions() {
+        return keptVersions;
+    }
+
+    private void keep(T original) {
+        int id = idOf.applyAsInt(original);
+        if (!added.contains(id) && !originals.containsKey(id) && !isExported(id)) {
+            originals.put(id, original);
+            keptVersions++;
+        }
+    }
+
+    private boolean isExported(int id) {
+        return Arrays.binarySearch(ids, 0, exported, id) >= 0;
+    }
+}
@@ -0,0 +1,538 @@
+package biblored.model.backup;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.DAO.DAOListener;
+import biblored.model.DAO.InterfaceDAO;
+import biblored.model.DAO.UserIndexes;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.User;
+import biblored.model.lock.LockManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Write-behind log of the changes made to the DAOs of a network, so they survive a crash
+ * without an fsync per borrow or return.
+ * The journal listens to every DAO and keeps at most one pending entry per record, the full
+ * state after its last change or a delete, so a record changed many times before a flush is
+ * written once. Changes that take or free a unique key of a user, its adds, deletes and
+ * email or phone changes, are never merged and keep their order, so a key given up by one
+ * patron is free again before another one takes it when the log is replayed. A flusher thread writes the pending entries as one batch and forces the
+ * file once per batch, when maxBatch records are pending or the oldest pending change is
+ * maxDelay old. Changes to one record are enqueued under its lock and batches are written
+ * in order, so the updates of an id are never reordered. Callers that need durability wait
+ * on durable(), which makes the pending entries due at once; the changes of every caller
+ * that arrives while a batch is being forced go in the next one, so concurrent waiters
+ * share one fsync (group commit).
+ * A batch is its number of entries, its length and a CRC-32 before the entries, replay
+ * stops at the first incomplete or damaged batch, which is what a crash leaves behind.
+ * Entries are full states applied as an update of the stored record or an add, so replaying
+ * the log on top of the last backup gives the state of the last durable batch; the log only grows and can be deleted once a backup taken
+ * after its last batch is complete.
+ */
+public class WriteBehindJournal implements Closeable {
+    private static final int MAGIC = 0x4249424A;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER = 2 * Integer.BYTES;
+    private static final int BATCH_HEADER = 2 * Integer.BYTES + Long.BYTES;
+    private static final byte PUT = 0;
+    private static final byte DELETE = 1;
+    private static final MaterialType[] TYPES = MaterialType.values();
+
+    private final LibraryNetwork network;
+    private final FileChannel channel;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final List<Runnable> detach;
+    private final ArrayDeque<Waiter> waiters;
+    private final Thread flusher;
+    // Latest entry of every changed record, keyed by LockManager.keyOf, and the ordered
+    // entries under negative sequence numbers
+    private LinkedHashMap<Long, byte[]> pending;
+    private long sequence;
+    private long firstPendingNanos;
+    private long enqueued;
+    private long durable;
+    private long batches;
+    private long written;
+    private long coalesced;
+    private IOException failure;
+    private boolean closed;
+
+    private WriteBehindJournal(LibraryNetwork network, FileChannel channel, int maxBatch, long maxDelayNanos) {
+        this.network = network;
+        this.channel = channel;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = maxDelayNanos;
+        this.detach = new ArrayList<>();
+        this.waiters = new ArrayDeque<>();
+        this.pending = new LinkedHashMap<>();
+        this.flusher = new Thread(this::flushLoop, "biblored-journal");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens or creates a journal and starts logging the changes of the network. An existing
+     * log is kept and appended to, a damaged tail left by a crash is cut off, so replay it
+     * into the network first. The DAOs set on the network later are not logged.
+     *
+     * @param network the network whose changes are logged
+     * @param file the log file
+     * @param maxBatch the pending records that trigger a flush
+     * @param maxDelayMillis the age of the oldest pending change that triggers a flush
+     * @return the journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static WriteBehindJournal open(LibraryNetwork network, Path file, int maxBatch, long maxDelayMillis)
+            throws IOException {
+        if (maxBatch <= 0 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Invalid flush triggers");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                writeFully(channel, header, 0);
+                channel.force(true);
+            }
+            long end = scan(channel, null);
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        WriteBehindJournal journal = new WriteBehindJournal(network, channel, maxBatch,
+                TimeUnit.MILLISECONDS.toNanos(maxDelayMillis));
+        journal.attach();
+        journal.flusher.start();
+        return journal;
+    }
+
+    /**
+     * Applies the durable batches of a log to a network, usually one just restored from the
+     * last backup, rebuilds the borrowed lists of the libraries from the loans of the users
+     * and resets the id allocators of the network
+     *
+     * @param file the log file
+     * @param network the network that receives the records
+     * @return the number of entries applied
+     * @throws IOException if the file cannot be read, is not a journal or an entry conflicts
+     *                     with the stored records
+     */
+    public static long replay(Path file, LibraryNetwork network) throws IOException {
+        long[] applied = new long[1];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            network.getLocks().exclusive(() -> {
+                scan(channel, entries -> applied[0] += apply(network, entries));
+                List<BackupFormat.Loan> loans = new ArrayList<>();
+                for (User user : network.getUserDAO().readAll()) {
+                    if (user.getBorrowedMaterial() != null) {
+                        loans.add(new BackupFormat.Loan(user.getId(), user.getBorrowedMaterial()));
+                    }
+                }
+                for (Library library : network.getLibraryDAO().readAll()) {
+                    library.getBorrowedMaterials().clear();
+                }
+                new NetworkRestorer(network, 1).restoreLoans(loans);
+                network.resetIds();
+            });
+        }
+        return applied[0];
+    }
+
+    /**
+     * Gets a future completed once every change logged so far is on disk
+     *
+     * @return the future, failed if a batch could not be written
+     */
+    public synchronized CompletableFuture<Void> durable() {
+        if (failure != null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        if (durable >= enqueued) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Waiter waiter = new Waiter(enqueued);
+        waiters.add(waiter);
+        notifyAll();
+        return waiter.future;
+    }
+
+    /**
+     * Gets the number of batches written, each one forced to disk once
+     *
+     * @return the number of batches
+     */
+    public synchronized long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Gets the number of entries written
+     *
+     * @return the number of entries
+     */
+    public synchronized long getEntriesWritten() {
+        return written;
+    }
+
+    /**
+     * Gets the number of changes merged into the pending entry of the same record
+     *
+     * @return the number of coalesced changes
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Stops logging, flushes the pending changes and closes the file
+     *
+     * @throws IOException if the last batches could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        network.getLocks().exclusive(() -> {
+            for (Runnable listener : detach) {
+                listener.run();
+            }
+        });
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing the journal");
+        } finally {
+            channel.close();
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private void attach() {
+        network.getLocks().exclusive(() -> {
+            listen(LockManager.LIBRARIES, network.getLibraryDAO(), Library::getId, BackupFormat::writeLibrary,
+                    (previous, current) -> false);
+            listen(LockManager.USERS, network.getUserDAO(), User::getId, BackupFormat::writeUser,
+                    WriteBehindJournal::changesKeys);
+            for (MaterialType type : TYPES) {
+                listen(LockManager.tableOf(type), network.getMaterialDAO(type), Material::getId,
+                        BackupFormat::writeMaterial, (previous, current) -> false);
+            }
+        });
+    }
+
+    /**
+     * Logs the changes of a DAO
+     *
+     * @param ordered tells whether a change from a previous state, null for an add, to a
+     *                current one, null for a delete, must keep its place among the others
+     */
+    private <T> void listen(int table, InterfaceDAO<T> dao, ToIntFunction<T> idOf, BackupFormat.RecordWriter<T> writer,
+            BiPredicate<T, T> ordered) {
+        DAOListener<T> listener = new DAOListener<T>() {
+            @Override
+            public void onAdd(T record) {
+                enqueue(table, idOf.applyAsInt(record), record, writer, ordered.test(null, record));
+            }
+
+            @Override
+            public void onUpdate(T previous, T current) {
+                enqueue(table, idOf.applyAsInt(current), current, writer, ordered.test(previous, current));
+            }
+
+            @Override
+            public void onDelete(T record) {
+                enqueue(table, idOf.applyAsInt(record), null, writer, ordered.test(record, null));
+            }
+        };
+        dao.addListener(listener);
+        detach.add(() -> dao.removeListener(listener));
+    }
+
+    private static boolean changesKeys(User previous, User current) {
+        return previous == null || current == null
+                || !UserIndexes.emailKey(previous.getEmail()).equals(UserIndexes.emailKey(current.getEmail()))
+                || !UserIndexes.phoneKey(previous.getPhone()).equals(UserIndexes.phoneKey(current.getPhone()));
+    }
+
+    /**
+     * Encodes the state of a record on the thread that changed it, while its lock is held.
+     * An ordered entry replaces the mergeable one of its record and goes last, the following
+     * changes of the record do not move it.
+     */
+    private <T> void enqueue(int table, int id, T record, BackupFormat.RecordWriter<T> writer, boolean ordered) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(table);
+            out.writeByte(record == null ? DELETE : PUT);
+            out.writeInt(id);
+            if (record != null) {
+                writer.write(out, record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] entry = bytes.toByteArray();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The journal is closed");
+            }
+            if (pending.isEmpty()) {
+                firstPendingNanos = System.nanoTime();
+                notifyAll();
+            }
+            long key = LockManager.keyOf(table, id);
+            if (ordered) {
+                if (pending.remove(key) != null) {
+                    coalesced++;
+                }
+                pending.put(-++sequence, entry);
+            } else if (pending.put(key, entry) != null) {
+                coalesced++;
+            }
+            enqueued++;
+            if (pending.size() == maxBatch) {
+                notifyAll();
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            LinkedHashMap<Long, byte[]> batch;
+            long upTo;
+            synchronized (this) {
+                try {
+                    while (!closed && !isDue()) {
+                        if (pending.isEmpty()) {
+                            wait();
+                        } else {
+                            TimeUnit.NANOSECONDS.timedWait(this, firstPendingNanos + maxDelayNanos - System.nanoTime());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                upTo = enqueued;
+            }
+            try {
+                writeBatch(batch);
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    for (Waiter waiter : waiters) {
+                        waiter.future.completeExceptionally(e);
+                    }
+                    waiters.clear();
+                }
+                return;
+            }
+            synchronized (this) {
+                durable = upTo;
+                batches++;
+                written += batch.size();
+                // Waiters are queued in the order of their targets
+                while (!waiters.isEmpty() && waiters.peek().target <= durable) {
+                    waiters.poll().future.complete(null);
+                }
+            }
+        }
+    }
+
+    private boolean isDue() {
+        return pending.size() >= maxBatch || (!pending.isEmpty()
+                && (!waiters.isEmpty() || System.nanoTime() - firstPendingNanos >= maxDelayNanos));
+    }
+
+    private void writeBatch(LinkedHashMap<Long, byte[]> batch) throws IOException {
+        int length = 0;
+        for (byte[] entry : batch.values()) {
+            length += entry.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH_HEADER + length);
+        buffer.position(BATCH_HEADER);
+        for (byte[] entry : batch.values()) {
+            buffer.put(entry);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), BATCH_HEADER, length);
+        buffer.putInt(0, batch.size()).putInt(Integer.BYTES, length).putLong(2 * Integer.BYTES, crc.getValue());
+        buffer.flip();
+        writeFully(channel, buffer, channel.position());
+        channel.position(channel.position() + buffer.limit());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+    }
+
+    /**
+     * Reads the batches of a log until the end or the first damaged one
+     *
+     * @return the offset after the last complete batch
+     */
+    private static long scan(FileChannel channel, BatchConsumer consumer) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Math.max(FILE_HEADER, BATCH_HEADER));
+        header.limit(FILE_HEADER);
+        if (readFully(channel, header, 0) < FILE_HEADER || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a journal file");
+        }
+        if (header.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported journal version " + header.getInt(Integer.BYTES));
+        }
+        long position = FILE_HEADER;
+        long size = channel.size();
+        while (position + BATCH_HEADER <= size) {
+            header.clear().limit(BATCH_HEADER);
+            readFully(channel, header, position);
+            int count = header.getInt(0);
+            int length = header.getInt(Integer.BYTES);
+            long checksum = header.getLong(2 * Integer.BYTES);
+            if (count <= 0 || length <= 0 || position + BATCH_HEADER + length > size) {
+                break;
+            }
+            ByteBuffer entries = ByteBuffer.allocate(length);
+            readFully(channel, entries, position + BATCH_HEADER);
+            CRC32 crc = new CRC32();
+            crc.update(entries.array(), 0, length);
+            if (crc.getValue() != checksum) {
+                break;
+            }
+            if (consumer != null) {
+                consumer.accept(new DataInputStream(new ByteArrayInputStream(entries.array())));
+            }
+            position += BATCH_HEADER + length;
+        }
+        return position;
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Applies the entries of one batch, a put updates the stored record or adds it
+     *
+     * @return the number of entries
+     */
+    private static long apply(LibraryNetwork network, DataInputStream in) throws IOException {
+        long applied = 0;
+        List<BackupFormat.Loan> ignored = new ArrayList<>();
+        while (in.available() > 0) {
+            int table = in.readByte();
+            boolean put = in.readByte() == PUT;
+            int id = in.readInt();
+            if (table == LockManager.LIBRARIES) {
+                replace(network.getLibraryDAO(), table, id, put ? BackupFormat.readLibrary(in) : null);
+            } else if (table == LockManager.USERS) {
+                User user = put ? BackupFormat.readUser(in, ignored) : null;
+                replace(network.getUserDAO(), table, id, user);
+                if (user != null) {
+                    keepLoan(network.getUserDAO(), user);
+                }
+            } else {
+                MaterialType type = TYPES[table - LockManager.tableOf(TYPES[0])];
+                replace(network.getMaterialDAO(type), table, id,
+                        put ? BackupFormat.readMaterial(in, NetworkRestorer.newMaterial(type)) : null);
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    private static <T> void replace(InterfaceDAO<T> dao, int table, int id, T record) throws IOException {
+        if (record == null) {
+            // The record may already be gone from the backup the log is replayed on
+            dao.delete(id);
+            return;
+        }
+        boolean applied = dao.read(id) != null ? dao.update(id, record) : dao.add(record);
+        if (!applied) {
+            throw new IOException("Cannot apply the journal entry of record " + id + " of table " + table
+                    + ", it conflicts with the stored records");
+        }
+    }
+
+    /**
+     * Sets the loan of the entry on the stored user, which an update leaves as it was
+     */
+    private static void keepLoan(InterfaceDAO<User> dao, User user) {
+        User stored = dao.read(user.getId());
+        if (!Objects.equals(stored.getBorrowedMaterial(), user.getBorrowedMaterial())) {
+            User previous = new User(stored);
+            stored.setBorrowedMaterial(user.getBorrowedMaterial());
+            dao.markUpdated(previous, stored);
+        }
+    }
+
+    /**
+     * Receives the entries of one batch
+     */
+    private interface BatchConsumer {
+        void accept(DataInputStream entries) throws IOException;
+    }
+
+    /**
+     * A caller waiting until the changes logged before it are durable
+     */
+    private static final class Waiter {
+        private final long target;
+        private final CompletableFuture<Void> future;
+
+        private Waiter(long target) {
+            this.target = target;
+            this.future = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package biblored.model.cache;
+
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of the counters of a QueryCache
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long rejections;
+    private final long invalidations;
+    private final int entries;
+    private final long weight;
+
+    /**
+     * Constructor for CacheStats
+     *
+     * @param hits the number of lookups that found a value
+     * @param misses the number of lookups that did not find a value
+     * @param evictions the number of entries evicted to make room
+     * @param rejections the number of values not admitted
+     * @param invalidations the number of entries removed by invalidation
+     * @param entries the current number of entries
+     * @param weight the current total weight
+     */
+    public CacheStats(long hits, long misses, long evictions, long rejections, long invalidations,
+                      int entries, long weight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.rejections = rejections;
+        this.invalidations = invalidations;
+        this.entries = entries;
+        this.weight = weight;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the fraction of lookups that were hits
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "CacheStats{hits=%d, misses=%d, hitRate=%.3f, evictions=%d, rejections=%d, invalidations=%d, entries=%d, weight=%d}",
+                hits, misses, getHitRate(), evictions, rejections, invalidations, entries, weight);
+    }
+}
@@ -0,0 +1,120 @@
+package biblored.model.cache;
+
+import biblored.model.MaterialType;
+import biblored.model.generic.Material;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Key of a cached catalog query: a material type, the field compared and the searched value.
+ * Values are normalized (trimmed and lower case) so equivalent queries share an entry.
+ */
+public class MaterialQuery {
+
+    /**
+     * Fields a material query can filter on
+     */
+    public enum Field {
+        NAME, AUTHOR, LANGUAGE, STATUS, LIBRARY, TEXT;
+
+        /**
+         * Gets the normalized value of this field for a material
+         *
+         * @param material the material
+         * @return the normalized value, TEXT has no single value and returns null
+         */
+        public String valueOf(Material material) {
+            switch (this) {
+                case NAME:
+                    return normalize(material.getName());
+                case AUTHOR:
+                    return normalize(material.getAuthor());
+                case LANGUAGE:
+                    return normalize(material.getLanguage());
+                case STATUS:
+                    return normalize(String.valueOf(material.getStatus()));
+                case LIBRARY:
+                    return String.valueOf(material.getLibraryId());
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private final MaterialType type;
+    private final Field field;
+    private final String value;
+    private final int hash;
+
+    /**
+     * Constructor for MaterialQuery
+     *
+     * @param type the material type searched
+     * @param field the field compared
+     * @param value the searched value
+     */
+    public MaterialQuery(MaterialType type, Field field, String value) {
+        this.type = type;
+        this.field = field;
+        this.value = normalize(value);
+        this.hash = Objects.hash(type, field, this.value);
+    }
+
+    public MaterialType getType() {
+        return type;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Checks if a material is part of the result of this query
+     *
+     * @param material the material
+     * @return true if the material matches
+     */
+    public boolean matches(Material material) {
+        if (field == Field.TEXT) {
+            return normalize(material.getName()).contains(value) || normalize(material.getAuthor()).contains(value);
+        }
+        return value.equals(field.valueOf(material));
+    }
+
+    /**
+     * Normalizes a value for comparisons
+     *
+     * @param value the raw value
+     * @return the trimmed lower case value, empty for null
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MaterialQuery)) {
+            return false;
+        }
+        MaterialQuery other = (MaterialQuery) o;
+        return type == other.type && field == other.field && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "MaterialQuery{" + type + ", " + field + "='" + value + "'}";
+    }
+}
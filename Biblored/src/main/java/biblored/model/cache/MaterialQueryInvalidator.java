@@ -0,0 +1,73 @@
+package biblored.model.cache;
+
+import biblored.model.MaterialType;
+import biblored.model.DAO.DAOListener;
+import biblored.model.generic.Material;
+
+import java.util.List;
+
+/**
+ * Keeps the query cache consistent with one material DAO.
+ * Only the entries whose result can change are evicted: for exact match fields the keys
+ * built from the old and the new value of every changed field, and the text searches
+ * that match the old or the new name or author. A status change therefore only evicts
+ * the two status queries involved.
+ */
+public class MaterialQueryInvalidator implements DAOListener<Material> {
+    private static final MaterialQuery.Field[] EXACT_FIELDS = {
+            MaterialQuery.Field.NAME, MaterialQuery.Field.AUTHOR, MaterialQuery.Field.LANGUAGE,
+            MaterialQuery.Field.STATUS, MaterialQuery.Field.LIBRARY
+    };
+
+    private final MaterialType type;
+    private final QueryCache<MaterialQuery, List<Material>> cache;
+
+    /**
+     * Constructor for MaterialQueryInvalidator
+     *
+     * @param type the material type stored in the observed DAO
+     * @param cache the cache to keep consistent
+     */
+    public MaterialQueryInvalidator(MaterialType type, QueryCache<MaterialQuery, List<Material>> cache) {
+        this.type = type;
+        this.cache = cache;
+    }
+
+    @Override
+    public void onAdd(Material material) {
+        invalidateAll(material);
+    }
+
+    @Override
+    public void onUpdate(Material previous, Material current) {
+        for (MaterialQuery.Field field : EXACT_FIELDS) {
+            String before = field.valueOf(previous);
+            String after = field.valueOf(current);
+            if (!before.equals(after)) {
+                cache.invalidate(new MaterialQuery(type, field, before));
+                cache.invalidate(new MaterialQuery(type, field, after));
+            }
+        }
+        boolean textChanged = !MaterialQuery.Field.NAME.valueOf(previous).equals(MaterialQuery.Field.NAME.valueOf(current))
+                || !MaterialQuery.Field.AUTHOR.valueOf(previous).equals(MaterialQuery.Field.AUTHOR.valueOf(current));
+        if (textChanged) {
+            cache.invalidateIf(key -> isTextSearch(key) && (key.matches(previous) || key.matches(current)));
+        }
+    }
+
+    @Override
+    public void onDelete(Material material) {
+        invalidateAll(material);
+    }
+
+    private void invalidateAll(Material material) {
+        for (MaterialQuery.Field field : EXACT_FIELDS) {
+            cache.invalidate(new MaterialQuery(type, field, field.valueOf(material)));
+        }
+        cache.invalidateIf(key -> isTextSearch(key) && key.matches(material));
+    }
+
+    private boolean isTextSearch(MaterialQuery key) {
+        return key.getType() == type && key.getField() == MaterialQuery.Field.TEXT;
+    }
+}
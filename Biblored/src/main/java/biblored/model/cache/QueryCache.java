@@ -0,0 +1,251 @@
+package biblored.model.cache;
+
+import biblored.model.sketch.CountMinSketch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bounded result cache with LRU eviction and TinyLFU admission.
+ * Every entry has a weight (for query results, the number of rows) and the sum of the
+ * weights never exceeds maxWeight. When a new entry does not fit, the least recently
+ * used entries that would have to leave are compared with it using a count-min sketch
+ * of recent accesses: the newcomer is only admitted if it is requested more often than
+ * every one of those victims, so one-off queries cannot flush the popular ones.
+ * The methods are synchronized. A value computed without holding the lock of its source
+ * is put with the generation read before computing it, and is dropped if an invalidation
+ * happened meanwhile, since it may be older than the invalidation.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class QueryCache<K, V> {
+    private static final int SKETCH_DEPTH = 4;
+
+    private final long maxWeight;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final CountMinSketch frequencies;
+    private final long sampleSize;
+    private long accesses;
+    private long weight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    private long invalidations;
+    private long generation;
+
+    /**
+     * Constructor for QueryCache
+     *
+     * @param maxWeight the maximum total weight of the cached entries, 0 disables the cache
+     */
+    public QueryCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        int width = (int) Math.min(1 << 20, Math.max(64, maxWeight));
+        this.frequencies = new CountMinSketch(width, SKETCH_DEPTH);
+        // Age the frequencies once the sketch has seen ten times its width
+        this.sampleSize = 10L * frequencies.getWidth();
+        this.accesses = 0;
+        this.weight = 0;
+    }
+
+    /**
+     * Gets a cached value and records the access for the admission policy
+     * Complexity: O(1)
+     *
+     * @param key the key
+     * @return the cached value, or null on a miss
+     */
+    public synchronized V get(K key) {
+        recordAccess(key);
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Offers a value to the cache, it is only stored if the admission policy accepts it
+     * Complexity: O(number of evicted entries)
+     *
+     * @param key the key
+     * @param value the value
+     * @param entryWeight the weight of the value, at least 1
+     * @return true if the value was stored
+     */
+    public synchronized boolean put(K key, V value, long entryWeight) {
+        long w = Math.max(1, entryWeight);
+        if (w > maxWeight) {
+            rejections++;
+            return false;
+        }
+        Entry<V> old = entries.remove(key);
+        if (old != null) {
+            weight -= old.weight;
+        }
+
+        if (weight + w > maxWeight) {
+            // Collect the LRU victims needed to make room and check the candidate beats all of them
+            int candidateFrequency = frequencies.estimate(hash(key));
+            ArrayList<K> victims = new ArrayList<>();
+            long freed = 0;
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (weight - freed + w > maxWeight && it.hasNext()) {
+                Map.Entry<K, Entry<V>> eldest = it.next();
+                if (frequencies.estimate(hash(eldest.getKey())) >= candidateFrequency) {
+                    rejections++;
+                    return false;
+                }
+                victims.add(eldest.getKey());
+                freed += eldest.getValue().weight;
+            }
+            for (K victim : victims) {
+                weight -= entries.remove(victim).weight;
+                evictions++;
+            }
+        }
+
+        entries.put(key, new Entry<>(value, w));
+        weight += w;
+        return true;
+    }
+
+    /**
+     * Offers a value computed from the state seen at a generation, it is dropped if an
+     * entry was invalidated since then
+     * Complexity: O(number of evicted entries)
+     *
+     * @param key the key
+     * @param value the value
+     * @param entryWeight the weight of the value, at least 1
+     * @param seenGeneration the generation read before computing the value
+     * @return true if the value was stored
+     */
+    public synchronized boolean put(K key, V value, long entryWeight, long seenGeneration) {
+        if (seenGeneration != generation) {
+            return false;
+        }
+        return put(key, value, entryWeight);
+    }
+
+    /**
+     * Gets the number of invalidations so far, to be passed to put
+     *
+     * @return the current generation
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Removes the entry with the given key
+     * Complexity: O(1)
+     *
+     * @param key the key
+     * @return true if an entry was removed
+     */
+    public synchronized boolean invalidate(K key) {
+        generation++;
+        Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        weight -= removed.weight;
+        invalidations++;
+        return true;
+    }
+
+    /**
+     * Removes every entry whose key matches the predicate
+     * Complexity: O(number of cached entries)
+     *
+     * @param predicate the condition on the keys
+     * @return the number of removed entries
+     */
+    public synchronized int invalidateIf(Predicate<K> predicate) {
+        generation++;
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = it.next();
+            if (predicate.test(entry.getKey())) {
+                weight -= entry.getValue().weight;
+                it.remove();
+                removed++;
+            }
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    /**
+     * Removes every entry, the statistics are kept
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Gets the number of cached entries
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the current total weight of the cached entries
+     *
+     * @return the total weight
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets a snapshot of the cache counters
+     *
+     * @return the statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, rejections, invalidations, entries.size(), weight);
+    }
+
+    private void recordAccess(K key) {
+        frequencies.increment(hash(key));
+        if (++accesses >= sampleSize) {
+            frequencies.halve();
+            accesses /= 2;
+        }
+    }
+
+    private static long hash(Object key) {
+        long h = key.hashCode();
+        return h * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Cached value with its weight
+     */
+    private static class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
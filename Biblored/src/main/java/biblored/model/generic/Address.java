@@ -1,58 +1,80 @@
 package biblored.model.generic;
 
-public class Address {
-    private String street;
-    private String number;
-    private String city;
-    private String zipCode;
-    private String country;
+import java.util.Objects;
 
-    public Address() {
-        this.street = "";
-        this.number = "";
-        this.city = "";
-        this.zipCode = "";
-        this.country = "";
+/**
+ * Immutable address. Many users and libraries share an address or its city, zip code and
+ * country, so of() returns canonical instances that can be shared safely.
+ */
+public final class Address {
+    private static final Interner<String> PARTS = new Interner<>();
+    private static final Interner<Address> ADDRESSES = new Interner<>();
+
+    public static final Address EMPTY = of("", "", "", "", "");
+
+    private final String street;
+    private final String number;
+    private final String city;
+    private final String zipCode;
+    private final String country;
+
+    /**
+     * Creates an address that is not canonicalized, of() should be preferred
+     */
+    public Address(String street, String number, String city, String zipCode, String country) {
+        this.street = street;
+        this.number = number;
+        this.city = city;
+        this.zipCode = zipCode;
+        this.country = country;
     }
 
-    public String getStreet() {
-        return street;
+    /**
+     * Gets the canonical address with the given parts, every part is canonical too
+     * Complexity: O(length of the parts)
+     */
+    public static Address of(String street, String number, String city, String zipCode, String country) {
+        return ADDRESSES.intern(new Address(PARTS.intern(street), PARTS.intern(number), PARTS.intern(city),
+                PARTS.intern(zipCode), PARTS.intern(country)));
     }
 
-    public void setStreet(String street) {
-        this.street = street;
+    public String getStreet() {
+        return street;
     }
 
     public String getNumber() {
         return number;
     }
 
-    public void setNumber(String number) {
-        this.number = number;
-    }
-
     public String getCity() {
         return city;
     }
 
-    public void setCity(String city) {
-        this.city = city;
-    }
-
     public String getZipCode() {
         return zipCode;
     }
 
-    public void setZipCode(String zipCode) {
-        this.zipCode = zipCode;
-    }
-
     public String getCountry() {
         return country;
     }
 
-    public void setCountry(String country) {
-        this.country = country;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Address)) {
+            return false;
+        }
+        Address other = (Address) o;
+        return Objects.equals(street, other.street) && Objects.equals(number, other.number)
+                && Objects.equals(city, other.city) && Objects.equals(zipCode, other.zipCode)
+                && Objects.equals(country, other.country);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(street, number, city, zipCode, country);
     }
 
     @Override
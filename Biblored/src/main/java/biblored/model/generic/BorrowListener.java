@@ -0,0 +1,15 @@
+package biblored.model.generic;
+
+/**
+ * Listener notified by a Library every time one of its materials is borrowed successfully
+ */
+public interface BorrowListener {
+
+    /**
+     * Called after the material has been marked as borrowed
+     * @param library The library that lent the material
+     * @param material The reference to the borrowed material
+     * @param user The user borrowing the material
+     */
+    void onBorrow(Library library, MaterialRef material, User user);
+}
@@ -0,0 +1,142 @@
+package biblored.model.generic;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Weak canonicalizing set: returns one shared instance for every group of equal values.
+ * The canonical instances are only weakly referenced, so a value no longer used anywhere
+ * else is collected and its entry is dropped the next time the interner is used.
+ * A chained hash table whose entries are the weak references themselves, so an entry
+ * costs about 40 bytes, less than a WeakHashMap that also needs a reference for the value.
+ * The values must be immutable. The methods are synchronized, so it can be shared.
+ *
+ * @param <T> the type of the values
+ */
+public final class Interner<T> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReferenceQueue<T> queue;
+    private Entry<T>[] table;
+    private int size;
+
+    /**
+     * Constructor for Interner
+     */
+    public Interner() {
+        this.queue = new ReferenceQueue<>();
+        this.table = newTable(INITIAL_CAPACITY);
+        this.size = 0;
+    }
+
+    /**
+     * Gets the canonical instance equal to a value, the value becomes canonical if there
+     * is none
+     * Complexity: O(1) expected
+     *
+     * @param value the value, may be null
+     * @return the canonical instance, or null for null
+     */
+    public synchronized T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        expungeCollected();
+        int hash = spread(value.hashCode());
+        int index = hash & (table.length - 1);
+        for (Entry<T> entry = table[index]; entry != null; entry = entry.next) {
+            if (entry.hash == hash) {
+                T canonical = entry.get();
+                if (canonical != null && canonical.equals(value)) {
+                    return canonical;
+                }
+            }
+        }
+        table[index] = new Entry<>(value, hash, table[index], queue);
+        if (++size > table.length - (table.length >>> 2)) {
+            resize();
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of canonical instances still referenced
+     *
+     * @return the number of entries after dropping the collected ones
+     */
+    public synchronized int size() {
+        expungeCollected();
+        return size;
+    }
+
+    private void expungeCollected() {
+        Reference<? extends T> collected;
+        while ((collected = queue.poll()) != null) {
+            @SuppressWarnings("unchecked")
+            Entry<T> entry = (Entry<T>) collected;
+            unlink(entry);
+        }
+    }
+
+    // The entry may already be gone if a resize dropped it
+    private void unlink(Entry<T> target) {
+        int index = target.hash & (table.length - 1);
+        Entry<T> previous = null;
+        for (Entry<T> entry = table[index]; entry != null; previous = entry, entry = entry.next) {
+            if (entry == target) {
+                if (previous == null) {
+                    table[index] = entry.next;
+                } else {
+                    previous.next = entry.next;
+                }
+                size--;
+                return;
+            }
+        }
+    }
+
+    private void resize() {
+        Entry<T>[] resized = newTable(table.length * 2);
+        for (Entry<T> head : table) {
+            Entry<T> entry = head;
+            while (entry != null) {
+                Entry<T> next = entry.next;
+                if (entry.get() == null) {
+                    size--;
+                } else {
+                    int index = entry.hash & (resized.length - 1);
+                    entry.next = resized[index];
+                    resized[index] = entry;
+                }
+                entry = next;
+            }
+        }
+        table = resized;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Entry<T>[] newTable(int capacity) {
+        return (Entry<T>[]) new Entry[capacity];
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Weak reference to a canonical instance, chained in its bucket
+     *
+     * @param <T> the type of the value
+     */
+    private static final class Entry<T> extends WeakReference<T> {
+        private final int hash;
+        private Entry<T> next;
+
+        private Entry(T value, int hash, Entry<T> next, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+}
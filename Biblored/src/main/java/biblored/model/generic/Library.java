@@ -8,15 +8,27 @@ public class Library {
     private int id;
     private String name;
     private Address address;
-    private ArrayList<Material> borrowedMaterials;
+    private ArrayList<MaterialRef> borrowedMaterials;
+    private final ArrayList<BorrowListener> borrowListeners = new ArrayList<>();
 
     public Library() {
         this.id = 0;
         this.name = "";
-        this.address = new Address();
+        this.address = Address.EMPTY;
         this.borrowedMaterials = new ArrayList<>();
     }
 
+    /**
+     * Copy constructor, the immutable address is shared and the borrowed list is copied
+     * @param other The library to copy
+     */
+    public Library(Library other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.address = other.address;
+        this.borrowedMaterials = new ArrayList<>(other.borrowedMaterials);
+    }
+
     public int getId() {
         return id;
     }
@@ -41,19 +53,39 @@ public class Library {
         this.address = address;
     }
 
-    public ArrayList<Material> getBorrowedMaterials() {
+    public ArrayList<MaterialRef> getBorrowedMaterials() {
         return borrowedMaterials;
     }
 
+    /**
+     * Adds a loan read from a backup without changing the material. The caller makes sure the
+     * material is not listed yet, a contains check here would make restoring quadratic
+     * @param material The reference to the borrowed material
+     */
+    public void restoreLoan(MaterialRef material) {
+        borrowedMaterials.add(material);
+    }
+
+    public void addBorrowListener(BorrowListener listener) {
+        if (!borrowListeners.contains(listener)) {
+            borrowListeners.add(listener);
+        }
+    }
+
+    public void removeBorrowListener(BorrowListener listener) {
+        borrowListeners.remove(listener);
+    }
+
     /**
      * Processes a material being borrowed from this library
+     * @param ref The reference to the material
      * @param material The material to be borrowed
      * @param user The user borrowing the material
      * @return The borrowed material with updated status
      */
-    public Material borrowMaterial(Material material, User user) {
+    public Material borrowMaterial(MaterialRef ref, Material material, User user) {
         // Check if material belongs to this library
-        if (material.getLibrary().getId() != this.id) {
+        if (material.getLibraryId() != this.id) {
             System.out.println("This material does not belong to this library.");
             return material;
         }
@@ -66,7 +98,10 @@ public class Library {
 
         // Update material status and add to borrowed materials list
         material.setStatus(Status.RESERVED);
-        borrowedMaterials.add(material);
+        borrowedMaterials.add(ref);
+        for (BorrowListener listener : borrowListeners) {
+            listener.onBorrow(this, ref, user);
+        }
 
         System.out.println("Material borrowed from " + this.name + " library successfully.");
         return material;
@@ -74,25 +109,26 @@ public class Library {
 
     /**
      * Processes a material being returned to this library
+     * @param ref The reference to the material
      * @param material The material to be returned
      * @return The returned material with updated status
      */
-    public Material returnMaterial(Material material) {
+    public Material returnMaterial(MaterialRef ref, Material material) {
         // Check if material belongs to this library
-        if (material.getLibrary().getId() != this.id) {
+        if (material.getLibraryId() != this.id) {
             System.out.println("This material does not belong to this library.");
             return material;
         }
 
         // Check if material is in borrowed list
-        if (!borrowedMaterials.contains(material)) {
+        if (!borrowedMaterials.contains(ref)) {
             System.out.println("This material was not borrowed from this library.");
             return material;
         }
 
         // Update material status and remove from borrowed materials list
         material.setStatus(Status.AVAILABLE);
-        borrowedMaterials.remove(material);
+        borrowedMaterials.remove(ref);
 
         System.out.println("Material returned to " + this.name + " library successfully.");
         return material;
@@ -100,9 +136,9 @@ public class Library {
 
     /**
      * Gets a list of all materials currently borrowed from this library
-     * @return List of borrowed materials
+     * @return List of references to the borrowed materials
      */
-    public ArrayList<Material> getAllBorrowedMaterials() {
+    public ArrayList<MaterialRef> getAllBorrowedMaterials() {
         return borrowedMaterials;
     }
 }
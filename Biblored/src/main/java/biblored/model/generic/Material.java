@@ -11,7 +11,7 @@ public class Material {
     private String name;
     private String author;
     private LocalDate dateRegistered;
-    private Library library;
+    private int libraryId;
     private String language;
     private Status status;
 
@@ -20,11 +20,25 @@ public class Material {
         this.name = "";
         this.author = "";
         this.dateRegistered = LocalDate.now();
-        this.library = new Library();
+        this.libraryId = 0;
         this.language = "";
         this.status = Status.AVAILABLE;
     }
 
+    /**
+     * Copy constructor
+     * @param other The material to copy
+     */
+    public Material(Material other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.author = other.author;
+        this.dateRegistered = other.dateRegistered;
+        this.libraryId = other.libraryId;
+        this.language = other.language;
+        this.status = other.status;
+    }
+
     public int getId() {
         return id;
     }
@@ -57,12 +71,16 @@ public class Material {
         this.dateRegistered = dateRegistered;
     }
 
-    public Library getLibrary() {
-        return library;
+    /**
+     * Gets the id of the library that owns the material, resolved through the EntityResolver
+     * @return The library id, 0 if none
+     */
+    public int getLibraryId() {
+        return libraryId;
     }
 
-    public void setLibrary(Library library) {
-        this.library = library;
+    public void setLibraryId(int libraryId) {
+        this.libraryId = libraryId;
     }
 
     public String getLanguage() {
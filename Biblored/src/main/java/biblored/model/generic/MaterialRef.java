@@ -0,0 +1,71 @@
+package biblored.model.generic;
+
+import biblored.model.MaterialType;
+
+/**
+ * Immutable reference to a stored material by type and id. Material ids are only unique
+ * within a type, so both are needed. Users and libraries hold references instead of the
+ * materials, they are resolved through the EntityResolver of the network.
+ */
+public final class MaterialRef {
+    private static final MaterialType[] TYPES = MaterialType.values();
+
+    private final MaterialType type;
+    private final int id;
+
+    public MaterialRef(MaterialType type, int id) {
+        if (type == null) {
+            throw new IllegalArgumentException("The material type is required");
+        }
+        this.type = type;
+        this.id = id;
+    }
+
+    /**
+     * Decodes a reference encoded by getKey
+     * @param key The encoded reference
+     * @return The reference
+     */
+    public static MaterialRef fromKey(long key) {
+        return new MaterialRef(TYPES[(int) (key >>> 32)], (int) key);
+    }
+
+    public MaterialType getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Encodes the reference in a long, the type ordinal in the high half and the id in the
+     * low half, the same layout as the keys of the popularity tracker and the trigram index
+     * @return The encoded reference
+     */
+    public long getKey() {
+        return ((long) type.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MaterialRef)) {
+            return false;
+        }
+        MaterialRef other = (MaterialRef) o;
+        return type == other.type && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + id;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + id;
+    }
+}
@@ -1,38 +1,66 @@
 package biblored.model.generic;
 
-public class Phone {
-    private String countryCode;
-    private String areaCode;
-    private String number;
+import java.util.Objects;
 
-    public Phone() {
-        this.countryCode = "";
-        this.areaCode = "";
-        this.number = "";
+/**
+ * Immutable phone number. Country and area codes repeat across almost every user, so of()
+ * shares them. The phones themselves are not interned, numbers are nearly unique and an
+ * interner entry would cost more than the phone.
+ */
+public final class Phone {
+    private static final Interner<String> CODES = new Interner<>();
+
+    public static final Phone EMPTY = of("", "", "");
+
+    private final String countryCode;
+    private final String areaCode;
+    private final String number;
+
+    /**
+     * Creates a phone whose codes are not shared, of() should be preferred
+     */
+    public Phone(String countryCode, String areaCode, String number) {
+        this.countryCode = countryCode;
+        this.areaCode = areaCode;
+        this.number = number;
     }
 
-    public String getCountryCode() {
-        return countryCode;
+    /**
+     * Creates a phone whose country and area codes are canonical
+     * Complexity: O(length of the parts)
+     */
+    public static Phone of(String countryCode, String areaCode, String number) {
+        return new Phone(CODES.intern(countryCode), CODES.intern(areaCode), number);
     }
 
-    public void setCountryCode(String countryCode) {
-        this.countryCode = countryCode;
+    public String getCountryCode() {
+        return countryCode;
     }
 
     public String getAreaCode() {
         return areaCode;
     }
 
-    public void setAreaCode(String areaCode) {
-        this.areaCode = areaCode;
-    }
-
     public String getNumber() {
         return number;
     }
 
-    public void setNumber(String number) {
-        this.number = number;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Phone)) {
+            return false;
+        }
+        Phone other = (Phone) o;
+        return Objects.equals(countryCode, other.countryCode) && Objects.equals(areaCode, other.areaCode)
+                && Objects.equals(number, other.number);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(countryCode, areaCode, number);
     }
 
     @Override
@@ -9,7 +9,7 @@ public class User {
     private String password;
     private Phone phone;
     private Address address;
-    private Material borrowedMaterial;
+    private MaterialRef borrowedMaterial;
 
 
     public User() {
@@ -17,11 +17,25 @@ public class User {
         this.name = "";
         this.email = "";
         this.password = "";
-        this.phone = new Phone();
-        this.address = new Address();
+        this.phone = Phone.EMPTY;
+        this.address = Address.EMPTY;
         this.borrowedMaterial = null;
     }
 
+    /**
+     * Copy constructor, the immutable phone, address and loan reference are shared with the original
+     * @param other The user to copy
+     */
+    public User(User other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.email = other.email;
+        this.password = other.password;
+        this.phone = other.phone;
+        this.address = other.address;
+        this.borrowedMaterial = other.borrowedMaterial;
+    }
+
     public int getId() {
         return id;
     }
@@ -70,29 +84,34 @@ public class User {
         this.address = address;
     }
 
-    private void setBorrowedMaterial(Material material) {
+    /**
+     * Sets the loan without going through the library, used when a stored user is read
+     * @param material The borrowed material, or null
+     */
+    public void setBorrowedMaterial(MaterialRef material) {
         this.borrowedMaterial = material;
     }
 
-    public Material getBorrowedMaterial() {
+    public MaterialRef getBorrowedMaterial() {
         return borrowedMaterial;
     }
 
     /**
      * Borrows a material from a library
+     * @param library The library that owns the material
+     * @param ref The reference to the material
      * @param material The material to borrow
      */
-    public void borrowMaterial(Material material) {
+    public void borrowMaterial(Library library, MaterialRef ref, Material material) {
         if (borrowedMaterial == null) {
-            // Get the library that owns the material
-            Library library = material.getLibrary();
-
+            // A material reserved by someone else is left unchanged by the library
+            boolean available = material.getStatus() == Status.AVAILABLE;
             // Process the borrowing through the library
-            Material borrowedMaterial = library.borrowMaterial(material, this);
+            Material borrowedMaterial = library.borrowMaterial(ref, material, this);
 
             // If the status was changed to RESERVED, the borrowing was successful
-            if (borrowedMaterial.getStatus() == Status.RESERVED) {
-                setBorrowedMaterial(borrowedMaterial);
+            if (available && borrowedMaterial.getStatus() == Status.RESERVED) {
+                setBorrowedMaterial(ref);
                 System.out.println("User " + name + " has borrowed the material successfully.");
             }
         } else {
@@ -102,14 +121,13 @@ public class User {
 
     /**
      * Returns the currently borrowed material
+     * @param library The library that owns the material
+     * @param material The borrowed material
      */
-    public void returnMaterial() {
+    public void returnMaterial(Library library, Material material) {
         if (borrowedMaterial != null) {
-            // Get the library that owns the material
-            Library library = borrowedMaterial.getLibrary();
-
             // Process the return through the library
-            Material returnedMaterial = library.returnMaterial(borrowedMaterial);
+            Material returnedMaterial = library.returnMaterial(borrowedMaterial, material);
 
             // If the status was changed to AVAILABLE, the return was successful
             if (returnedMaterial.getStatus() == Status.AVAILABLE) {
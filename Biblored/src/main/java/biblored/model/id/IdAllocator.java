@@ -0,0 +1,186 @@
+package biblored.model.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+
+/**
+ * Generates the ids of one entity type without locks.
+ * A shared ceiling is the first id never handed out; a thread reserves a block of ids by
+ * moving it up with a CAS and then takes ids from its block without touching shared
+ * memory, so the threads only meet once per block. Ids of a block that its thread never
+ * uses are skipped, ids are unique but not consecutive.
+ * The first block starts after the largest id already stored, given by the seed, and ids
+ * assigned by hand are claimed so the ceiling moves past them. Ids from the first block up
+ * to the ceiling belong to the allocator: claiming one of them fails, because it may sit
+ * unused in the block of another thread, so a record added with a generated id can skip
+ * the duplicate check of its DAO. Records added behind the allocator, as a restore does,
+ * call for a reset, which drops the blocks and the released ids and seeds it again.
+ * With recycling, released ids of the allocator are pushed to a Treiber stack and handed
+ * out again before new ones, which keeps storage indexed by id dense. Every push uses a
+ * new node, so a node is never reused while another thread may still compare against it
+ * (no ABA problem).
+ */
+public class IdAllocator {
+    private static final long NOT_STARTED = Long.MAX_VALUE;
+
+    private final int blockSize;
+    private final boolean recycling;
+    private final IntSupplier seed;
+    private final AtomicLong ceiling;
+    private final AtomicLong start;
+    private final AtomicReference<Node> freeIds;
+    private final ThreadLocal<Block> blocks;
+    private volatile boolean seeded;
+    private volatile int generation;
+
+    /**
+     * Constructor for IdAllocator
+     *
+     * @param blockSize the ids reserved by a thread at a time
+     * @param recycling true to hand out released ids again
+     * @param seed gives the largest id stored before the first block, called once
+     */
+    public IdAllocator(int blockSize, boolean recycling, IntSupplier seed) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size must be positive");
+        }
+        this.blockSize = blockSize;
+        this.recycling = recycling;
+        this.seed = seed;
+        this.ceiling = new AtomicLong(1);
+        this.start = new AtomicLong(NOT_STARTED);
+        this.freeIds = new AtomicReference<>();
+        this.blocks = ThreadLocal.withInitial(Block::new);
+    }
+
+    /**
+     * Gets an id that no record uses and no other call returns, unless it is released
+     * Complexity: O(1), a CAS once per block
+     *
+     * @return the new id, at least 1
+     * @throws IllegalStateException if every int id is taken
+     */
+    public int allocate() {
+        if (recycling) {
+            Node head;
+            do {
+                head = freeIds.get();
+            } while (head != null && !freeIds.compareAndSet(head, head.next));
+            if (head != null) {
+                return head.id;
+            }
+        }
+        Block block = blocks.get();
+        if (block.next == block.end || block.generation != generation) {
+            reserve(block);
+        }
+        return (int) block.next++;
+    }
+
+    /**
+     * Claims an id assigned by hand, moving the ceiling past it
+     * Complexity: O(1)
+     *
+     * @param id the id of a record about to be added
+     * @return false if the id belongs to the allocator, true if the DAO decides
+     */
+    public boolean claim(int id) {
+        while (true) {
+            long current = ceiling.get();
+            if (id < current) {
+                return id < start.get();
+            }
+            if (ceiling.compareAndSet(current, (long) id + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands a deleted id out again if recycling is on and the id belongs to the allocator
+     * Complexity: O(1)
+     *
+     * @param id the id of a record that was deleted
+     */
+    public void release(int id) {
+        if (!recycling || !owns(id)) {
+            return;
+        }
+        Node node = new Node(id);
+        do {
+            node.next = freeIds.get();
+        } while (!freeIds.compareAndSet(node.next, node));
+    }
+
+    /**
+     * Forgets the ids handed out so far, the next block starts after the largest id given
+     * by the seed again. No other thread may allocate, claim or release meanwhile.
+     * Complexity: O(1), the blocks of the threads are dropped on their next allocation
+     */
+    public synchronized void reset() {
+        generation++;
+        freeIds.set(null);
+        start.set(NOT_STARTED);
+        ceiling.set(1);
+        seeded = false;
+    }
+
+    /**
+     * Checks if an id is in the range handed out in blocks
+     *
+     * @param id the id
+     * @return true if only the allocator may assign it
+     */
+    public boolean owns(int id) {
+        return id >= start.get() && id < ceiling.get();
+    }
+
+    private void reserve(Block block) {
+        if (!seeded) {
+            seed();
+        }
+        while (true) {
+            long first = ceiling.get();
+            if (first + blockSize - 1 > Integer.MAX_VALUE) {
+                throw new IllegalStateException("No ids left");
+            }
+            // The range is owned before it is reserved, so a concurrent claim cannot take an id of it
+            start.accumulateAndGet(first, Math::min);
+            if (ceiling.compareAndSet(first, first + blockSize)) {
+                block.generation = generation;
+                block.next = first;
+                block.end = first + blockSize;
+                return;
+            }
+        }
+    }
+
+    private synchronized void seed() {
+        if (!seeded) {
+            claim(Math.max(0, seed.getAsInt()));
+            seeded = true;
+        }
+    }
+
+    /**
+     * The ids reserved by one thread, next up to end exclusive
+     */
+    private static final class Block {
+        private int generation;
+        private long next;
+        private long end;
+    }
+
+    /**
+     * A released id in the stack
+     */
+    private static final class Node {
+        private final int id;
+        private Node next;
+
+        private Node(int id) {
+            this.id = id;
+        }
+    }
+}
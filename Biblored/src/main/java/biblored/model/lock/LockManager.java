@@ -0,0 +1,464 @@
+package biblored.model.lock;
+
+import biblored.model.MaterialType;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Locks of a LibraryNetwork, built from StampedLocks at two levels.
+ * Every table (the library DAO, the user DAO and the five material DAOs) has a lock that
+ * protects its structure: adds, deletes and updates through the DAO take it exclusively,
+ * lookups run optimistically and are validated against it, and scans share it.
+ * The records themselves are protected by a fixed array of stripes keyed by table and id.
+ * An operation on several records, like a borrow that changes a user, a material and a
+ * library, shares the tables involved and then takes the stripes of its records.
+ * Deadlocks are avoided by always acquiring in the same order: tables by index, then
+ * stripes by index, each one at most once.
+ * The locks are not reentrant, a thread that holds a scope may only call code whose locks
+ * are already covered by it, or that reads tables after the ones held; anything else fails
+ * with an IllegalStateException instead of deadlocking.
+ */
+public class LockManager {
+    public static final int LIBRARIES = 0;
+    public static final int USERS = 1;
+    public static final int TABLES = 2 + MaterialType.values().length;
+
+    private static final int ALL_TABLES = (1 << TABLES) - 1;
+
+    private final StampedLock[] tables;
+    private final StampedLock[] stripes;
+    private final int stripeMask;
+    private final ThreadLocal<Held> held;
+    private final LongAdder optimisticMisses;
+
+    /**
+     * Creates a manager with 1024 record stripes
+     */
+    public LockManager() {
+        this(1024);
+    }
+
+    /**
+     * Constructor for LockManager
+     *
+     * @param stripeCount the number of record stripes, rounded up to a power of two
+     */
+    public LockManager(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("The stripe count must be positive");
+        }
+        this.tables = new StampedLock[TABLES];
+        for (int i = 0; i < TABLES; i++) {
+            tables[i] = new StampedLock();
+        }
+        int count = Integer.highestOneBit(stripeCount - 1 | 1) << 1;
+        this.stripes = new StampedLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new StampedLock();
+        }
+        this.stripeMask = count - 1;
+        this.held = ThreadLocal.withInitial(Held::new);
+        this.optimisticMisses = new LongAdder();
+    }
+
+    /**
+     * Gets the table of a material DAO
+     *
+     * @param type the material type
+     * @return the table index
+     */
+    public static int tableOf(MaterialType type) {
+        return 2 + type.ordinal();
+    }
+
+    /**
+     * Builds the key of a record for entities and readEntity
+     *
+     * @param table the table index
+     * @param id the record id
+     * @return the packed key
+     */
+    public static long keyOf(int table, int id) {
+        return ((long) table << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Runs a lookup on a table without locking and validates it, if a writer changed the
+     * table meanwhile the lookup runs again under the read lock. The lookup must not have
+     * side effects other than caching, it may see the table half way through a change and
+     * even fail, in which case its result or exception is discarded.
+     * Complexity: O(1) plus the lookup
+     *
+     * @param table the table index
+     * @param lookup the lookup
+     * @param <T> the type of result
+     * @return the result of a lookup that did not overlap any write
+     */
+    public <T> T read(int table, Supplier<T> lookup) {
+        Held current = held.get();
+        if (current.covers(table)) {
+            return lookup.get();
+        }
+        current.checkOrder(table);
+        StampedLock lock = tables[table];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = lookup.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // The table changed under the lookup, it is retried below
+            }
+        }
+        optimisticMisses.increment();
+        return locked(current, table, lookup);
+    }
+
+    /**
+     * Runs a scan of a table under its read lock, for iterations that are too long to be
+     * retried or that could not survive a concurrent change
+     * Complexity: O(1) plus the scan
+     *
+     * @param table the table index
+     * @param scan the scan
+     * @param <T> the type of result
+     * @return the result of the scan
+     */
+    public <T> T scan(int table, Supplier<T> scan) {
+        Held current = held.get();
+        if (current.covers(table)) {
+            return scan.get();
+        }
+        current.checkOrder(table);
+        return locked(current, table, scan);
+    }
+
+    /**
+     * Runs a read of the fields of one record without locking and validates it against the
+     * stripe of the record, retrying under the stripe read lock like read
+     * Complexity: O(1) plus the read
+     *
+     * @param key the record key, see keyOf
+     * @param reader the read, without side effects
+     * @param <T> the type of result
+     * @return the result of a read that did not overlap any change of the record
+     */
+    public <T> T readEntity(long key, Supplier<T> reader) {
+        Held current = held.get();
+        int stripe = stripeOf(key);
+        if (current.writes == ALL_TABLES || current.holdsStripe(stripe)) {
+            return reader.get();
+        }
+        if (current.stripes != null) {
+            throw new IllegalStateException("The stripe of the record is not held by this thread");
+        }
+        StampedLock lock = stripes[stripe];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // The record changed under the read, it is retried below
+            }
+        }
+        optimisticMisses.increment();
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Locks a table exclusively, for adds, deletes and updates through its DAO
+     *
+     * @param table the table index
+     * @return the scope to close
+     */
+    public Scope write(int table) {
+        Held current = held.get();
+        if ((current.writes & (1 << table)) != 0) {
+            return Scope.NONE;
+        }
+        current.checkFree();
+        long stamp = tables[table].writeLock();
+        current.tables = 1 << table;
+        current.writes = 1 << table;
+        return new Scope(this, current, new int[]{table}, new long[]{stamp}, null, null, true);
+    }
+
+    /**
+     * Shares the tables of some records and locks their stripes exclusively, for changes to
+     * the fields of several records that must be seen together
+     *
+     * @param keys the keys of the records, see keyOf
+     * @return the scope to close
+     */
+    public Scope entities(long... keys) {
+        Held current = held.get();
+        int mask = 0;
+        for (long key : keys) {
+            mask |= 1 << (int) (key >>> 32);
+        }
+        if ((current.writes & mask) == mask) {
+            return Scope.NONE;
+        }
+        current.checkFree();
+        int[] stripeIndexes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            stripeIndexes[i] = stripeOf(keys[i]);
+        }
+        Arrays.sort(stripeIndexes);
+        int distinct = 0;
+        for (int i = 0; i < stripeIndexes.length; i++) {
+            if (i == 0 || stripeIndexes[i] != stripeIndexes[i - 1]) {
+                stripeIndexes[distinct++] = stripeIndexes[i];
+            }
+        }
+        stripeIndexes = Arrays.copyOf(stripeIndexes, distinct);
+
+        int[] tableIndexes = tablesOf(mask);
+        long[] tableStamps = new long[tableIndexes.length];
+        for (int i = 0; i < tableIndexes.length; i++) {
+            tableStamps[i] = tables[tableIndexes[i]].readLock();
+        }
+        long[] stripeStamps = new long[distinct];
+        for (int i = 0; i < distinct; i++) {
+            stripeStamps[i] = stripes[stripeIndexes[i]].writeLock();
+        }
+        current.tables = mask;
+        current.stripes = stripeIndexes;
+        return new Scope(this, current, tableIndexes, tableStamps, stripeIndexes, stripeStamps, false);
+    }
+
+    /**
+     * Shares every table, for scans that must not see records added or deleted meanwhile.
+     * Changes to the fields of single records can still happen during the scan.
+     *
+     * @return the scope to close
+     */
+    public Scope shared() {
+        Held current = held.get();
+        if (current.writes == ALL_TABLES) {
+            return Scope.NONE;
+        }
+        current.checkFree();
+        int[] tableIndexes = tablesOf(ALL_TABLES);
+        long[] stamps = new long[TABLES];
+        for (int i = 0; i < TABLES; i++) {
+            stamps[i] = tables[i].readLock();
+        }
+        current.tables = ALL_TABLES;
+        return new Scope(this, current, tableIndexes, stamps, null, null, false);
+    }
+
+    /**
+     * Locks every table exclusively, which also excludes every operation on records
+     *
+     * @return the scope to close
+     */
+    public Scope exclusive() {
+        Held current = held.get();
+        if (current.writes == ALL_TABLES) {
+            return Scope.NONE;
+        }
+        current.checkFree();
+        int[] tableIndexes = tablesOf(ALL_TABLES);
+        long[] stamps = new long[TABLES];
+        for (int i = 0; i < TABLES; i++) {
+            stamps[i] = tables[i].writeLock();
+        }
+        current.tables = ALL_TABLES;
+        current.writes = ALL_TABLES;
+        return new Scope(this, current, tableIndexes, stamps, null, null, true);
+    }
+
+    /**
+     * Runs work under the exclusive lock of a table, like a try-with-resources on write
+     *
+     * @param table the table index
+     * @param work the work
+     * @param <E> the type of checked exception thrown by the work
+     * @throws E if the work fails
+     */
+    public <E extends Exception> void write(int table, Locked<E> work) throws E {
+        run(write(table), work);
+    }
+
+    /**
+     * Runs work with every table shared, like a try-with-resources on shared
+     *
+     * @param work the work
+     * @param <E> the type of checked exception thrown by the work
+     * @throws E if the work fails
+     */
+    public <E extends Exception> void shared(Locked<E> work) throws E {
+        run(shared(), work);
+    }
+
+    /**
+     * Runs work with every table locked exclusively, like a try-with-resources on exclusive
+     *
+     * @param work the work
+     * @param <E> the type of checked exception thrown by the work
+     * @throws E if the work fails
+     */
+    public <E extends Exception> void exclusive(Locked<E> work) throws E {
+        run(exclusive(), work);
+    }
+
+    /**
+     * Gets the number of optimistic reads that had to be retried under a read lock
+     *
+     * @return the number of retries
+     */
+    public long getOptimisticMisses() {
+        return optimisticMisses.sum();
+    }
+
+    private static <E extends Exception> void run(Scope scope, Locked<E> work) throws E {
+        try {
+            work.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    private <T> T locked(Held current, int table, Supplier<T> body) {
+        long stamp = tables[table].readLock();
+        current.tables |= 1 << table;
+        try {
+            return body.get();
+        } finally {
+            current.tables &= ~(1 << table);
+            tables[table].unlockRead(stamp);
+        }
+    }
+
+    private int stripeOf(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 40) & stripeMask;
+    }
+
+    private static int[] tablesOf(int mask) {
+        int[] indexes = new int[Integer.bitCount(mask)];
+        int n = 0;
+        for (int table = 0; table < TABLES; table++) {
+            if ((mask & (1 << table)) != 0) {
+                indexes[n++] = table;
+            }
+        }
+        return indexes;
+    }
+
+    private void release(Scope scope) {
+        if (scope.stripeIndexes != null) {
+            for (int i = scope.stripeIndexes.length - 1; i >= 0; i--) {
+                stripes[scope.stripeIndexes[i]].unlockWrite(scope.stripeStamps[i]);
+            }
+        }
+        for (int i = scope.tableIndexes.length - 1; i >= 0; i--) {
+            if (scope.exclusive) {
+                tables[scope.tableIndexes[i]].unlockWrite(scope.tableStamps[i]);
+            } else {
+                tables[scope.tableIndexes[i]].unlockRead(scope.tableStamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Locks held by a thread, a thread holds at most one scope at a time
+     */
+    private static final class Held {
+        private int tables;
+        private int writes;
+        private int[] stripes;
+
+        private boolean covers(int table) {
+            return (tables & (1 << table)) != 0;
+        }
+
+        private boolean holdsStripe(int stripe) {
+            return stripes != null && Arrays.binarySearch(stripes, stripe) >= 0;
+        }
+
+        private void checkFree() {
+            if (tables != 0) {
+                throw new IllegalStateException("The locks needed are not covered by the scope held by this thread");
+            }
+        }
+
+        /**
+         * A table can be read locked after the tables before it, while no stripe is held
+         */
+        private void checkOrder(int table) {
+            if (stripes != null || (tables >>> table) != 0) {
+                throw new IllegalStateException("Table " + table + " would be locked out of order by this thread");
+            }
+        }
+
+        private void clear() {
+            tables = 0;
+            writes = 0;
+            stripes = null;
+        }
+    }
+
+    /**
+     * Work run while a scope is held, it may throw the checked exception of its caller
+     *
+     * @param <E> the type of checked exception thrown
+     */
+    @FunctionalInterface
+    public interface Locked<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * Locks acquired together, released by close. Scopes are used with try-with-resources
+     * on the thread that acquired them.
+     */
+    public static final class Scope implements AutoCloseable {
+        private static final Scope NONE = new Scope(null, null, null, null, null, null, false);
+
+        private final LockManager manager;
+        private final Held held;
+        private final int[] tableIndexes;
+        private final long[] tableStamps;
+        private final int[] stripeIndexes;
+        private final long[] stripeStamps;
+        private final boolean exclusive;
+
+        private Scope(LockManager manager, Held held, int[] tableIndexes, long[] tableStamps, int[] stripeIndexes,
+                      long[] stripeStamps, boolean exclusive) {
+            this.manager = manager;
+            this.held = held;
+            this.tableIndexes = tableIndexes;
+            this.tableStamps = tableStamps;
+            this.stripeIndexes = stripeIndexes;
+            this.stripeStamps = stripeStamps;
+            this.exclusive = exclusive;
+        }
+
+        /**
+         * Releases the locks of the scope, a scope that was nested in a covering one
+         * releases nothing
+         */
+        @Override
+        public void close() {
+            if (manager != null) {
+                held.clear();
+                manager.release(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package biblored.model.search;
+
+import biblored.model.MaterialType;
+import biblored.model.generic.Material;
+
+/**
+ * A material found by a fuzzy search, with the number of edits between the searched
+ * text and its name or author
+ */
+public class FuzzyMatch {
+    private final MaterialType type;
+    private final Material material;
+    private final int distance;
+
+    /**
+     * Constructor for FuzzyMatch
+     *
+     * @param type the material type
+     * @param material the material
+     * @param distance the edit distance to the searched text
+     */
+    public FuzzyMatch(MaterialType type, Material material, int distance) {
+        this.type = type;
+        this.material = material;
+        this.distance = distance;
+    }
+
+    /**
+     * Builds the index key of a material, ids are only unique inside one material DAO
+     *
+     * @param type the material type
+     * @param materialId the material id
+     * @return the packed key
+     */
+    public static long keyOf(MaterialType type, int materialId) {
+        return ((long) type.ordinal() << 32) | (materialId & 0xFFFFFFFFL);
+    }
+
+    public static MaterialType typeOf(long key) {
+        return MaterialType.values()[(int) (key >>> 32)];
+    }
+
+    public static int idOf(long key) {
+        return (int) key;
+    }
+
+    public MaterialType getType() {
+        return type;
+    }
+
+    public Material getMaterial() {
+        return material;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+}
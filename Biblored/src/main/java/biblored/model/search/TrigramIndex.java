@@ -0,0 +1,632 @@
+package biblored.model.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Trigram index for searches that tolerate typos in names and authors.
+ * Texts are normalized (lower case, no accents, only letters and digits) and every distinct
+ * word gets a number and a posting list of the documents that contain it. Words are split
+ * in trigrams with two spaces before and one after, so "sol" gives "  s", " so", "sol" and
+ * "ol ", and every trigram has a posting list of the words that contain it. Posting lists
+ * are sorted because words and documents are numbered in insertion order.
+ * An edit changes at most three trigrams, and a swap of adjacent letters four, so a word
+ * within k edits of a query word shares at least |T(w)| - 4k of its trigrams. The words
+ * found in enough trigram lists are confirmed by edit distance, and the last query word
+ * may also match the beginning of a word, as it can be unfinished.
+ * The documents of the matching words make one list per query word, and the candidates are
+ * the documents found in every list (all but one for three words or more, as a typo can
+ * merge or split words). An unknown query word is also tried as two words. Both steps take the candidates from the shortest lists and count
+ * them in the longer ones by binary search. Candidates are ranked by the edit distance of
+ * the query to the closest part of the name or author.
+ * The vocabulary grows much slower than the catalog, so most of the work of a search does
+ * not depend on the number of documents.
+ * Removed documents are marked dead and everything is rebuilt when a quarter is dead.
+ */
+public class TrigramIndex {
+    private static final int MIN_DOCUMENTS_TO_COMPACT = 1024;
+    private static final double COMPACTION_THRESHOLD = 0.25;
+
+    private final HashMap<String, Integer> wordNumbers;
+    private final HashMap<Long, Postings> wordsByTrigram;
+    private String[] words;
+    private Postings[] documentsByWord;
+    private int wordCount;
+
+    private final HashMap<Long, Integer> documentByKey;
+    private long[] keys;
+    private String[] names;
+    private String[] authors;
+    private final BitSet dead;
+    private int documents;
+    private int deadCount;
+
+    // Scratch space reused by every search
+    private int[] documentCounts;
+    private int[] wordCounts;
+    private int[] touched;
+    private int[] scratch;
+
+    /**
+     * Constructor for TrigramIndex
+     */
+    public TrigramIndex() {
+        this.wordNumbers = new HashMap<>();
+        this.wordsByTrigram = new HashMap<>();
+        this.words = new String[16];
+        this.documentsByWord = new Postings[16];
+        this.wordCount = 0;
+        this.documentByKey = new HashMap<>();
+        this.keys = new long[16];
+        this.names = new String[16];
+        this.authors = new String[16];
+        this.dead = new BitSet();
+        this.documents = 0;
+        this.deadCount = 0;
+        this.documentCounts = new int[16];
+        this.wordCounts = new int[16];
+        this.touched = new int[16];
+        this.scratch = new int[64];
+    }
+
+    /**
+     * Indexes the name and author of a record, replacing the previous entry of the key
+     * Complexity: O(L) amortized, L being the length of the texts
+     *
+     * @param key the record key
+     * @param name the name
+     * @param author the author
+     */
+    public synchronized void add(long key, String name, String author) {
+        remove(key);
+        if (documents == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            names = Arrays.copyOf(names, capacity);
+            authors = Arrays.copyOf(authors, capacity);
+            documentCounts = Arrays.copyOf(documentCounts, capacity);
+        }
+        int document = documents++;
+        keys[document] = key;
+        names[document] = normalize(name);
+        authors[document] = normalize(author);
+        documentByKey.put(key, document);
+        post(document);
+    }
+
+    /**
+     * Removes the entry of a key
+     * Complexity: O(1) amortized
+     *
+     * @param key the record key
+     * @return true if the key was indexed
+     */
+    public synchronized boolean remove(long key) {
+        Integer document = documentByKey.remove(key);
+        if (document == null) {
+            return false;
+        }
+        kill(document);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Removes every entry whose key meets a condition
+     * Complexity: O(N)
+     *
+     * @param condition the condition on the key
+     */
+    public synchronized void removeIf(LongPredicate condition) {
+        documentByKey.values().removeIf(document -> {
+            if (condition.test(keys[document])) {
+                kill(document);
+                return true;
+            }
+            return false;
+        });
+        compactIfNeeded();
+    }
+
+    public synchronized int size() {
+        return documentByKey.size();
+    }
+
+    /**
+     * Finds the records closest to a text, allowing more typos for longer texts
+     *
+     * @param text the searched text
+     * @param limit the maximum number of results
+     * @return the results from the closest
+     */
+    public List<Hit> search(String text, int limit) {
+        String query = normalize(text);
+        return search(query, limit, query.length() <= 4 ? 1 : 2);
+    }
+
+    /**
+     * Finds the records whose name or author contains the text with at most maxDistance edits
+     * Complexity: O(V + P + C * L * k), V being the words verified, P the postings read and
+     * C the documents verified
+     *
+     * @param text the searched text
+     * @param limit the maximum number of results
+     * @param maxDistance the maximum number of edits
+     * @return the results ordered by distance, then by how close the length of the text is
+     */
+    public synchronized List<Hit> search(String text, int limit, int maxDistance) {
+        String query = normalize(text);
+        if (query.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (scratch.length < 3 * (query.length() + 2)) {
+            scratch = new int[3 * (query.length() + 2)];
+        }
+        String[] queryWords = query.split(" ");
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i < queryWords.length; i++) {
+            String word = queryWords[i];
+            boolean unfinished = i == queryWords.length - 1;
+            int[] matches = matchingWords(word, wordDistance(word, maxDistance), unfinished);
+            if (matches.length == 0 && splitWord(word, maxDistance, unfinished, lists)) {
+                continue;
+            }
+            lists.add(documentsOf(matches));
+        }
+        int threshold = lists.size() <= 2 ? lists.size() : lists.size() - 1;
+        int candidates = candidates(lists.toArray(new Postings[0]), threshold, documentCounts);
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(Hit.ORDER.reversed());
+        int bound = maxDistance;
+        for (int c = 0; c < candidates; c++) {
+            int document = touched[c];
+            if (dead.get(document)) {
+                continue;
+            }
+            Hit hit = verify(document, query, bound);
+            if (hit != null) {
+                best.offer(hit);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                // Once the results are full, only closer records can get in
+                if (best.size() == limit) {
+                    bound = Math.min(bound, best.peek().getDistance());
+                }
+            }
+        }
+
+        List<Hit> result = new ArrayList<>(best);
+        result.sort(Hit.ORDER);
+        return result;
+    }
+
+    /**
+     * Normalizes a text for the index: lower case, accents removed, and every run of
+     * characters that are not letters or digits replaced by one space
+     *
+     * @param text the raw text
+     * @return the normalized text
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int length = sb.length();
+        if (length > 0 && sb.charAt(length - 1) == ' ') {
+            sb.setLength(length - 1);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Edit distance from a pattern to the closest substring of a text
+     *
+     * @param pattern the pattern
+     * @param text the text
+     * @param maxDistance the largest distance of interest
+     * @param scratch scratch array of at least 3 * (pattern.length() + 2) entries
+     * @return the distance, or maxDistance + 1 if it is larger
+     */
+    static int substringDistance(String pattern, String text, int maxDistance, int[] scratch) {
+        return distance(pattern, text, maxDistance, true, true, scratch);
+    }
+
+    /**
+     * Edit distance from a pattern to a text, or to a part of it, with Ukkonen's cutoff:
+     * only the rows that can still end within maxDistance edits are computed.
+     * Swapping two adjacent letters counts as one edit, as it is a common typo.
+     *
+     * @param pattern the pattern
+     * @param text the text
+     * @param maxDistance the largest distance of interest
+     * @param anyStart true if the match can start anywhere in the text, not only at the start
+     * @param anyEnd true if the match can end anywhere in the text, not only at the end
+     * @param scratch scratch array of at least 3 * (pattern.length() + 2) entries
+     * @return the distance, or maxDistance + 1 if it is larger
+     */
+    private static int distance(String pattern, String text, int maxDistance, boolean anyStart, boolean anyEnd,
+                                int[] scratch) {
+        int m = pattern.length();
+        int width = m + 2;
+        // Offsets of the last three columns in the scratch array
+        int before = 0;
+        int previous = width;
+        int current = 2 * width;
+        for (int i = 0; i <= Math.min(m, maxDistance + 1); i++) {
+            scratch[previous + i] = i;
+        }
+        int last = Math.min(m, maxDistance);
+        int best = last == m ? scratch[previous + m] : maxDistance + 1;
+        for (int j = 0; j < text.length() && (best > 0 || !anyEnd); j++) {
+            char c = text.charAt(j);
+            char p = j > 0 ? text.charAt(j - 1) : 0;
+            int top = anyStart ? 0 : j + 1;
+            int end = Math.min(m, last + 1);
+            scratch[current] = top;
+            for (int i = 1; i <= end; i++) {
+                char expected = pattern.charAt(i - 1);
+                int value = Math.min(Math.min(scratch[previous + i] + 1, scratch[current + i - 1] + 1),
+                        scratch[previous + i - 1] + (expected == c ? 0 : 1));
+                if (i > 1 && j > 0 && expected == p && pattern.charAt(i - 2) == c) {
+                    value = Math.min(value, scratch[before + i - 2] + 1);
+                }
+                scratch[current + i] = value;
+            }
+            if (end < m) {
+                scratch[current + end + 1] = maxDistance + 1;
+            }
+            last = end;
+            while (last > 0 && scratch[current + last] > maxDistance) {
+                last--;
+            }
+            best = last == m ? (anyEnd ? Math.min(best, scratch[current + m]) : scratch[current + m])
+                    : (anyEnd ? best : maxDistance + 1);
+            // Anchored at the start, no row can get back within maxDistance
+            if (last == 0 && top > maxDistance) {
+                break;
+            }
+            int free = before;
+            before = previous;
+            previous = current;
+            current = free;
+        }
+        return best;
+    }
+
+    private static int wordDistance(String word, int maxDistance) {
+        return Math.min(maxDistance, word.length() <= 2 ? 0 : word.length() <= 5 ? 1 : 2);
+    }
+
+    /**
+     * Looks for two known words in an unknown one, as a missing space is a common typo.
+     * The split points are tried from the middle, and the first one where both parts match
+     * adds their documents to the lists.
+     *
+     * @return true if the word was split
+     */
+    private boolean splitWord(String word, int maxDistance, boolean unfinished, List<Postings> lists) {
+        int middle = word.length() / 2;
+        for (int shift = 0; middle - shift >= 3; shift++) {
+            for (int split : new int[] {middle - shift, middle + shift + 1}) {
+                if (split < 3 || word.length() - split < 3) {
+                    continue;
+                }
+                String left = word.substring(0, split);
+                String right = word.substring(split);
+                int[] leftMatches = matchingWords(left, wordDistance(left, maxDistance), false);
+                if (leftMatches.length == 0) {
+                    continue;
+                }
+                int[] rightMatches = matchingWords(right, wordDistance(right, maxDistance), unfinished);
+                if (rightMatches.length > 0) {
+                    lists.add(documentsOf(leftMatches));
+                    lists.add(documentsOf(rightMatches));
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Numbers of the words within maxDistance edits of a word, or of its beginning if unfinished
+    private int[] matchingWords(String word, int maxDistance, boolean unfinished) {
+        if (maxDistance == 0 && !unfinished) {
+            Integer number = wordNumbers.get(word);
+            return number == null ? new int[0] : new int[] {number};
+        }
+        long[] grams = trigrams(word);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            Postings list = wordsByTrigram.get(grams[i]);
+            lists[i] = list == null ? Postings.EMPTY : list;
+        }
+        // The beginning of a word does not have its last trigram, the one ending in a space
+        int threshold = Math.max(1, grams.length - 4 * maxDistance - (unfinished ? 1 : 0));
+        int candidates = candidates(lists, threshold, wordCounts);
+        int[] matches = new int[candidates];
+        int count = 0;
+        for (int c = 0; c < candidates; c++) {
+            int number = touched[c];
+            if (distance(word, words[number], maxDistance, false, unfinished, scratch) <= maxDistance) {
+                matches[count++] = number;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    // Merges the documents of some words in one sorted list
+    private Postings documentsOf(int[] matches) {
+        if (matches.length == 1) {
+            return documentsByWord[matches[0]];
+        }
+        int size = 0;
+        for (int number : matches) {
+            size += documentsByWord[number].size;
+        }
+        Postings merged = new Postings(size);
+        for (int number : matches) {
+            Postings list = documentsByWord[number];
+            System.arraycopy(list.numbers, 0, merged.numbers, merged.size, list.size);
+            merged.size += list.size;
+        }
+        Arrays.sort(merged.numbers, 0, merged.size);
+        return merged;
+    }
+
+    /**
+     * Finds the numbers present in at least threshold lists and leaves them in touched.
+     * Every one of them is in one of the (n - threshold + 1) shortest lists, so those are
+     * counted, and the longer ones are only searched for the numbers found there.
+     *
+     * @param lists the posting lists, sorted in place by size
+     * @param threshold the number of lists needed
+     * @param counts scratch counters for every number, left at zero
+     * @return the number of results at the start of touched
+     */
+    private int candidates(Postings[] lists, int threshold, int[] counts) {
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int shortLists = lists.length - threshold + 1;
+        int touchedCount = 0;
+        for (int i = 0; i < shortLists; i++) {
+            Postings list = lists[i];
+            for (int j = 0; j < list.size; j++) {
+                int number = list.numbers[j];
+                // A number repeated in a merged list counts once
+                if (j > 0 && number == list.numbers[j - 1]) {
+                    continue;
+                }
+                if (counts[number]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = number;
+                }
+            }
+        }
+        int found = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int number = touched[t];
+            int count = counts[number];
+            counts[number] = 0;
+            for (int i = shortLists; i < lists.length && count < threshold; i++) {
+                if (count + lists.length - i < threshold) {
+                    break;
+                }
+                if (lists[i].contains(number)) {
+                    count++;
+                }
+            }
+            if (count >= threshold) {
+                touched[found++] = number;
+            }
+        }
+        return found;
+    }
+
+    private Hit verify(int document, String query, int bound) {
+        int nameDistance = substringDistance(query, names[document], bound, scratch);
+        int authorDistance = substringDistance(query, authors[document], bound, scratch);
+        int distance = Math.min(nameDistance, authorDistance);
+        if (distance > bound) {
+            return null;
+        }
+        String matched = nameDistance <= authorDistance ? names[document] : authors[document];
+        return new Hit(keys[document], distance, Math.abs(matched.length() - query.length()));
+    }
+
+    private void post(int document) {
+        postWords(names[document], document);
+        postWords(authors[document], document);
+    }
+
+    private void postWords(String text, int document) {
+        if (text.isEmpty()) {
+            return;
+        }
+        for (String word : text.split(" ")) {
+            int number = wordNumber(word);
+            documentsByWord[number].append(document);
+        }
+    }
+
+    // Number of a word, adding it to the vocabulary if it is new
+    private int wordNumber(String word) {
+        Integer number = wordNumbers.get(word);
+        if (number != null) {
+            return number;
+        }
+        if (wordCount == words.length) {
+            int capacity = words.length * 2;
+            words = Arrays.copyOf(words, capacity);
+            documentsByWord = Arrays.copyOf(documentsByWord, capacity);
+            wordCounts = Arrays.copyOf(wordCounts, capacity);
+        }
+        int added = wordCount++;
+        words[added] = word;
+        documentsByWord[added] = new Postings(4);
+        for (long gram : trigrams(word)) {
+            wordsByTrigram.computeIfAbsent(gram, g -> new Postings(4)).append(added);
+        }
+        wordNumbers.put(word, added);
+        return added;
+    }
+
+    private void kill(int document) {
+        dead.set(document);
+        deadCount++;
+        names[document] = null;
+        authors[document] = null;
+    }
+
+    // Renumbers the live documents and rebuilds the vocabulary and postings without the dead ones
+    private void compactIfNeeded() {
+        if (documents < MIN_DOCUMENTS_TO_COMPACT || deadCount < documents * COMPACTION_THRESHOLD) {
+            return;
+        }
+        int live = 0;
+        for (int document = 0; document < documents; document++) {
+            if (!dead.get(document)) {
+                keys[live] = keys[document];
+                names[live] = names[document];
+                authors[live] = authors[document];
+                documentByKey.put(keys[live], live);
+                live++;
+            }
+        }
+        Arrays.fill(names, live, documents, null);
+        Arrays.fill(authors, live, documents, null);
+        documents = live;
+        deadCount = 0;
+        dead.clear();
+        // Words used only by dead documents are dropped too
+        wordNumbers.clear();
+        wordsByTrigram.clear();
+        Arrays.fill(words, 0, wordCount, null);
+        Arrays.fill(documentsByWord, 0, wordCount, null);
+        wordCount = 0;
+        for (int document = 0; document < documents; document++) {
+            post(document);
+        }
+    }
+
+    private static long[] trigrams(String text) {
+        if (text.isEmpty()) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() * 2 + 2];
+        int count = 0;
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf(' ', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            // Word padded with two spaces before and one after
+            char a = ' ';
+            char b = ' ';
+            for (int i = start; i <= end; i++) {
+                char c = i < end ? text.charAt(i) : ' ';
+                if (count == grams.length) {
+                    grams = Arrays.copyOf(grams, count * 2);
+                }
+                grams[count++] = ((long) a << 32) | ((long) b << 16) | c;
+                a = b;
+                b = c;
+            }
+            start = end + 1;
+        }
+        return unique(Arrays.copyOf(grams, count));
+    }
+
+    private static long[] unique(long[] values) {
+        Arrays.sort(values);
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * A search result
+     */
+    public static class Hit {
+        static final Comparator<Hit> ORDER = Comparator.comparingInt(Hit::getDistance)
+                .thenComparingInt(hit -> hit.lengthDifference)
+                .thenComparingLong(Hit::getKey);
+
+        private final long key;
+        private final int distance;
+        private final int lengthDifference;
+
+        private Hit(long key, int distance, int lengthDifference) {
+            this.key = key;
+            this.distance = distance;
+            this.lengthDifference = lengthDifference;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+
+    /**
+     * Sorted growable list of word or document numbers
+     */
+    private static class Postings {
+        private static final Postings EMPTY = new Postings(0);
+
+        private int[] numbers;
+        private int size;
+
+        private Postings(int capacity) {
+            this.numbers = new int[capacity];
+        }
+
+        // Numbers are appended in increasing order, a document appends each word once
+        private void append(int number) {
+            if (size > 0 && numbers[size - 1] == number) {
+                return;
+            }
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size + (size >> 1) + 1);
+            }
+            numbers[size++] = number;
+        }
+
+        private boolean contains(int number) {
+            return Arrays.binarySearch(numbers, 0, size, number) >= 0;
+        }
+    }
+}
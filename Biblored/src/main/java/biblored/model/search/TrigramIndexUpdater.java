@@ -0,0 +1,48 @@
+package biblored.model.search;
+
+import biblored.model.MaterialType;
+import biblored.model.DAO.DAOListener;
+import biblored.model.generic.Material;
+
+import java.util.Objects;
+
+/**
+ * Keeps the trigram index consistent with one material DAO.
+ * Updates that do not change the id, name or author, like status changes, are ignored.
+ */
+public class TrigramIndexUpdater implements DAOListener<Material> {
+    private final MaterialType type;
+    private final TrigramIndex index;
+
+    /**
+     * Constructor for TrigramIndexUpdater
+     *
+     * @param type the material type stored in the observed DAO
+     * @param index the index to keep consistent
+     */
+    public TrigramIndexUpdater(MaterialType type, TrigramIndex index) {
+        this.type = type;
+        this.index = index;
+    }
+
+    @Override
+    public void onAdd(Material material) {
+        index.add(FuzzyMatch.keyOf(type, material.getId()), material.getName(), material.getAuthor());
+    }
+
+    @Override
+    public void onUpdate(Material previous, Material current) {
+        if (previous.getId() == current.getId()
+                && Objects.equals(previous.getName(), current.getName())
+                && Objects.equals(previous.getAuthor(), current.getAuthor())) {
+            return;
+        }
+        index.remove(FuzzyMatch.keyOf(type, previous.getId()));
+        onAdd(current);
+    }
+
+    @Override
+    public void onDelete(Material material) {
+        index.remove(FuzzyMatch.keyOf(type, material.getId()));
+    }
+}
@@ -0,0 +1,131 @@
+package biblored.model.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch: approximate frequency counter with fixed memory.
+ * Every key is hashed into one counter per row and the estimate is the minimum
+ * of those counters, so it can only overestimate the real count.
+ * With width w and depth d the error is at most 2N/w with probability 1 - 1/2^d,
+ * where N is the total of all increments.
+ */
+public class CountMinSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x85EBCA77C2B2AE63L, 0x27D4EB2F165667C5L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final int[][] table;
+    private long total;
+
+    /**
+     * Constructor for CountMinSketch
+     *
+     * @param width the number of counters per row, rounded up to a power of two
+     * @param depth the number of rows (hash functions), at most 8
+     */
+    public CountMinSketch(int width, int depth) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + SEEDS.length);
+        }
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = size - 1;
+        this.table = new int[depth][size];
+        this.total = 0;
+    }
+
+    /**
+     * Adds one occurrence of the key
+     * Complexity: O(depth)
+     *
+     * @param key the key
+     */
+    public void increment(long key) {
+        add(key, 1);
+    }
+
+    /**
+     * Adds count occurrences of the key
+     * Complexity: O(depth)
+     *
+     * @param key the key
+     * @param count the number of occurrences, must be positive
+     */
+    public void add(long key, int count) {
+        for (int row = 0; row < depth; row++) {
+            int index = index(key, row);
+            int value = table[row][index] + count;
+            // Saturate instead of overflowing
+            table[row][index] = value < 0 ? Integer.MAX_VALUE : value;
+        }
+        total += count;
+    }
+
+    /**
+     * Estimates the number of occurrences of the key
+     * Complexity: O(depth)
+     *
+     * @param key the key
+     * @return an upper bound of the real count
+     */
+    public int estimate(long key) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row][index(key, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Halves every counter so old occurrences fade away (aging)
+     * Complexity: O(width * depth)
+     */
+    public void halve() {
+        for (int[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        total >>>= 1;
+    }
+
+    /**
+     * Resets every counter to zero
+     * Complexity: O(width * depth)
+     */
+    public void clear() {
+        for (int[] row : table) {
+            Arrays.fill(row, 0);
+        }
+        total = 0;
+    }
+
+    /**
+     * Gets the sum of all increments since the last reset
+     *
+     * @return the total count
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of counters per row
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    private int index(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[(row + 1) % SEEDS.length];
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+}
@@ -0,0 +1,98 @@
+package biblored.controller.workload;
+
+import biblored.model.MaterialType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Trace File Tests")
+class TraceFileTest {
+
+    // Values around the 7 bit groups of the variable length integers, and negative ids
+    private static final int[] EDGE_VALUES = {0, 1, 127, 128, 16_383, 16_384, 2_097_151, 2_097_152,
+            Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+
+    @TempDir
+    Path folder;
+
+    @Test
+    @DisplayName("The same seed produces byte identical traces")
+    void testGenerationIsDeterministic() throws IOException {
+        TraceFile.Header header = new TraceFile.Header(7L, 3, 500, 200, 40);
+        Path first = folder.resolve("first.bin");
+        Path second = folder.resolve("second.bin");
+        new WorkloadGenerator(header, 50).generate(first.toString(), 5_000);
+        new WorkloadGenerator(header, 50).generate(second.toString(), 5_000);
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+
+        TraceFile trace = TraceFile.read(first.toString());
+        assertEquals(7L, trace.getHeader().getSeed());
+        assertEquals(500, trace.getHeader().getMaterials());
+        assertEquals(5_000, trace.getOperations().size());
+
+        Path other = folder.resolve("other.bin");
+        new WorkloadGenerator(new TraceFile.Header(8L, 3, 500, 200, 40), 50).generate(other.toString(), 5_000);
+        assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(other)));
+    }
+
+    @Test
+    @DisplayName("Every written operation is read back, including variable length edge values")
+    void testRoundTrip() throws IOException {
+        TraceOperation.Type[] types = TraceOperation.Type.values();
+        MaterialType[] materialTypes = MaterialType.values();
+        List<TraceOperation> written = new ArrayList<>();
+        long time = 0;
+        for (int i = 0; i < EDGE_VALUES.length; i++) {
+            int value = EDGE_VALUES[i];
+            // Deltas cross the same boundaries as the ids
+            time += value & 0xFFFFFFFFL;
+            written.add(new TraceOperation(types[i % types.length], time, value, materialTypes[i % materialTypes.length],
+                    EDGE_VALUES[EDGE_VALUES.length - 1 - i], value));
+        }
+        written.add(new TraceOperation(TraceOperation.Type.RETURN, Long.MAX_VALUE, 1, MaterialType.COMPACT_DISK, 2, 3));
+
+        Path path = folder.resolve("edges.bin");
+        TraceFile.Header header = new TraceFile.Header(-1L, 1, 2, 3, 4);
+        try (TraceFile.Writer writer = TraceFile.create(path.toString(), header)) {
+            for (TraceOperation operation : written) {
+                writer.write(operation);
+            }
+            assertEquals(written.size(), writer.getCount());
+            assertThrows(IllegalArgumentException.class, () -> writer.write(
+                    new TraceOperation(TraceOperation.Type.BORROW, 0, 1, MaterialType.BOOK, 1, 0)));
+        }
+
+        TraceFile trace = TraceFile.read(path.toString());
+        assertEquals(-1L, trace.getHeader().getSeed());
+        assertEquals(4, trace.getHeader().getAuthors());
+        List<TraceOperation> read = trace.getOperations();
+        assertEquals(written.size(), read.size());
+        for (int i = 0; i < written.size(); i++) {
+            TraceOperation expected = written.get(i);
+            TraceOperation actual = read.get(i);
+            assertEquals(expected.getType(), actual.getType(), "Type of operation " + i);
+            assertEquals(expected.getTimeMicros(), actual.getTimeMicros(), "Time of operation " + i);
+            assertEquals(expected.getUserId(), actual.getUserId(), "User of operation " + i);
+            assertEquals(expected.getMaterialType(), actual.getMaterialType(), "Material type of operation " + i);
+            assertEquals(expected.getMaterialId(), actual.getMaterialId(), "Material of operation " + i);
+            assertEquals(expected.getArgument(), actual.getArgument(), "Argument of operation " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Files that are not traces are rejected")
+    void testRejectsOtherFiles() throws IOException {
+        Path path = folder.resolve("not_a_trace.bin");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> TraceFile.read(path.toString()));
+    }
+}
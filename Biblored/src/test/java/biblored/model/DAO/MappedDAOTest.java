@@ -0,0 +1,289 @@
+package biblored.model.DAO;
+
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.generic.Address;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Mapped DAO Tests")
+class MappedDAOTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    @DisplayName("Materials are added, read, updated and deleted, and survive a reopen")
+    void testMaterialRoundTrip() throws Exception {
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "books")) {
+            assertTrue(dao.add(material(1, "Cien anos de soledad", "Gabriel Garcia Marquez")));
+            assertTrue(dao.add(material(2, "La voragine", "Jose Eustasio Rivera")));
+            assertFalse(dao.add(material(2, "Duplicate", "Nobody")), "Id already used");
+            assertFalse(dao.add(material(-1, "Negative", "Nobody")));
+
+            Material first = dao.read(1);
+            assertSame(first, dao.read(1), "A referenced material is not materialized again");
+            assertEquals("Gabriel Garcia Marquez", first.getAuthor());
+            assertEquals(LocalDate.of(1967, 5, 30), first.getDateRegistered());
+
+            Material changed = new Material(first);
+            changed.setName("One Hundred Years of Solitude");
+            changed.setLanguage("English");
+            changed.setStatus(Status.RESERVED);
+            changed.setLibraryId(9);
+            assertTrue(dao.update(1, changed));
+            assertFalse(dao.update(3, changed));
+            assertSame(first, dao.read(1));
+            assertEquals("One Hundred Years of Solitude", first.getName());
+
+            assertTrue(dao.delete(2));
+            assertFalse(dao.delete(2));
+            assertNull(dao.read(2));
+            assertEquals(1, dao.size());
+        }
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "books")) {
+            assertEquals(1, dao.size());
+            Material stored = dao.read(1);
+            assertEquals("One Hundred Years of Solitude", stored.getName());
+            assertEquals("Gabriel Garcia Marquez", stored.getAuthor());
+            assertEquals("English", stored.getLanguage());
+            assertEquals(Status.RESERVED, stored.getStatus());
+            assertEquals(9, stored.getLibraryId());
+            assertNull(dao.read(2));
+
+            // The id of a deleted material can be used again
+            assertTrue(dao.add(material(2, "Maria", "Jorge Isaacs")));
+            assertEquals("Maria", dao.read(2).getName());
+            assertEquals(2, dao.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Updates only append the strings that changed")
+    void testMaterialStringOffsets() throws Exception {
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "films")) {
+            dao.add(material(1, "Los viajes del viento", "Ciro Guerra"));
+        }
+        long initial = stringHeapSize("films");
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "films")) {
+            Material changed = new Material(dao.read(1));
+            changed.setStatus(Status.MISSING);
+            changed.setLibraryId(4);
+            assertTrue(dao.update(1, changed));
+        }
+        assertEquals(initial, stringHeapSize("films"), "Unchanged strings keep their offsets");
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "films")) {
+            Material changed = new Material(dao.read(1));
+            changed.setName("El abrazo de la serpiente");
+            assertTrue(dao.update(1, changed));
+        }
+        assertEquals(initial + Integer.BYTES + "El abrazo de la serpiente".length(), stringHeapSize("films"));
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "films")) {
+            Material stored = dao.read(1);
+            assertEquals("El abrazo de la serpiente", stored.getName());
+            assertEquals("Ciro Guerra", stored.getAuthor());
+            assertEquals(Status.MISSING, stored.getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Materials far past the first mapped segment are stored and scanned")
+    void testMaterialFileGrowth() throws Exception {
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "growth")) {
+            assertTrue(dao.add(material(1, "First", "Author")));
+            assertTrue(dao.addNew(material(2_500_000, "Far", "Author")));
+            assertEquals("Far", dao.read(2_500_000).getName());
+            assertEquals(List.of(1, 2_500_000), ids(dao.readAll()));
+        }
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "growth")) {
+            assertEquals(2, dao.size());
+            assertEquals("Far", dao.read(2_500_000).getName());
+        }
+    }
+
+    @Test
+    @DisplayName("readMatching, the spliterator and the visitor agree with readAll")
+    void testMaterialScans() throws Exception {
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "scans")) {
+            for (int id = 1; id <= 300; id++) {
+                dao.addNew(material(id, "Title " + id, "Author " + id % 7));
+            }
+            for (int id = 5; id <= 300; id += 5) {
+                dao.delete(id);
+            }
+            List<Integer> all = ids(dao.readAll());
+            assertEquals(240, all.size());
+
+            assertEquals(all, ids(dao.readMatching(material -> true)));
+            List<Integer> byAuthor = new ArrayList<>();
+            for (Material material : dao.readAll()) {
+                if (material.getAuthor().equals("Author 3")) {
+                    byAuthor.add(material.getId());
+                }
+            }
+            assertEquals(byAuthor, ids(dao.readMatching(material -> material.getAuthor().equals("Author 3"))));
+
+            // The views are only valid during the call, so the ids are copied out
+            List<Integer> scanned = StreamSupport.stream(dao.spliterator(), true)
+                    .map(Material::getId).sorted().collect(Collectors.toList());
+            assertEquals(all, scanned);
+            Spliterator<Material> spliterator = dao.spliterator();
+            Spliterator<Material> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+            List<Integer> halves = new ArrayList<>();
+            prefix.forEachRemaining(material -> halves.add(material.getId()));
+            spliterator.forEachRemaining(material -> halves.add(material.getId()));
+            assertEquals(all, halves);
+        }
+        // Nothing is attached after a reopen, so the visitor gets the flyweight
+        try (MappedMaterialDAO dao = new MappedMaterialDAO(folder, "scans")) {
+            StringBuilder names = new StringBuilder();
+            assertTrue(dao.read(7, material -> names.append(material.getName())));
+            assertTrue(dao.read(8, material -> {
+                names.append(" ").append(material.getName());
+                // A nested read does not move the view of the outer one
+                dao.read(9, inner -> names.append(" ").append(inner.getName()));
+                names.append(" ").append(material.getId());
+            }));
+            assertFalse(dao.read(10, material -> fail("Deleted materials are not visited")));
+            assertEquals("Title 7 Title 8 Title 9 8", names.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Users are added, read, updated and deleted, with their indexes rebuilt on reopen")
+    void testUserRoundTrip() throws Exception {
+        try (MappedUserDAO dao = new MappedUserDAO(folder, "users")) {
+            assertTrue(dao.add(user(1, "Ana Torres", "ana@mail.com", "5550101")));
+            assertTrue(dao.add(user(2, "Andres Rojas", "andres@mail.com", "5550202")));
+            assertFalse(dao.add(user(3, "Copy", " ANA@mail.com", "")), "Email already used");
+            assertFalse(dao.add(user(3, "Copy", "copy@mail.com", "555-0202")), "Phone already used");
+
+            User ana = dao.read(1);
+            ana.setBorrowedMaterial(new MaterialRef(MaterialType.FILM, 12));
+            dao.markUpdated(new User(ana), ana);
+
+            User changed = new User(ana);
+            changed.setEmail("ana.torres@mail.com");
+            changed.setAddress(Address.of("Calle 26", "13-19", "Bogota", "110311", "Colombia"));
+            assertTrue(dao.update(1, changed));
+            changed.setEmail("andres@mail.com");
+            assertFalse(dao.update(1, changed), "Email of another user");
+            assertNull(dao.findByEmail("ana@mail.com"));
+            assertSame(ana, dao.findByEmail("Ana.Torres@mail.com"));
+
+            assertTrue(dao.delete(2));
+            assertNull(dao.findByPhone("5715550202"));
+            assertTrue(dao.add(user(2, "Beatriz Gomez", "andres@mail.com", "5550202")), "Keys and id are free again");
+        }
+        try (MappedUserDAO dao = new MappedUserDAO(folder, "users")) {
+            assertEquals(2, dao.size());
+            User ana = dao.findByEmail("ana.torres@mail.com");
+            assertEquals(1, ana.getId());
+            assertEquals("Bogota", ana.getAddress().getCity());
+            assertEquals(new MaterialRef(MaterialType.FILM, 12), ana.getBorrowedMaterial());
+            assertEquals(2, dao.findByPhone("57 1 555 0202").getId());
+            assertEquals("Beatriz Gomez", dao.read(2).getName());
+            assertEquals(List.of(1, 2), userIds(dao.readAll()));
+            assertEquals(List.of(1), userIds(dao.findByNamePrefix("an", 10)));
+            assertEquals(List.of(1, 2), userIds(dao.readMatching(user -> true)));
+        }
+    }
+
+    @Test
+    @DisplayName("Sparse user ids are stored in dense slots that are reused after deletes")
+    void testSparseUserIds() throws Exception {
+        // Citizenship numbers, addressing them directly would need a file of about 100 GB
+        int first = 1_023_456_789;
+        int second = 52_000_111;
+        try (MappedUserDAO dao = new MappedUserDAO(folder, "citizens")) {
+            assertTrue(dao.add(user(first, "Ana Torres", "ana@mail.com", "5550101")));
+            assertTrue(dao.add(user(second, "Andres Rojas", "andres@mail.com", "5550202")));
+            assertTrue(dao.add(user(0, "Beatriz Gomez", "beatriz@mail.com", "5550303")));
+            assertFalse(dao.add(user(second, "Copy", "copy@mail.com", "")), "Id already used");
+            assertEquals(List.of(first, second, 0), userIds(dao.readAll()));
+            assertTrue(dao.delete(second));
+            assertNull(dao.read(second));
+            assertFalse(dao.delete(second));
+        }
+        // One segment of 2^20 slots of 104 bytes holds every record
+        assertTrue(Files.size(folder.resolve("citizens.records")) <= 104L << 20);
+        try (MappedUserDAO dao = new MappedUserDAO(folder, "citizens")) {
+            assertEquals(2, dao.size());
+            assertEquals("Ana Torres", dao.read(first).getName());
+            assertEquals(first, dao.findByEmail("ana@mail.com").getId());
+            assertEquals(0, dao.findByPhone("5715550303").getId());
+            assertNull(dao.findByEmail("andres@mail.com"));
+
+            // The slot freed by the delete is taken by the next user
+            assertTrue(dao.add(user(77_777_777, "Carlos Diaz", "andres@mail.com", "5550202")));
+            assertEquals(List.of(first, 77_777_777, 0), userIds(dao.readAll()));
+            assertEquals(List.of(77_777_777), userIds(dao.findByNamePrefix("car", 10)));
+            User changed = new User(dao.read(77_777_777));
+            changed.setEmail("ana@mail.com");
+            assertFalse(dao.update(77_777_777, changed), "Email of another user");
+            changed.setEmail("carlos@mail.com");
+            assertTrue(dao.update(77_777_777, changed));
+            assertEquals(77_777_777, dao.findByEmail("carlos@mail.com").getId());
+        }
+    }
+
+    private long stringHeapSize(String name) throws Exception {
+        try (MappedStringHeap strings = new MappedStringHeap(folder.resolve(name + ".strings"))) {
+            return strings.size();
+        }
+    }
+
+    private static Material material(int id, String name, String author) {
+        Material material = new Material();
+        material.setId(id);
+        material.setName(name);
+        material.setAuthor(author);
+        material.setLanguage("Spanish");
+        material.setDateRegistered(LocalDate.of(1967, 5, 30));
+        material.setLibraryId(id % 5 + 1);
+        return material;
+    }
+
+    private static User user(int id, String name, String email, String number) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("secret" + id);
+        user.setPhone(number.isEmpty() ? Phone.EMPTY : Phone.of("57", "1", number));
+        return user;
+    }
+
+    private static List<Integer> ids(List<Material> materials) {
+        List<Integer> ids = new ArrayList<>();
+        for (Material material : materials) {
+            ids.add(material.getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> userIds(List<User> users) {
+        List<Integer> ids = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,134 @@
+package biblored.model.DAO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Mapped Storage Tests")
+class MappedStorageTest {
+
+    // Past the first segment of 2^20 records
+    private static final int FAR_ID = 3_000_000;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    @DisplayName("Records beyond the first segment map new segments and survive a reopen")
+    void testRecordFileGrowth() throws Exception {
+        Path path = folder.resolve("test.records");
+        try (MappedRecordFile records = new MappedRecordFile(path, 16)) {
+            assertEquals(-1, records.highestId());
+            assertFalse(records.isLive(FAR_ID), "Unmapped ids are not live");
+            records.putInt(5, 4, 55);
+            records.setLive(5, true);
+            records.putLong(FAR_ID, 8, Long.MIN_VALUE);
+            records.setLive(FAR_ID, true);
+            assertEquals(FAR_ID, records.highestId());
+            assertEquals(55, records.getInt(5, 4));
+            assertEquals(5, records.nextLive(0));
+            assertEquals(FAR_ID, records.nextLive(6), "Scans skip the holes");
+            assertEquals(-1, records.nextLive(FAR_ID + 1));
+            assertThrows(IllegalArgumentException.class, () -> records.setLive(-1, true));
+            records.force();
+        }
+        try (MappedRecordFile records = new MappedRecordFile(path, 16)) {
+            assertEquals(FAR_ID, records.highestId());
+            assertTrue(records.isLive(5));
+            assertTrue(records.isLive(FAR_ID));
+            assertFalse(records.isLive(6));
+            assertEquals(Long.MIN_VALUE, records.getLong(FAR_ID, 8));
+            assertEquals(2, records.liveCount(), "The live bitmap is rebuilt on open");
+            assertEquals(FAR_ID, records.nextLive(6));
+
+            // The highest id goes back to the last live record on the next open
+            records.setLive(FAR_ID, false);
+        }
+        try (MappedRecordFile records = new MappedRecordFile(path, 16)) {
+            assertEquals(5, records.highestId());
+            assertEquals(-1, records.nextLive(6));
+            assertEquals(1, records.liveCount());
+        }
+    }
+
+    @Test
+    @DisplayName("String offsets stay valid as the heap grows into a new segment")
+    void testStringHeapOffsets() throws Exception {
+        Path path = folder.resolve("test.strings");
+        List<Long> offsets = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        String large = "x".repeat(33 << 20);
+        try (MappedStringHeap strings = new MappedStringHeap(path)) {
+            assertEquals(0, strings.append(null));
+            assertEquals(0, strings.append(""));
+            for (String value : new String[]{"Bogot\u00e1", "Cien a\u00f1os de soledad", large, "between", large, "after"}) {
+                offsets.add(strings.append(value));
+                values.add(value);
+            }
+            for (int i = 1; i < offsets.size(); i++) {
+                assertTrue(offsets.get(i) > offsets.get(i - 1), "Offsets only grow");
+            }
+            // Two large strings do not fit in one segment, the second one starts the next
+            assertEquals(1L << 26, offsets.get(4));
+            for (int i = 0; i < offsets.size(); i++) {
+                assertEquals(values.get(i), strings.read(offsets.get(i)));
+            }
+        }
+        try (MappedStringHeap strings = new MappedStringHeap(path)) {
+            long end = strings.size();
+            assertEquals("Cien a\u00f1os de soledad", strings.read(offsets.get(1)));
+            assertEquals("after", strings.read(offsets.get(5)));
+            assertEquals(end, strings.append("appended"));
+            assertEquals("", strings.read(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Ids sharing a hash are told apart by the record check and survive deletes")
+    void testIdHashIndexCollisions() {
+        IdHashIndex index = new IdHashIndex();
+        // Hash 0 is the empty marker of the table, it must still be usable
+        for (int id = 0; id < 50; id++) {
+            index.add(id % 2 == 0 ? 42L : 0L, id);
+        }
+        for (int id = 100; id < 1_100; id++) {
+            index.add(IdHashIndex.hash("key" + id), id);
+        }
+        assertEquals(1_050, index.size());
+        for (int id = 0; id < 50; id++) {
+            int wanted = id;
+            assertEquals(id, index.find(id % 2 == 0 ? 42L : 0L, candidate -> candidate == wanted));
+        }
+
+        // Deleting in the middle of the chains keeps the later entries reachable
+        for (int id = 0; id < 50; id += 3) {
+            assertTrue(index.remove(id % 2 == 0 ? 42L : 0L, id));
+        }
+        assertFalse(index.remove(42L, 0), "Already removed");
+        assertFalse(index.remove(42L, 1), "Stored under another hash");
+        Set<Integer> left = new HashSet<>();
+        for (int id = 0; id < 50; id++) {
+            int wanted = id;
+            int found = index.find(id % 2 == 0 ? 42L : 0L, candidate -> candidate == wanted);
+            if (found >= 0) {
+                left.add(found);
+            }
+            assertEquals(id % 3 != 0, found == id);
+        }
+        assertEquals(33, left.size());
+        for (int id = 100; id < 1_100; id++) {
+            int wanted = id;
+            assertEquals(id, index.find(IdHashIndex.hash("key" + id), candidate -> candidate == wanted));
+        }
+        assertEquals(-1, index.find(IdHashIndex.hash("missing"), candidate -> true));
+        assertEquals(1_050 - 17, index.size());
+    }
+}
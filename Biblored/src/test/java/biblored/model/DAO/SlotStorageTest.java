@@ -0,0 +1,113 @@
+package biblored.model.DAO;
+
+import biblored.model.generic.Material;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Slot Storage Tests")
+class SlotStorageTest {
+
+    @Test
+    @DisplayName("Records added after a delete come after the older ones in readAll")
+    void testDeleteThenAddKeepsInsertionOrder() {
+        MaterialDAO dao = new MaterialDAO();
+        for (int id = 1; id <= 5; id++) {
+            assertTrue(dao.add(material(id)));
+        }
+        assertTrue(dao.delete(2));
+        assertTrue(dao.delete(4));
+        assertTrue(dao.add(material(7)));
+        assertTrue(dao.addNew(material(6)));
+        assertEquals(List.of(1, 3, 5, 7, 6), ids(dao.readAll()));
+
+        // readAll hands out a copy
+        dao.readAll().clear();
+        assertEquals(5, dao.readAll().size());
+    }
+
+    @Test
+    @DisplayName("Compaction reclaims tombstones without reordering the records")
+    void testCompactionKeepsOrder() {
+        SlotStorage<Material> storage = new SlotStorage<>(Material::getId);
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 0; id < 200; id++) {
+            assertTrue(storage.insert(material(id)));
+            expected.add(id);
+        }
+        for (int id = 0; id < 200; id += 2) {
+            assertNotNull(storage.remove(id));
+            expected.remove(Integer.valueOf(id));
+        }
+        // Every mutation advances the pass until it truncates the tail
+        for (int id = 200; id < 300; id++) {
+            assertTrue(storage.insert(material(id)));
+            expected.add(id);
+            assertEquals(expected, ids(storage.toList()));
+        }
+        assertFalse(storage.insert(material(1)));
+        assertTrue(storage.spliterator().estimateSize() < 250, "Tombstones should have been reclaimed");
+        assertEquals(200, storage.capacity(), "Freed slots are reused");
+        for (int id : expected) {
+            assertEquals(id, storage.get(id).getId());
+        }
+        assertNull(storage.get(0));
+    }
+
+    @Test
+    @DisplayName("Freed slots are reused without changing the iteration order")
+    void testSlotReuseKeepsOrder() {
+        SlotStorage<Material> storage = new SlotStorage<>(Material::getId);
+        for (int id = 1; id <= 4; id++) {
+            assertTrue(storage.insert(material(id)));
+        }
+        assertNotNull(storage.remove(1));
+        assertNotNull(storage.remove(3));
+        assertTrue(storage.insert(material(5)));
+        assertTrue(storage.insert(material(6)));
+        assertEquals(4, storage.capacity(), "The new records take the freed slots");
+        assertEquals(List.of(2, 4, 5, 6), ids(storage.toList()));
+        List<Integer> scanned = new ArrayList<>();
+        storage.spliterator().forEachRemaining(material -> scanned.add(material.getId()));
+        assertEquals(List.of(2, 4, 5, 6), scanned);
+
+        assertNotNull(storage.remove(5));
+        assertTrue(storage.insert(material(1)));
+        assertEquals(List.of(2, 4, 6, 1), ids(storage.toList()));
+        assertEquals(6, storage.get(6).getId());
+    }
+
+    @Test
+    @DisplayName("A record with a stored id is rejected and the stored one is kept")
+    void testDuplicateIdIsRejected() {
+        MaterialDAO dao = new MaterialDAO();
+        assertTrue(dao.addNew(material(1)));
+        Material duplicate = material(1);
+        duplicate.setName("Duplicate");
+        assertFalse(dao.addNew(duplicate));
+        assertFalse(dao.add(duplicate));
+        assertEquals("Material 1", dao.read(1).getName());
+        assertEquals(1, dao.readAll().size());
+        assertTrue(dao.delete(1));
+        assertNull(dao.read(1), "No second record was left behind");
+    }
+
+    private static Material material(int id) {
+        Material material = new Material();
+        material.setId(id);
+        material.setName("Material " + id);
+        return material;
+    }
+
+    private static List<Integer> ids(List<Material> materials) {
+        List<Integer> ids = new ArrayList<>();
+        for (Material material : materials) {
+            ids.add(material.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,113 @@
+package biblored.model.DAO;
+
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("User DAO Index Tests")
+class UserDAOTest {
+
+    private UserDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new UserDAO();
+        assertTrue(dao.add(user(1, "Ana Torres", "ana@mail.com", "555 0101")));
+        assertTrue(dao.add(user(2, "Andres Rojas", "andres@mail.com", "555 0202")));
+        assertTrue(dao.add(user(3, "Beatriz Gomez", "beatriz@mail.com", "555 0303")));
+    }
+
+    @Test
+    @DisplayName("Lookups by email ignore case and surrounding spaces")
+    void testNormalizedEmailLookup() {
+        assertEquals(1, dao.findByEmail("  ANA@Mail.com ").getId());
+        assertEquals("ana@mail.com", UserIndexes.emailKey(" Ana@MAIL.com"));
+        assertFalse(dao.add(user(4, "Other", " ANA@MAIL.COM ", "")), "Normalized email is already used");
+        assertEquals(2, dao.findByPhone("+57 (1) 555-0202").getId());
+        assertNull(dao.findByEmail("nobody@mail.com"));
+    }
+
+    @Test
+    @DisplayName("Updating the email or the phone moves the user to the new keys")
+    void testUpdateReplacesKeys() {
+        User changed = new User(dao.read(1));
+        changed.setEmail("ana.torres@mail.com");
+        changed.setPhone(Phone.of("57", "1", "555 0909"));
+        assertTrue(dao.update(1, changed));
+
+        assertEquals(1, dao.findByEmail("Ana.Torres@mail.com").getId());
+        assertEquals(1, dao.findByPhone("5715550909").getId());
+        assertNull(dao.findByEmail("ana@mail.com"), "Old email should stop resolving");
+        assertNull(dao.findByPhone("5715550101"), "Old phone should stop resolving");
+
+        // The released keys can be taken by another user
+        assertTrue(dao.add(user(4, "Carlos Diaz", "ana@mail.com", "555 0101")));
+        assertEquals(4, dao.findByEmail("ana@mail.com").getId());
+    }
+
+    @Test
+    @DisplayName("An update to an email or phone of another user is rejected")
+    void testUpdateConflictIsRejected() {
+        User changed = new User(dao.read(1));
+        changed.setName("Ana Maria Torres");
+        changed.setEmail("ANDRES@mail.com");
+        assertFalse(dao.update(1, changed));
+
+        changed.setEmail("ana@mail.com");
+        changed.setPhone(Phone.of("57", "1", "555-0303"));
+        assertFalse(dao.update(1, changed));
+
+        // Nothing was changed by the rejected updates
+        User stored = dao.read(1);
+        assertEquals("Ana Torres", stored.getName());
+        assertEquals(1, dao.findByPhone("5715550101").getId());
+        assertEquals(3, dao.findByPhone("5715550303").getId());
+
+        // Keeping its own keys is not a conflict
+        changed.setPhone(stored.getPhone());
+        assertTrue(dao.update(1, changed));
+        assertEquals("Ana Maria Torres", dao.findByEmail("ana@mail.com").getName());
+    }
+
+    @Test
+    @DisplayName("Name prefix lookups follow updates and deletes")
+    void testNamePrefixAfterUpdateAndDelete() {
+        assertEquals(List.of(1, 2), ids(dao.findByNamePrefix("an", 10)));
+
+        User renamed = new User(dao.read(3));
+        renamed.setName("Angela Gomez");
+        assertTrue(dao.update(3, renamed));
+        assertEquals(List.of(1, 2, 3), ids(dao.findByNamePrefix(" AN", 10)));
+        assertEquals(List.of(1, 2), ids(dao.findByNamePrefix("an", 2)));
+        assertTrue(dao.findByNamePrefix("beatriz", 10).isEmpty());
+
+        assertTrue(dao.delete(2));
+        assertEquals(List.of(1, 3), ids(dao.findByNamePrefix("an", 10)));
+        assertNull(dao.findByEmail("andres@mail.com"));
+        assertFalse(dao.delete(2));
+    }
+
+    private static User user(int id, String name, String email, String number) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        user.setPhone(number.isEmpty() ? Phone.EMPTY : Phone.of("57", "1", number));
+        return user;
+    }
+
+    private static List<Integer> ids(List<User> users) {
+        List<Integer> ids = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,115 @@
+package biblored.model;
+
+import biblored.model.DAO.MappedDAOFactory;
+import biblored.model.DAO.MappedUserDAO;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Entity Resolver Tests")
+class EntityResolverTest {
+
+    @TempDir
+    Path directory;
+
+    private LibraryNetwork network;
+
+    @BeforeEach
+    void setUp() {
+        network = new LibraryNetwork();
+        populate(network);
+    }
+
+    @Test
+    @DisplayName("References resolve to the stored entities")
+    void testResolve() {
+        EntityResolver resolver = network.getResolver();
+        Material film = resolver.material(new MaterialRef(MaterialType.FILM, 4));
+        assertSame(network.getFilm(4), film);
+        assertSame(network.getLibrary(2), resolver.libraryOf(film));
+        assertNull(resolver.material(new MaterialRef(MaterialType.BOOK, 99)));
+        assertNull(resolver.material(null));
+
+        User user = network.getUser(1);
+        assertTrue(network.borrowMaterial(user, new MaterialRef(MaterialType.FILM, 4)));
+        assertEquals(new MaterialRef(MaterialType.FILM, 4), user.getBorrowedMaterial());
+        assertSame(film, resolver.borrowedMaterial(user));
+        assertEquals(1, resolver.borrowedMaterials(network.getLibrary(2)).size());
+        assertSame(film, resolver.borrowedMaterials(network.getLibrary(2)).get(0));
+
+        assertTrue(network.returnMaterial(user));
+        assertNull(user.getBorrowedMaterial());
+        assertTrue(network.getLibrary(2).getBorrowedMaterials().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cached resolutions are dropped when an entity is deleted")
+    void testCachedResolverInvalidation() {
+        EntityResolver cached = network.getResolver().cached(64);
+        MaterialRef ref = new MaterialRef(MaterialType.BOOK, 4);
+        Material book = cached.material(ref);
+        assertSame(book, cached.material(ref));
+        assertSame(network.getLibrary(1), cached.library(1));
+
+        network.removeBook(4);
+        assertNull(cached.material(ref));
+        Material replacement = new Material();
+        replacement.setId(4);
+        replacement.setLibraryId(1);
+        network.addBook(replacement);
+        assertSame(replacement, cached.material(ref));
+
+        network.removeLibrary(1);
+        assertNull(cached.library(1));
+        assertNull(cached.libraryOf(replacement));
+    }
+
+    @Test
+    @DisplayName("Mapped users keep their loan in the record")
+    void testMappedLoanSurvivesReopen() throws IOException {
+        LibraryNetwork mapped = new LibraryNetwork(0, new MappedDAOFactory(directory));
+        populate(mapped);
+        assertTrue(mapped.borrowMaterial(mapped.getUser(2), new MaterialRef(MaterialType.DOCUMENTARY, 5)));
+        ((MappedUserDAO) mapped.getUserDAO()).close();
+
+        MappedUserDAO reopened = new MappedUserDAO(directory, "users");
+        assertEquals(new MaterialRef(MaterialType.DOCUMENTARY, 5), reopened.read(2).getBorrowedMaterial());
+        assertNull(reopened.read(1).getBorrowedMaterial());
+        reopened.close();
+    }
+
+    private static void populate(LibraryNetwork network) {
+        for (int id = 1; id <= 3; id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (MaterialType type : MaterialType.values()) {
+            for (int id = 1; id <= 10; id++) {
+                Material material = new Material();
+                material.setId(id);
+                material.setName(type + " " + id);
+                material.setLibraryId(id % 3 + 1);
+                network.getMaterialDAO(type).add(material);
+            }
+        }
+        for (int id = 1; id <= 3; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setName("Patron " + id);
+            user.setEmail("patron" + id + "@biblored.co");
+            network.addUser(user);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package biblored.model;
+
+import biblored.model.DAO.DAOListener;
+import biblored.model.DAO.HeapDAOFactory;
+import biblored.model.DAO.MaterialDAO;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Library Network Tests")
+class LibraryNetworkTest {
+
+    private LibraryNetwork network;
+
+    @BeforeEach
+    void setUp() {
+        network = new LibraryNetwork(1_000, new HeapDAOFactory());
+        Library library = new Library();
+        library.setId(1);
+        library.setName("Biblioteca Virgilio Barco");
+        assertTrue(network.addLibrary(library));
+        assertTrue(network.addBook(book(1, "Maria", "Jorge Isaacs")));
+        assertTrue(network.addBook(book(2, "Poesias", "Jorge Isaacs")));
+        assertTrue(network.addBook(book(3, "La voragine", "Jose Eustasio Rivera")));
+    }
+
+    @Test
+    @DisplayName("Cached query results follow adds, updates and deletes")
+    void testQueryCacheInvalidation() {
+        List<Material> byAuthor = network.findMaterialsByAuthor(MaterialType.BOOK, "Jorge Isaacs");
+        assertEquals(List.of(1, 2), ids(byAuthor));
+        assertSame(byAuthor, network.findMaterialsByAuthor(MaterialType.BOOK, " jorge isaacs"), "Served from the cache");
+        assertEquals(List.of(1), ids(network.searchMaterials(MaterialType.BOOK, "mari")));
+
+        assertTrue(network.addBook(book(4, "Saulo", "Jorge Isaacs")));
+        assertEquals(List.of(1, 2, 4), ids(network.findMaterialsByAuthor(MaterialType.BOOK, "Jorge Isaacs")));
+
+        Material renamed = new Material(network.getBook(1));
+        renamed.setName("Maria (edicion critica)");
+        renamed.setAuthor("Isaacs, Jorge");
+        assertTrue(network.updateBook(1, renamed));
+        assertEquals(List.of(2, 4), ids(network.findMaterialsByAuthor(MaterialType.BOOK, "Jorge Isaacs")));
+        assertEquals(List.of(1), ids(network.findMaterialsByAuthor(MaterialType.BOOK, "Isaacs, Jorge")));
+        assertEquals(List.of(1), ids(network.searchMaterials(MaterialType.BOOK, "critica")));
+
+        // A borrow changes the status in place and publishes it
+        assertEquals(List.of(1, 2, 3, 4), ids(network.findMaterialsByStatus(MaterialType.BOOK, Status.AVAILABLE)));
+        assertTrue(network.addUser(user(1)));
+        assertTrue(network.borrowMaterial(network.getUser(1), new MaterialRef(MaterialType.BOOK, 2)));
+        assertEquals(List.of(1, 3, 4), ids(network.findMaterialsByStatus(MaterialType.BOOK, Status.AVAILABLE)));
+        assertEquals(List.of(2), ids(network.findMaterialsByStatus(MaterialType.BOOK, Status.RESERVED)));
+
+        assertTrue(network.removeBook(4));
+        assertEquals(List.of(2), ids(network.findMaterialsByAuthor(MaterialType.BOOK, "Jorge Isaacs")));
+        assertTrue(network.getQueryCacheStats().getInvalidations() > 0);
+    }
+
+    @Test
+    @DisplayName("Replacing a DAO moves the listeners instead of adding more")
+    void testReplacedDAOIsNotWatched() {
+        CountingDAO old = new CountingDAO();
+        network.setBookDAO(old);
+        assertEquals(4, old.listeners.size());
+        network.setBookDAO(old);
+        assertEquals(4, old.listeners.size(), "Setting the same DAO twice registers nothing twice");
+        assertTrue(network.addBook(book(1, "Maria", "Jorge Isaacs")));
+
+        CountingDAO current = new CountingDAO();
+        network.setBookDAO(current);
+        assertTrue(old.listeners.isEmpty());
+        assertEquals(4, current.listeners.size());
+        assertTrue(network.getBooks().isEmpty());
+
+        assertTrue(network.addBook(book(2, "Poesias", "Jorge Isaacs")));
+        List<Material> cached = network.findMaterialsByAuthor(MaterialType.BOOK, "Jorge Isaacs");
+        long invalidations = network.getQueryCacheStats().getInvalidations();
+        assertTrue(old.add(book(3, "Saulo", "Jorge Isaacs")));
+        assertTrue(old.delete(1));
+        assertSame(cached, network.findMaterialsByAuthor(MaterialType.BOOK, "Jorge Isaacs"));
+        assertEquals(invalidations, network.getQueryCacheStats().getInvalidations());
+        assertTrue(network.fuzzySearchMaterials("Saulo", 5).isEmpty());
+    }
+
+    private static Material book(int id, String name, String author) {
+        Material book = new Material();
+        book.setId(id);
+        book.setName(name);
+        book.setAuthor(author);
+        book.setLibraryId(1);
+        return book;
+    }
+
+    private static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Patron " + id);
+        user.setEmail("patron" + id + "@biblored.co");
+        return user;
+    }
+
+    private static List<Integer> ids(List<Material> materials) {
+        List<Integer> ids = new ArrayList<>();
+        for (Material material : materials) {
+            ids.add(material.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Material DAO that exposes its registered listeners
+     */
+    private static class CountingDAO extends MaterialDAO {
+        private final List<DAOListener<Material>> listeners = new ArrayList<>();
+
+        @Override
+        public void addListener(DAOListener<Material> listener) {
+            super.addListener(listener);
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(DAOListener<Material> listener) {
+            super.removeListener(listener);
+            listeners.remove(listener);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package biblored.model.analytics;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Co-Borrow Index Tests")
+class CoBorrowIndexTest {
+
+    @Test
+    @DisplayName("Co-borrows are counted in both directions and ordered")
+    void testCounts() {
+        CoBorrowIndex index = new CoBorrowIndex(2, 4, 8);
+        long a = key(1);
+        long b = key(2);
+        long c = key(3);
+        // Three patrons borrow a then b, one of them also c
+        for (int user = 1; user <= 3; user++) {
+            index.recordBorrow(user, a);
+            index.recordBorrow(user, b);
+        }
+        index.recordBorrow(1, c);
+        // Borrowing a again adds nothing
+        index.recordBorrow(1, a);
+
+        List<PopularItem> related = index.alsoBorrowed(a);
+        assertEquals(2, related.size());
+        assertEquals(b, related.get(0).getKey());
+        assertEquals(3, related.get(0).getCount());
+        assertEquals(c, related.get(1).getKey());
+        assertEquals(1, related.get(1).getCount());
+        assertEquals(a, index.alsoBorrowed(b).get(0).getKey());
+        assertTrue(index.alsoBorrowed(key(99)).isEmpty());
+
+        index.removeMaterial(a);
+        assertTrue(index.alsoBorrowed(a).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Rare neighbors are pruned and frequent ones kept")
+    void testPruning() {
+        // With room for 50 neighbors the error is at most 1120 / 50 co-borrows
+        CoBorrowIndex index = new CoBorrowIndex(3, 50, 2);
+        long hub = key(0);
+        // Materials 1..3 are borrowed with the hub by many patrons
+        int user = 1;
+        for (int round = 0; round < 40; round++) {
+            for (int id = 1; id <= 3; id++) {
+                index.recordBorrow(user, hub);
+                index.recordBorrow(user, key(id));
+                user++;
+            }
+        }
+        // Then a long tail of materials borrowed once with the hub
+        for (int id = 100; id < 1_100; id++) {
+            index.recordBorrow(user, hub);
+            index.recordBorrow(user, key(id));
+            user++;
+        }
+        List<PopularItem> related = index.alsoBorrowed(hub);
+        assertEquals(3, related.size());
+        for (int i = 0; i < related.size(); i++) {
+            assertTrue(related.get(i).getMaterialId() <= 3, "Frequent neighbors must survive the tail");
+            assertTrue(related.get(i).getCount() >= 40, "Counts are upper bounds");
+        }
+    }
+
+    @Test
+    @DisplayName("The network feeds the index from the borrow path")
+    void testNetworkBorrows() {
+        LibraryNetwork network = new LibraryNetwork();
+        Library library = new Library();
+        library.setId(1);
+        network.addLibrary(library);
+        for (int id = 1; id <= 3; id++) {
+            Material book = new Material();
+            book.setId(id);
+            book.setLibraryId(1);
+            network.addBook(book);
+        }
+        User user = new User();
+        user.setId(1);
+        network.addUser(user);
+
+        MaterialRef first = new MaterialRef(MaterialType.BOOK, 1);
+        MaterialRef second = new MaterialRef(MaterialType.BOOK, 2);
+        assertTrue(network.borrowMaterial(user, first));
+        assertTrue(network.returnMaterial(user));
+        assertTrue(network.borrowMaterial(user, second));
+
+        List<PopularItem> related = network.getAlsoBorrowed(first);
+        assertEquals(1, related.size());
+        assertEquals(second.getKey(), related.get(0).getKey());
+        network.removeBook(2);
+        assertTrue(network.getAlsoBorrowed(second).isEmpty());
+    }
+
+    @Test
+    @DisplayName("The borrow history of a patron is only dropped when the patron is deleted")
+    void testHistoryFollowsUserDeletes() {
+        LibraryNetwork network = new LibraryNetwork();
+        Library library = new Library();
+        library.setId(1);
+        network.addLibrary(library);
+        for (int id = 1; id <= 4; id++) {
+            Material book = new Material();
+            book.setId(id);
+            book.setLibraryId(1);
+            network.addBook(book);
+        }
+        // A patron that is not stored, so removing it fails
+        User visitor = new User();
+        visitor.setId(7);
+        assertTrue(network.borrowMaterial(visitor, new MaterialRef(MaterialType.BOOK, 1)));
+        assertTrue(network.returnMaterial(visitor));
+        assertFalse(network.removeUser(7));
+        assertTrue(network.borrowMaterial(visitor, new MaterialRef(MaterialType.BOOK, 2)));
+        assertEquals(1, network.getAlsoBorrowed(new MaterialRef(MaterialType.BOOK, 1)).size(),
+                "The failed delete kept the history");
+        assertTrue(network.returnMaterial(visitor));
+
+        // A patron deleted through its DAO loses its history too
+        User patron = new User();
+        patron.setId(1);
+        network.addUser(patron);
+        assertTrue(network.borrowMaterial(patron, new MaterialRef(MaterialType.BOOK, 3)));
+        assertTrue(network.returnMaterial(patron));
+        assertTrue(network.getUserDAO().delete(1));
+        assertTrue(network.borrowMaterial(patron, new MaterialRef(MaterialType.BOOK, 4)));
+        assertTrue(network.getAlsoBorrowed(new MaterialRef(MaterialType.BOOK, 3)).isEmpty());
+    }
+
+    private static long key(int id) {
+        return PopularItem.keyOf(MaterialType.BOOK, id);
+    }
+}
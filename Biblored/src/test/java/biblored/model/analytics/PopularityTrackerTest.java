@@ -0,0 +1,182 @@
+package biblored.model.analytics;
+
+import biblored.model.MaterialType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Popularity Tracker Tests")
+class PopularityTrackerTest {
+
+    private static final int K = 100;
+    private static final int CATALOG = 50_000;
+    private static final int BORROWS = 200_000;
+    private static final int SKETCH_WIDTH = 4096;
+
+    private ManualClock clock;
+    private PopularityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+        tracker = new PopularityTracker(K, Duration.ofDays(7), 7, SKETCH_WIDTH, clock);
+    }
+
+    @Test
+    @DisplayName("Top K matches the exact counts of a Zipf stream")
+    void testTopKAccuracy() {
+        Map<Long, Integer> exact = new HashMap<>();
+        Random random = new Random(1);
+        double[] cumulative = zipfCumulative(CATALOG, 1.1);
+
+        for (int i = 0; i < BORROWS; i++) {
+            long key = PopularItem.keyOf(MaterialType.BOOK, sample(cumulative, random));
+            tracker.recordBorrow(1, key);
+            exact.merge(key, 1, Integer::sum);
+        }
+
+        List<PopularItem> top = tracker.topK(1);
+        assertEquals(K, top.size());
+
+        // Every estimate is an upper bound within the count-min error bound
+        double errorBound = 2.0 * BORROWS / SKETCH_WIDTH;
+        for (PopularItem item : top) {
+            int real = exact.get(item.getKey());
+            assertTrue(item.getCount() >= real, "Count-min must never underestimate");
+            assertTrue(item.getCount() - real <= errorBound, "Error above bound for " + item);
+        }
+
+        // Recall against the exact top K
+        List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(exact.entrySet());
+        sorted.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        Set<Long> exactTop = new HashSet<>();
+        for (int i = 0; i < K; i++) {
+            exactTop.add(sorted.get(i).getKey());
+        }
+        int found = 0;
+        for (PopularItem item : top) {
+            if (exactTop.contains(item.getKey())) {
+                found++;
+            }
+        }
+        assertTrue(found >= K * 0.9, "Recall too low: " + found + "/" + K);
+
+        // The ten most borrowed must be exactly the same
+        for (int i = 0; i < 10; i++) {
+            assertEquals(sorted.get(i).getKey().longValue(), top.get(i).getKey());
+        }
+
+        // Network totals see the same stream
+        assertEquals(top.get(0).getKey(), tracker.topK(PopularityTracker.NETWORK).get(0).getKey());
+    }
+
+    @Test
+    @DisplayName("Borrows leave the window after it slides past them")
+    void testSlidingWindowExpiry() {
+        long old = PopularItem.keyOf(MaterialType.FILM, 7);
+        long recent = PopularItem.keyOf(MaterialType.FILM, 8);
+
+        for (int i = 0; i < 10; i++) {
+            tracker.recordBorrow(2, old);
+        }
+        clock.advance(Duration.ofDays(3));
+        for (int i = 0; i < 3; i++) {
+            tracker.recordBorrow(2, recent);
+        }
+
+        assertEquals(old, tracker.topK(2).get(0).getKey());
+        assertEquals(10, tracker.estimate(2, old));
+
+        clock.advance(Duration.ofDays(5));
+        assertEquals(0, tracker.estimate(2, old));
+        assertEquals(3, tracker.estimate(2, recent));
+        List<PopularItem> top = tracker.topK(2);
+        assertEquals(1, top.size());
+        assertEquals(recent, top.get(0).getKey());
+    }
+
+    @Test
+    @DisplayName("Libraries are tracked separately")
+    void testPerLibraryTopK() {
+        long a = PopularItem.keyOf(MaterialType.BOOK, 1);
+        long b = PopularItem.keyOf(MaterialType.BOOK, 2);
+        tracker.recordBorrow(1, a);
+        tracker.recordBorrow(2, b);
+        tracker.recordBorrow(2, b);
+
+        assertEquals(1, tracker.topK(1).size());
+        assertEquals(a, tracker.topK(1).get(0).getKey());
+        assertEquals(b, tracker.topK(2).get(0).getKey());
+        assertEquals(2, tracker.topK(PopularityTracker.NETWORK).size());
+        assertTrue(tracker.topK(3).isEmpty());
+    }
+
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, Random random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) / 2;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low + 1;
+    }
+
+    /**
+     * Clock that only moves when the test advances it
+     */
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2025-01-06T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package biblored.model.analytics;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.DAO.MappedDAOFactory;
+import biblored.model.generic.Material;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Report Engine Tests")
+class ReportEngineTest {
+
+    private static final int MATERIALS = 20_000;
+    private static final String[] LANGUAGES = {"Spanish", "English", "French", "German"};
+
+    @TempDir
+    Path directory;
+
+    private ReportEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Grouped counts match a sequential scan")
+    void testGroupByMatchesSequentialScan() {
+        LibraryNetwork network = new LibraryNetwork();
+        populate(network);
+        // Deleted materials leave tombstones the scan must skip
+        for (int id = 1; id <= MATERIALS; id += 7) {
+            network.removeBook(id);
+        }
+        engine = new ReportEngine(network, 4);
+
+        Map<String, Long> expected = new HashMap<>();
+        for (MaterialType type : MaterialType.values()) {
+            for (Material material : network.getMaterialDAO(type).readAll()) {
+                expected.merge(material.getLibraryId() + "/" + YearMonth.from(material.getDateRegistered()), 1L, Long::sum);
+            }
+        }
+
+        List<ReportRow> rows = engine.groupBy(null, ReportDimension.LIBRARY, ReportDimension.REGISTRATION_MONTH);
+        assertEquals(expected.size(), rows.size());
+        long total = 0;
+        for (ReportRow row : rows) {
+            assertEquals(expected.get(row.getLabels().get(0) + "/" + row.getLabels().get(1)), row.getCount());
+            total += row.getCount();
+        }
+        assertEquals(engine.count(null), total);
+        // Libraries are ordered by id, not as text
+        assertEquals("1", rows.get(0).getLabels().get(0));
+        assertEquals("12", rows.get(rows.size() - 1).getLabels().get(0));
+    }
+
+    @Test
+    @DisplayName("Top N returns the largest groups of the filtered materials")
+    void testTopNWithFilter() {
+        LibraryNetwork network = new LibraryNetwork(0, new MappedDAOFactory(directory));
+        populate(network);
+        engine = new ReportEngine(network, 3);
+
+        List<ReportRow> languages = engine.groupBy(null, ReportDimension.LANGUAGE);
+        assertEquals(Arrays.asList("English", "French", "German", "Spanish"),
+                Arrays.asList(languages.stream().map(row -> row.getLabels().get(0)).toArray()));
+
+        List<ReportRow> top = engine.topN(2, m -> m.getStatus() == Status.AVAILABLE, ReportDimension.LANGUAGE);
+        assertEquals(2, top.size());
+        assertEquals("Spanish", top.get(0).getLabels().get(0));
+        assertTrue(top.get(0).getCount() >= top.get(1).getCount());
+
+        long available = engine.count(m -> m.getStatus() == Status.AVAILABLE);
+        long reserved = engine.count(m -> m.getStatus() == Status.RESERVED);
+        assertEquals(MaterialType.values().length * MATERIALS, available + reserved);
+        List<ReportRow> statuses = engine.groupBy(null, ReportDimension.STATUS, ReportDimension.MATERIAL_TYPE);
+        assertEquals(2 * MaterialType.values().length, statuses.size());
+        assertThrows(IllegalArgumentException.class, () -> engine.groupBy(null));
+    }
+
+    private static void populate(LibraryNetwork network) {
+        for (MaterialType type : MaterialType.values()) {
+            for (int id = 1; id <= MATERIALS; id++) {
+                Material material = new Material();
+                material.setId(id);
+                material.setName(type + " " + id);
+                material.setLibraryId(id % 12 + 1);
+                // Spanish for half of the catalog, the rest split between the others
+                material.setLanguage(id % 2 == 0 ? LANGUAGES[0] : LANGUAGES[1 + id % 3]);
+                material.setStatus(id % 5 == 0 ? Status.RESERVED : Status.AVAILABLE);
+                material.setDateRegistered(LocalDate.of(2023, 1, 1).plusDays(id % 400));
+                network.getMaterialDAO(type).add(material);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package biblored.model.backup;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.Phone;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Network Backup Tests")
+class NetworkBackupTest {
+
+    private static final int LIBRARIES = 3;
+    private static final int MATERIALS = 2_500;
+    private static final int USERS = 3_000;
+
+    @TempDir
+    Path directory;
+
+    private LibraryNetwork network;
+
+    @BeforeEach
+    void setUp() {
+        network = new LibraryNetwork();
+        for (int id = 1; id <= LIBRARIES; id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (MaterialType type : MaterialType.values()) {
+            for (int id = 1; id <= MATERIALS; id++) {
+                Material material = NetworkRestorer.newMaterial(type);
+                material.setId(id);
+                material.setName(type.name().toLowerCase() + " " + id);
+                material.setAuthor("Author " + id % 97);
+                material.setLanguage(id % 2 == 0 ? "Spanish" : "English");
+                material.setLibraryId(id % LIBRARIES + 1);
+                network.getMaterialDAO(type).add(material);
+            }
+        }
+        for (int id = 1; id <= USERS; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setName("Patron " + id);
+            user.setEmail("patron" + id + "@biblored.co");
+            user.setPhone(Phone.of("57", "601", String.valueOf(10_000_000 + id)));
+            network.addUser(user);
+        }
+    }
+
+    @Test
+    @DisplayName("Restore gives back every record and loan")
+    void testRoundTrip() throws IOException {
+        borrow(7, MaterialType.FILM, 11);
+        borrow(8, MaterialType.BOOK, 2_000);
+
+        BackupReport backup = new NetworkExporter(network, 4).export(directory);
+        assertEquals(LIBRARIES + MaterialType.values().length * MATERIALS + USERS, backup.getTotalRecords());
+        assertEquals(0, backup.getKeptVersions());
+
+        LibraryNetwork restored = new LibraryNetwork();
+        BackupReport restore = new NetworkRestorer(restored, 4).restore(directory);
+        assertEquals(backup.getRecords(), restore.getRecords());
+        assertEquals(0, restore.getRejected());
+
+        for (MaterialType type : MaterialType.values()) {
+            for (int id = 1; id <= MATERIALS; id += 499) {
+                Material original = network.getMaterial(type, id);
+                Material copy = restored.getMaterial(type, id);
+                assertEquals(original.getClass(), copy.getClass());
+                assertEquals(original.getName(), copy.getName());
+                assertEquals(original.getAuthor(), copy.getAuthor());
+                assertEquals(original.getLanguage(), copy.getLanguage());
+                assertEquals(original.getStatus(), copy.getStatus());
+                assertEquals(original.getLibraryId(), copy.getLibraryId());
+            }
+        }
+        User user = restored.getUser(100);
+        assertEquals("patron100@biblored.co", user.getEmail());
+        assertEquals("10000100", user.getPhone().getNumber());
+        assertNull(user.getBorrowedMaterial());
+
+        MaterialRef film = restored.getUser(7).getBorrowedMaterial();
+        assertEquals(new MaterialRef(MaterialType.FILM, 11), film);
+        Material borrowed = restored.getResolver().material(film);
+        assertEquals(Status.RESERVED, borrowed.getStatus());
+        assertTrue(restored.getResolver().libraryOf(borrowed).getBorrowedMaterials().contains(film));
+        assertEquals(2_000, restored.getUser(8).getBorrowedMaterial().getId());
+    }
+
+    @Test
+    @DisplayName("Ids generated after a restore do not collide with the restored records")
+    void testNewIdsAfterRestore() throws IOException {
+        new NetworkExporter(network, 4).export(directory);
+        LibraryNetwork restored = new LibraryNetwork();
+        Material first = NetworkRestorer.newMaterial(MaterialType.BOOK);
+        first.setLibraryId(1);
+        assertTrue(restored.addNewMaterial(MaterialType.BOOK, first));
+        User patron = newUser(0);
+        patron.setEmail("early@biblored.co");
+        assertTrue(restored.addNewUser(patron));
+
+        BackupReport restore = new NetworkRestorer(restored, 4).restore(directory);
+        // Book 1 and user 1 of the backup meet the records added before
+        assertEquals(2, restore.getRejected());
+
+        Material next = NetworkRestorer.newMaterial(MaterialType.BOOK);
+        next.setLibraryId(1);
+        assertTrue(restored.addNewMaterial(MaterialType.BOOK, next));
+        assertTrue(next.getId() > MATERIALS);
+        assertEquals(MATERIALS + 1, restored.getBooks().size());
+        User user = newUser(0);
+        user.setEmail("late@biblored.co");
+        assertTrue(restored.addNewUser(user));
+        assertTrue(user.getId() > USERS);
+        assertEquals(USERS + 1, restored.getUsers().size());
+    }
+
+    @Test
+    @DisplayName("Tracker keeps the snapshot version of changed records")
+    void testTrackerKeepsSnapshot() {
+        SnapshotTracker<User> tracker = new SnapshotTracker<>(User::getId);
+        network.getUserDAO().addListener(tracker);
+
+        // Changes before the ids are listed
+        rename(1, "Renamed before listing");
+        network.removeUser(2);
+        network.addUser(newUser(USERS + 1));
+
+        int[] ids = new int[USERS];
+        for (int i = 0; i < USERS; i++) {
+            ids[i] = i == 1 ? USERS + 1 : i + 1;
+        }
+        Arrays.sort(ids);
+        tracker.setIds(ids);
+
+        assertEquals("Patron 1", tracker.snapshotOf(1, network.getUserDAO()).getName());
+        assertNull(tracker.snapshotOf(USERS + 1, network.getUserDAO()), "Records added later are skipped");
+        tracker.setExported(10);
+
+        // Exported records are not kept again, the others keep their first version
+        rename(5, "Renamed after export");
+        rename(20, "Renamed once");
+        rename(20, "Renamed twice");
+        network.removeUser(30);
+        assertEquals(4, tracker.getKeptVersions());
+        assertEquals("Patron 20", tracker.snapshotOf(20, network.getUserDAO()).getName());
+        assertEquals("Patron 30", tracker.snapshotOf(30, network.getUserDAO()).getName());
+        assertEquals("Patron 40", tracker.snapshotOf(40, network.getUserDAO()).getName());
+
+        List<User> remaining = tracker.takeRemaining();
+        assertEquals(1, remaining.size());
+        assertEquals(2, remaining.get(0).getId());
+        network.getUserDAO().removeListener(tracker);
+    }
+
+    private void borrow(int userId, MaterialType type, int materialId) {
+        assertTrue(network.borrowMaterial(network.getUser(userId), new MaterialRef(type, materialId)));
+    }
+
+    private void rename(int id, String name) {
+        User user = new User(network.getUser(id));
+        user.setName(name);
+        network.updateUser(id, user);
+    }
+
+    private User newUser(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Patron " + id);
+        user.setEmail("patron" + id + "@biblored.co");
+        return user;
+    }
+}
@@ -0,0 +1,168 @@
+package biblored.model.backup;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Write-Behind Journal Tests")
+class WriteBehindJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Replaying the log rebuilds records, deletes and loans")
+    void testReplay() throws Exception {
+        Path log = directory.resolve("network.journal");
+        LibraryNetwork network = new LibraryNetwork();
+        WriteBehindJournal journal = WriteBehindJournal.open(network, log, 1_000, 1_000);
+        populate(network);
+        User user = network.getUser(1);
+        assertTrue(network.borrowMaterial(user, new MaterialRef(MaterialType.FILM, 2)));
+        Material renamed = new Material(network.getBook(3));
+        renamed.setName("Renamed");
+        network.updateBook(3, renamed);
+        network.removeBook(4);
+        network.removeUser(2);
+        journal.durable().get(10, TimeUnit.SECONDS);
+        // Book 3 was added and updated, film 2 added and borrowed, user 1 added and borrowed
+        assertTrue(journal.getCoalesced() >= 3);
+        assertEquals(1, journal.getBatches());
+        journal.close();
+
+        LibraryNetwork recovered = new LibraryNetwork();
+        assertTrue(WriteBehindJournal.replay(log, recovered) > 0);
+        assertEquals("Renamed", recovered.getBook(3).getName());
+        assertNull(recovered.getBook(4));
+        assertNull(recovered.getUser(2));
+        assertEquals(Status.RESERVED, recovered.getFilm(2).getStatus());
+        assertEquals(new MaterialRef(MaterialType.FILM, 2), recovered.getUser(1).getBorrowedMaterial());
+        Library library = recovered.getLibrary(recovered.getFilm(2).getLibraryId());
+        assertEquals(1, library.getBorrowedMaterials().size());
+    }
+
+    @Test
+    @DisplayName("A damaged tail is ignored and cut when the log is reopened")
+    void testTornTail() throws Exception {
+        Path log = directory.resolve("network.journal");
+        LibraryNetwork network = new LibraryNetwork();
+        try (WriteBehindJournal journal = WriteBehindJournal.open(network, log, 1, 0)) {
+            populate(network);
+            journal.durable().get(10, TimeUnit.SECONDS);
+        }
+        long size = Files.size(log);
+        // A crash in the middle of a batch leaves its header and part of its entries
+        Files.write(log, new byte[]{0, 0, 0, 3, 0, 0, 0, 90, 1, 2, 3, 4, 5, 6, 7, 8, 9}, StandardOpenOption.APPEND);
+
+        LibraryNetwork recovered = new LibraryNetwork();
+        WriteBehindJournal.replay(log, recovered);
+        assertEquals(network.getBooks().size(), recovered.getBooks().size());
+        assertEquals(network.getUsers().size(), recovered.getUsers().size());
+
+        try (WriteBehindJournal journal = WriteBehindJournal.open(recovered, log, 1, 0)) {
+            assertEquals(size, Files.size(log));
+            recovered.removeUser(1);
+            journal.durable().get(10, TimeUnit.SECONDS);
+        }
+        LibraryNetwork again = new LibraryNetwork();
+        WriteBehindJournal.replay(log, again);
+        assertNull(again.getUser(1));
+        assertNotNull(again.getUser(2));
+    }
+
+    @Test
+    @DisplayName("Swapped unique keys replay in order on top of a backup")
+    void testReplayOnBackup() throws Exception {
+        Path backup = Files.createDirectories(directory.resolve("backup"));
+        Path log = directory.resolve("network.journal");
+        LibraryNetwork network = new LibraryNetwork();
+        populate(network);
+        new NetworkExporter(network, 2).export(backup);
+        try (WriteBehindJournal journal = WriteBehindJournal.open(network, log, 1_000, 1_000)) {
+            // Patrons 1 and 2 swap their emails through a third one
+            network.updateUser(1, withEmail(network.getUser(1), "swap@biblored.co"));
+            network.updateUser(2, withEmail(network.getUser(2), "patron1@biblored.co"));
+            network.updateUser(1, withEmail(network.getUser(1), "patron2@biblored.co"));
+            assertTrue(network.borrowMaterial(network.getUser(2), new MaterialRef(MaterialType.BOOK, 1)));
+            journal.durable().get(10, TimeUnit.SECONDS);
+        }
+
+        LibraryNetwork recovered = new LibraryNetwork();
+        new NetworkRestorer(recovered, 2).restore(backup);
+        // The three email changes, the loan of patron 2, the book and its library
+        assertEquals(5, WriteBehindJournal.replay(log, recovered));
+        assertEquals(3, recovered.getUsers().size());
+        assertEquals("patron2@biblored.co", recovered.getUser(1).getEmail());
+        assertEquals("patron1@biblored.co", recovered.getUser(2).getEmail());
+        assertEquals(new MaterialRef(MaterialType.BOOK, 1), recovered.getUser(2).getBorrowedMaterial());
+        assertEquals(Status.RESERVED, recovered.getBook(1).getStatus());
+
+        // An entry that cannot be applied fails the replay instead of dropping the record
+        LibraryNetwork conflicting = new LibraryNetwork();
+        new NetworkRestorer(conflicting, 2).restore(backup);
+        User other = new User();
+        other.setId(9);
+        other.setEmail("swap@biblored.co");
+        conflicting.addUser(other);
+        assertThrows(IOException.class, () -> WriteBehindJournal.replay(log, conflicting));
+    }
+
+    @Test
+    @DisplayName("Files that are not journals are rejected")
+    void testNotAJournal() throws IOException {
+        Path file = directory.resolve("other");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> WriteBehindJournal.replay(file, new LibraryNetwork()));
+    }
+
+    private static User withEmail(User user, String email) {
+        User changed = new User(user);
+        changed.setEmail(email);
+        return changed;
+    }
+
+    private static void populate(LibraryNetwork network) {
+        for (int id = 1; id <= 2; id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (int id = 1; id <= 5; id++) {
+            Material book = NetworkRestorer.newMaterial(MaterialType.BOOK);
+            book.setId(id);
+            book.setName("Book " + id);
+            book.setLibraryId(id % 2 + 1);
+            book.setStatus(Status.AVAILABLE);
+            network.addBook(book);
+            Material film = NetworkRestorer.newMaterial(MaterialType.FILM);
+            film.setId(id);
+            film.setName("Film " + id);
+            film.setLibraryId(id % 2 + 1);
+            film.setStatus(Status.AVAILABLE);
+            network.addFilm(film);
+        }
+        for (int id = 1; id <= 3; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setName("Patron " + id);
+            user.setEmail("patron" + id + "@biblored.co");
+            network.addUser(user);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package biblored.model.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Query Cache Tests")
+class QueryCacheTest {
+
+    @Test
+    @DisplayName("A newcomer only evicts LRU entries requested less often than itself")
+    void testAdmissionAndEviction() {
+        QueryCache<String, String> cache = new QueryCache<>(3);
+        assertTrue(cache.put("a", "A", 1));
+        assertTrue(cache.put("b", "B", 1));
+        assertTrue(cache.put("c", "C", 1));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("A", cache.get("a"));
+            assertEquals("B", cache.get("b"));
+        }
+
+        // c is the least recently used and was never requested, d was requested once
+        assertNull(cache.get("d"));
+        assertTrue(cache.put("d", "D", 1));
+        assertNull(cache.get("c"), "The LRU entry was evicted");
+        assertEquals(1, cache.getStats().getEvictions());
+
+        // a is now the LRU entry but it is requested more often than e
+        assertNull(cache.get("e"));
+        assertFalse(cache.put("e", "E", 1));
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("e"));
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.getWeight());
+
+        assertFalse(cache.put("heavy", "H", 4), "Heavier than the whole cache");
+        assertEquals(2, cache.getStats().getRejections());
+        assertFalse(new QueryCache<String, String>(0).put("a", "A", 1), "A cache of weight 0 is disabled");
+    }
+
+    @Test
+    @DisplayName("Replacing an entry frees its weight and heavy newcomers evict several entries")
+    void testWeights() {
+        QueryCache<String, String> cache = new QueryCache<>(10);
+        assertTrue(cache.put("a", "A", 4));
+        assertTrue(cache.put("a", "A2", 6));
+        assertEquals(6, cache.getWeight());
+        assertTrue(cache.put("b", "B", 3));
+        assertTrue(cache.put("c", "C", 1));
+        assertEquals(10, cache.getWeight());
+
+        cache.get("d");
+        cache.get("d");
+        assertTrue(cache.put("d", "D", 8), "Both a and b have to leave");
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(9, cache.getWeight());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    @DisplayName("Invalidation removes entries by key or predicate")
+    void testInvalidation() {
+        QueryCache<String, String> cache = new QueryCache<>(10);
+        cache.put("book:name", "1", 1);
+        cache.put("book:author", "2", 2);
+        cache.put("film:name", "3", 3);
+        assertTrue(cache.invalidate("book:name"));
+        assertFalse(cache.invalidate("book:name"));
+        assertEquals(1, cache.invalidateIf(key -> key.startsWith("book:")));
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.getWeight());
+        assertEquals(2, cache.getStats().getInvalidations());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    @DisplayName("A value computed before an invalidation is not stored")
+    void testGenerationGuard() {
+        QueryCache<String, String> cache = new QueryCache<>(10);
+        long seen = cache.generation();
+        cache.invalidate("other");
+        assertFalse(cache.put("key", "stale", 1, seen));
+        assertNull(cache.get("key"));
+
+        seen = cache.generation();
+        cache.invalidateIf(key -> false);
+        assertFalse(cache.put("key", "stale", 1, seen), "Every invalidation moves the generation");
+
+        seen = cache.generation();
+        cache.get("unrelated");
+        assertTrue(cache.put("key", "fresh", 1, seen));
+        assertEquals("fresh", cache.get("key"));
+    }
+}
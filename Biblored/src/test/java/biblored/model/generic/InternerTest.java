@@ -0,0 +1,69 @@
+package biblored.model.generic;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Interner Tests")
+class InternerTest {
+
+    @Test
+    @DisplayName("Equal values share the first instance")
+    void testCanonicalInstance() {
+        Interner<String> interner = new Interner<>();
+        List<String> canonical = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            canonical.add(interner.intern("value " + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            String copy = "value " + i;
+            assertSame(canonical.get(i), interner.intern(copy));
+        }
+        assertEquals(10_000, interner.size());
+        assertNull(interner.intern(null));
+    }
+
+    @Test
+    @DisplayName("Values no longer referenced are dropped")
+    void testCollectedValuesAreDropped() throws InterruptedException {
+        Interner<String> interner = new Interner<>();
+        String kept = interner.intern("kept");
+        for (int i = 0; i < 10_000; i++) {
+            interner.intern("garbage " + i);
+        }
+        assertSame(kept, interner.intern(new String("kept".toCharArray())));
+        // System.gc() is only a hint, so the collection is awaited for a bounded time and
+        // the test is skipped instead of failing if the JVM never clears the references
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (interner.size() > 1 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assumeTrue(interner.size() == 1, "The JVM did not clear the weak references in time");
+        assertSame(kept, interner.intern(new String("kept".toCharArray())));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    @DisplayName("Addresses and their parts are shared, phones share their codes")
+    void testValueFactories() {
+        Address first = Address.of("Calle 26", "13-19", "Bogota", "110311", "Colombia");
+        Address second = Address.of(new String("Calle 26".toCharArray()), "13-19", "Bogota", "110311", "Colombia");
+        assertSame(first, second);
+        assertSame(first.getCity(), Address.of("Carrera 7", "1", new String("Bogota".toCharArray()), "110311",
+                "Colombia").getCity());
+        assertEquals(first, new Address("Calle 26", "13-19", "Bogota", "110311", "Colombia"));
+
+        Phone phone = Phone.of(new String("57".toCharArray()), "601", "3001234567");
+        Phone other = Phone.of(new String("57".toCharArray()), "601", "3009876543");
+        assertSame(phone.getCountryCode(), other.getCountryCode());
+        assertEquals(phone, Phone.of("57", "601", "3001234567"));
+        assertSame(Address.EMPTY, new User().getAddress());
+    }
+}
@@ -0,0 +1,120 @@
+package biblored.model.id;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.DAO.MappedDAOFactory;
+import biblored.model.generic.Material;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Id Allocator Tests")
+class IdAllocatorTest {
+
+    @Test
+    @DisplayName("Threads get unique ids above the seed while hand-assigned ids are claimed")
+    void testConcurrentAllocation() throws InterruptedException {
+        IdAllocator allocator = new IdAllocator(16, false, () -> 100);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        Set<Integer> claimed = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int first = 10_000 + t * 1_000;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    assertTrue(ids.add(allocator.allocate()), "Id generated twice");
+                    if (i % 100 == 0 && allocator.claim(first + i)) {
+                        claimed.add(first + i);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8_000, ids.size());
+        for (int id : ids) {
+            assertTrue(id > 100, "Generated id " + id + " is not above the seed");
+            assertFalse(claimed.contains(id), "Id " + id + " was generated and claimed");
+        }
+        assertTrue(allocator.claim(50), "Ids below the generated range are left to the DAO");
+        assertFalse(allocator.claim(ids.iterator().next()), "A generated id cannot be claimed");
+    }
+
+    @Test
+    @DisplayName("Released ids are handed out again only with recycling")
+    void testRecycling() {
+        IdAllocator recycling = new IdAllocator(4, true, () -> 0);
+        int first = recycling.allocate();
+        int second = recycling.allocate();
+        recycling.release(first);
+        recycling.release(1_000);
+        assertEquals(first, recycling.allocate());
+        assertNotEquals(second, recycling.allocate());
+
+        IdAllocator plain = new IdAllocator(4, false, () -> 0);
+        int id = plain.allocate();
+        plain.release(id);
+        assertNotEquals(id, plain.allocate());
+    }
+
+    @Test
+    @DisplayName("A reset drops the blocks and released ids and seeds the allocator again")
+    void testReset() {
+        int[] highest = {0};
+        IdAllocator allocator = new IdAllocator(8, true, () -> highest[0]);
+        assertEquals(1, allocator.allocate());
+        int second = allocator.allocate();
+        allocator.release(second);
+        // Records with ids up to 50 are added behind the allocator
+        highest[0] = 50;
+        allocator.reset();
+        assertEquals(51, allocator.allocate());
+        assertEquals(52, allocator.allocate());
+        assertTrue(allocator.claim(5), "Ids below the new block are left to the DAO again");
+    }
+
+    @Test
+    @DisplayName("The network generates ids after the stored ones and reuses deleted ones on mapped storage")
+    void testNetworkIds(@TempDir Path directory) {
+        LibraryNetwork network = new LibraryNetwork(0, new MappedDAOFactory(directory));
+        Material stored = new Material();
+        stored.setId(7);
+        stored.setName("Stored");
+        assertTrue(network.getBookDAO().add(stored));
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            Material book = new Material();
+            book.setName("Book " + i);
+            assertTrue(network.addNewMaterial(MaterialType.BOOK, book));
+            assertTrue(book.getId() > 7);
+            assertTrue(ids.add(book.getId()));
+            assertSame(book, network.getBook(book.getId()));
+        }
+        int generated = ids.iterator().next();
+        Material manual = new Material();
+        manual.setId(generated + 1_000);
+        assertTrue(network.addBook(manual), "A free id above the generated ones can be assigned by hand");
+        Material reserved = new Material();
+        reserved.setId(generated);
+        assertFalse(network.addBook(reserved), "A generated id cannot be assigned by hand");
+
+        assertTrue(network.removeBook(generated));
+        Material again = new Material();
+        assertTrue(network.addNewMaterial(MaterialType.BOOK, again));
+        assertEquals(generated, again.getId());
+    }
+}
@@ -0,0 +1,179 @@
+package biblored.model.lock;
+
+import biblored.model.LibraryNetwork;
+import biblored.model.MaterialType;
+import biblored.model.Status;
+import biblored.model.generic.Library;
+import biblored.model.generic.Material;
+import biblored.model.generic.MaterialRef;
+import biblored.model.generic.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Lock Manager Tests")
+// The tests hold scopes for their locks only, the bodies never refer to them
+@SuppressWarnings("try")
+class LockManagerTest {
+    private static final int BOOKS = 16;
+    private static final int USERS = 32;
+
+    @Test
+    @DisplayName("Concurrent borrows and returns keep loans, statuses and libraries consistent")
+    void testConcurrentLoans() throws InterruptedException {
+        LibraryNetwork network = new LibraryNetwork();
+        for (int id = 1; id <= 2; id++) {
+            Library library = new Library();
+            library.setId(id);
+            library.setName("Library " + id);
+            network.addLibrary(library);
+        }
+        for (int id = 1; id <= BOOKS; id++) {
+            Material book = new Material();
+            book.setId(id);
+            book.setName("Book " + id);
+            book.setLibraryId(id % 2 + 1);
+            book.setStatus(Status.AVAILABLE);
+            network.addBook(book);
+        }
+        for (int id = 1; id <= USERS; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setEmail("user" + id + "@biblored.org");
+            network.addUser(user);
+        }
+
+        // Library and User report every borrow on the console
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                Random random = new Random(t);
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        User user = network.getUser(random.nextInt(USERS) + 1);
+                        if (random.nextBoolean()) {
+                            network.borrowMaterial(user, new MaterialRef(MaterialType.BOOK, random.nextInt(BOOKS) + 1));
+                        } else {
+                            network.returnMaterial(user);
+                        }
+                    }
+                });
+                thread.setUncaughtExceptionHandler((dead, e) -> failure.compareAndSet(null, e));
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            System.setOut(console);
+        }
+        assertNull(failure.get());
+
+        Set<MaterialRef> held = new HashSet<>();
+        for (int id = 1; id <= USERS; id++) {
+            MaterialRef ref = network.getUser(id).getBorrowedMaterial();
+            if (ref != null) {
+                assertTrue(held.add(ref), "Two users hold " + ref);
+            }
+        }
+        for (int id = 1; id <= BOOKS; id++) {
+            MaterialRef ref = new MaterialRef(MaterialType.BOOK, id);
+            Material book = network.getBook(id);
+            assertEquals(held.contains(ref) ? Status.RESERVED : Status.AVAILABLE, book.getStatus());
+            List<MaterialRef> loans = network.getLibrary(book.getLibraryId()).getBorrowedMaterials();
+            assertEquals(held.contains(ref), loans.contains(ref));
+        }
+        int listed = network.getLibrary(1).getBorrowedMaterials().size() + network.getLibrary(2).getBorrowedMaterials().size();
+        assertEquals(held.size(), listed);
+    }
+
+    @Test
+    @DisplayName("Nested calls must be covered by the scope or come later in the lock order")
+    void testNesting() {
+        LockManager locks = new LockManager(16);
+        int books = LockManager.tableOf(MaterialType.BOOK);
+        try (LockManager.Scope scope = locks.write(LockManager.USERS)) {
+            assertEquals("user", locks.read(LockManager.USERS, () -> "user"));
+            assertEquals("book", locks.read(books, () -> "book"));
+            assertEquals("scan", locks.scan(books, () -> "scan"));
+            assertThrows(IllegalStateException.class, () -> locks.scan(LockManager.LIBRARIES, () -> "library"));
+            assertThrows(IllegalStateException.class, () -> locks.write(books));
+            assertThrows(IllegalStateException.class, locks::shared);
+        }
+        long user = LockManager.keyOf(LockManager.USERS, 1);
+        long book = LockManager.keyOf(books, 1);
+        try (LockManager.Scope scope = locks.entities(user, book)) {
+            assertEquals(1, (int) locks.readEntity(book, () -> 1));
+            try (LockManager.Scope nested = locks.entities(user)) {
+                fail("The users table is only shared by the scope");
+            } catch (IllegalStateException expected) {
+                // Stripes cannot be added to a scope
+            }
+        }
+        try (LockManager.Scope scope = locks.exclusive()) {
+            try (LockManager.Scope nested = locks.entities(user, book)) {
+                assertEquals("book", locks.read(books, () -> "book"));
+            }
+            try (LockManager.Scope nested = locks.write(LockManager.LIBRARIES)) {
+                assertEquals(2, (int) locks.readEntity(user, () -> 2));
+            }
+        }
+        // Every scope was released
+        try (LockManager.Scope scope = locks.exclusive()) {
+            assertNotNull(scope);
+        }
+    }
+
+    @Test
+    @DisplayName("Records locked in opposite orders do not deadlock")
+    void testOrdering() {
+        LockManager locks = new LockManager(4);
+        long[] keys = new long[8];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = LockManager.keyOf(i % LockManager.TABLES, i);
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            List<Thread> threads = new ArrayList<>();
+            int[] counter = new int[1];
+            for (int t = 0; t < 4; t++) {
+                boolean reversed = t % 2 == 1;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        long first = keys[i % keys.length];
+                        long second = keys[(i * 3 + 1) % keys.length];
+                        try (LockManager.Scope scope = reversed ? locks.entities(second, first) : locks.entities(first, second)) {
+                            counter[0]++;
+                        }
+                        if (i % 100 == 0) {
+                            try (LockManager.Scope scope = locks.write(i % LockManager.TABLES)) {
+                                counter[0]++;
+                            }
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            // Every increment happened under a lock that excludes the others on the same stripes
+            assertTrue(counter[0] > 0);
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package biblored.model.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Trigram Index Tests")
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add(1, "Crimen y castigo", "Fiódor Dostoyevsky");
+        index.add(2, "Cien años de soledad", "Gabriel García Márquez");
+        index.add(3, "El amor en los tiempos del cólera", "Gabriel García Márquez");
+        index.add(4, "Los hermanos Karamazov", "Fiódor Dostoyevsky");
+        index.add(5, "Cien poemas de amor", "Pablo Neruda");
+    }
+
+    @Test
+    @DisplayName("Misspelled authors and missing accents are found")
+    void testTypos() {
+        List<TrigramIndex.Hit> hits = index.search("Dostoievski", 10);
+        assertEquals(2, hits.size());
+        assertTrue(hits.stream().allMatch(hit -> hit.getDistance() == 2));
+
+        hits = index.search("Cien anos de soledad", 10);
+        assertEquals(2, hits.get(0).getKey());
+        assertEquals(0, hits.get(0).getDistance());
+
+        hits = index.search("garcia marques", 1);
+        assertEquals(1, hits.size());
+        assertEquals(1, hits.get(0).getDistance());
+    }
+
+    @Test
+    @DisplayName("Updates and removals are visible to the next search")
+    void testIncrementalUpdates() {
+        index.add(5, "Veinte poemas de amor", "Pablo Neruda");
+        assertTrue(index.search("veinte poemas", 10).stream().anyMatch(hit -> hit.getKey() == 5));
+        assertTrue(index.search("cien poemas", 10, 0).isEmpty());
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        List<TrigramIndex.Hit> hits = index.search("dostoyevsky", 10);
+        assertEquals(1, hits.size());
+        assertEquals(4, hits.get(0).getKey());
+    }
+
+    @Test
+    @DisplayName("Results match a full scan after compactions")
+    void testMatchesFullScan() {
+        TrigramIndex large = new TrigramIndex();
+        String[] words = {"casa", "perro", "gato", "sol", "luna", "mar", "rio", "noche", "dia", "amor"};
+        String[] texts = new String[5000];
+        Random random = new Random(3);
+        for (int key = 0; key < texts.length; key++) {
+            texts[key] = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            large.add(key, texts[key], "");
+        }
+        // Remove half of them to force compactions
+        for (int key = 0; key < texts.length; key += 2) {
+            large.remove(key);
+            texts[key] = null;
+        }
+
+        int[] column = new int[64];
+        String query = "pero gatto";
+        List<TrigramIndex.Hit> hits = large.search(query, 10_000, 2);
+        int expected = 0;
+        for (String text : texts) {
+            if (text != null && TrigramIndex.substringDistance(query, text, 2, column) <= 2) {
+                expected++;
+            }
+        }
+        assertTrue(expected > 0);
+        assertEquals(expected, hits.size());
+        for (TrigramIndex.Hit hit : hits) {
+            assertNotNull(texts[(int) hit.getKey()]);
+        }
+    }
+
+    @Test
+    @DisplayName("Substring distance with cutoff")
+    void testSubstringDistance() {
+        int[] column = new int[64];
+        assertEquals(0, TrigramIndex.substringDistance("sol", "cien anos de soledad", 2, column));
+        assertEquals(2, TrigramIndex.substringDistance("dostoievski", "fiodor dostoyevsky", 3, column));
+        assertEquals(2, TrigramIndex.substringDistance("dostoievski", "fiodor dostoyevsky", 1, column));
+        assertEquals(1, TrigramIndex.substringDistance("abc", "xxabxx", 2, column));
+        assertEquals(1, TrigramIndex.substringDistance("marquez", "garcia mraquez", 2, column));
+    }
+}
@@ -0,0 +1,49 @@
+package biblored.model.sketch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Count-Min Sketch Tests")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Estimates never fall below the real counts")
+    void testEstimatesAreUpperBounds() {
+        CountMinSketch sketch = new CountMinSketch(1000, 4);
+        assertEquals(1024, sketch.getWidth());
+        for (long key = 0; key < 5_000; key++) {
+            sketch.add(key, (int) (key % 7) + 1);
+        }
+        long overestimated = 0;
+        for (long key = 0; key < 5_000; key++) {
+            int real = (int) (key % 7) + 1;
+            int estimate = sketch.estimate(key);
+            assertTrue(estimate >= real);
+            overestimated += estimate - real;
+        }
+        // The error bound is 2N/w per key with high probability
+        assertTrue(overestimated / 5_000.0 <= 2.0 * sketch.getTotal() / sketch.getWidth());
+        assertEquals(0, new CountMinSketch(16, 1).estimate(42));
+    }
+
+    @Test
+    @DisplayName("Halving ages the counters and clear resets them")
+    void testHalveAndClear() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        sketch.add(7, 10);
+        sketch.increment(7);
+        assertEquals(11, sketch.estimate(7));
+        sketch.halve();
+        assertEquals(5, sketch.estimate(7));
+        assertEquals(5, sketch.getTotal());
+        sketch.add(9, Integer.MAX_VALUE);
+        sketch.increment(9);
+        assertEquals(Integer.MAX_VALUE, sketch.estimate(9), "Counters saturate");
+        sketch.clear();
+        assertEquals(0, sketch.estimate(7));
+        assertEquals(0, sketch.getTotal());
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(64, 9));
+    }
+}
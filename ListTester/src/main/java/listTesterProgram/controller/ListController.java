@@ -1,14 +1,21 @@
 package listTesterProgram.controller;
 
 import listTesterProgram.controller.benchmark.Benchmark;
+import listTesterProgram.controller.benchmark.ComplexityAnalyzer;
+import listTesterProgram.controller.benchmark.IntListBenchmark;
+import listTesterProgram.controller.benchmark.ListJmhBenchmark;
+import listTesterProgram.controller.benchmark.NodePoolBenchmark;
+import listTesterProgram.controller.benchmark.QueueBenchmark;
 import listTesterProgram.model.abstractModels.LinkedList;
 import listTesterProgram.model.concrete.Node;
 import listTesterProgram.model.concrete.TypeLinkedList;
 import listTesterProgram.model.creators.ListCreator;
 import listTesterProgram.view.ConsoleView;
+import org.openjdk.jmh.runner.RunnerException;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,6 +26,9 @@ public class ListController {
     private final ConsoleView view;
     private final ListCreator listCreator;
     private final Benchmark benchmarker;
+    private final IntListBenchmark intBenchmarker;
+    private final NodePoolBenchmark poolBenchmarker;
+    private final QueueBenchmark queueBenchmarker;
     private LinkedList<Integer> currentIntegerList;
     private TypeLinkedList currentListType;
 
@@ -31,6 +41,9 @@ public class ListController {
         this.view = view;
         this.listCreator = new ListCreator();
         this.benchmarker = new Benchmark();
+        this.intBenchmarker = new IntListBenchmark();
+        this.poolBenchmarker = new NodePoolBenchmark();
+        this.queueBenchmarker = new QueueBenchmark();
         this.currentListType = TypeLinkedList.LINKED_LIST_WITH_TAIL; // Default list type
         this.currentIntegerList = listCreator.createLinkedList(currentListType);
     }
@@ -165,7 +178,15 @@ public class ListController {
             view.print("1. Run Benchmarks");
             view.print("2. Export Results to CSV");
             view.print("3. Find Fastest Implementations");
-            view.print("4. Back to Main Menu");
+            view.print("4. Compare Int-Specialized Lists");
+            view.print("5. Compare Node Pooling");
+            view.print("6. Run Concurrent Benchmarks");
+            view.print("7. Run Work Queue Benchmark");
+            view.print("8. Run JMH Benchmarks");
+            view.print("9. Run Latency Benchmarks");
+            view.print("10. Run Memory Benchmarks");
+            view.print("11. Check Complexity Regressions");
+            view.print("12. Back to Main Menu");
 
             int choice = getIntegerInput("Enter your choice: ");
 
@@ -180,6 +201,30 @@ public class ListController {
                     findFastestImplementations();
                     break;
                 case 4:
+                    compareIntLists();
+                    break;
+                case 5:
+                    compareNodePooling();
+                    break;
+                case 6:
+                    runConcurrentBenchmarks();
+                    break;
+                case 7:
+                    runQueueBenchmark();
+                    break;
+                case 8:
+                    runJmhBenchmarks();
+                    break;
+                case 9:
+                    runLatencyBenchmarks();
+                    break;
+                case 10:
+                    runMemoryBenchmarks();
+                    break;
+                case 11:
+                    checkComplexity();
+                    break;
+                case 12:
                     back = true;
                     break;
                 default:
@@ -243,10 +288,222 @@ public class ListController {
 
         String fastestImplementations = benchmarker.findFastestImplementations(results);
         view.print(fastestImplementations);
+        view.print(benchmarker.findCrossovers(results, TypeLinkedList.HASH_INDEXED_LINKED_LIST,
+                TypeLinkedList.DOUBLE_LINKED_LIST_WITH_TAIL));
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    /**
+     * Compare the int-specialized lists with the generic lists they mirror, in operations
+     * per second and heap per element
+     */
+    private void compareIntLists() {
+        view.displayTitle("Int-Specialized Lists");
+        view.print("Running benchmarks on the int lists and their generic counterparts...");
+
+        List<Benchmark.Result> results = new ArrayList<>(benchmarker.runBenchmarks(
+                TypeLinkedList.LINKED_LIST_WITH_TAIL, TypeLinkedList.DOUBLE_LINKED_LIST_WITH_TAIL));
+        results.addAll(intBenchmarker.runBenchmarks());
+        intBenchmarker.printComparison(results, intBenchmarker.measureFootprints());
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    /**
+     * Compare the allocations of a doubly linked list with and without a node pool on a
+     * queue-like workload
+     */
+    private void compareNodePooling() {
+        view.displayTitle("Node Pooling");
+        view.print("Running the queue workload with and without a node pool...");
+
+        poolBenchmarker.printResults(poolBenchmarker.runBenchmarks());
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    /**
+     * Run the concurrent benchmarks up to a number of threads chosen by the user
+     */
+    private void runConcurrentBenchmarks() {
+        view.displayTitle("Concurrent Benchmarks");
+        int maxThreads = getIntegerInput("Enter the maximum number of threads (0 for twice the processors): ");
+        if (maxThreads <= 0) {
+            maxThreads = 2 * Runtime.getRuntime().availableProcessors();
+        }
+        view.print("Running the lock-free and synchronized lists from 1 to " + maxThreads + " threads...");
+
+        try {
+            benchmarker.printConcurrentResults(benchmarker.runConcurrentBenchmarks(maxThreads));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.printError("Concurrent benchmarks interrupted");
+        }
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    /**
+     * Run the work queue benchmark with the producers and consumers chosen by the user
+     */
+    private void runQueueBenchmark() {
+        view.displayTitle("Work Queue Benchmark");
+        int producers = Math.max(1, getIntegerInput("Enter the number of producers: "));
+        int consumers = Math.max(1, getIntegerInput("Enter the number of consumers: "));
+        view.print("Running the lock-free and synchronized queues...");
+
+        try {
+            queueBenchmarker.printResults(queueBenchmarker.runBenchmarks(producers, consumers));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.printError("Work queue benchmark interrupted");
+        }
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    /**
+     * Run the JMH benchmarks on the list types and data sizes chosen by the user and export
+     * their results to the CSV file of the benchmarks
+     */
+    private void runJmhBenchmarks() {
+        view.displayTitle("JMH Benchmarks");
+        String[] listTypes = splitInput(getStringInput("Enter the list types, comma-separated (empty for all): "));
+        String[] dataSizes = splitInput(getStringInput("Enter the data sizes, comma-separated (empty for all): "));
+        view.print("Running the JMH benchmarks in forked JVMs, this takes a few minutes...");
+
+        try {
+            List<Benchmark.Result> results = ListJmhBenchmark.run(listTypes, dataSizes);
+            benchmarker.printResults(results);
+
+            File resultsDir = new File("results");
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+                view.print("Created results directory");
+            }
+            String csvFilePath = "results/benchmark_results.csv";
+            benchmarker.exportToCSV(results, csvFilePath);
+            view.print("\nBenchmark results exported to:");
+            view.print("- " + csvFilePath);
+        } catch (RunnerException e) {
+            view.printError("Error running JMH benchmarks: " + e.getMessage());
+        } catch (IOException e) {
+            view.printError("Error exporting results: " + e.getMessage());
+        }
 
         getStringInput("\nPress Enter to continue...");
     }
 
+    /**
+     * Run the benchmarks timing each operation on its own, print their latency percentiles
+     * and export them to the CSV file of the benchmarks
+     */
+    private void runLatencyBenchmarks() {
+        view.displayTitle("Latency Benchmarks");
+        view.print("Running benchmarks with the latency of each operation recorded...");
+
+        List<Benchmark.Result> results = benchmarker.runLatencyBenchmarks();
+        benchmarker.printResults(results);
+
+        try {
+            File resultsDir = new File("results");
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+                view.print("Created results directory");
+            }
+            String csvFilePath = "results/benchmark_results.csv";
+            benchmarker.exportToCSV(results, csvFilePath);
+            view.print("\nBenchmark results exported to:");
+            view.print("- " + csvFilePath);
+        } catch (IOException e) {
+            view.printError("Error exporting results: " + e.getMessage());
+        }
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    /**
+     * Run the benchmarks measuring the heap per element and the bytes allocated per operation,
+     * print them and export them to the CSV file of the benchmarks
+     */
+    private void runMemoryBenchmarks() {
+        view.displayTitle("Memory Benchmarks");
+        view.print("Running benchmarks with the heap and the allocations of each list type measured...");
+
+        List<Benchmark.Result> results = benchmarker.runMemoryBenchmarks();
+        benchmarker.printMemoryResults(results);
+
+        try {
+            File resultsDir = new File("results");
+            if (!resultsDir.exists()) {
+                resultsDir.mkdir();
+                view.print("Created results directory");
+            }
+            String csvFilePath = "results/benchmark_results.csv";
+            benchmarker.exportToCSV(results, csvFilePath);
+            view.print("\nBenchmark results exported to:");
+            view.print("- " + csvFilePath);
+        } catch (IOException e) {
+            view.printError("Error exporting results: " + e.getMessage());
+        }
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    /**
+     * Estimate the complexity of every operation from the benchmarks and compare it with the
+     * Javadoc and the baseline results, saving the results as the baseline when there is none
+     */
+    private void checkComplexity() {
+        view.displayTitle("Complexity Regressions");
+        view.print("Running benchmarks on all LinkedList implementations...");
+
+        List<Benchmark.Result> results = benchmarker.runBenchmarks();
+        ComplexityAnalyzer analyzer = new ComplexityAnalyzer();
+        String baselinePath = ComplexityAnalyzer.DEFAULT_BASELINE;
+
+        try {
+            List<Benchmark.Result> baseline = new ArrayList<>();
+            File baselineFile = new File(baselinePath);
+            if (baselineFile.exists()) {
+                baseline = benchmarker.importFromCSV(baselinePath);
+            }
+
+            List<ComplexityAnalyzer.Finding> findings = analyzer.analyze(results, baseline);
+            view.print(analyzer.formatReport(findings));
+            if (ComplexityAnalyzer.hasRegressions(findings)) {
+                view.printError("Some operations grow faster than expected");
+            }
+
+            if (!baselineFile.exists()) {
+                File resultsDir = new File("results");
+                if (!resultsDir.exists()) {
+                    resultsDir.mkdir();
+                    view.print("Created results directory");
+                }
+                benchmarker.exportToCSV(results, baselinePath);
+                view.print("No baseline yet, results saved as the baseline:");
+                view.print("- " + baselinePath);
+            }
+        } catch (IOException e) {
+            view.printError("Error with the baseline results: " + e.getMessage());
+        }
+
+        getStringInput("\nPress Enter to continue...");
+    }
+
+    private static String[] splitInput(String input) {
+        if (input.trim().isEmpty()) {
+            return new String[0];
+        }
+        String[] values = input.split(",");
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values[i].trim();
+        }
+        return values;
+    }
+
     /**
      * Push a value to the front of the current list
      */
@@ -2,14 +2,24 @@ package listTesterProgram.controller.benchmark;
 
 import listTesterProgram.model.abstractModels.LinkedList;
 import listTesterProgram.model.concrete.Node;
+import listTesterProgram.model.concrete.SynchronizedLinkedList;
 import listTesterProgram.model.concrete.TypeLinkedList;
 import listTesterProgram.model.creators.ListCreator;
 
+import java.io.BufferedReader;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
  * A simple benchmark class for testing LinkedList implementations
@@ -19,7 +29,12 @@ public class Benchmark {
 
     private static final int WARMUP_ITERATIONS = 5;
     private static final int BENCHMARK_ITERATIONS = 10;
-    private static final int[] DATA_SIZES = {100, 1000, 10000, 100000};
+    static final int[] DATA_SIZES = {100, 1000, 10000, 100000};
+    private static final String[] OPERATIONS = {"pushFront", "pushBack", "popFront", "popBack", "find", "erase",
+            "addAfter", "addBefore"};
+    private static final int MEMORY_SIZE = 1_000_000;
+    private static final int CONCURRENT_SIZE = 1000;
+    private static final int CONCURRENT_OPERATIONS = 300_000;
     
     private final ListCreator listCreator;
 
@@ -36,10 +51,20 @@ public class Benchmark {
      * @return A list of benchmark results
      */
     public List<Result> runBenchmarks() {
+        return runBenchmarks(TypeLinkedList.values());
+    }
+
+    /**
+     * Run benchmarks for all operations with various data sizes on some list types
+     *
+     * @param types The list types to benchmark
+     * @return A list of benchmark results
+     */
+    public List<Result> runBenchmarks(TypeLinkedList... types) {
         List<Result> results = new ArrayList<>();
 
         // Test all operations for each list type and data size
-        for (TypeLinkedList type : TypeLinkedList.values()) {
+        for (TypeLinkedList type : types) {
             for (int size : DATA_SIZES) {
                 // Create a new list for each test
                 LinkedList<Integer> list = listCreator.createLinkedList(type);
@@ -363,6 +388,310 @@ public class Benchmark {
         return new Result(type.name(), "addBefore", timeInMs, avgTimePerOperation * 1_000_000, size);
     }
 
+    /**
+     * Run every operation with the latency of each call timed on its own, for all list types
+     *
+     * @return A list of benchmark results with latency percentiles
+     */
+    public List<Result> runLatencyBenchmarks() {
+        return runLatencyBenchmarks(TypeLinkedList.values());
+    }
+
+    /**
+     * Run every operation with the latency of each call timed on its own, on some list types.
+     * The operations are run as many times as in runBenchmarks, and the latencies of each
+     * list type, operation and data size are recorded into a histogram. The measured loops
+     * only call the list, System.nanoTime and the histogram: the values are boxed and the
+     * targets drawn beforehand, so that the latencies include only the allocations of the
+     * lists. Every latency includes the cost of one System.nanoTime call, a few tens of
+     * nanoseconds.
+     *
+     * @param types The list types to benchmark
+     * @return A list of benchmark results with latency percentiles
+     */
+    public List<Result> runLatencyBenchmarks(TypeLinkedList... types) {
+        List<Result> results = new ArrayList<>();
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (TypeLinkedList type : types) {
+            // Warmup
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                for (String operation : OPERATIONS) {
+                    sampleLatencies(type, operation, DATA_SIZES[1], histogram);
+                }
+            }
+
+            for (int size : DATA_SIZES) {
+                for (String operation : OPERATIONS) {
+                    histogram.reset();
+                    sampleLatencies(type, operation, size, histogram);
+                    results.add(new Result(type.name(), operation, size, histogram));
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Record the latency of each call of an operation on a new list
+     *
+     * @param type The type of LinkedList
+     * @param operation The operation to time
+     * @param size The size of data to benchmark
+     * @param histogram The histogram recording the latencies
+     */
+    private void sampleLatencies(TypeLinkedList type, String operation, int size, LatencyHistogram histogram) {
+        runOperation(prepareOperation(type, operation, size), histogram);
+    }
+
+    /**
+     * Build the list and the values of an operation: an empty list for the pushes, else a list
+     * holding 0 to size - 1 in order, with distinct targets for 10% of the elements and the
+     * node in the middle to add around, as in runBenchmarks
+     *
+     * @param type The type of LinkedList
+     * @param operation The operation to run
+     * @param size The size of data to benchmark
+     * @return The prepared operation
+     */
+    private OperationRun prepareOperation(TypeLinkedList type, String operation, int size) {
+        LinkedList<Integer> list = listCreator.createLinkedList(type);
+        Integer[] values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        if (operation.equals("pushFront") || operation.equals("pushBack")) {
+            return new OperationRun(operation, list, values, null, null, null);
+        }
+
+        // Populate the list in order, pushFront takes constant time in every list type
+        for (int i = size - 1; i >= 0; i--) {
+            list.pushFront(values[i]);
+        }
+
+        int operations = Math.max(1, size / 10);
+        List<Integer> shuffled = new ArrayList<>(List.of(values));
+        Collections.shuffle(shuffled, new Random(42));
+        Integer[] targets = shuffled.subList(0, operations).toArray(new Integer[0]);
+        Integer[] added = new Integer[operations];
+        for (int i = 0; i < operations; i++) {
+            added[i] = size + i;
+        }
+        return new OperationRun(operation, list, values, targets, added, list.find(values[size / 2]));
+    }
+
+    /**
+     * Run a prepared operation and record the latency of each call. The loop only calls the
+     * list, System.nanoTime and the histogram, so it allocates only what the list allocates.
+     *
+     * @param run The prepared operation
+     * @param histogram The histogram recording the latencies
+     */
+    private void runOperation(OperationRun run, LatencyHistogram histogram) {
+        LinkedList<Integer> list = run.list;
+        switch (run.operation) {
+            case "pushFront":
+                for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                    for (Integer value : run.values) {
+                        long startTime = System.nanoTime();
+                        list.pushFront(value);
+                        histogram.record(System.nanoTime() - startTime);
+                    }
+                    clearList(list);
+                }
+                break;
+            case "pushBack":
+                for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                    for (Integer value : run.values) {
+                        long startTime = System.nanoTime();
+                        list.pushBack(value);
+                        histogram.record(System.nanoTime() - startTime);
+                    }
+                    clearList(list);
+                }
+                break;
+            case "popFront":
+                for (int i = 0; i < run.values.length; i++) {
+                    long startTime = System.nanoTime();
+                    list.popFront();
+                    histogram.record(System.nanoTime() - startTime);
+                }
+                break;
+            case "popBack":
+                for (int i = 0; i < run.values.length; i++) {
+                    long startTime = System.nanoTime();
+                    list.popBack();
+                    histogram.record(System.nanoTime() - startTime);
+                }
+                break;
+            case "find":
+                for (Integer target : run.targets) {
+                    long startTime = System.nanoTime();
+                    list.find(target);
+                    histogram.record(System.nanoTime() - startTime);
+                }
+                break;
+            case "erase":
+                for (Integer target : run.targets) {
+                    long startTime = System.nanoTime();
+                    list.erase(target);
+                    histogram.record(System.nanoTime() - startTime);
+                }
+                break;
+            case "addAfter":
+                for (Integer value : run.added) {
+                    long startTime = System.nanoTime();
+                    list.addAfter(run.middle, value);
+                    histogram.record(System.nanoTime() - startTime);
+                }
+                break;
+            case "addBefore":
+                for (Integer value : run.added) {
+                    long startTime = System.nanoTime();
+                    list.addBefore(run.middle, value);
+                    histogram.record(System.nanoTime() - startTime);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + run.operation);
+        }
+    }
+
+    /**
+     * Run every operation on all list types, measuring memory instead of time only
+     *
+     * @return A list of benchmark results with memory measurements
+     */
+    public List<Result> runMemoryBenchmarks() {
+        return runMemoryBenchmarks(TypeLinkedList.values());
+    }
+
+    /**
+     * Run every operation on some list types, measuring memory instead of time only. For each
+     * list type, the heap retained per element is measured after pushing 1,000,000 values
+     * boxed beforehand, so it counts the nodes and the structures of the list but not the
+     * Integers. For each operation and data size, the bytes allocated by the benchmark thread
+     * are counted over the measured loop of runLatencyBenchmarks, with the garbage
+     * collections that ran during the loop: the time of a result with collections includes
+     * their pauses.
+     *
+     * @param types The list types to benchmark
+     * @return A list of benchmark results with memory measurements
+     */
+    public List<Result> runMemoryBenchmarks(TypeLinkedList... types) {
+        List<Result> results = new ArrayList<>();
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (TypeLinkedList type : types) {
+            double bytesPerElement = measureRetainedBytes(type);
+
+            // Warmup
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                for (String operation : OPERATIONS) {
+                    sampleLatencies(type, operation, DATA_SIZES[1], histogram);
+                }
+            }
+
+            for (int size : DATA_SIZES) {
+                for (String operation : OPERATIONS) {
+                    histogram.reset();
+                    OperationRun run = prepareOperation(type, operation, size);
+                    long gcBefore = gcCount();
+                    long allocatedBefore = allocatedBytes();
+                    runOperation(run, histogram);
+                    long allocated = allocatedBytes() - allocatedBefore;
+                    long gcEvents = gcCount() - gcBefore;
+                    results.add(new Result(type.name(), operation, size, histogram, bytesPerElement,
+                            (double) allocated / histogram.getCount(), gcEvents));
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Measure the heap retained per element by a list type with MEMORY_SIZE elements
+     *
+     * @param type The type of LinkedList
+     * @return The retained bytes per element
+     */
+    private double measureRetainedBytes(TypeLinkedList type) {
+        Integer[] values = new Integer[MEMORY_SIZE];
+        for (int i = 0; i < MEMORY_SIZE; i++) {
+            values[i] = i;
+        }
+        long before = usedHeap();
+        LinkedList<Integer> list = listCreator.createLinkedList(type);
+        for (int i = MEMORY_SIZE - 1; i >= 0; i--) {
+            list.pushFront(values[i]);
+        }
+        double bytesPerElement = (double) (usedHeap() - before) / MEMORY_SIZE;
+        // Keeps the list reachable until it is measured
+        list.pushFront(values[0]);
+        return bytesPerElement;
+    }
+
+    /**
+     * Print the memory measurements of benchmark results to console
+     *
+     * @param results The benchmark results with memory measurements
+     */
+    public void printMemoryResults(List<Result> results) {
+        System.out.printf("\nMemory Benchmark Results (retained bytes with %d elements):\n", MEMORY_SIZE);
+        System.out.println("--------------------------------------------------------------------------------"
+                + "------------------");
+        System.out.printf("%-32s | %-10s | %-10s | %-13s | %-12s | %-14s | %-8s\n", "List Type", "Operation",
+                "Test Size", "Avg Time (ns)", "Bytes/Elem", "Alloc Bytes/Op", "GC");
+        System.out.println("--------------------------------------------------------------------------------"
+                + "------------------");
+
+        for (Result result : results) {
+            if (!result.hasMemory()) {
+                continue;
+            }
+            System.out.printf(Locale.US, "%-32s | %-10s | %-10d | %-13.1f | %-12.1f | %-14.1f | %-8s\n",
+                    result.getListType(),
+                    result.getOperation(),
+                    result.getTestSize(),
+                    result.getAvgTimeNs(),
+                    result.getBytesPerElement(),
+                    result.getAllocatedBytesPerOp(),
+                    result.getGcEvents() == 0 ? "-" : result.getGcEvents() + " GC");
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, as counted by the HotSpot thread bean
+     */
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Heap used after a few garbage collections, so it holds only the reachable objects
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Garbage collections run so far by all collectors
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
     /**
      * Clear a LinkedList
      *
@@ -390,20 +719,67 @@ public class Benchmark {
             // Use US locale to ensure decimal points (not commas) are used
             Locale usLocale = Locale.US;
             
-            writer.write("ListType,Operation,TestSize,TotalTimeMs,AvgTimeNs\n");
+            writer.write("ListType,Operation,TestSize,TotalTimeMs,AvgTimeNs,P50Ns,P90Ns,P99Ns,P999Ns,MaxNs,"
+                    + "BytesPerElement,AllocBytesPerOp,GcEvents\n");
 
             for (Result result : results) {
                 String operation = result.getOperation();
                 
                 // Format with US locale to ensure decimal points
-                writer.write(String.format(usLocale, "%s,%s,%d,%.3f,%.3f\n",
+                writer.write(String.format(usLocale, "%s,%s,%d,%.3f,%.3f",
                         result.getListType(),
                         operation,
                         result.getTestSize(),
                         result.getTotalTimeMs(),
                         result.getAvgTimeNs()));
+                // The latency and memory columns stay empty for the results without them
+                if (result.hasLatencies()) {
+                    writer.write(String.format(",%d,%d,%d,%d,%d", result.getP50Ns(), result.getP90Ns(),
+                            result.getP99Ns(), result.getP999Ns(), result.getMaxNs()));
+                } else {
+                    writer.write(",,,,,");
+                }
+                if (result.hasMemory()) {
+                    writer.write(String.format(usLocale, ",%.1f,%.1f,%d\n", result.getBytesPerElement(),
+                            result.getAllocatedBytesPerOp(), result.getGcEvents()));
+                } else {
+                    writer.write(",,,\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Import the benchmark results of a CSV file written by exportToCSV. Only the time columns
+     * are read, so the latency and memory measurements are not restored.
+     *
+     * @param filePath The path of the CSV file
+     * @return The benchmark results
+     * @throws IOException If an I/O error occurs or the file is not a CSV of benchmark results
+     */
+    public List<Result> importFromCSV(String filePath) throws IOException {
+        List<Result> results = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith("ListType,Operation,TestSize,TotalTimeMs,AvgTimeNs")) {
+                throw new IOException("Not a CSV of benchmark results: " + filePath);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                try {
+                    results.add(new Result(columns[0], columns[1], Double.parseDouble(columns[3]),
+                            Double.parseDouble(columns[4]), Integer.parseInt(columns[2])));
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new IOException("Invalid benchmark result in " + filePath + ": " + line, e);
+                }
             }
         }
+        return results;
     }
 
     /**
@@ -415,15 +791,44 @@ public class Benchmark {
         // Use US locale to ensure decimal points (not commas) are used
         Locale usLocale = Locale.US;
         
+        boolean latencies = false;
+        for (Result result : results) {
+            latencies |= result.hasLatencies();
+        }
+
         System.out.println("\nBenchmark Results:");
-        System.out.println("----------------------------------------------------------------------");
-        System.out.printf("%-25s | %-15s | %-10s | %-15s | %-15s\n",
-                "List Type", "Operation", "Test Size", "Total Time (ms)", "Avg Time (ns)");
-        System.out.println("----------------------------------------------------------------------");
+        if (latencies) {
+            System.out.println("--------------------------------------------------------------------------"
+                    + "------------------------------------------------------------");
+            System.out.printf("%-32s | %-10s | %-10s | %-15s | %-12s | %-9s | %-9s | %-9s | %-9s | %-9s\n",
+                    "List Type", "Operation", "Test Size", "Total Time (ms)", "Avg Time (ns)",
+                    "p50 (ns)", "p90 (ns)", "p99 (ns)", "p99.9 (ns)", "Max (ns)");
+            System.out.println("--------------------------------------------------------------------------"
+                    + "------------------------------------------------------------");
+        } else {
+            System.out.println("----------------------------------------------------------------------");
+            System.out.printf("%-25s | %-15s | %-10s | %-15s | %-15s\n",
+                    "List Type", "Operation", "Test Size", "Total Time (ms)", "Avg Time (ns)");
+            System.out.println("----------------------------------------------------------------------");
+        }
 
         for (Result result : results) {
             String operation = result.getOperation();
-            
+
+            if (latencies) {
+                System.out.printf(usLocale, "%-32s | %-10s | %-10d | %-15.3f | %-12.1f | %-9d | %-9d | %-9d | %-10d | %-9d\n",
+                        result.getListType(),
+                        operation,
+                        result.getTestSize(),
+                        result.getTotalTimeMs(),
+                        result.getAvgTimeNs(),
+                        result.getP50Ns(),
+                        result.getP90Ns(),
+                        result.getP99Ns(),
+                        result.getP999Ns(),
+                        result.getMaxNs());
+                continue;
+            }
             System.out.printf(usLocale, "%-25s | %-15s | %-10d | %-15.3f | %-15.3f\n",
                     result.getListType(),
                     operation,
@@ -433,6 +838,112 @@ public class Benchmark {
         }
     }
 
+    /**
+     * Run a mix of operations from 1 to maxThreads threads, doubling the threads, on a shared
+     * LockFreeLinkedList and on a DoubleLinkedLinkedListWithTail behind a synchronized
+     * wrapper. Every thread repeats pushBack of a value of its own, find of a random value
+     * and erase of the value pushed, so the list keeps its size. The total operations are
+     * the same for every thread count.
+     *
+     * @param maxThreads The largest number of threads
+     * @return A list of concurrent benchmark results
+     * @throws InterruptedException If the benchmark is interrupted
+     */
+    public List<ConcurrentResult> runConcurrentBenchmarks(int maxThreads) throws InterruptedException {
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(Math.max(1, maxThreads));
+
+        String synchronizedType = "SYNCHRONIZED_" + TypeLinkedList.DOUBLE_LINKED_LIST_WITH_TAIL;
+        Supplier<LinkedList<Integer>> lockFree = () -> listCreator.createLinkedList(TypeLinkedList.LOCK_FREE_LINKED_LIST);
+        Supplier<LinkedList<Integer>> coarse = () -> new SynchronizedLinkedList<>(
+                listCreator.createLinkedList(TypeLinkedList.DOUBLE_LINKED_LIST_WITH_TAIL));
+
+        // Warmup
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runConcurrent(TypeLinkedList.LOCK_FREE_LINKED_LIST.name(), lockFree.get(), 2, CONCURRENT_OPERATIONS / 10);
+            runConcurrent(synchronizedType, coarse.get(), 2, CONCURRENT_OPERATIONS / 10);
+        }
+
+        List<ConcurrentResult> results = new ArrayList<>();
+        for (int threads : threadCounts) {
+            results.add(runConcurrent(TypeLinkedList.LOCK_FREE_LINKED_LIST.name(), lockFree.get(), threads,
+                    CONCURRENT_OPERATIONS));
+            results.add(runConcurrent(synchronizedType, coarse.get(), threads, CONCURRENT_OPERATIONS));
+        }
+        return results;
+    }
+
+    /**
+     * Run the mix of operations on a shared list from several threads
+     *
+     * @param listType The name of the list type
+     * @param list The shared list
+     * @param threads The number of threads
+     * @param operations The total number of operations
+     * @return The concurrent benchmark result
+     * @throws InterruptedException If the benchmark is interrupted
+     */
+    private ConcurrentResult runConcurrent(String listType, LinkedList<Integer> list, int threads, int operations)
+            throws InterruptedException {
+        for (int i = 0; i < CONCURRENT_SIZE; i++) {
+            list.pushBack(i);
+        }
+
+        int rounds = operations / 3 / threads;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int first = CONCURRENT_SIZE + t * rounds;
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < rounds; i++) {
+                    list.pushBack(first + i);
+                    list.find(random.nextInt(CONCURRENT_SIZE));
+                    list.erase(first + i);
+                }
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long endTime = System.nanoTime();
+
+        return new ConcurrentResult(listType, threads, rounds * 3 * threads, (endTime - startTime) / 1_000_000.0);
+    }
+
+    /**
+     * Print concurrent benchmark results to console
+     *
+     * @param results The concurrent benchmark results to print
+     */
+    public void printConcurrentResults(List<ConcurrentResult> results) {
+        System.out.printf("\nConcurrent Benchmark Results (%d elements, pushBack + find + erase):\n", CONCURRENT_SIZE);
+        System.out.println("--------------------------------------------------------------------------------");
+        System.out.printf("%-45s | %-8s | %-15s | %-15s\n", "List Type", "Threads", "Total Time (ms)", "Ops/s");
+        System.out.println("--------------------------------------------------------------------------------");
+
+        for (ConcurrentResult result : results) {
+            System.out.printf(Locale.US, "%-45s | %-8d | %-15.3f | %-15.0f\n",
+                    result.getListType(),
+                    result.getThreads(),
+                    result.getTotalTimeMs(),
+                    result.getOpsPerSecond());
+        }
+    }
+
     /**
      * Find the fastest implementation for each operation
      *
@@ -476,6 +987,72 @@ public class Benchmark {
         return sb.toString();
     }
 
+    /**
+     * Find for each operation the smallest data size from which a list type is faster than
+     * a reference type, and whether it stays faster at the larger sizes
+     *
+     * @param results The benchmark results, with both list types
+     * @param candidate The list type compared
+     * @param reference The list type it is compared with
+     * @return A string with the crossover point of each operation
+     */
+    public String findCrossovers(List<Result> results, TypeLinkedList candidate, TypeLinkedList reference) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("\nCrossover of %s against %s:\n", candidate, reference));
+        sb.append("--------------------------------------------------\n");
+
+        List<String> operations = new ArrayList<>();
+        for (Result result : results) {
+            if (!operations.contains(result.getOperation())) {
+                operations.add(result.getOperation());
+            }
+        }
+
+        for (String operation : operations) {
+            int crossover = -1;
+            boolean compared = false;
+            for (int size : DATA_SIZES) {
+                Result candidateResult = findResult(results, candidate, operation, size);
+                Result referenceResult = findResult(results, reference, operation, size);
+                if (candidateResult == null || referenceResult == null) {
+                    continue;
+                }
+                compared = true;
+                if (candidateResult.getAvgTimeNs() < referenceResult.getAvgTimeNs()) {
+                    if (crossover < 0) {
+                        crossover = size;
+                    }
+                } else {
+                    crossover = -1;
+                }
+            }
+
+            if (!compared) {
+                continue;
+            }
+            if (crossover < 0) {
+                sb.append(String.format("%-15s: slower at the largest size\n", operation));
+            } else if (crossover == DATA_SIZES[0]) {
+                sb.append(String.format("%-15s: faster at every size, from %d elements or fewer\n", operation,
+                        crossover));
+            } else {
+                sb.append(String.format("%-15s: faster from %d elements\n", operation, crossover));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private Result findResult(List<Result> results, TypeLinkedList type, String operation, int size) {
+        for (Result result : results) {
+            if (result.getListType().equals(type.name()) && result.getOperation().equals(operation)
+                    && result.getTestSize() == size) {
+                return result;
+            }
+        }
+        return null;
+    }
+
     /**
      * Class to store benchmark results
      */
@@ -485,6 +1062,16 @@ public class Benchmark {
         private final double totalTimeMs;
         private final double avgTimeNs;
         private final int testSize;
+        private final boolean latencies;
+        private final long p50Ns;
+        private final long p90Ns;
+        private final long p99Ns;
+        private final long p999Ns;
+        private final long maxNs;
+        private final boolean memory;
+        private final double bytesPerElement;
+        private final double allocatedBytesPerOp;
+        private final long gcEvents;
 
         /**
          * Constructor for Result
@@ -501,6 +1088,63 @@ public class Benchmark {
             this.totalTimeMs = totalTimeMs;
             this.avgTimeNs = avgTimeNs;
             this.testSize = testSize;
+            this.latencies = false;
+            this.p50Ns = 0;
+            this.p90Ns = 0;
+            this.p99Ns = 0;
+            this.p999Ns = 0;
+            this.maxNs = 0;
+            this.memory = false;
+            this.bytesPerElement = 0;
+            this.allocatedBytesPerOp = 0;
+            this.gcEvents = 0;
+        }
+
+        /**
+         * Constructor for Result with the latencies of each operation
+         *
+         * @param listType The type of LinkedList
+         * @param operation The operation being benchmarked
+         * @param testSize The size of the test data
+         * @param histogram The latencies of the operations
+         */
+        public Result(String listType, String operation, int testSize, LatencyHistogram histogram) {
+            this(listType, operation, testSize, histogram, false, 0, 0, 0);
+        }
+
+        /**
+         * Constructor for Result with the latencies and the memory measurements of the operations
+         *
+         * @param listType The type of LinkedList
+         * @param operation The operation being benchmarked
+         * @param testSize The size of the test data
+         * @param histogram The latencies of the operations
+         * @param bytesPerElement The heap retained per element by the list type
+         * @param allocatedBytesPerOp The bytes allocated per operation
+         * @param gcEvents The garbage collections during the operations
+         */
+        public Result(String listType, String operation, int testSize, LatencyHistogram histogram,
+                      double bytesPerElement, double allocatedBytesPerOp, long gcEvents) {
+            this(listType, operation, testSize, histogram, true, bytesPerElement, allocatedBytesPerOp, gcEvents);
+        }
+
+        private Result(String listType, String operation, int testSize, LatencyHistogram histogram, boolean memory,
+                       double bytesPerElement, double allocatedBytesPerOp, long gcEvents) {
+            this.listType = listType;
+            this.operation = operation;
+            this.totalTimeMs = histogram.getTotalNs() / 1_000_000.0;
+            this.avgTimeNs = histogram.getMeanNs();
+            this.testSize = testSize;
+            this.latencies = true;
+            this.p50Ns = histogram.getValueAtPercentile(50);
+            this.p90Ns = histogram.getValueAtPercentile(90);
+            this.p99Ns = histogram.getValueAtPercentile(99);
+            this.p999Ns = histogram.getValueAtPercentile(99.9);
+            this.maxNs = histogram.getMaxNs();
+            this.memory = memory;
+            this.bytesPerElement = bytesPerElement;
+            this.allocatedBytesPerOp = allocatedBytesPerOp;
+            this.gcEvents = gcEvents;
         }
 
         /**
@@ -548,6 +1192,96 @@ public class Benchmark {
             return testSize;
         }
 
+        /**
+         * Check if the latency of each operation was recorded
+         *
+         * @return true if the result has latency percentiles, false otherwise
+         */
+        public boolean hasLatencies() {
+            return latencies;
+        }
+
+        /**
+         * Get the median latency
+         *
+         * @return The 50th percentile in nanoseconds, 0 without latencies
+         */
+        public long getP50Ns() {
+            return p50Ns;
+        }
+
+        /**
+         * Get the 90th percentile of the latencies
+         *
+         * @return The 90th percentile in nanoseconds, 0 without latencies
+         */
+        public long getP90Ns() {
+            return p90Ns;
+        }
+
+        /**
+         * Get the 99th percentile of the latencies
+         *
+         * @return The 99th percentile in nanoseconds, 0 without latencies
+         */
+        public long getP99Ns() {
+            return p99Ns;
+        }
+
+        /**
+         * Get the 99.9th percentile of the latencies
+         *
+         * @return The 99.9th percentile in nanoseconds, 0 without latencies
+         */
+        public long getP999Ns() {
+            return p999Ns;
+        }
+
+        /**
+         * Get the largest latency
+         *
+         * @return The largest latency in nanoseconds, 0 without latencies
+         */
+        public long getMaxNs() {
+            return maxNs;
+        }
+
+        /**
+         * Check if the memory of the operations was measured
+         *
+         * @return true if the result has memory measurements, false otherwise
+         */
+        public boolean hasMemory() {
+            return memory;
+        }
+
+        /**
+         * Get the heap retained per element by the list type
+         *
+         * @return The retained bytes per element, 0 without memory measurements
+         */
+        public double getBytesPerElement() {
+            return bytesPerElement;
+        }
+
+        /**
+         * Get the bytes allocated per operation by the benchmark thread
+         *
+         * @return The allocated bytes per operation, 0 without memory measurements
+         */
+        public double getAllocatedBytesPerOp() {
+            return allocatedBytesPerOp;
+        }
+
+        /**
+         * Get the number of garbage collections during the operations
+         *
+         * @return The garbage collections, 0 without memory measurements
+         */
+        public long getGcEvents() {
+            return gcEvents;
+        }
+
         @Override
         public String toString() {
             // Use US locale to ensure decimal points (not commas) are used
@@ -555,4 +1289,96 @@ public class Benchmark {
                     listType, operation, testSize, totalTimeMs, avgTimeNs);
         }
     }
+
+    /**
+     * Class to store the result of a concurrent benchmark
+     */
+    public static class ConcurrentResult {
+        private final String listType;
+        private final int threads;
+        private final int operations;
+        private final double totalTimeMs;
+
+        /**
+         * Constructor for ConcurrentResult
+         *
+         * @param listType The type of LinkedList
+         * @param threads The number of threads sharing the list
+         * @param operations The total number of operations of all threads
+         * @param totalTimeMs The total time in milliseconds
+         */
+        public ConcurrentResult(String listType, int threads, int operations, double totalTimeMs) {
+            this.listType = listType;
+            this.threads = threads;
+            this.operations = operations;
+            this.totalTimeMs = totalTimeMs;
+        }
+
+        /**
+         * Get the type of LinkedList
+         *
+         * @return The type of LinkedList
+         */
+        public String getListType() {
+            return listType;
+        }
+
+        /**
+         * Get the number of threads
+         *
+         * @return The number of threads
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Get the total number of operations
+         *
+         * @return The number of operations
+         */
+        public int getOperations() {
+            return operations;
+        }
+
+        /**
+         * Get the total time
+         *
+         * @return The total time in milliseconds
+         */
+        public double getTotalTimeMs() {
+            return totalTimeMs;
+        }
+
+        /**
+         * Get the throughput of all threads
+         *
+         * @return The operations per second
+         */
+        public double getOpsPerSecond() {
+            return operations / (totalTimeMs / 1000);
+        }
+    }
+
+    /**
+     * The list and the values of an operation prepared for a measured run
+     */
+    private static class OperationRun {
+        private final String operation;
+        private final LinkedList<Integer> list;
+        private final Integer[] values;
+        private final Integer[] targets;
+        private final Integer[] added;
+        private final Node<Integer> middle;
+
+        private OperationRun(String operation, LinkedList<Integer> list, Integer[] values, Integer[] targets,
+                             Integer[] added, Node<Integer> middle) {
+            this.operation = operation;
+            this.list = list;
+            this.values = values;
+            this.targets = targets;
+            this.added = added;
+            this.middle = middle;
+        }
+    }
 }
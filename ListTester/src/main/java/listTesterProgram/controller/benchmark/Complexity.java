@@ -0,0 +1,89 @@
+package listTesterProgram.controller.benchmark;
+
+import java.util.Locale;
+
+/**
+ * Growth models of the time of an operation with the size of the list
+ */
+public enum Complexity {
+    CONSTANT("O(1)", 0),
+    LOGARITHMIC("O(log n)", 0),
+    LINEAR("O(n)", 1),
+    QUADRATIC("O(n^2)", 2);
+
+    private final String notation;
+    private final int degree;
+
+    Complexity(String notation, int degree) {
+        this.notation = notation;
+        this.degree = degree;
+    }
+
+    /**
+     * Get the big O notation of the model
+     *
+     * @return The notation, as O(n)
+     */
+    public String getNotation() {
+        return notation;
+    }
+
+    /**
+     * Get the degree of the polynomial bounding the model, 0 for O(1) and O(log n)
+     *
+     * @return The degree of the model
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Get the growth of the model at a size, up to a constant factor
+     *
+     * @param n The size of the list, at least 2
+     * @return The growth at n
+     */
+    public double growth(double n) {
+        switch (this) {
+            case CONSTANT:
+                return 1;
+            case LOGARITHMIC:
+                return Math.log(n);
+            case LINEAR:
+                return n;
+            default:
+                return n * n;
+        }
+    }
+
+    /**
+     * Parse a big O notation as written in the Javadoc of the lists, like O(1) or O(N).
+     * O(capacity) is constant since the capacity does not grow with the list.
+     *
+     * @param notation The notation
+     * @return The model, null if the notation is not one of the models
+     */
+    public static Complexity parse(String notation) {
+        String normalized = notation.replaceAll("\\s", "").toLowerCase(Locale.ROOT);
+        switch (normalized) {
+            case "o(1)":
+            case "o(capacity)":
+                return CONSTANT;
+            case "o(logn)":
+                return LOGARITHMIC;
+            case "o(n)":
+                return LINEAR;
+            case "o(n^2)":
+            case "o(n²)":
+            case "o(n*n)":
+                return QUADRATIC;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return notation;
+    }
+}
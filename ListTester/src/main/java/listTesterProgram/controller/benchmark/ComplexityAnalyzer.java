@@ -0,0 +1,398 @@
+package listTesterProgram.controller.benchmark;
+
+import listTesterProgram.controller.benchmark.Benchmark.Result;
+import listTesterProgram.model.concrete.TypeIntLinkedList;
+import listTesterProgram.model.concrete.TypeLinkedList;
+import listTesterProgram.model.creators.ListCreator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimates the complexity of every operation of every list type from the average times of
+ * benchmark results across the data sizes, and checks it against the complexity documented in
+ * the Javadoc of the list class and against the results of a baseline run. Each growth model
+ * is fitted to the times by least squares on their logarithms, time = c * growth(n), and the
+ * model with the smallest error is kept.
+ * An operation regresses when its model has a higher polynomial degree than the expected one:
+ * over the data sizes, the cache misses of a large list make constant time operations grow
+ * like a logarithm, so O(log n) is not a regression of O(1).
+ */
+public class ComplexityAnalyzer {
+
+    public static final String DEFAULT_BASELINE = "results/baseline_results.csv";
+    private static final String DEFAULT_SOURCE_ROOT = "src/main/java";
+    private static final int MIN_POINTS = 3;
+    private static final Pattern DOCUMENTED = Pattern.compile("Complexity:\\s*(O\\([^)]*\\))");
+
+    private final String sourceRoot;
+    private final ListCreator listCreator;
+    private final Map<Class<?>, String> sources;
+
+    /**
+     * Constructor for ComplexityAnalyzer
+     * Reads the Javadoc from the sources under src/main/java, relative to the working directory
+     */
+    public ComplexityAnalyzer() {
+        this(DEFAULT_SOURCE_ROOT);
+    }
+
+    /**
+     * Constructor for ComplexityAnalyzer
+     *
+     * @param sourceRoot The directory holding the sources of the list classes
+     */
+    public ComplexityAnalyzer(String sourceRoot) {
+        this.sourceRoot = sourceRoot;
+        this.listCreator = new ListCreator();
+        this.sources = new HashMap<>();
+    }
+
+    /**
+     * Fit the growth models to the times of an operation and keep the best one
+     * Complexity: O(P), for P points
+     *
+     * @param sizes The data sizes, at least 2 each
+     * @param timesNs The average time of the operation at each size, positive
+     * @return The model with the smallest error, the simplest one on a tie
+     */
+    public static Complexity fit(int[] sizes, double[] timesNs) {
+        Complexity best = Complexity.CONSTANT;
+        double bestError = Double.MAX_VALUE;
+        for (Complexity model : Complexity.values()) {
+            // ln(time) - ln(growth) is ln(c) plus the error of the point
+            double[] residuals = new double[sizes.length];
+            double mean = 0;
+            for (int i = 0; i < sizes.length; i++) {
+                residuals[i] = Math.log(timesNs[i]) - Math.log(model.growth(sizes[i]));
+                mean += residuals[i] / sizes.length;
+            }
+            double error = 0;
+            for (double residual : residuals) {
+                error += (residual - mean) * (residual - mean);
+            }
+            if (error < bestError) {
+                best = model;
+                bestError = error;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Estimate the complexity of every list type and operation of the results, with at least
+     * three data sizes, and compare it with the Javadoc and the baseline
+     *
+     * @param results The benchmark results to analyze
+     * @param baseline The benchmark results of the baseline run, empty for none
+     * @return One finding per list type and operation
+     */
+    public List<Finding> analyze(List<Result> results, List<Result> baseline) {
+        List<String> listTypes = new ArrayList<>();
+        List<String> operations = new ArrayList<>();
+        for (Result result : results) {
+            if (!listTypes.contains(result.getListType())) {
+                listTypes.add(result.getListType());
+            }
+            if (!operations.contains(result.getOperation())) {
+                operations.add(result.getOperation());
+            }
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        for (String listType : listTypes) {
+            for (String operation : operations) {
+                Complexity fitted = fitResults(results, listType, operation);
+                if (fitted == null) {
+                    continue;
+                }
+                findings.add(new Finding(listType, operation, fitted, documentedComplexity(listType, operation),
+                        fitResults(baseline, listType, operation)));
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * Fit the results of a list type and operation, sorted by data size
+     *
+     * @return The fitted model, null with fewer than three sizes
+     */
+    private static Complexity fitResults(List<Result> results, String listType, String operation) {
+        List<Result> points = new ArrayList<>();
+        for (Result result : results) {
+            // The times of 0 are results of a failed benchmark
+            if (result.getListType().equals(listType) && result.getOperation().equals(operation)
+                    && result.getAvgTimeNs() > 0 && result.getTestSize() > 1) {
+                points.add(result);
+            }
+        }
+        if (points.size() < MIN_POINTS) {
+            return null;
+        }
+        points.sort((a, b) -> Integer.compare(a.getTestSize(), b.getTestSize()));
+
+        int[] sizes = new int[points.size()];
+        double[] timesNs = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            sizes[i] = points.get(i).getTestSize();
+            timesNs[i] = points.get(i).getAvgTimeNs();
+        }
+        return fit(sizes, timesNs);
+    }
+
+    /**
+     * Read the complexity of an operation in the Javadoc of the class of a list type, from the
+     * first "Complexity:" line of the comment of the method
+     *
+     * @param listType The name of a TypeLinkedList or TypeIntLinkedList
+     * @param operation The name of the method
+     * @return The documented model, null if the source, the method or the line is not found
+     */
+    public Complexity documentedComplexity(String listType, String operation) {
+        Class<?> listClass = implementationOf(listType);
+        if (listClass == null) {
+            return null;
+        }
+        String source = sourceOf(listClass);
+        if (source == null) {
+            return null;
+        }
+
+        Matcher method = Pattern.compile("(?m)^\\s*public\\s+[\\w<>\\[\\], ?]+\\s+" + Pattern.quote(operation)
+                + "\\s*\\(").matcher(source);
+        if (!method.find()) {
+            return null;
+        }
+        int commentEnd = source.lastIndexOf("*/", method.start());
+        int commentStart = source.lastIndexOf("/**", method.start());
+        // Only annotations may stand between the comment and the method
+        if (commentStart < 0 || commentEnd < commentStart
+                || !source.substring(commentEnd + 2, method.start()).trim().matches("(@\\w+\\s*)*")) {
+            return null;
+        }
+        Matcher documented = DOCUMENTED.matcher(source.substring(commentStart, commentEnd));
+        return documented.find() ? Complexity.parse(documented.group(1)) : null;
+    }
+
+    private Class<?> implementationOf(String listType) {
+        for (TypeLinkedList type : TypeLinkedList.values()) {
+            if (type.name().equals(listType)) {
+                return listCreator.createLinkedList(type).getClass();
+            }
+        }
+        for (TypeIntLinkedList type : TypeIntLinkedList.values()) {
+            if (type.name().equals(listType)) {
+                return listCreator.createIntLinkedList(type).getClass();
+            }
+        }
+        return null;
+    }
+
+    private String sourceOf(Class<?> listClass) {
+        if (!sources.containsKey(listClass)) {
+            File file = new File(sourceRoot, listClass.getName().replace('.', File.separatorChar) + ".java");
+            String source = null;
+            try {
+                source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                // Without the sources, the operations are compared with the baseline only
+            }
+            sources.put(listClass, source);
+        }
+        return sources.get(listClass);
+    }
+
+    /**
+     * Check if some operation regressed
+     *
+     * @param findings The findings of analyze
+     * @return true if a finding is a regression, false otherwise
+     */
+    public static boolean hasRegressions(List<Finding> findings) {
+        for (Finding finding : findings) {
+            if (finding.isRegression()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Format the findings as a table, with the regressions marked
+     *
+     * @param findings The findings of analyze
+     * @return A string with one line per finding
+     */
+    public String formatReport(List<Finding> findings) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\nEstimated Complexity:\n");
+        sb.append("------------------------------------------------------------------------------------------\n");
+        sb.append(String.format("%-32s | %-10s | %-9s | %-10s | %-9s | %s\n", "List Type", "Operation", "Fitted",
+                "Documented", "Baseline", "Status"));
+        sb.append("------------------------------------------------------------------------------------------\n");
+
+        int regressions = 0;
+        for (Finding finding : findings) {
+            String status = "ok";
+            if (finding.isDocumentedRegression() && finding.isBaselineRegression()) {
+                status = "REGRESSION against the Javadoc and the baseline";
+            } else if (finding.isDocumentedRegression()) {
+                status = "REGRESSION against the Javadoc";
+            } else if (finding.isBaselineRegression()) {
+                status = "REGRESSION against the baseline";
+            }
+            if (finding.isRegression()) {
+                regressions++;
+            }
+            sb.append(String.format("%-32s | %-10s | %-9s | %-10s | %-9s | %s\n", finding.getListType(),
+                    finding.getOperation(), finding.getFitted(), orNone(finding.getDocumented()),
+                    orNone(finding.getBaseline()), status));
+        }
+        sb.append(String.format("\n%d regression(s) in %d operations\n", regressions, findings.size()));
+        return sb.toString();
+    }
+
+    private static String orNone(Complexity complexity) {
+        return complexity == null ? "-" : complexity.toString();
+    }
+
+    /**
+     * Check the complexity of the operations, exiting with status 1 on a regression and 2 if a
+     * file cannot be read.
+     * Arguments: the baseline CSV, results/baseline_results.csv by default and skipped when
+     * missing, then the CSV of the results to check, the benchmarks are run without it.
+     *
+     * @param args The command line arguments
+     */
+    public static void main(String[] args) {
+        String baselinePath = args.length > 0 ? args[0] : DEFAULT_BASELINE;
+        Benchmark benchmark = new Benchmark();
+        try {
+            List<Result> results = args.length > 1 ? benchmark.importFromCSV(args[1]) : benchmark.runBenchmarks();
+            List<Result> baseline = new ArrayList<>();
+            if (new File(baselinePath).exists()) {
+                baseline = benchmark.importFromCSV(baselinePath);
+            } else {
+                System.out.println("No baseline at " + baselinePath + ", comparing with the Javadoc only");
+            }
+
+            ComplexityAnalyzer analyzer = new ComplexityAnalyzer();
+            List<Finding> findings = analyzer.analyze(results, baseline);
+            System.out.print(analyzer.formatReport(findings));
+            System.exit(hasRegressions(findings) ? 1 : 0);
+        } catch (IOException e) {
+            System.err.println("Error reading benchmark results: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Class to store the estimated complexity of an operation of a list type
+     */
+    public static class Finding {
+        private final String listType;
+        private final String operation;
+        private final Complexity fitted;
+        private final Complexity documented;
+        private final Complexity baseline;
+
+        /**
+         * Constructor for Finding
+         *
+         * @param listType The type of list
+         * @param operation The operation
+         * @param fitted The complexity fitted to the results
+         * @param documented The complexity in the Javadoc, null if not found
+         * @param baseline The complexity fitted to the baseline, null without baseline
+         */
+        public Finding(String listType, String operation, Complexity fitted, Complexity documented,
+                       Complexity baseline) {
+            this.listType = listType;
+            this.operation = operation;
+            this.fitted = fitted;
+            this.documented = documented;
+            this.baseline = baseline;
+        }
+
+        /**
+         * Get the type of list
+         *
+         * @return The type of list
+         */
+        public String getListType() {
+            return listType;
+        }
+
+        /**
+         * Get the operation
+         *
+         * @return The operation
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * Get the complexity fitted to the results
+         *
+         * @return The fitted complexity
+         */
+        public Complexity getFitted() {
+            return fitted;
+        }
+
+        /**
+         * Get the complexity in the Javadoc
+         *
+         * @return The documented complexity, null if not found
+         */
+        public Complexity getDocumented() {
+            return documented;
+        }
+
+        /**
+         * Get the complexity fitted to the baseline
+         *
+         * @return The baseline complexity, null without baseline
+         */
+        public Complexity getBaseline() {
+            return baseline;
+        }
+
+        /**
+         * Check if the operation grows faster than documented
+         *
+         * @return true if the fitted degree is above the documented one, false otherwise
+         */
+        public boolean isDocumentedRegression() {
+            return documented != null && fitted.getDegree() > documented.getDegree();
+        }
+
+        /**
+         * Check if the operation grows faster than in the baseline
+         *
+         * @return true if the fitted degree is above the baseline one, false otherwise
+         */
+        public boolean isBaselineRegression() {
+            return baseline != null && fitted.getDegree() > baseline.getDegree();
+        }
+
+        /**
+         * Check if the operation regressed against the Javadoc or the baseline
+         *
+         * @return true if the operation regressed, false otherwise
+         */
+        public boolean isRegression() {
+            return isDocumentedRegression() || isBaselineRegression();
+        }
+    }
+}
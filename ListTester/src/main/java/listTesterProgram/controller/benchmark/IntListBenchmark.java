@@ -0,0 +1,239 @@
+package listTesterProgram.controller.benchmark;
+
+import listTesterProgram.model.abstractModels.IntLinkedList;
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.concrete.TypeIntLinkedList;
+import listTesterProgram.model.concrete.TypeLinkedList;
+import listTesterProgram.model.creators.ListCreator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Benchmark of the int-specialized lists, with the operations, data sizes and iterations of
+ * Benchmark so the results can be compared with the generic lists, and a measure of the
+ * heap taken per element by every list type
+ */
+public class IntListBenchmark {
+
+    private static final int BENCHMARK_ITERATIONS = 10;
+    private static final int FOOTPRINT_SIZE = 1_000_000;
+    private static final String[] OPERATIONS = {"pushFront", "pushBack", "popFront", "popBack", "find", "erase",
+            "addAfter", "addBefore"};
+
+    private final ListCreator listCreator;
+
+    /**
+     * Constructor for IntListBenchmark
+     */
+    public IntListBenchmark() {
+        this.listCreator = new ListCreator();
+    }
+
+    /**
+     * Run benchmarks for all operations with the data sizes of Benchmark on every int list type
+     *
+     * @return A list of benchmark results
+     */
+    public List<Benchmark.Result> runBenchmarks() {
+        List<Benchmark.Result> results = new ArrayList<>();
+        for (TypeIntLinkedList type : TypeIntLinkedList.values()) {
+            for (int size : Benchmark.DATA_SIZES) {
+                for (String operation : OPERATIONS) {
+                    results.add(benchmark(type, operation, size));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Benchmark one operation on a new list, like the methods of Benchmark do. The values
+     * searched are drawn before the timed loop.
+     *
+     * @param type The type of int list
+     * @param operation The operation to benchmark
+     * @param size The size of data to benchmark
+     * @return The benchmark result
+     */
+    private Benchmark.Result benchmark(TypeIntLinkedList type, String operation, int size) {
+        IntLinkedList list = listCreator.createIntLinkedList(type);
+        boolean pushes = operation.equals("pushFront") || operation.equals("pushBack");
+        if (!pushes) {
+            for (int i = 0; i < size; i++) {
+                list.pushBack(i);
+            }
+        }
+        int operations = pushes ? BENCHMARK_ITERATIONS * size
+                : operation.startsWith("pop") ? size : Math.max(1, size / 10);
+        int[] targets = new int[operations];
+        Random random = new Random(42);
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = random.nextInt(size);
+        }
+        int node = pushes || operation.startsWith("pop") ? -1 : list.find(size / 2);
+
+        long startTime = System.nanoTime();
+        switch (operation) {
+            case "pushFront":
+                for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                    for (int j = 0; j < size; j++) {
+                        list.pushFront(j);
+                    }
+                    clearList(list);
+                }
+                break;
+            case "pushBack":
+                for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                    for (int j = 0; j < size; j++) {
+                        list.pushBack(j);
+                    }
+                    clearList(list);
+                }
+                break;
+            case "popFront":
+                for (int i = 0; i < operations; i++) {
+                    list.popFront();
+                }
+                break;
+            case "popBack":
+                for (int i = 0; i < operations; i++) {
+                    list.popBack();
+                }
+                break;
+            case "find":
+                for (int i = 0; i < operations; i++) {
+                    list.find(targets[i]);
+                }
+                break;
+            case "erase":
+                // Erased values are not found again, like in Benchmark
+                for (int i = 0; i < operations; i++) {
+                    try {
+                        list.erase(targets[i]);
+                    } catch (RuntimeException e) {
+                        // Value erased before
+                    }
+                }
+                break;
+            case "addAfter":
+                for (int i = 0; i < operations; i++) {
+                    list.addAfter(node, size + i);
+                }
+                break;
+            case "addBefore":
+                for (int i = 0; i < operations; i++) {
+                    list.addBefore(node, size + i);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+        long endTime = System.nanoTime();
+        double timeInMs = (endTime - startTime) / 1_000_000.0;
+        return new Benchmark.Result(type.name(), operation, timeInMs, timeInMs / operations * 1_000_000, size);
+    }
+
+    /**
+     * Measure the heap retained per element by every generic and int list type, after
+     * pushing 1,000,000 values to the front, which takes constant time in every type. The
+     * generic lists hold boxed Integers.
+     *
+     * @return One footprint per list type
+     */
+    public List<Footprint> measureFootprints() {
+        List<Footprint> footprints = new ArrayList<>();
+        for (TypeLinkedList type : TypeLinkedList.values()) {
+            long before = Benchmark.usedHeap();
+            LinkedList<Integer> list = listCreator.createLinkedList(type);
+            for (int i = 0; i < FOOTPRINT_SIZE; i++) {
+                list.pushFront(i);
+            }
+            footprints.add(new Footprint(type.name(), (double) (Benchmark.usedHeap() - before) / FOOTPRINT_SIZE));
+            // Keeps the list reachable until it is measured
+            list.pushFront(0);
+        }
+        for (TypeIntLinkedList type : TypeIntLinkedList.values()) {
+            long before = Benchmark.usedHeap();
+            IntLinkedList list = listCreator.createIntLinkedList(type);
+            for (int i = 0; i < FOOTPRINT_SIZE; i++) {
+                list.pushFront(i);
+            }
+            footprints.add(new Footprint(type.name(), (double) (Benchmark.usedHeap() - before) / FOOTPRINT_SIZE));
+            list.pushFront(0);
+        }
+        return footprints;
+    }
+
+    /**
+     * Print the operations per second at the largest data size and the bytes per element
+     *
+     * @param results The benchmark results of the generic and int lists
+     * @param footprints The footprints to print
+     */
+    public void printComparison(List<Benchmark.Result> results, List<Footprint> footprints) {
+        int largest = Benchmark.DATA_SIZES[Benchmark.DATA_SIZES.length - 1];
+        System.out.printf("\nOperations per second with %d elements:\n", largest);
+        System.out.println("----------------------------------------------------------------------");
+        System.out.printf("%-35s | %-15s | %-15s\n", "List Type", "Operation", "Ops/s");
+        System.out.println("----------------------------------------------------------------------");
+        for (String operation : OPERATIONS) {
+            for (Benchmark.Result result : results) {
+                if (result.getTestSize() == largest && result.getOperation().equals(operation)) {
+                    System.out.printf(Locale.US, "%-35s | %-15s | %-15.0f\n", result.getListType(), operation,
+                            1_000_000_000.0 / result.getAvgTimeNs());
+                }
+            }
+        }
+        System.out.printf("\nHeap per element with %d elements:\n", FOOTPRINT_SIZE);
+        System.out.println("----------------------------------------------------------------------");
+        for (Footprint footprint : footprints) {
+            System.out.printf(Locale.US, "%-35s | %.1f bytes\n", footprint.getListType(), footprint.getBytesPerElement());
+        }
+    }
+
+    private void clearList(IntLinkedList list) {
+        while (!list.isEmpty()) {
+            list.popFront();
+        }
+    }
+
+    /**
+     * Class to store the heap retained per element by a list type
+     */
+    public static class Footprint {
+        private final String listType;
+        private final double bytesPerElement;
+
+        /**
+         * Constructor for Footprint
+         *
+         * @param listType The type of list
+         * @param bytesPerElement The heap retained per element in bytes
+         */
+        public Footprint(String listType, double bytesPerElement) {
+            this.listType = listType;
+            this.bytesPerElement = bytesPerElement;
+        }
+
+        /**
+         * Get the type of list
+         *
+         * @return The type of list
+         */
+        public String getListType() {
+            return listType;
+        }
+
+        /**
+         * Get the heap retained per element
+         *
+         * @return The bytes per element
+         */
+        public double getBytesPerElement() {
+            return bytesPerElement;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package listTesterProgram.controller.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of latencies in nanoseconds with log-scaled buckets, in the manner of HdrHistogram.
+ * Values below 128 have a bucket each; above, every power of two is split into 64 linear
+ * buckets, so a value is known within 1/64 of itself. The counts are allocated once, so
+ * recording a value allocates nothing and takes constant time.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    // Enough buckets for every positive long
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final long[] counts;
+    private long totalCount;
+    private long totalNs;
+    private long maxNs;
+
+    /**
+     * Constructor for LatencyHistogram
+     * Initializes an empty histogram
+     */
+    public LatencyHistogram() {
+        this.counts = new long[BUCKETS];
+    }
+
+    /**
+     * Record one latency, negative latencies are counted as 0
+     * Complexity: O(1)
+     *
+     * @param latencyNs The latency in nanoseconds
+     */
+    public void record(long latencyNs) {
+        long value = Math.max(0, latencyNs);
+        counts[indexOf(value)]++;
+        totalCount++;
+        totalNs += value;
+        if (value > maxNs) {
+            maxNs = value;
+        }
+    }
+
+    /**
+     * Remove every recorded latency
+     * Complexity: O(1), the number of buckets is fixed
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalNs = 0;
+        maxNs = 0;
+    }
+
+    /**
+     * Get the latency under which a percentage of the recorded latencies are, as the highest
+     * value of its bucket and never above the largest latency recorded
+     * Complexity: O(1), the number of buckets is fixed
+     *
+     * @param percentile The percentage, from 0 to 100
+     * @return The latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * totalCount));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return Math.min(maxNs, highestValueOf(index));
+            }
+        }
+        return maxNs;
+    }
+
+    /**
+     * Get the number of recorded latencies
+     *
+     * @return The number of latencies
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Get the sum of the recorded latencies
+     *
+     * @return The total time in nanoseconds
+     */
+    public long getTotalNs() {
+        return totalNs;
+    }
+
+    /**
+     * Get the mean of the recorded latencies
+     *
+     * @return The mean latency in nanoseconds, 0 if nothing was recorded
+     */
+    public double getMeanNs() {
+        return totalCount == 0 ? 0 : (double) totalNs / totalCount;
+    }
+
+    /**
+     * Get the largest recorded latency
+     *
+     * @return The largest latency in nanoseconds
+     */
+    public long getMaxNs() {
+        return maxNs;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // Shift bringing the value between HALF_SUB_BUCKETS and SUB_BUCKETS - 1
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
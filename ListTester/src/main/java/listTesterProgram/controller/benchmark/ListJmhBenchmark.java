@@ -0,0 +1,199 @@
+package listTesterProgram.controller.benchmark;
+
+import listTesterProgram.controller.benchmark.Benchmark.Result;
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.concrete.Node;
+import listTesterProgram.model.concrete.TypeLinkedList;
+import listTesterProgram.model.creators.ListCreator;
+import org.openjdk.jmh.annotations.*;
+// Imported by name, the Benchmark class of this package would hide it
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the operations of every LinkedList implementation with the data sizes of
+ * Benchmark. Every invocation runs a batch of one operation on a list built before it, out of
+ * the measured time: the pushes add dataSize values to an empty list, the pops empty a list of
+ * dataSize values, and find, erase, addAfter and addBefore run dataSize / 10 times on a full
+ * list. The values searched and erased are distinct and drawn once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ListJmhBenchmark {
+
+    // Every list type when no values are given
+    @Param
+    private TypeLinkedList listType;
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int dataSize;
+
+    private final ListCreator listCreator = new ListCreator();
+    private Integer[] values;
+    private Integer[] targets;
+    private Integer[] added;
+    private LinkedList<Integer> list;
+    private Node<Integer> middle;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        values = new Integer[dataSize];
+        List<Integer> shuffled = new ArrayList<>();
+        for (int i = 0; i < dataSize; i++) {
+            values[i] = i;
+            shuffled.add(i);
+        }
+        Collections.shuffle(shuffled, new Random(42));
+        targets = shuffled.subList(0, operationsPerInvocation("find", dataSize)).toArray(new Integer[0]);
+        added = new Integer[targets.length];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = dataSize + i;
+        }
+    }
+
+    /**
+     * Builds the list of the next invocation: empty for the pushes, else holding 0 to
+     * dataSize - 1 in order, pushed to the front since it takes constant time in every type
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation(BenchmarkParams params) {
+        list = listCreator.createLinkedList(listType);
+        String operation = operationOf(params.getBenchmark());
+        if (operation.startsWith("push")) {
+            return;
+        }
+        for (int i = dataSize - 1; i >= 0; i--) {
+            list.pushFront(values[i]);
+        }
+        if (operation.startsWith("add")) {
+            middle = list.find(values[dataSize / 2]);
+        }
+    }
+
+    @Benchmark
+    public void pushFront(Blackhole blackhole) {
+        for (Integer value : values) {
+            list.pushFront(value);
+        }
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void pushBack(Blackhole blackhole) {
+        for (Integer value : values) {
+            list.pushBack(value);
+        }
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void popFront(Blackhole blackhole) {
+        for (int i = 0; i < dataSize; i++) {
+            blackhole.consume(list.popFront());
+        }
+    }
+
+    @Benchmark
+    public void popBack(Blackhole blackhole) {
+        for (int i = 0; i < dataSize; i++) {
+            blackhole.consume(list.popBack());
+        }
+    }
+
+    @Benchmark
+    public void find(Blackhole blackhole) {
+        for (Integer target : targets) {
+            blackhole.consume(list.find(target));
+        }
+    }
+
+    @Benchmark
+    public void erase(Blackhole blackhole) {
+        for (Integer target : targets) {
+            list.erase(target);
+        }
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void addAfter(Blackhole blackhole) {
+        for (Integer value : added) {
+            list.addAfter(middle, value);
+        }
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void addBefore(Blackhole blackhole) {
+        for (Integer value : added) {
+            list.addBefore(middle, value);
+        }
+        blackhole.consume(list);
+    }
+
+    /**
+     * Operations run by one invocation of a benchmark method
+     *
+     * @param operation The name of the benchmark method
+     * @param dataSize The size of the list
+     * @return The number of operations per invocation
+     */
+    public static int operationsPerInvocation(String operation, int dataSize) {
+        if (operation.startsWith("push") || operation.startsWith("pop")) {
+            return dataSize;
+        }
+        return Math.max(1, dataSize / 10);
+    }
+
+    /**
+     * Run the JMH benchmarks in forked JVMs and convert their scores to the results of Benchmark
+     *
+     * @param listTypes The list types to benchmark, all when empty
+     * @param dataSizes The data sizes to benchmark, those of Benchmark when empty
+     * @return The results, with the average time of one operation
+     * @throws RunnerException If JMH fails to run the benchmarks
+     */
+    public static List<Result> run(String[] listTypes, String[] dataSizes) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(ListJmhBenchmark.class.getName() + "\\.");
+        if (listTypes.length > 0) {
+            options.param("listType", listTypes);
+        }
+        if (dataSizes.length > 0) {
+            options.param("dataSize", dataSizes);
+        }
+        Collection<RunResult> runResults = new Runner(options.build()).run();
+
+        List<Result> results = new ArrayList<>();
+        for (RunResult runResult : runResults) {
+            String operation = operationOf(runResult.getParams().getBenchmark());
+            int size = Integer.parseInt(runResult.getParams().getParam("dataSize"));
+            // Microseconds per invocation
+            double score = runResult.getPrimaryResult().getScore();
+            results.add(new Result(runResult.getParams().getParam("listType"), operation, score / 1000,
+                    score * 1000 / operationsPerInvocation(operation, size), size));
+        }
+        return results;
+    }
+
+    private static String operationOf(String benchmark) {
+        return benchmark.substring(benchmark.lastIndexOf('.') + 1);
+    }
+}
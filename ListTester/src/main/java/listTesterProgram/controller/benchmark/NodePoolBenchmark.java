@@ -0,0 +1,151 @@
+package listTesterProgram.controller.benchmark;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.concrete.DoubleLinkedLinkedListWithTail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark of the node pool of the doubly linked lists on a queue-like workload: a window of
+ * elements is kept in the list while values are pushed to the back and popped from the front.
+ * It reports the time and the bytes allocated by the benchmark thread per operation, with and
+ * without a pool. The values are boxed before the timed loop so only nodes are allocated.
+ */
+public class NodePoolBenchmark {
+
+    private static final int OPERATIONS = 20_000_000;
+    private static final int WINDOW = 1_000;
+    private static final int[] POOL_CAPACITIES = {0, 1_024};
+    private static final int WARMUP_ROUNDS = 2;
+
+    /**
+     * Run the queue workload on DoubleLinkedLinkedListWithTail for every pool capacity
+     *
+     * @return One result per pool capacity
+     */
+    public List<Result> runBenchmarks() {
+        Integer[] values = new Integer[WINDOW];
+        for (int i = 0; i < WINDOW; i++) {
+            values[i] = i;
+        }
+        List<Result> results = new ArrayList<>();
+        for (int poolCapacity : POOL_CAPACITIES) {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                run(poolCapacity, values, OPERATIONS / 10);
+            }
+            results.add(run(poolCapacity, values, OPERATIONS));
+        }
+        return results;
+    }
+
+    private Result run(int poolCapacity, Integer[] values, int operations) {
+        LinkedList<Integer> list = new DoubleLinkedLinkedListWithTail<>(poolCapacity);
+        for (Integer value : values) {
+            list.pushBack(value);
+        }
+        long allocatedBefore = Benchmark.allocatedBytes();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            list.pushBack(list.popFront());
+        }
+        long endTime = System.nanoTime();
+        long allocated = Benchmark.allocatedBytes() - allocatedBefore;
+        double timeInMs = (endTime - startTime) / 1_000_000.0;
+        return new Result(poolCapacity, timeInMs, timeInMs / operations * 1_000_000,
+                (double) allocated / operations, allocated / (timeInMs / 1000) / (1024 * 1024));
+    }
+
+    /**
+     * Print the results of the node pool benchmark
+     *
+     * @param results The results to print
+     */
+    public void printResults(List<Result> results) {
+        System.out.printf("\nQueue workload, %d pushBack and popFront pairs on %d elements:\n", OPERATIONS, WINDOW);
+        System.out.println("--------------------------------------------------------------------------------");
+        System.out.printf("%-15s | %-15s | %-15s | %-15s | %-12s\n", "Pool Capacity", "Total (ms)", "Avg (ns)",
+                "Bytes/Op", "Alloc (MB/s)");
+        System.out.println("--------------------------------------------------------------------------------");
+        for (Result result : results) {
+            System.out.printf(Locale.US, "%-15d | %-15.2f | %-15.2f | %-15.2f | %-12.1f\n", result.getPoolCapacity(),
+                    result.getTotalTimeMs(), result.getAvgTimeNs(), result.getBytesPerOperation(),
+                    result.getAllocationRateMbs());
+        }
+    }
+
+    /**
+     * Class to store the result of the queue workload with one pool capacity
+     */
+    public static class Result {
+        private final int poolCapacity;
+        private final double totalTimeMs;
+        private final double avgTimeNs;
+        private final double bytesPerOperation;
+        private final double allocationRateMbs;
+
+        /**
+         * Constructor for Result
+         *
+         * @param poolCapacity The capacity of the node pool, 0 without pool
+         * @param totalTimeMs The total time in milliseconds
+         * @param avgTimeNs The average time per pair of operations in nanoseconds
+         * @param bytesPerOperation The bytes allocated per pair of operations
+         * @param allocationRateMbs The allocation rate in megabytes per second
+         */
+        public Result(int poolCapacity, double totalTimeMs, double avgTimeNs, double bytesPerOperation,
+                      double allocationRateMbs) {
+            this.poolCapacity = poolCapacity;
+            this.totalTimeMs = totalTimeMs;
+            this.avgTimeNs = avgTimeNs;
+            this.bytesPerOperation = bytesPerOperation;
+            this.allocationRateMbs = allocationRateMbs;
+        }
+
+        /**
+         * Get the capacity of the node pool
+         *
+         * @return The pool capacity, 0 without pool
+         */
+        public int getPoolCapacity() {
+            return poolCapacity;
+        }
+
+        /**
+         * Get the total time
+         *
+         * @return The total time in milliseconds
+         */
+        public double getTotalTimeMs() {
+            return totalTimeMs;
+        }
+
+        /**
+         * Get the average time per pair of operations
+         *
+         * @return The average time in nanoseconds
+         */
+        public double getAvgTimeNs() {
+            return avgTimeNs;
+        }
+
+        /**
+         * Get the bytes allocated per pair of operations
+         *
+         * @return The bytes per operation
+         */
+        public double getBytesPerOperation() {
+            return bytesPerOperation;
+        }
+
+        /**
+         * Get the allocation rate
+         *
+         * @return The allocation rate in megabytes per second
+         */
+        public double getAllocationRateMbs() {
+            return allocationRateMbs;
+        }
+    }
+}
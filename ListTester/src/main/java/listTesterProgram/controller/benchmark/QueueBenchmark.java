@@ -0,0 +1,210 @@
+package listTesterProgram.controller.benchmark;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.concrete.MichaelScottQueue;
+import listTesterProgram.model.concrete.SynchronizedLinkedList;
+import listTesterProgram.model.concrete.TypeLinkedList;
+import listTesterProgram.model.creators.ListCreator;
+import listTesterProgram.model.exceptions.EmptyList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-producer multi-consumer throughput of the lists used as work queues: producers push
+ * values to the back and consumers pop them from the front until every value was consumed.
+ * It compares the MichaelScottQueue with a LinkedLinkedListWithTail behind a synchronized
+ * wrapper. The values are boxed before the timed run.
+ */
+public class QueueBenchmark {
+
+    private static final int ITEMS = 2_000_000;
+    private static final int WARMUP_ROUNDS = 2;
+
+    private final ListCreator listCreator;
+
+    /**
+     * Constructor for QueueBenchmark
+     */
+    public QueueBenchmark() {
+        this.listCreator = new ListCreator();
+    }
+
+    /**
+     * Run the work queue benchmark on both queues
+     *
+     * @param producers The number of producer threads
+     * @param consumers The number of consumer threads
+     * @return One result per queue
+     * @throws InterruptedException If the benchmark is interrupted
+     */
+    public List<Result> runBenchmarks(int producers, int consumers) throws InterruptedException {
+        Integer[] values = new Integer[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            values[i] = i;
+        }
+        String synchronizedType = "SYNCHRONIZED_" + TypeLinkedList.LINKED_LIST_WITH_TAIL;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run("MICHAEL_SCOTT_QUEUE", new MichaelScottQueue<>(), producers, consumers, values);
+            run(synchronizedType, synchronizedList(), producers, consumers, values);
+        }
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("MICHAEL_SCOTT_QUEUE", new MichaelScottQueue<>(), producers, consumers, values));
+        results.add(run(synchronizedType, synchronizedList(), producers, consumers, values));
+        return results;
+    }
+
+    private LinkedList<Integer> synchronizedList() {
+        return new SynchronizedLinkedList<>(listCreator.createLinkedList(TypeLinkedList.LINKED_LIST_WITH_TAIL));
+    }
+
+    /**
+     * Pass every value through the queue, the producers share the values between them
+     */
+    private Result run(String queueType, LinkedList<Integer> queue, int producers, int consumers, Integer[] values)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger consumed = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p;
+            workers.add(new Thread(() -> {
+                await(start);
+                for (int i = first; i < values.length; i += producers) {
+                    queue.pushBack(values[i]);
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            workers.add(new Thread(() -> {
+                await(start);
+                while (consumed.get() < values.length) {
+                    if (queue.isEmpty()) {
+                        // Leaves the processor to the producers
+                        Thread.yield();
+                        continue;
+                    }
+                    try {
+                        queue.popFront();
+                        consumed.incrementAndGet();
+                    } catch (EmptyList e) {
+                        // Another consumer took the last value
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long endTime = System.nanoTime();
+        return new Result(queueType, producers, consumers, values.length, (endTime - startTime) / 1_000_000.0);
+    }
+
+    private static void await(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Print the results of the work queue benchmark
+     *
+     * @param results The results to print
+     */
+    public void printResults(List<Result> results) {
+        System.out.printf("\nWork queue, %d values:\n", ITEMS);
+        System.out.println("--------------------------------------------------------------------------------");
+        System.out.printf("%-35s | %-9s | %-9s | %-15s | %-12s\n", "Queue Type", "Producers", "Consumers",
+                "Total (ms)", "Values/s");
+        System.out.println("--------------------------------------------------------------------------------");
+        for (Result result : results) {
+            System.out.printf(Locale.US, "%-35s | %-9d | %-9d | %-15.2f | %-12.0f\n", result.getQueueType(),
+                    result.getProducers(), result.getConsumers(), result.getTotalTimeMs(), result.getValuesPerSecond());
+        }
+    }
+
+    /**
+     * Class to store the result of the work queue benchmark on one queue
+     */
+    public static class Result {
+        private final String queueType;
+        private final int producers;
+        private final int consumers;
+        private final int values;
+        private final double totalTimeMs;
+
+        /**
+         * Constructor for Result
+         *
+         * @param queueType The type of queue
+         * @param producers The number of producer threads
+         * @param consumers The number of consumer threads
+         * @param values The number of values passed through the queue
+         * @param totalTimeMs The total time in milliseconds
+         */
+        public Result(String queueType, int producers, int consumers, int values, double totalTimeMs) {
+            this.queueType = queueType;
+            this.producers = producers;
+            this.consumers = consumers;
+            this.values = values;
+            this.totalTimeMs = totalTimeMs;
+        }
+
+        /**
+         * Get the type of queue
+         *
+         * @return The type of queue
+         */
+        public String getQueueType() {
+            return queueType;
+        }
+
+        /**
+         * Get the number of producer threads
+         *
+         * @return The number of producers
+         */
+        public int getProducers() {
+            return producers;
+        }
+
+        /**
+         * Get the number of consumer threads
+         *
+         * @return The number of consumers
+         */
+        public int getConsumers() {
+            return consumers;
+        }
+
+        /**
+         * Get the total time
+         *
+         * @return The total time in milliseconds
+         */
+        public double getTotalTimeMs() {
+            return totalTimeMs;
+        }
+
+        /**
+         * Get the throughput of the queue
+         *
+         * @return The values passed through the queue per second
+         */
+        public double getValuesPerSecond() {
+            return values / (totalTimeMs / 1000);
+        }
+    }
+}
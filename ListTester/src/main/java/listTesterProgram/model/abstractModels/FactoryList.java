@@ -1,8 +1,10 @@
 package listTesterProgram.model.abstractModels;
 
+import listTesterProgram.model.concrete.TypeIntLinkedList;
 import listTesterProgram.model.concrete.TypeLinkedList;
 
 
 public interface FactoryList {
     <T> LinkedList<T> createLinkedList(TypeLinkedList type);
+    IntLinkedList createIntLinkedList(TypeIntLinkedList type);
 }
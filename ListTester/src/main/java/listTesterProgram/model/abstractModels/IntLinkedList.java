@@ -0,0 +1,20 @@
+package listTesterProgram.model.abstractModels;
+
+/**
+ * A linked list of primitive ints. The nodes are indexes into the arrays of the list, so
+ * no value is boxed and no object is allocated per element.
+ * A node index stays valid until its element is removed; it may then be reused.
+ */
+public interface IntLinkedList {
+    boolean isEmpty();
+    int size();
+    void pushFront(int value);
+    void pushBack(int value);
+    int popFront();
+    int popBack();
+    int find(int value);
+    void erase(int value);
+    void addAfter(int node, int value);
+    void addBefore(int node, int value);
+    int getValue(int node);
+}
@@ -9,15 +9,32 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
     private Node<T> head;
     private Node<T> tail;
     private int size;
+    private final NodePool<T> pool;
 
     /**
      * Constructor for DoubleLinkedLinkedListWithTail
-     * Initializes an empty list
+     * Initializes an empty list that allocates a node per added element
      */
     public DoubleLinkedLinkedListWithTail() {
+        this(0);
+    }
+
+    /**
+     * Constructor for DoubleLinkedLinkedListWithTail
+     * Initializes an empty list that keeps up to poolCapacity removed nodes and reuses them
+     * for the elements added later. Nodes returned by find are never reused.
+     *
+     * @param poolCapacity the most removed nodes kept, 0 to allocate a node per element
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public DoubleLinkedLinkedListWithTail(int poolCapacity) {
+        if (poolCapacity < 0) {
+            throw new IllegalArgumentException("Pool capacity cannot be negative");
+        }
         this.head = null;
         this.tail = null;
         this.size = 0;
+        this.pool = poolCapacity > 0 ? new NodePool<>(poolCapacity) : null;
     }
 
     /**
@@ -39,7 +56,7 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
      */
     @Override
     public void pushFront(T value) {
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         if (isEmpty()) {
             head = newNode;
             tail = newNode;
@@ -59,7 +76,7 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
      */
     @Override
     public void pushBack(T value) {
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         if (isEmpty()) {
             head = newNode;
             tail = newNode;
@@ -82,7 +99,8 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
         if (isEmpty()) {
             throw new EmptyList("List is empty");
         }
-        T value = head.value;
+        Node<T> removed = head;
+        T value = removed.value;
         head = head.next;
         if (head != null) {
             head.prev = null;
@@ -90,6 +108,7 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
             tail = null;
         }
         size--;
+        release(removed);
         return value;
     }
 
@@ -104,7 +123,8 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
         if (isEmpty()) {
             throw new EmptyList("List is empty");
         }
-        T value = tail.value;
+        Node<T> removed = tail;
+        T value = removed.value;
         tail = tail.prev;
         if (tail != null) {
             tail.next = null;
@@ -112,6 +132,7 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
             head = null;
         }
         size--;
+        release(removed);
         return value;
     }
 
@@ -129,14 +150,9 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
         if (isEmpty()) {
             throw new EmptyList("List is empty");
         }
-        Node<T> current = head;
-        while (current != null) {
-            if (current.value.equals(value)) {
-                return current;
-            }
-            current = current.next;
-        }
-        throw new NoSuchElementException("Value not found in the list");
+        Node<T> current = search(value);
+        current.handedOut = true;
+        return current;
     }
 
     /**
@@ -149,7 +165,10 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
      */
     @Override
     public void erase(T value) {
-        Node<T> toRemove = find(value);
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        Node<T> toRemove = search(value);
         if (toRemove == head) {
             popFront();
         } else if (toRemove == tail) {
@@ -158,6 +177,7 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
             toRemove.prev.next = toRemove.next;
             toRemove.next.prev = toRemove.prev;
             size--;
+            release(toRemove);
         }
     }
 
@@ -174,7 +194,7 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
         if (node == null) {
             throw new IllegalArgumentException("Node cannot be null");
         }
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         newNode.next = node.next;
         newNode.prev = node;
         node.next = newNode;
@@ -199,7 +219,7 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
         if (node == null) {
             throw new IllegalArgumentException("Node cannot be null");
         }
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         newNode.prev = node.prev;
         newNode.next = node;
         if (node.prev != null) {
@@ -228,4 +248,25 @@ public class DoubleLinkedLinkedListWithTail<T> implements LinkedList<T> {
         sb.append("]");
         return sb.toString().trim();
     }
+
+    private Node<T> newNode(T value) {
+        return pool != null ? pool.obtain(value) : new Node<>(value);
+    }
+
+    private void release(Node<T> node) {
+        if (pool != null) {
+            pool.recycle(node);
+        }
+    }
+
+    private Node<T> search(T value) {
+        Node<T> current = head;
+        while (current != null) {
+            if (current.value.equals(value)) {
+                return current;
+            }
+            current = current.next;
+        }
+        throw new NoSuchElementException("Value not found in the list");
+    }
 }
@@ -8,10 +8,27 @@ import java.util.NoSuchElementException;
 public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
     private Node<T> head;
     private int size;
+    private final NodePool<T> pool;
 
     public DoubleLinkedLinkedListWithoutTail() {
+        this(0);
+    }
+
+    /**
+     * Constructor for DoubleLinkedLinkedListWithoutTail
+     * Initializes an empty list that keeps up to poolCapacity removed nodes and reuses them
+     * for the elements added later. Nodes returned by find are never reused.
+     *
+     * @param poolCapacity the most removed nodes kept, 0 to allocate a node per element
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public DoubleLinkedLinkedListWithoutTail(int poolCapacity) {
+        if (poolCapacity < 0) {
+            throw new IllegalArgumentException("Pool capacity cannot be negative");
+        }
         this.head = null;
         this.size = 0;
+        this.pool = poolCapacity > 0 ? new NodePool<>(poolCapacity) : null;
     }
 
     /**
@@ -33,7 +50,7 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
      */
     @Override
     public void pushFront(T value) {
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         if (!isEmpty()) {
             newNode.next = head;
             head.prev = newNode;
@@ -50,7 +67,7 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
      */
     @Override
     public void pushBack(T value) {
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         if (isEmpty()) {
             head = newNode;
         } else {
@@ -83,7 +100,9 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
             head.prev = null;
         }
         size--;
-        return temp.value;
+        T value = temp.value;
+        release(temp);
+        return value;
     }
 
     /**
@@ -109,6 +128,7 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
             head = null;
         }
         size--;
+        release(current);
         return value;
     }
 
@@ -126,14 +146,9 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
         if (isEmpty()) {
             throw new EmptyList("List is empty");
         }
-        Node<T> current = head;
-        while (current != null) {
-            if (current.value.equals(value)) {
-                return current;
-            }
-            current = current.next;
-        }
-        throw new NoSuchElementException("Value not found in the list");
+        Node<T> current = search(value);
+        current.handedOut = true;
+        return current;
     }
 
     /**
@@ -149,7 +164,7 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
         if (isEmpty()) {
             throw new EmptyList("List is empty");
         }
-        Node<T> toRemove = find(value);
+        Node<T> toRemove = search(value);
         if (toRemove == head) {
             popFront();
         } else {
@@ -158,6 +173,7 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
             }
             toRemove.prev.next = toRemove.next;
             size--;
+            release(toRemove);
         }
     }
 
@@ -174,7 +190,7 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
         if (node == null) {
             throw new IllegalArgumentException("Node cannot be null");
         }
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         newNode.next = node.next;
         newNode.prev = node;
         if (node.next != null) {
@@ -197,7 +213,7 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
         if (node == null) {
             throw new IllegalArgumentException("Node cannot be null");
         }
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         newNode.prev = node.prev;
         newNode.next = node;
         if (node.prev != null) {
@@ -226,4 +242,25 @@ public class DoubleLinkedLinkedListWithoutTail<T> implements LinkedList<T> {
         sb.append("]");
         return sb.toString().trim();
     }
+
+    private Node<T> newNode(T value) {
+        return pool != null ? pool.obtain(value) : new Node<>(value);
+    }
+
+    private void release(Node<T> node) {
+        if (pool != null) {
+            pool.recycle(node);
+        }
+    }
+
+    private Node<T> search(T value) {
+        Node<T> current = head;
+        while (current != null) {
+            if (current.value.equals(value)) {
+                return current;
+            }
+            current = current.next;
+        }
+        throw new NoSuchElementException("Value not found in the list");
+    }
 }
@@ -0,0 +1,359 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Doubly linked list with a tail and a hash index from each value to the nodes holding it.
+ * The nodes of equal values form a chain in list order, so find returns the first of them
+ * and erase removes it without walking the list.
+ * Adding a value that is already in the list through addAfter or addBefore walks the list
+ * to the next node with that value to keep its chain ordered. Setting the value of a node
+ * returned by find moves it to the chain of its new value the same way.
+ *
+ * @param <T> the type of elements in the list, with consistent equals and hashCode
+ */
+public class HashIndexedLinkedList<T> implements LinkedList<T> {
+    private final Map<T, Chain<T>> index;
+    private IndexedNode<T> head;
+    private IndexedNode<T> tail;
+    private int size;
+
+    /**
+     * Constructor for HashIndexedLinkedList
+     * Initializes an empty list
+     */
+    public HashIndexedLinkedList() {
+        this.index = new HashMap<>();
+        this.head = null;
+        this.tail = null;
+        this.size = 0;
+    }
+
+    /**
+     * Checks if the list is empty
+     * Complexity: O(1)
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return size <= 0;
+    }
+
+    /**
+     * Adds a new node to the front of the list
+     * Complexity: O(1)
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushFront(T value) {
+        IndexedNode<T> newNode = new IndexedNode<>(this, value);
+        linkBefore(head, newNode);
+        Chain<T> chain = index.get(value);
+        if (chain == null) {
+            index.put(value, new Chain<>(newNode));
+        } else {
+            chain.linkBefore(chain.first, newNode);
+        }
+    }
+
+    /**
+     * Adds a new node to the back of the list
+     * Complexity: O(1)
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushBack(T value) {
+        IndexedNode<T> newNode = new IndexedNode<>(this, value);
+        linkBefore(null, newNode);
+        Chain<T> chain = index.get(value);
+        if (chain == null) {
+            index.put(value, new Chain<>(newNode));
+        } else {
+            chain.linkBefore(null, newNode);
+        }
+    }
+
+    /**
+     * Removes the first node from the list
+     * Complexity: O(1)
+     *
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public T popFront() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        IndexedNode<T> removed = head;
+        remove(removed);
+        return removed.value;
+    }
+
+    /**
+     * Removes the last node from the list
+     * Complexity: O(1)
+     *
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public T popBack() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        IndexedNode<T> removed = tail;
+        remove(removed);
+        return removed.value;
+    }
+
+    /**
+     * Finds the first node with the specified value
+     * Complexity: O(1)
+     *
+     * @param value the value to search for
+     * @return the node with the specified value
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found
+     */
+    @Override
+    public Node<T> find(T value) {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        Chain<T> chain = index.get(value);
+        if (chain == null) {
+            throw new NoSuchElementException("Value not found in the list");
+        }
+        return chain.first;
+    }
+
+    /**
+     * Removes the first node with the specified value
+     * Complexity: O(1)
+     *
+     * @param value the value to be removed
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found in the list
+     */
+    @Override
+    public void erase(T value) {
+        remove((IndexedNode<T>) find(value));
+    }
+
+    /**
+     * Adds a new node after the specified node
+     * Complexity: O(1), O(N) when the value is already in the list
+     *
+     * @param node  a node of this list returned by find
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is null or not a node of this list
+     * @throws NoSuchElementException   if the node was removed
+     */
+    @Override
+    public void addAfter(Node<T> node, T value) {
+        IndexedNode<T> next = (IndexedNode<T>) check(node).next;
+        IndexedNode<T> newNode = new IndexedNode<>(this, value);
+        linkBefore(next, newNode);
+        indexBefore(next, newNode);
+    }
+
+    /**
+     * Adds a new node before the specified node
+     * Complexity: O(1), O(N) when the value is already in the list
+     *
+     * @param node  a node of this list returned by find
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is null or not a node of this list
+     * @throws NoSuchElementException   if the node was removed
+     */
+    @Override
+    public void addBefore(Node<T> node, T value) {
+        IndexedNode<T> next = check(node);
+        IndexedNode<T> newNode = new IndexedNode<>(this, value);
+        linkBefore(next, newNode);
+        indexBefore(next, newNode);
+    }
+
+    /**
+     * Transforms the list into a string representation
+     * Complexity: O(N)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        Node<T> current = head;
+        while (current != null) {
+            sb.append(current.value).append(" ");
+            current = current.next;
+        }
+        sb.append("]");
+        return sb.toString().trim();
+    }
+
+    /**
+     * Links a node in the list before another one, or at the back when next is null
+     */
+    private void linkBefore(IndexedNode<T> next, IndexedNode<T> newNode) {
+        Node<T> prev = next != null ? next.prev : tail;
+        newNode.prev = prev;
+        newNode.next = next;
+        if (prev != null) {
+            prev.next = newNode;
+        } else {
+            head = newNode;
+        }
+        if (next != null) {
+            next.prev = newNode;
+        } else {
+            tail = newNode;
+        }
+        size++;
+    }
+
+    /**
+     * Adds a node just linked before next to the chain of its value, before the first node
+     * of the chain that follows it in the list
+     */
+    private void indexBefore(IndexedNode<T> next, IndexedNode<T> newNode) {
+        Chain<T> chain = index.get(newNode.value);
+        if (chain == null) {
+            index.put(newNode.value, new Chain<>(newNode));
+            return;
+        }
+        IndexedNode<T> current = next;
+        while (current != null && current.chain != chain) {
+            current = (IndexedNode<T>) current.next;
+        }
+        chain.linkBefore(current, newNode);
+    }
+
+    /**
+     * Moves a node of the list from the chain of its value to the chain of a new one
+     */
+    private void reindex(IndexedNode<T> node, T value) {
+        Chain<T> chain = node.chain;
+        chain.unlink(node);
+        if (chain.first == null) {
+            index.remove(node.value);
+        }
+        node.value = value;
+        indexBefore((IndexedNode<T>) node.next, node);
+    }
+
+    private void remove(IndexedNode<T> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            head = (IndexedNode<T>) node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            tail = (IndexedNode<T>) node.prev;
+        }
+        size--;
+        Chain<T> chain = node.chain;
+        chain.unlink(node);
+        if (chain.first == null) {
+            index.remove(node.value);
+        }
+    }
+
+    private IndexedNode<T> check(Node<T> node) {
+        if (!(node instanceof IndexedNode) || ((IndexedNode<T>) node).list != this) {
+            throw new IllegalArgumentException("Node must be a node of this list");
+        }
+        IndexedNode<T> indexed = (IndexedNode<T>) node;
+        if (indexed.chain == null) {
+            throw new NoSuchElementException("The node was removed from the list");
+        }
+        return indexed;
+    }
+
+    /**
+     * A node of the list, also linked to the previous and next nodes with the same value
+     */
+    private static final class IndexedNode<T> extends Node<T> {
+        private final HashIndexedLinkedList<T> list;
+        private Chain<T> chain;
+        private IndexedNode<T> nextSame;
+        private IndexedNode<T> prevSame;
+
+        private IndexedNode(HashIndexedLinkedList<T> list, T value) {
+            super(value);
+            this.list = list;
+        }
+
+        /**
+         * Sets the value and moves the node to its chain, unless the node was removed
+         * Complexity: O(1), O(N) when the new value is already in the list
+         */
+        @Override
+        public void setValue(T value) {
+            if (chain == null || Objects.equals(this.value, value)) {
+                this.value = value;
+            } else {
+                list.reindex(this, value);
+            }
+        }
+    }
+
+    /**
+     * The nodes holding one value, in list order
+     */
+    private static final class Chain<T> {
+        private IndexedNode<T> first;
+        private IndexedNode<T> last;
+
+        private Chain(IndexedNode<T> node) {
+            node.chain = this;
+            this.first = node;
+            this.last = node;
+        }
+
+        /**
+         * Links a node before another node of the chain, or at its end when next is null
+         */
+        private void linkBefore(IndexedNode<T> next, IndexedNode<T> node) {
+            IndexedNode<T> prev = next != null ? next.prevSame : last;
+            node.chain = this;
+            node.prevSame = prev;
+            node.nextSame = next;
+            if (prev != null) {
+                prev.nextSame = node;
+            } else {
+                first = node;
+            }
+            if (next != null) {
+                next.prevSame = node;
+            } else {
+                last = node;
+            }
+        }
+
+        private void unlink(IndexedNode<T> node) {
+            if (node.prevSame != null) {
+                node.prevSame.nextSame = node.nextSame;
+            } else {
+                first = node.nextSame;
+            }
+            if (node.nextSame != null) {
+                node.nextSame.prevSame = node.prevSame;
+            } else {
+                last = node.prevSame;
+            }
+            node.chain = null;
+            node.prevSame = null;
+            node.nextSame = null;
+        }
+    }
+}
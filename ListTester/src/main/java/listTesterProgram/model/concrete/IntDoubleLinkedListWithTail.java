@@ -0,0 +1,270 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.IntLinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Doubly linked list of ints with a tail, stored in three parallel arrays: the value and
+ * the indexes of the next and previous nodes. Removed nodes are chained in a free list
+ * through the next array, encoded as negative numbers so a removed node is never taken for
+ * a live one, and are reused before the arrays grow. An element takes 12 bytes plus the
+ * unused capacity.
+ */
+public class IntDoubleLinkedListWithTail implements IntLinkedList {
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] values;
+    private int[] next;
+    private int[] prev;
+    private int head;
+    private int tail;
+    private int size;
+    private int used;
+    private int free;
+
+    /**
+     * Constructor for IntDoubleLinkedListWithTail
+     * Initializes an empty list
+     */
+    public IntDoubleLinkedListWithTail() {
+        this.values = new int[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.prev = new int[INITIAL_CAPACITY];
+        this.head = NIL;
+        this.tail = NIL;
+        this.size = 0;
+        this.used = 0;
+        this.free = NIL;
+    }
+
+    /**
+     * Checks if the list is empty
+     * Complexity: O(1)
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return size <= 0;
+    }
+
+    /**
+     * Gets the number of elements
+     * Complexity: O(1)
+     *
+     * @return the number of elements
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a new node to the front of the list
+     * Complexity: O(1) amortized
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushFront(int value) {
+        int node = allocate(value);
+        link(node, NIL, head);
+    }
+
+    /**
+     * Adds a new node to the back of the list
+     * Complexity: O(1) amortized
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushBack(int value) {
+        int node = allocate(value);
+        link(node, tail, NIL);
+    }
+
+    /**
+     * Removes the first node from the list
+     * Complexity: O(1)
+     *
+     * @return the removed value
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public int popFront() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        return unlink(head);
+    }
+
+    /**
+     * Removes the last node from the list
+     * Complexity: O(1)
+     *
+     * @return the removed value
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public int popBack() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        return unlink(tail);
+    }
+
+    /**
+     * Finds the first node with the given value
+     * Complexity: O(N)
+     *
+     * @param value the value to be found
+     * @return the index of the node
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found
+     */
+    @Override
+    public int find(int value) {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        for (int current = head; current != NIL; current = next[current]) {
+            if (values[current] == value) {
+                return current;
+            }
+        }
+        throw new NoSuchElementException("Value not found in the list");
+    }
+
+    /**
+     * Removes the first node with the given value
+     * Complexity: O(N)
+     *
+     * @param value the value to be removed
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found in the list
+     */
+    @Override
+    public void erase(int value) {
+        unlink(find(value));
+    }
+
+    /**
+     * Adds a new node after the given node
+     * Complexity: O(1) amortized
+     *
+     * @param node  the index of the node after which the new node will be added
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is not in the list
+     */
+    @Override
+    public void addAfter(int node, int value) {
+        checkNode(node);
+        link(allocate(value), node, next[node]);
+    }
+
+    /**
+     * Adds a new node before the given node
+     * Complexity: O(1) amortized
+     *
+     * @param node  the index of the node before which the new node will be added
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is not in the list
+     */
+    @Override
+    public void addBefore(int node, int value) {
+        checkNode(node);
+        link(allocate(value), prev[node], node);
+    }
+
+    /**
+     * Gets the value of a node
+     * Complexity: O(1)
+     *
+     * @param node the index of the node
+     * @return the value
+     * @throws IllegalArgumentException if the node is not in the list
+     */
+    @Override
+    public int getValue(int node) {
+        checkNode(node);
+        return values[node];
+    }
+
+    /**
+     * Transforms the list into a string representation
+     * Complexity: O(N)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int current = head; current != NIL; current = next[current]) {
+            sb.append(values[current]).append(" ");
+        }
+        sb.append("]");
+        return sb.toString().trim();
+    }
+
+    private void link(int node, int before, int after) {
+        prev[node] = before;
+        next[node] = after;
+        if (before == NIL) {
+            head = node;
+        } else {
+            next[before] = node;
+        }
+        if (after == NIL) {
+            tail = node;
+        } else {
+            prev[after] = node;
+        }
+        size++;
+    }
+
+    private int unlink(int node) {
+        int before = prev[node];
+        int after = next[node];
+        if (before == NIL) {
+            head = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NIL) {
+            tail = before;
+        } else {
+            prev[after] = before;
+        }
+        size--;
+        // A free node stores -3 - the next free node, which is below NIL even when that is NIL
+        next[node] = -3 - free;
+        free = node;
+        return values[node];
+    }
+
+    private int allocate(int value) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = -3 - next[node];
+        } else {
+            if (used == values.length) {
+                values = Arrays.copyOf(values, used * 2);
+                next = Arrays.copyOf(next, used * 2);
+                prev = Arrays.copyOf(prev, used * 2);
+            }
+            node = used++;
+        }
+        values[node] = value;
+        return node;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= used || next[node] < NIL) {
+            throw new IllegalArgumentException("Node is not in the list");
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.IntLinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Singly linked list of ints with a tail, stored in two parallel arrays: the value and the
+ * index of the next node. Removed nodes are chained in a free list through the next array,
+ * encoded as negative numbers so a removed node is never taken for a live one, and are
+ * reused before the arrays grow. An element takes 8 bytes plus the unused capacity.
+ */
+public class IntLinkedListWithTail implements IntLinkedList {
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] values;
+    private int[] next;
+    private int head;
+    private int tail;
+    private int size;
+    private int used;
+    private int free;
+
+    /**
+     * Constructor for IntLinkedListWithTail
+     * Initializes an empty list
+     */
+    public IntLinkedListWithTail() {
+        this.values = new int[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.head = NIL;
+        this.tail = NIL;
+        this.size = 0;
+        this.used = 0;
+        this.free = NIL;
+    }
+
+    /**
+     * Checks if the list is empty
+     * Complexity: O(1)
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return size <= 0;
+    }
+
+    /**
+     * Gets the number of elements
+     * Complexity: O(1)
+     *
+     * @return the number of elements
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a new node to the front of the list
+     * Complexity: O(1) amortized
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushFront(int value) {
+        int node = allocate(value);
+        next[node] = head;
+        head = node;
+        if (tail == NIL) {
+            tail = node;
+        }
+        size++;
+    }
+
+    /**
+     * Adds a new node to the back of the list
+     * Complexity: O(1) amortized
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushBack(int value) {
+        int node = allocate(value);
+        next[node] = NIL;
+        if (tail == NIL) {
+            head = node;
+        } else {
+            next[tail] = node;
+        }
+        tail = node;
+        size++;
+    }
+
+    /**
+     * Removes the first node from the list
+     * Complexity: O(1)
+     *
+     * @return the removed value
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public int popFront() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        int node = head;
+        int value = values[node];
+        head = next[node];
+        if (head == NIL) {
+            tail = NIL;
+        }
+        release(node);
+        size--;
+        return value;
+    }
+
+    /**
+     * Removes the last node from the list
+     * Complexity: O(N)
+     *
+     * @return the removed value
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public int popBack() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        int node = tail;
+        int value = values[node];
+        if (head == tail) {
+            head = NIL;
+            tail = NIL;
+        } else {
+            int current = head;
+            while (next[current] != tail) {
+                current = next[current];
+            }
+            next[current] = NIL;
+            tail = current;
+        }
+        release(node);
+        size--;
+        return value;
+    }
+
+    /**
+     * Finds the first node with the given value
+     * Complexity: O(N)
+     *
+     * @param value the value to be found
+     * @return the index of the node
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found
+     */
+    @Override
+    public int find(int value) {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        for (int current = head; current != NIL; current = next[current]) {
+            if (values[current] == value) {
+                return current;
+            }
+        }
+        throw new NoSuchElementException("Value not found in the list");
+    }
+
+    /**
+     * Removes the first node with the given value
+     * Complexity: O(N)
+     *
+     * @param value the value to be removed
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found in the list
+     */
+    @Override
+    public void erase(int value) {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        if (values[head] == value) {
+            popFront();
+            return;
+        }
+        for (int current = head; next[current] != NIL; current = next[current]) {
+            int candidate = next[current];
+            if (values[candidate] == value) {
+                next[current] = next[candidate];
+                if (candidate == tail) {
+                    tail = current;
+                }
+                release(candidate);
+                size--;
+                return;
+            }
+        }
+        throw new NoSuchElementException("Value not found in the list");
+    }
+
+    /**
+     * Adds a new node after the given node
+     * Complexity: O(1) amortized
+     *
+     * @param node  the index of the node after which the new node will be added
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is not in the list
+     */
+    @Override
+    public void addAfter(int node, int value) {
+        checkNode(node);
+        int added = allocate(value);
+        next[added] = next[node];
+        next[node] = added;
+        if (node == tail) {
+            tail = added;
+        }
+        size++;
+    }
+
+    /**
+     * Adds a new node before the given node
+     * Complexity: O(N)
+     *
+     * @param node  the index of the node before which the new node will be added
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is not in the list
+     */
+    @Override
+    public void addBefore(int node, int value) {
+        checkNode(node);
+        if (node == head) {
+            pushFront(value);
+            return;
+        }
+        int current = head;
+        while (next[current] != node) {
+            current = next[current];
+        }
+        int added = allocate(value);
+        next[added] = node;
+        next[current] = added;
+        size++;
+    }
+
+    /**
+     * Gets the value of a node
+     * Complexity: O(1)
+     *
+     * @param node the index of the node
+     * @return the value
+     * @throws IllegalArgumentException if the node is not in the list
+     */
+    @Override
+    public int getValue(int node) {
+        checkNode(node);
+        return values[node];
+    }
+
+    /**
+     * Transforms the list into a string representation
+     * Complexity: O(N)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int current = head; current != NIL; current = next[current]) {
+            sb.append(values[current]).append(" ");
+        }
+        sb.append("]");
+        return sb.toString().trim();
+    }
+
+    private int allocate(int value) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = -3 - next[node];
+        } else {
+            if (used == values.length) {
+                values = Arrays.copyOf(values, used * 2);
+                next = Arrays.copyOf(next, used * 2);
+            }
+            node = used++;
+        }
+        values[node] = value;
+        return node;
+    }
+
+    private void release(int node) {
+        // A free node stores -3 - the next free node, which is below NIL even when that is NIL
+        next[node] = -3 - free;
+        free = node;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= used || next[node] < NIL) {
+            throw new IllegalArgumentException("Node is not in the list");
+        }
+    }
+}
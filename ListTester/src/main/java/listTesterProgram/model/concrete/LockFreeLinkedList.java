@@ -0,0 +1,362 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free singly linked list in the style of Harris and Michael, safe to share between
+ * threads. Every link is an AtomicMarkableReference: a node is removed logically by marking
+ * its own link, then physically by swinging the link of its predecessor past it. Traversals
+ * that meet marked nodes help by unlinking them. The list keeps a sentinel head and a hint to
+ * the last node, which pushBack follows to the end.
+ * Linearization points: the pushes and adds take effect at the CAS that links the new node,
+ * erase and the pops at the CAS that marks the removed node, and find when it reads an
+ * unmarked node holding the value. popBack only marks a node without successor, so it always
+ * removes the last element; popFront and erase remove the first matching node seen by their
+ * traversal, which a concurrent insert before it may precede.
+ *
+ * @param <T> the type of elements in the list
+ */
+public class LockFreeLinkedList<T> implements LinkedList<T> {
+    private final LockFreeNode<T> head;
+    private final AtomicReference<LockFreeNode<T>> last;
+
+    /**
+     * Constructor for LockFreeLinkedList
+     * Initializes an empty list
+     */
+    public LockFreeLinkedList() {
+        this.head = new LockFreeNode<>(this, null);
+        this.last = new AtomicReference<>(head);
+    }
+
+    /**
+     * Checks if the list is empty, at the time the first unmarked node is read
+     * Complexity: O(1), plus the removed nodes not yet unlinked at the front
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return search(null, null).current == null;
+    }
+
+    /**
+     * Adds a new node to the front of the list
+     * Complexity: O(1)
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushFront(T value) {
+        LockFreeNode<T> newNode = new LockFreeNode<>(this, value);
+        while (true) {
+            LockFreeNode<T> succ = head.link.getReference();
+            newNode.link.set(succ, false);
+            if (head.link.compareAndSet(succ, newNode, false, false)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds a new node to the back of the list, after the node without successor reached from
+     * the last node hint
+     * Complexity: O(1), plus the nodes added since the hint was updated
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushBack(T value) {
+        LockFreeNode<T> newNode = new LockFreeNode<>(this, value);
+        boolean[] marked = {false};
+        LockFreeNode<T> hint = last.get();
+        LockFreeNode<T> current = hint;
+        while (true) {
+            LockFreeNode<T> succ = current.link.get(marked);
+            if (succ != null) {
+                current = succ;
+            } else if (marked[0]) {
+                // The last node is being removed, nothing can follow it: unlink it and
+                // walk again from the head
+                search(null, head);
+                hint = last.get();
+                current = head;
+            } else if (current.link.compareAndSet(null, newNode, false, false)) {
+                last.compareAndSet(hint, newNode);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the first node from the list
+     * Complexity: O(1), plus the removed nodes not yet unlinked at the front
+     *
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public T popFront() {
+        while (true) {
+            Window<T> window = search(null, null);
+            if (window.current == null) {
+                throw new EmptyList("List is empty");
+            }
+            if (remove(window)) {
+                return window.current.value;
+            }
+        }
+    }
+
+    /**
+     * Removes the last node from the list
+     * Complexity: O(N)
+     *
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public T popBack() {
+        boolean[] marked = {false};
+        while (true) {
+            LockFreeNode<T> lastNode = null;
+            for (LockFreeNode<T> current = head.link.getReference(); current != null; ) {
+                LockFreeNode<T> succ = current.link.get(marked);
+                if (!marked[0]) {
+                    lastNode = current;
+                }
+                current = succ;
+            }
+            if (lastNode == null) {
+                throw new EmptyList("List is empty");
+            }
+            // Fails if a node was added after it or it was removed meanwhile, or if marked
+            // nodes still follow it: unlink them before walking again
+            if (lastNode.link.compareAndSet(null, null, false, true)) {
+                search(null, head);
+                return lastNode.value;
+            }
+            search(null, head);
+        }
+    }
+
+    /**
+     * Finds the first node with the specified value, without modifying the list
+     * Complexity: O(N)
+     *
+     * @param value the value to search for
+     * @return the node with the specified value
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found
+     */
+    @Override
+    public Node<T> find(T value) {
+        boolean[] marked = {false};
+        boolean empty = true;
+        for (LockFreeNode<T> current = head.link.getReference(); current != null; ) {
+            LockFreeNode<T> succ = current.link.get(marked);
+            if (!marked[0]) {
+                empty = false;
+                if (current.value.equals(value)) {
+                    return current;
+                }
+            }
+            current = succ;
+        }
+        if (empty) {
+            throw new EmptyList("List is empty");
+        }
+        throw new NoSuchElementException("Value not found in the list");
+    }
+
+    /**
+     * Removes the first node with the specified value
+     * Complexity: O(N)
+     *
+     * @param value the value to be removed
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found in the list
+     */
+    @Override
+    public void erase(T value) {
+        if (value == null) {
+            throw new NoSuchElementException("Value not found in the list");
+        }
+        while (true) {
+            Window<T> window = search(value, null);
+            if (window.current == null) {
+                if (window.pred == head) {
+                    throw new EmptyList("List is empty");
+                }
+                throw new NoSuchElementException("Value not found in the list");
+            }
+            if (remove(window)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds a new node after the specified node
+     * Complexity: O(1)
+     *
+     * @param node  a node of this list returned by find
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is null or not a node of this list
+     * @throws NoSuchElementException   if the node was removed
+     */
+    @Override
+    public void addAfter(Node<T> node, T value) {
+        LockFreeNode<T> pred = check(node);
+        LockFreeNode<T> newNode = new LockFreeNode<>(this, value);
+        boolean[] marked = {false};
+        while (true) {
+            LockFreeNode<T> succ = pred.link.get(marked);
+            if (marked[0]) {
+                throw new NoSuchElementException("The node was removed from the list");
+            }
+            newNode.link.set(succ, false);
+            if (pred.link.compareAndSet(succ, newNode, false, false)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds a new node before the specified node, after finding its predecessor
+     * Complexity: O(N)
+     *
+     * @param node  a node of this list returned by find
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is null or not a node of this list
+     * @throws NoSuchElementException   if the node was removed
+     */
+    @Override
+    public void addBefore(Node<T> node, T value) {
+        LockFreeNode<T> target = check(node);
+        LockFreeNode<T> newNode = new LockFreeNode<>(this, value);
+        newNode.link.set(target, false);
+        while (true) {
+            Window<T> window = search(null, target);
+            if (window.current == null) {
+                throw new NoSuchElementException("The node was removed from the list");
+            }
+            if (window.pred.link.compareAndSet(target, newNode, false, false)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Transforms the list into a string representation, the unmarked nodes seen by one
+     * traversal
+     * Complexity: O(N)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        boolean[] marked = {false};
+        for (LockFreeNode<T> current = head.link.getReference(); current != null; ) {
+            LockFreeNode<T> succ = current.link.get(marked);
+            if (!marked[0]) {
+                sb.append(current.value).append(" ");
+            }
+            current = succ;
+        }
+        sb.append("]");
+        return sb.toString().trim();
+    }
+
+    /**
+     * Walks the list from the head and unlinks the marked nodes on the way. It stops at the
+     * target node when one is given, else at the first node with the value, else at the first
+     * node. The head is never met, so passing it as target cleans the whole list.
+     *
+     * @return the unmarked node where the walk stopped, or null, and its unmarked predecessor
+     */
+    private Window<T> search(T value, LockFreeNode<T> target) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            LockFreeNode<T> pred = head;
+            LockFreeNode<T> current = pred.link.getReference();
+            while (current != null) {
+                LockFreeNode<T> succ = current.link.get(marked);
+                if (marked[0]) {
+                    if (!pred.link.compareAndSet(current, succ, false, false)) {
+                        continue retry;
+                    }
+                    current = succ;
+                    continue;
+                }
+                if (target != null ? current == target : value == null || current.value.equals(value)) {
+                    return new Window<>(pred, current);
+                }
+                pred = current;
+                current = succ;
+            }
+            return new Window<>(pred, null);
+        }
+    }
+
+    /**
+     * Marks the current node of a window, then unlinks it from the predecessor. A failed
+     * unlink is left to the next traversal that meets the node.
+     *
+     * @return false if the node was changed or removed since the window was found
+     */
+    private boolean remove(Window<T> window) {
+        LockFreeNode<T> node = window.current;
+        LockFreeNode<T> succ = node.link.getReference();
+        if (!node.link.compareAndSet(succ, succ, false, true)) {
+            return false;
+        }
+        window.pred.link.compareAndSet(node, succ, false, false);
+        return true;
+    }
+
+    private LockFreeNode<T> check(Node<T> node) {
+        if (!(node instanceof LockFreeNode) || ((LockFreeNode<T>) node).list != this
+                || node == head) {
+            throw new IllegalArgumentException("Node must be a node of this list");
+        }
+        return (LockFreeNode<T>) node;
+    }
+
+    /**
+     * A node of the list, linked to its successor by a reference marked when the node is
+     * removed
+     */
+    private static final class LockFreeNode<T> extends Node<T> {
+        private final LockFreeLinkedList<T> list;
+        private final AtomicMarkableReference<LockFreeNode<T>> link;
+
+        private LockFreeNode(LockFreeLinkedList<T> list, T value) {
+            super(value);
+            this.list = list;
+            this.link = new AtomicMarkableReference<>(null, false);
+        }
+
+        @Override
+        public Node<T> getNext() {
+            return link.getReference();
+        }
+    }
+
+    /**
+     * A node found by a search and its predecessor
+     */
+    private static final class Window<T> {
+        private final LockFreeNode<T> pred;
+        private final LockFreeNode<T> current;
+
+        private Window(LockFreeNode<T> pred, LockFreeNode<T> current) {
+            this.pred = pred;
+            this.current = current;
+        }
+    }
+}
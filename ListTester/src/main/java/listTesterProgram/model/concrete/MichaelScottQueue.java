@@ -0,0 +1,212 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free FIFO queue of Michael and Scott behind the LinkedList interface, for work queues
+ * shared between producer and consumer threads. pushBack enqueues and popFront dequeues;
+ * the other operations are not positional in a queue and throw UnsupportedOperationException.
+ * The head always points to a dummy node, the first element is the one after it. The tail
+ * may lag one node behind the last node, and any thread that sees it lagging swings it
+ * forward before going on. The links are updated with VarHandles so an enqueue allocates
+ * only its node.
+ *
+ * @param <T> the type of elements in the queue
+ */
+public class MichaelScottQueue<T> implements LinkedList<T> {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MichaelScottQueue.class, "head", QueueNode.class);
+            TAIL = lookup.findVarHandle(MichaelScottQueue.class, "tail", QueueNode.class);
+            NEXT = lookup.findVarHandle(QueueNode.class, "next", QueueNode.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile QueueNode<T> head;
+    private volatile QueueNode<T> tail;
+
+    /**
+     * Constructor for MichaelScottQueue
+     * Initializes an empty queue
+     */
+    public MichaelScottQueue() {
+        QueueNode<T> dummy = new QueueNode<>(null);
+        this.head = dummy;
+        this.tail = dummy;
+    }
+
+    /**
+     * Checks if the queue is empty, at the time the node after the dummy is read
+     * Complexity: O(1)
+     *
+     * @return true if the queue is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
+    /**
+     * Not supported, a queue only adds at the back
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void pushFront(T value) {
+        throw unsupported("pushFront");
+    }
+
+    /**
+     * Enqueues an element at the back of the queue, it takes effect when the link of the
+     * last node is set to the new node
+     * Complexity: O(1)
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushBack(T value) {
+        QueueNode<T> node = new QueueNode<>(value);
+        while (true) {
+            QueueNode<T> last = tail;
+            QueueNode<T> next = last.next;
+            if (last != tail) {
+                continue;
+            }
+            if (next != null) {
+                // The tail lags behind, help the enqueue in progress
+                TAIL.compareAndSet(this, last, next);
+            } else if (NEXT.compareAndSet(last, null, node)) {
+                TAIL.compareAndSet(this, last, node);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Dequeues the element at the front of the queue, it takes effect when the head is moved
+     * to its node, which becomes the new dummy
+     * Complexity: O(1)
+     *
+     * @return the value of the removed element
+     * @throws EmptyList if the queue is empty
+     */
+    @Override
+    public T popFront() {
+        while (true) {
+            QueueNode<T> first = head;
+            QueueNode<T> last = tail;
+            QueueNode<T> next = first.next;
+            if (first != head) {
+                continue;
+            }
+            if (next == null) {
+                throw new EmptyList("List is empty");
+            }
+            if (first == last) {
+                // The tail lags behind the element to dequeue, help the enqueue in progress
+                TAIL.compareAndSet(this, last, next);
+                continue;
+            }
+            T value = next.value;
+            if (HEAD.compareAndSet(this, first, next)) {
+                // The new dummy must not keep the value reachable
+                next.value = null;
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Not supported, a queue only removes at the front
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public T popBack() {
+        throw unsupported("popBack");
+    }
+
+    /**
+     * Not supported, the nodes of a queue are not handed out
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Node<T> find(T value) {
+        throw unsupported("find");
+    }
+
+    /**
+     * Not supported, a queue only removes at the front
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void erase(T value) {
+        throw unsupported("erase");
+    }
+
+    /**
+     * Not supported, a queue only adds at the back
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addAfter(Node<T> node, T value) {
+        throw unsupported("addAfter");
+    }
+
+    /**
+     * Not supported, a queue only adds at the back
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addBefore(Node<T> node, T value) {
+        throw unsupported("addBefore");
+    }
+
+    /**
+     * Transforms the queue into a string representation, the elements seen by one traversal
+     * Complexity: O(N)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        QueueNode<T> first = head;
+        for (QueueNode<T> current = first.next; current != null; current = current.next) {
+            sb.append(current.value).append(" ");
+        }
+        sb.append("]");
+        return sb.toString().trim();
+    }
+
+    private static UnsupportedOperationException unsupported(String operation) {
+        return new UnsupportedOperationException(operation
+                + " is not supported by MichaelScottQueue, only pushBack and popFront are");
+    }
+
+    /**
+     * A node of the queue, the value is cleared when the node becomes the dummy
+     */
+    private static final class QueueNode<T> {
+        private T value;
+        private volatile QueueNode<T> next;
+
+        private QueueNode(T value) {
+            this.value = value;
+        }
+    }
+}
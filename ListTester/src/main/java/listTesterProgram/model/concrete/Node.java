@@ -4,6 +4,8 @@ public class Node<T> {
     protected Node<T> next;
     protected Node<T> prev;
     protected T value;
+    // Set once find returned the node, node pools never reuse it afterwards
+    protected boolean handedOut;
 
     public Node(T value) {
         this.value = value;
@@ -0,0 +1,61 @@
+package listTesterProgram.model.concrete;
+
+/**
+ * Bounded free list of nodes owned by one list. Removed nodes are kept, chained by their
+ * next field, and handed out again by the pushes and adds of the list instead of allocating
+ * a new node. Nodes that find returned to a caller are never taken back, since the caller
+ * may still use them.
+ *
+ * @param <T> the type of elements in the list
+ */
+class NodePool<T> {
+    private final int capacity;
+    private Node<T> free;
+    private int size;
+
+    /**
+     * Constructor for NodePool
+     *
+     * @param capacity the most nodes kept for reuse
+     */
+    NodePool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets a node holding the value, reused when one is free
+     * Complexity: O(1)
+     *
+     * @param value the value of the node
+     * @return a node with the value and without links
+     */
+    Node<T> obtain(T value) {
+        Node<T> node = free;
+        if (node == null) {
+            return new Node<>(value);
+        }
+        free = node.next;
+        size--;
+        node.next = null;
+        node.value = value;
+        return node;
+    }
+
+    /**
+     * Keeps a node removed from the list for reuse, unless it was handed out by find or
+     * the pool is full. The value is cleared so the pool does not retain it.
+     * Complexity: O(1)
+     *
+     * @param node the node removed from the list
+     */
+    void recycle(Node<T> node) {
+        if (node.handedOut || size >= capacity) {
+            return;
+        }
+        node.value = null;
+        node.prev = null;
+        node.next = free;
+        free = node;
+        size++;
+    }
+}
@@ -0,0 +1,73 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+
+/**
+ * Wrapper that makes any list safe to share between threads by running every operation while
+ * holding the lock of the wrapper, like Collections.synchronizedList. The nodes returned by
+ * find are only safe to pass back to this wrapper.
+ *
+ * @param <T> the type of elements in the list
+ */
+public class SynchronizedLinkedList<T> implements LinkedList<T> {
+    private final LinkedList<T> list;
+
+    /**
+     * Constructor for SynchronizedLinkedList
+     *
+     * @param list the list to wrap, not to be used directly afterwards
+     */
+    public SynchronizedLinkedList(LinkedList<T> list) {
+        this.list = list;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return list.isEmpty();
+    }
+
+    @Override
+    public synchronized void pushFront(T value) {
+        list.pushFront(value);
+    }
+
+    @Override
+    public synchronized void pushBack(T value) {
+        list.pushBack(value);
+    }
+
+    @Override
+    public synchronized T popFront() {
+        return list.popFront();
+    }
+
+    @Override
+    public synchronized T popBack() {
+        return list.popBack();
+    }
+
+    @Override
+    public synchronized Node<T> find(T value) {
+        return list.find(value);
+    }
+
+    @Override
+    public synchronized void erase(T value) {
+        list.erase(value);
+    }
+
+    @Override
+    public synchronized void addAfter(Node<T> node, T value) {
+        list.addAfter(node, value);
+    }
+
+    @Override
+    public synchronized void addBefore(Node<T> node, T value) {
+        list.addBefore(node, value);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return list.toString();
+    }
+}
@@ -0,0 +1,6 @@
+package listTesterProgram.model.concrete;
+
+public enum TypeIntLinkedList {
+    INT_LINKED_LIST_WITH_TAIL,
+    INT_DOUBLE_LINKED_LIST_WITH_TAIL,
+}
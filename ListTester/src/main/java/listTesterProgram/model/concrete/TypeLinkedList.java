@@ -5,4 +5,7 @@ public enum TypeLinkedList {
     LINKED_LIST_WITHOUT_TAIL,
     DOUBLE_LINKED_LIST_WITH_TAIL,
     DOUBLE_LINKED_LIST_WITHOUT_TAIL,
+    UNROLLED_LINKED_LIST,
+    HASH_INDEXED_LINKED_LIST,
+    LOCK_FREE_LINKED_LIST,
 }
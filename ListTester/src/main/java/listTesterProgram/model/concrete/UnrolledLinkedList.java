@@ -0,0 +1,400 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Doubly linked list of chunks, each chunk holds up to a fixed number of elements in an array.
+ * A search compares the elements of a chunk one after the other instead of following a
+ * pointer per element, so it touches about N / capacity nodes.
+ * A full chunk is split, keeping the split factor of its elements and moving the rest to a
+ * new chunk after it. After an erase, a chunk filled below the merge factor takes the
+ * elements of the next chunk if they fit.
+ * Every element gets a stamp when it is inserted, kept next to it in its chunk and moved
+ * with it by splits and merges. The nodes returned by find are positions: they remember the
+ * chunk, the index and the stamp of their element and are updated when addAfter or addBefore
+ * use them. A position moved by other changes is found again by its stamp, so equal or
+ * identical values elsewhere in the list never take its place.
+ *
+ * @param <T> the type of elements in the list
+ */
+public class UnrolledLinkedList<T> implements LinkedList<T> {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final double DEFAULT_SPLIT_FACTOR = 0.5;
+    private static final double DEFAULT_MERGE_FACTOR = 0.25;
+
+    private final int capacity;
+    private final int splitKeep;
+    private final int mergeBelow;
+    private Chunk<T> head;
+    private Chunk<T> tail;
+    private int size;
+    private long nextStamp;
+
+    /**
+     * Constructor for UnrolledLinkedList
+     * Initializes an empty list with chunks of 64 elements, split in halves and merged
+     * below a quarter
+     */
+    public UnrolledLinkedList() {
+        this(DEFAULT_CAPACITY, DEFAULT_SPLIT_FACTOR, DEFAULT_MERGE_FACTOR);
+    }
+
+    /**
+     * Constructor for UnrolledLinkedList
+     * Initializes an empty list
+     *
+     * @param capacity    the elements per chunk, at least 2
+     * @param splitFactor the fraction of a full chunk that stays in it when it is split
+     * @param mergeFactor the fill below which a chunk takes the elements of the next one
+     * @throws IllegalArgumentException if the factors are not between 0 and 1 or the merge
+     *                                  factor is not below the split factor
+     */
+    public UnrolledLinkedList(int capacity, double splitFactor, double mergeFactor) {
+        if (capacity < 2 || splitFactor <= 0 || splitFactor >= 1 || mergeFactor < 0 || mergeFactor >= splitFactor) {
+            throw new IllegalArgumentException("Invalid chunk capacity or fill factors");
+        }
+        this.capacity = capacity;
+        this.splitKeep = Math.max(1, Math.min(capacity - 1, (int) Math.round(capacity * splitFactor)));
+        this.mergeBelow = (int) (capacity * mergeFactor);
+        this.head = null;
+        this.tail = null;
+        this.size = 0;
+    }
+
+    /**
+     * Checks if the list is empty
+     * Complexity: O(1)
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return size <= 0;
+    }
+
+    /**
+     * Adds a new element to the front of the list
+     * Complexity: O(capacity)
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushFront(T value) {
+        if (head == null || head.count == capacity) {
+            linkBefore(head, new Chunk<>(capacity));
+        }
+        insert(head, 0, value);
+    }
+
+    /**
+     * Adds a new element to the back of the list, a full last chunk is not split so
+     * appended chunks are full
+     * Complexity: O(1)
+     *
+     * @param value the value to be added
+     */
+    @Override
+    public void pushBack(T value) {
+        if (tail == null || tail.count == capacity) {
+            linkAfter(tail, new Chunk<>(capacity));
+        }
+        insert(tail, tail.count, value);
+    }
+
+    /**
+     * Removes the first element from the list
+     * Complexity: O(capacity)
+     *
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public T popFront() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        return remove(head, 0);
+    }
+
+    /**
+     * Removes the last element from the list
+     * Complexity: O(1)
+     *
+     * @throws EmptyList if the list is empty
+     */
+    @Override
+    public T popBack() {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        return remove(tail, tail.count - 1);
+    }
+
+    /**
+     * Finds the first element with the specified value
+     * Complexity: O(N)
+     *
+     * @param value the value to search for
+     * @return the position of the element
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found
+     */
+    @Override
+    public Node<T> find(T value) {
+        if (isEmpty()) {
+            throw new EmptyList("List is empty");
+        }
+        for (Chunk<T> chunk = head; chunk != null; chunk = chunk.next) {
+            Object[] items = chunk.items;
+            for (int i = 0, count = chunk.count; i < count; i++) {
+                if (items[i].equals(value)) {
+                    return new Position<>(this, chunk, i, chunk.stamps[i], chunk.get(i));
+                }
+            }
+        }
+        throw new NoSuchElementException("Value not found in the list");
+    }
+
+    /**
+     * Removes the first element with the specified value
+     * Complexity: O(N)
+     *
+     * @param value the value to be removed
+     * @throws EmptyList              if the list is empty
+     * @throws NoSuchElementException if the value is not found in the list
+     */
+    @Override
+    public void erase(T value) {
+        Position<T> position = (Position<T>) find(value);
+        remove(position.chunk, position.index);
+    }
+
+    /**
+     * Adds a new element after the specified position
+     * Complexity: O(capacity) when the position was not moved by other changes
+     *
+     * @param node  a position returned by find
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is null or not a position of this list
+     * @throws NoSuchElementException   if the element of the position was removed
+     */
+    @Override
+    public void addAfter(Node<T> node, T value) {
+        Position<T> position = resolve(node);
+        Chunk<T> chunk = position.chunk;
+        int index = position.index + 1;
+        if (chunk.count == capacity) {
+            split(chunk);
+            if (index > chunk.count) {
+                index -= chunk.count;
+                chunk = chunk.next;
+            }
+            relocate(position);
+        }
+        insert(chunk, index, value);
+    }
+
+    /**
+     * Adds a new element before the specified position
+     * Complexity: O(capacity) when the position was not moved by other changes
+     *
+     * @param node  a position returned by find
+     * @param value the value to be added
+     * @throws IllegalArgumentException if the node is null or not a position of this list
+     * @throws NoSuchElementException   if the element of the position was removed
+     */
+    @Override
+    public void addBefore(Node<T> node, T value) {
+        Position<T> position = resolve(node);
+        if (position.chunk.count == capacity) {
+            split(position.chunk);
+            relocate(position);
+        }
+        insert(position.chunk, position.index, value);
+        position.index++;
+    }
+
+    /**
+     * Transforms the list into a string representation
+     * Complexity: O(N)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (Chunk<T> chunk = head; chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++) {
+                sb.append(chunk.items[i]).append(" ");
+            }
+        }
+        sb.append("]");
+        return sb.toString().trim();
+    }
+
+    private void insert(Chunk<T> chunk, int index, T value) {
+        System.arraycopy(chunk.items, index, chunk.items, index + 1, chunk.count - index);
+        System.arraycopy(chunk.stamps, index, chunk.stamps, index + 1, chunk.count - index);
+        chunk.items[index] = value;
+        chunk.stamps[index] = nextStamp++;
+        chunk.count++;
+        size++;
+    }
+
+    private T remove(Chunk<T> chunk, int index) {
+        T value = chunk.get(index);
+        System.arraycopy(chunk.items, index + 1, chunk.items, index, chunk.count - index - 1);
+        System.arraycopy(chunk.stamps, index + 1, chunk.stamps, index, chunk.count - index - 1);
+        chunk.items[--chunk.count] = null;
+        size--;
+        if (chunk.count == 0) {
+            unlink(chunk);
+            chunk.forward = chunk.next != null ? chunk.next : chunk.prev;
+        } else if (chunk.count < mergeBelow && chunk.next != null && chunk.count + chunk.next.count <= capacity) {
+            Chunk<T> next = chunk.next;
+            System.arraycopy(next.items, 0, chunk.items, chunk.count, next.count);
+            System.arraycopy(next.stamps, 0, chunk.stamps, chunk.count, next.count);
+            chunk.count += next.count;
+            unlink(next);
+            next.forward = chunk;
+        }
+        return value;
+    }
+
+    /**
+     * Moves the elements after the split point of a full chunk to a new chunk after it
+     */
+    private void split(Chunk<T> chunk) {
+        Chunk<T> moved = new Chunk<>(capacity);
+        int count = chunk.count - splitKeep;
+        System.arraycopy(chunk.items, splitKeep, moved.items, 0, count);
+        System.arraycopy(chunk.stamps, splitKeep, moved.stamps, 0, count);
+        Arrays.fill(chunk.items, splitKeep, chunk.count, null);
+        moved.count = count;
+        chunk.count = splitKeep;
+        linkAfter(chunk, moved);
+    }
+
+    private void linkBefore(Chunk<T> next, Chunk<T> chunk) {
+        chunk.next = next;
+        if (next == null) {
+            head = chunk;
+            tail = chunk;
+            return;
+        }
+        chunk.prev = next.prev;
+        if (next.prev != null) {
+            next.prev.next = chunk;
+        } else {
+            head = chunk;
+        }
+        next.prev = chunk;
+    }
+
+    private void linkAfter(Chunk<T> prev, Chunk<T> chunk) {
+        chunk.prev = prev;
+        if (prev == null) {
+            head = chunk;
+            tail = chunk;
+            return;
+        }
+        chunk.next = prev.next;
+        if (prev.next != null) {
+            prev.next.prev = chunk;
+        } else {
+            tail = chunk;
+        }
+        prev.next = chunk;
+    }
+
+    private void unlink(Chunk<T> chunk) {
+        if (chunk.prev != null) {
+            chunk.prev.next = chunk.next;
+        } else {
+            head = chunk.next;
+        }
+        if (chunk.next != null) {
+            chunk.next.prev = chunk.prev;
+        } else {
+            tail = chunk.prev;
+        }
+        chunk.unlinked = true;
+    }
+
+    private Position<T> resolve(Node<T> node) {
+        if (!(node instanceof Position) || ((Position<T>) node).list != this) {
+            throw new IllegalArgumentException("Node must be a position of this list");
+        }
+        Position<T> position = (Position<T>) node;
+        relocate(position);
+        return position;
+    }
+
+    /**
+     * Finds the element of a position again by its stamp if an insert, a remove, a split or a
+     * merge moved it. Merged chunks forward to the chunk that took their elements, and split
+     * elements are in later chunks.
+     */
+    private void relocate(Position<T> position) {
+        Chunk<T> chunk = position.chunk;
+        if (!chunk.unlinked && position.index < chunk.count && chunk.stamps[position.index] == position.stamp) {
+            return;
+        }
+        while (chunk.unlinked && chunk.forward != null) {
+            chunk = chunk.forward;
+        }
+        for (; chunk != null && !chunk.unlinked; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++) {
+                if (chunk.stamps[i] == position.stamp) {
+                    position.chunk = chunk;
+                    position.index = i;
+                    return;
+                }
+            }
+        }
+        throw new NoSuchElementException("The element of the node was removed");
+    }
+
+    /**
+     * A node of the list: an array of elements and their stamps, the first count ones in use
+     */
+    private static final class Chunk<T> {
+        private final Object[] items;
+        private final long[] stamps;
+        private int count;
+        private Chunk<T> next;
+        private Chunk<T> prev;
+        private boolean unlinked;
+        private Chunk<T> forward;
+
+        private Chunk(int capacity) {
+            this.items = new Object[capacity];
+            this.stamps = new long[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        private T get(int index) {
+            return (T) items[index];
+        }
+    }
+
+    /**
+     * The element at an index of a chunk, handed out by find
+     */
+    private static final class Position<T> extends Node<T> {
+        private final UnrolledLinkedList<T> list;
+        private final long stamp;
+        private Chunk<T> chunk;
+        private int index;
+
+        private Position(UnrolledLinkedList<T> list, Chunk<T> chunk, int index, long stamp, T value) {
+            super(value);
+            this.list = list;
+            this.stamp = stamp;
+            this.chunk = chunk;
+            this.index = index;
+        }
+    }
+}
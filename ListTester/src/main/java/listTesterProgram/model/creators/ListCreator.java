@@ -1,6 +1,7 @@
 package listTesterProgram.model.creators;
 
 import listTesterProgram.model.abstractModels.FactoryList;
+import listTesterProgram.model.abstractModels.IntLinkedList;
 import listTesterProgram.model.abstractModels.LinkedList;
 import listTesterProgram.model.concrete.*;
 
@@ -24,8 +25,31 @@ public class ListCreator implements FactoryList {
                 return new DoubleLinkedLinkedListWithTail<>();
             case DOUBLE_LINKED_LIST_WITHOUT_TAIL:
                 return new DoubleLinkedLinkedListWithoutTail<>();
+            case UNROLLED_LINKED_LIST:
+                return new UnrolledLinkedList<>();
+            case HASH_INDEXED_LINKED_LIST:
+                return new HashIndexedLinkedList<>();
+            case LOCK_FREE_LINKED_LIST:
+                return new LockFreeLinkedList<>();
             default:
                 throw new IllegalArgumentException("Invalid linked list type");
         }
     }
-}
+
+    /**
+     * Creates a linked list of primitive ints of the specified type.
+     * @param type the type of int linked list to create
+     * @return a new int linked list of the specified type
+     */
+    @Override
+    public IntLinkedList createIntLinkedList(TypeIntLinkedList type) {
+        switch (type) {
+            case INT_LINKED_LIST_WITH_TAIL:
+                return new IntLinkedListWithTail();
+            case INT_DOUBLE_LINKED_LIST_WITH_TAIL:
+                return new IntDoubleLinkedListWithTail();
+            default:
+                throw new IllegalArgumentException("Invalid int linked list type");
+        }
+    }
+}
\ No newline at end of file
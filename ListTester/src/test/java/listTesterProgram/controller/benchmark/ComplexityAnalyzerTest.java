@@ -0,0 +1,101 @@
+package listTesterProgram.controller.benchmark;
+
+import listTesterProgram.controller.benchmark.Benchmark.Result;
+import listTesterProgram.controller.benchmark.ComplexityAnalyzer.Finding;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ComplexityAnalyzerTest {
+
+    private static final int[] SIZES = {100, 1000, 10000, 100000};
+    // Noise of a few percent on every point
+    private static final double[] NOISE = {1.04, 0.97, 1.02, 0.96};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ComplexityAnalyzer analyzer;
+
+    @Before
+    public void setUp() {
+        analyzer = new ComplexityAnalyzer();
+    }
+
+    @Test
+    public void testFitClassifiesGrowthModels() {
+        assertEquals(Complexity.CONSTANT, ComplexityAnalyzer.fit(SIZES, times(Complexity.CONSTANT, 0)));
+        assertEquals(Complexity.LOGARITHMIC, ComplexityAnalyzer.fit(SIZES, times(Complexity.LOGARITHMIC, 0)));
+        assertEquals(Complexity.LINEAR, ComplexityAnalyzer.fit(SIZES, times(Complexity.LINEAR, 0)));
+        assertEquals(Complexity.QUADRATIC, ComplexityAnalyzer.fit(SIZES, times(Complexity.QUADRATIC, 0)));
+        // A fixed overhead flattens the small sizes but not the growth
+        assertEquals(Complexity.LINEAR, ComplexityAnalyzer.fit(SIZES, times(Complexity.LINEAR, 200)));
+    }
+
+    @Test
+    public void testDocumentedComplexityFromJavadoc() {
+        assertEquals(Complexity.CONSTANT, analyzer.documentedComplexity("DOUBLE_LINKED_LIST_WITH_TAIL", "popBack"));
+        assertEquals(Complexity.LINEAR, analyzer.documentedComplexity("LINKED_LIST_WITH_TAIL", "popBack"));
+        assertEquals(Complexity.LINEAR, analyzer.documentedComplexity("LINKED_LIST_WITHOUT_TAIL", "pushBack"));
+        assertEquals(Complexity.CONSTANT, analyzer.documentedComplexity("HASH_INDEXED_LINKED_LIST", "find"));
+        assertNull(analyzer.documentedComplexity("SYNCHRONIZED_LINKED_LIST", "popBack"));
+        assertNull(new ComplexityAnalyzer(folder.getRoot().getPath())
+                .documentedComplexity("DOUBLE_LINKED_LIST_WITH_TAIL", "popBack"));
+    }
+
+    @Test
+    public void testRegressionsAgainstJavadocAndBaseline() throws Exception {
+        List<Result> baseline = new ArrayList<>();
+        addResults(baseline, "DOUBLE_LINKED_LIST_WITH_TAIL", "popBack", Complexity.CONSTANT);
+        addResults(baseline, "LINKED_LIST_WITH_TAIL", "popBack", Complexity.LINEAR);
+        addResults(baseline, "LINKED_LIST_WITH_TAIL", "find", Complexity.LINEAR);
+
+        // The baseline goes through the CSV of the benchmarks
+        Benchmark benchmark = new Benchmark();
+        String baselinePath = new File(folder.getRoot(), "baseline.csv").getPath();
+        benchmark.exportToCSV(baseline, baselinePath);
+        baseline = benchmark.importFromCSV(baselinePath);
+        assertEquals(12, baseline.size());
+
+        List<Result> results = new ArrayList<>();
+        addResults(results, "DOUBLE_LINKED_LIST_WITH_TAIL", "popBack", Complexity.LINEAR);
+        addResults(results, "LINKED_LIST_WITH_TAIL", "popBack", Complexity.LINEAR);
+        addResults(results, "LINKED_LIST_WITH_TAIL", "find", Complexity.LOGARITHMIC);
+        List<Finding> findings = analyzer.analyze(results, baseline);
+        assertEquals(3, findings.size());
+
+        Finding popBack = findings.get(0);
+        assertEquals(Complexity.LINEAR, popBack.getFitted());
+        assertEquals(Complexity.CONSTANT, popBack.getDocumented());
+        assertEquals(Complexity.CONSTANT, popBack.getBaseline());
+        assertTrue(popBack.isDocumentedRegression());
+        assertTrue(popBack.isBaselineRegression());
+        assertFalse("Linear as documented", findings.get(1).isRegression());
+        assertFalse("Faster than documented", findings.get(2).isRegression());
+        assertTrue(ComplexityAnalyzer.hasRegressions(findings));
+        assertFalse(ComplexityAnalyzer.hasRegressions(findings.subList(1, 3)));
+        assertTrue(analyzer.formatReport(findings).contains("1 regression(s) in 3 operations"));
+    }
+
+    private static double[] times(Complexity model, double overheadNs) {
+        double[] times = new double[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            times[i] = (overheadNs + 5 * model.growth(SIZES[i])) * NOISE[i];
+        }
+        return times;
+    }
+
+    private static void addResults(List<Result> results, String listType, String operation, Complexity model) {
+        double[] times = times(model, 20);
+        for (int i = 0; i < SIZES.length; i++) {
+            results.add(new Result(listType, operation, times[i] * SIZES[i] / 1_000_000, times[i], SIZES[i]));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package listTesterProgram.controller.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        assertEquals("Empty histogram should report 0", 0, histogram.getValueAtPercentile(50));
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMeanNs(), 1e-9);
+    }
+
+    @Test
+    public void testLargeValuesWithinBucketPrecision() {
+        long[] values = {1_000, 123_456, 10_000_000, 5_000_000_000L};
+        for (long value : values) {
+            histogram.reset();
+            histogram.record(value);
+            histogram.record(2 * value);
+            long median = histogram.getValueAtPercentile(50);
+            assertTrue("Median " + median + " should not be below " + value, median >= value);
+            assertTrue("Median " + median + " should be within 1/64 of " + value, median <= value + value / 64);
+            assertEquals(2 * value, histogram.getMaxNs());
+            assertEquals(2 * value, histogram.getValueAtPercentile(100));
+        }
+    }
+
+    @Test
+    public void testTailAndReset() {
+        for (int i = 0; i < 999; i++) {
+            histogram.record(100);
+        }
+        histogram.record(1_000_000);
+        histogram.record(-5);
+        assertEquals(1001, histogram.getCount());
+        assertEquals(100, histogram.getValueAtPercentile(99));
+        assertEquals(1_000_000, histogram.getMaxNs());
+        assertTrue(histogram.getValueAtPercentile(99.95) >= 1_000_000 - 1_000_000 / 64);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNs());
+        assertEquals(0, histogram.getTotalNs());
+    }
+}
@@ -0,0 +1,132 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HashIndexedLinkedListTest {
+
+    private LinkedList<Integer> integerList;
+    private LinkedList<String> stringList;
+
+    @Before
+    public void setUp() {
+        integerList = new HashIndexedLinkedList<>();
+        stringList = new HashIndexedLinkedList<>();
+    }
+
+    @Test
+    public void testPushAndPop() {
+        integerList.pushBack(2);
+        integerList.pushFront(1);
+        integerList.pushBack(3);
+        assertEquals("[1 2 3 ]", integerList.toString());
+        assertEquals("First pop should be 1", Integer.valueOf(1), integerList.popFront());
+        assertEquals("Last pop should be 3", Integer.valueOf(3), integerList.popBack());
+        assertEquals(Integer.valueOf(2), integerList.popBack());
+        assertThrows(EmptyList.class, () -> integerList.popFront());
+        assertThrows(EmptyList.class, () -> integerList.find(2));
+    }
+
+    @Test
+    public void testDuplicatesAreFoundAndErasedInOrder() {
+        for (String color : new String[]{"red", "green", "red", "blue", "red"}) {
+            stringList.pushBack(color);
+        }
+        Node<String> green = stringList.find("green");
+        stringList.addBefore(green, "red");
+        stringList.addAfter(green, "red");
+        assertEquals("[red red green red red blue red ]", stringList.toString());
+
+        stringList.erase("red");
+        stringList.erase("red");
+        assertEquals("[green red red blue red ]", stringList.toString());
+        assertSame("find should return the first red", stringList.find("red"), green.getNext());
+        stringList.popBack();
+        stringList.erase("red");
+        stringList.erase("red");
+        assertThrows(NoSuchElementException.class, () -> stringList.erase("red"));
+        assertEquals("[green blue ]", stringList.toString());
+    }
+
+    @Test
+    public void testSetValueMovesTheNodeToItsChain() {
+        for (String color : new String[]{"red", "green", "blue", "green"}) {
+            stringList.pushBack(color);
+        }
+        Node<String> red = stringList.find("red");
+        red.setValue("green");
+        assertThrows(NoSuchElementException.class, () -> stringList.find("red"));
+        assertSame("The changed node is now the first green", red, stringList.find("green"));
+
+        stringList.find("blue").setValue("red");
+        assertEquals("[green green red green ]", stringList.toString());
+        stringList.erase("green");
+        stringList.erase("green");
+        assertEquals("[red green ]", stringList.toString());
+        assertSame(stringList.find("red").getNext(), stringList.find("green"));
+        stringList.erase("green");
+        stringList.erase("red");
+        assertTrue(stringList.isEmpty());
+    }
+
+    @Test
+    public void testInvalidNodes() {
+        integerList.pushBack(1);
+        Node<Integer> node = integerList.find(1);
+        integerList.popFront();
+        assertThrows(NoSuchElementException.class, () -> integerList.addAfter(node, 2));
+        assertThrows(IllegalArgumentException.class, () -> integerList.addBefore(null, 2));
+        assertThrows(IllegalArgumentException.class, () -> integerList.addBefore(new Node<>(1), 2));
+    }
+
+    @Test
+    public void testRandomOperationsMatchArrayList() {
+        Random random = new Random(5);
+        List<Integer> expected = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            // Few distinct values so that chains are long
+            int value = random.nextInt(20);
+            int operation = random.nextInt(6);
+            if (operation == 0) {
+                integerList.pushFront(value);
+                expected.add(0, value);
+            } else if (operation == 1) {
+                integerList.pushBack(value);
+                expected.add(value);
+            } else if (operation == 2 && !expected.isEmpty()) {
+                assertEquals(expected.remove(0), integerList.popFront());
+            } else if (operation == 3 && !expected.isEmpty()) {
+                assertEquals(expected.remove(expected.size() - 1), integerList.popBack());
+            } else if (operation == 4 && expected.contains(value)) {
+                integerList.erase(value);
+                expected.remove(Integer.valueOf(value));
+            } else if (operation == 5 && expected.contains(value)) {
+                Node<Integer> node = integerList.find(value);
+                int index = expected.indexOf(value);
+                int added = random.nextInt(20);
+                if (random.nextBoolean()) {
+                    integerList.addAfter(node, added);
+                    expected.add(index + 1, added);
+                } else {
+                    integerList.addBefore(node, added);
+                    expected.add(index, added);
+                }
+            }
+            assertEquals(expected.isEmpty(), integerList.isEmpty());
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (Integer value : expected) {
+            sb.append(value).append(" ");
+        }
+        assertEquals(sb.append("]").toString().trim(), integerList.toString());
+    }
+}
@@ -0,0 +1,84 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.IntLinkedList;
+import listTesterProgram.model.creators.ListCreator;
+import listTesterProgram.model.exceptions.EmptyList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntLinkedListTest {
+
+    private final ListCreator listCreator = new ListCreator();
+
+    @Test
+    public void testOperations() {
+        for (TypeIntLinkedList type : TypeIntLinkedList.values()) {
+            IntLinkedList list = listCreator.createIntLinkedList(type);
+            assertTrue(type + " should start empty", list.isEmpty());
+            assertThrows(EmptyList.class, list::popFront);
+            list.pushBack(20);
+            list.pushFront(10);
+            list.pushBack(40);
+            int node = list.find(20);
+            assertEquals(20, list.getValue(node));
+            list.addAfter(node, 30);
+            list.addBefore(node, 15);
+            assertEquals("[10 15 20 30 40 ]", list.toString());
+            list.erase(20);
+            assertThrows(IllegalArgumentException.class, () -> list.addAfter(node, 1));
+            assertThrows(NoSuchElementException.class, () -> list.erase(20));
+            assertEquals(10, list.popFront());
+            assertEquals(40, list.popBack());
+            assertEquals(2, list.size());
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchArrayList() {
+        for (TypeIntLinkedList type : TypeIntLinkedList.values()) {
+            IntLinkedList list = listCreator.createIntLinkedList(type);
+            List<Integer> expected = new ArrayList<>();
+            Random random = new Random(11);
+            for (int step = 0; step < 20_000; step++) {
+                int value = random.nextInt(100);
+                int operation = random.nextInt(6);
+                if (operation == 0) {
+                    list.pushFront(value);
+                    expected.add(0, value);
+                } else if (operation == 1) {
+                    list.pushBack(value);
+                    expected.add(value);
+                } else if (operation == 2 && !expected.isEmpty()) {
+                    assertEquals((int) expected.remove(0), list.popFront());
+                } else if (operation == 3 && !expected.isEmpty()) {
+                    assertEquals((int) expected.remove(expected.size() - 1), list.popBack());
+                } else if (operation == 4 && expected.contains(value)) {
+                    list.erase(value);
+                    expected.remove(Integer.valueOf(value));
+                } else if (operation == 5 && expected.contains(value)) {
+                    int node = list.find(value);
+                    int index = expected.indexOf(value);
+                    if (random.nextBoolean()) {
+                        list.addAfter(node, step);
+                        expected.add(index + 1, step);
+                    } else {
+                        list.addBefore(node, step);
+                        expected.add(index, step);
+                    }
+                }
+                assertEquals(type + " size", expected.size(), list.size());
+            }
+            StringBuilder sb = new StringBuilder("[");
+            for (Integer value : expected) {
+                sb.append(value).append(" ");
+            }
+            assertEquals(sb.append("]").toString().trim(), list.toString());
+        }
+    }
+}
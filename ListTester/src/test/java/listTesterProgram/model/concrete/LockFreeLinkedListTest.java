@@ -0,0 +1,166 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.function.IntConsumer;
+
+import static org.junit.Assert.*;
+
+public class LockFreeLinkedListTest {
+
+    private LinkedList<Integer> integerList;
+
+    @Before
+    public void setUp() {
+        integerList = new LockFreeLinkedList<>();
+    }
+
+    @Test
+    public void testSequentialOperations() {
+        assertTrue(integerList.isEmpty());
+        assertThrows(EmptyList.class, () -> integerList.popBack());
+        integerList.pushBack(20);
+        integerList.pushFront(10);
+        integerList.pushBack(40);
+        Node<Integer> node = integerList.find(20);
+        integerList.addAfter(node, 30);
+        integerList.addBefore(node, 15);
+        assertEquals("[10 15 20 30 40 ]", integerList.toString());
+        assertEquals(Integer.valueOf(30), node.getNext().getValue());
+
+        integerList.erase(20);
+        assertThrows(NoSuchElementException.class, () -> integerList.addAfter(node, 1));
+        assertThrows(NoSuchElementException.class, () -> integerList.addBefore(node, 1));
+        assertThrows(NoSuchElementException.class, () -> integerList.erase(20));
+        assertThrows(IllegalArgumentException.class, () -> integerList.addAfter(new Node<>(1), 1));
+        assertEquals(Integer.valueOf(10), integerList.popFront());
+        assertEquals(Integer.valueOf(40), integerList.popBack());
+        assertEquals("[15 30 ]", integerList.toString());
+    }
+
+    @Test(timeout = 10_000)
+    public void testPopBackUnlinksAMarkedTail() throws ReflectiveOperationException {
+        integerList.pushBack(1);
+        integerList.pushBack(2);
+        integerList.pushBack(3);
+        // A remover that marked the last node and has not unlinked it yet
+        Node<Integer> tail = integerList.find(3);
+        Field link = tail.getClass().getDeclaredField("link");
+        link.setAccessible(true);
+        assertTrue(((AtomicMarkableReference<?>) link.get(tail)).attemptMark(null, true));
+        assertEquals("[1 2 ]", integerList.toString());
+
+        assertEquals(Integer.valueOf(2), integerList.popBack());
+        assertEquals(Integer.valueOf(1), integerList.popBack());
+        assertTrue(integerList.isEmpty());
+    }
+
+    @Test
+    public void testRandomOperationsMatchArrayList() {
+        Random random = new Random(3);
+        List<Integer> expected = new ArrayList<>();
+        for (int step = 0; step < 10_000; step++) {
+            int value = random.nextInt(50);
+            int operation = random.nextInt(6);
+            if (operation == 0) {
+                integerList.pushFront(value);
+                expected.add(0, value);
+            } else if (operation == 1) {
+                integerList.pushBack(value);
+                expected.add(value);
+            } else if (operation == 2 && !expected.isEmpty()) {
+                assertEquals(expected.remove(0), integerList.popFront());
+            } else if (operation == 3 && !expected.isEmpty()) {
+                assertEquals(expected.remove(expected.size() - 1), integerList.popBack());
+            } else if (operation == 4 && expected.contains(value)) {
+                integerList.erase(value);
+                expected.remove(Integer.valueOf(value));
+            } else if (operation == 5 && expected.contains(value)) {
+                Node<Integer> node = integerList.find(value);
+                int index = expected.indexOf(value);
+                if (random.nextBoolean()) {
+                    integerList.addAfter(node, step);
+                    expected.add(index + 1, step);
+                } else {
+                    integerList.addBefore(node, step);
+                    expected.add(index, step);
+                }
+            }
+            assertEquals(expected.isEmpty(), integerList.isEmpty());
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (Integer value : expected) {
+            sb.append(value).append(" ");
+        }
+        assertEquals(sb.append("]").toString().trim(), integerList.toString());
+    }
+
+    @Test
+    public void testConcurrentOperationsKeepEveryValue() throws InterruptedException {
+        int threads = 4;
+        int rounds = 1_000;
+        // Every thread adds, finds and erases its own values
+        runConcurrently(threads, t -> {
+            for (int i = 0; i < rounds; i++) {
+                int value = (t * rounds + i) * 4;
+                integerList.pushBack(value);
+                integerList.pushFront(value + 1);
+                integerList.addAfter(integerList.find(value), value + 2);
+                integerList.addBefore(integerList.find(value + 1), value + 3);
+                integerList.erase(value);
+            }
+        });
+
+        // Then all threads empty the list from both ends
+        Set<Integer> popped = ConcurrentHashMap.newKeySet();
+        runConcurrently(threads, t -> {
+            try {
+                while (true) {
+                    Integer value = t % 2 == 0 ? integerList.popFront() : integerList.popBack();
+                    assertTrue("Value popped twice: " + value, popped.add(value));
+                }
+            } catch (EmptyList e) {
+                // Done
+            }
+        });
+        assertTrue(integerList.isEmpty());
+        assertEquals("Every value kept once", threads * rounds * 3, popped.size());
+        for (int value : popped) {
+            assertNotEquals("Erased value " + value, 0, value % 4);
+        }
+    }
+
+    private void runConcurrently(int threads, IntConsumer task) throws InterruptedException {
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers.add(new Thread(() -> {
+                try {
+                    task.accept(index);
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue("Errors in workers: " + errors, errors.isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MichaelScottQueueTest {
+
+    private LinkedList<Integer> queue;
+
+    @Before
+    public void setUp() {
+        queue = new MichaelScottQueue<>();
+    }
+
+    @Test
+    public void testFifoOrder() {
+        assertTrue("New queue should be empty", queue.isEmpty());
+        assertThrows(EmptyList.class, () -> queue.popFront());
+        for (int i = 0; i < 5; i++) {
+            queue.pushBack(i);
+        }
+        assertEquals("[0 1 2 3 4 ]", queue.toString());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Integer.valueOf(i), queue.popFront());
+        }
+        assertTrue("Queue should be empty after popping all elements", queue.isEmpty());
+    }
+
+    @Test
+    public void testPositionalOperationsAreUnsupported() {
+        queue.pushBack(1);
+        assertThrows(UnsupportedOperationException.class, () -> queue.pushFront(0));
+        assertThrows(UnsupportedOperationException.class, () -> queue.popBack());
+        assertThrows(UnsupportedOperationException.class, () -> queue.find(1));
+        assertThrows(UnsupportedOperationException.class, () -> queue.erase(1));
+        assertThrows(UnsupportedOperationException.class, () -> queue.addAfter(null, 2));
+        assertThrows(UnsupportedOperationException.class, () -> queue.addBefore(null, 2));
+        assertEquals("[1 ]", queue.toString());
+    }
+
+    @Test
+    public void testProducersAndConsumers() throws InterruptedException {
+        int producers = 3;
+        int consumers = 3;
+        int perProducer = 50_000;
+        AtomicInteger consumed = new AtomicInteger();
+        List<List<Integer>> received = new ArrayList<>();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    queue.pushBack(first + i);
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            List<Integer> values = new ArrayList<>();
+            received.add(values);
+            workers.add(new Thread(() -> {
+                try {
+                    while (consumed.get() < producers * perProducer) {
+                        try {
+                            values.add(queue.popFront());
+                            consumed.incrementAndGet();
+                        } catch (EmptyList e) {
+                            Thread.yield();
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue("Errors in workers: " + errors, errors.isEmpty());
+
+        boolean[] seen = new boolean[producers * perProducer];
+        for (List<Integer> values : received) {
+            int[] last = new int[producers];
+            Arrays.fill(last, -1);
+            for (int value : values) {
+                assertFalse("Value consumed twice: " + value, seen[value]);
+                seen[value] = true;
+                int producer = value / perProducer;
+                assertTrue("Values of a producer out of order", value > last[producer]);
+                last[producer] = value;
+            }
+        }
+        for (int value = 0; value < seen.length; value++) {
+            assertTrue("Value lost: " + value, seen[value]);
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NodePoolTest {
+
+    @Test
+    public void testRecycledNodesAreReusedUpToCapacity() {
+        NodePool<Integer> pool = new NodePool<>(1);
+        Node<Integer> first = pool.obtain(1);
+        Node<Integer> second = pool.obtain(2);
+        pool.recycle(first);
+        pool.recycle(second);
+        assertNull("Recycled node should not retain its value", first.getValue());
+
+        Node<Integer> reused = pool.obtain(3);
+        assertSame("Recycled node should be handed out again", first, reused);
+        assertEquals(Integer.valueOf(3), reused.getValue());
+        assertNotSame("Pool should keep one node only", second, pool.obtain(4));
+    }
+
+    @Test
+    public void testFoundNodesAreNeverReused() {
+        LinkedList<String> withTail = new DoubleLinkedLinkedListWithTail<>(8);
+        LinkedList<String> withoutTail = new DoubleLinkedLinkedListWithoutTail<>(8);
+        List<LinkedList<String>> lists = List.of(withTail, withoutTail);
+        for (LinkedList<String> list : lists) {
+            list.pushBack("red");
+            list.pushBack("green");
+            list.pushBack("blue");
+            Node<String> green = list.find("green");
+            list.erase("green");
+            list.popFront();
+            list.popBack();
+            for (int i = 0; i < 4; i++) {
+                list.pushBack("color" + i);
+            }
+            assertEquals("Handed out node should keep its value", "green", green.getValue());
+            assertEquals("[color0 color1 color2 color3 ]", list.toString());
+        }
+    }
+
+    @Test
+    public void testPooledListKeepsOrder() {
+        LinkedList<Integer> list = new DoubleLinkedLinkedListWithTail<>(4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 6; i++) {
+                list.pushBack(i);
+            }
+            list.addAfter(list.find(2), 20);
+            list.addBefore(list.find(2), 10);
+            list.erase(4);
+            assertEquals("[0 1 10 2 20 3 5 ]", list.toString());
+            while (!list.isEmpty()) {
+                list.popBack();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCapacity() {
+        new DoubleLinkedLinkedListWithTail<Integer>(-1);
+    }
+}
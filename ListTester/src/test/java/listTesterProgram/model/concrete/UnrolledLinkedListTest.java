@@ -0,0 +1,139 @@
+package listTesterProgram.model.concrete;
+
+import listTesterProgram.model.abstractModels.LinkedList;
+import listTesterProgram.model.exceptions.EmptyList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class UnrolledLinkedListTest {
+
+    private LinkedList<Integer> integerList;
+    private LinkedList<String> stringList;
+
+    @Before
+    public void setUp() {
+        // Small chunks so that every test splits and merges
+        integerList = new UnrolledLinkedList<>(4, 0.5, 0.25);
+        stringList = new UnrolledLinkedList<>(4, 0.5, 0.25);
+    }
+
+    @Test
+    public void testPushAndPop() {
+        for (int i = 0; i < 10; i++) {
+            integerList.pushBack(i);
+            integerList.pushFront(-i - 1);
+        }
+        assertEquals("[-10 -9 -8 -7 -6 -5 -4 -3 -2 -1 0 1 2 3 4 5 6 7 8 9 ]", integerList.toString());
+        assertEquals("First pop should be -10", Integer.valueOf(-10), integerList.popFront());
+        assertEquals("Last pop should be 9", Integer.valueOf(9), integerList.popBack());
+        while (!integerList.isEmpty()) {
+            integerList.popBack();
+        }
+        assertThrows(EmptyList.class, () -> integerList.popFront());
+        assertThrows(EmptyList.class, () -> integerList.find(1));
+    }
+
+    @Test
+    public void testFindAndErase() {
+        for (String color : new String[]{"red", "green", "blue", "cyan", "magenta", "yellow"}) {
+            stringList.pushBack(color);
+        }
+        assertEquals("blue", stringList.find("blue").getValue());
+        stringList.erase("red");
+        stringList.erase("cyan");
+        stringList.erase("yellow");
+        assertEquals("[green blue magenta ]", stringList.toString());
+        assertThrows(NoSuchElementException.class, () -> stringList.erase("red"));
+    }
+
+    @Test
+    public void testAddAfterAndBeforeKeepPosition() {
+        for (int i = 0; i < 8; i++) {
+            integerList.pushBack(i * 10);
+        }
+        Node<Integer> node = integerList.find(40);
+        // Repeated inserts split the chunk of the node several times
+        for (int i = 1; i <= 5; i++) {
+            integerList.addBefore(node, 40 - i);
+            integerList.addAfter(node, 40 + i);
+        }
+        assertEquals("[0 10 20 30 39 38 37 36 35 40 45 44 43 42 41 50 60 70 ]", integerList.toString());
+        Node<Integer> other = integerList.find(60);
+        integerList.erase(45);
+        integerList.erase(44);
+        integerList.erase(43);
+        integerList.addAfter(other, 65);
+        integerList.addBefore(node, 39);
+        assertEquals("[0 10 20 30 39 38 37 36 35 39 40 42 41 50 60 65 70 ]", integerList.toString());
+        integerList.erase(40);
+        assertThrows(NoSuchElementException.class, () -> integerList.addAfter(node, 1));
+        assertThrows(IllegalArgumentException.class, () -> integerList.addAfter(null, 1));
+    }
+
+    @Test
+    public void testPositionAmongDuplicatesAcrossSplit() {
+        // Integer.valueOf(1) is cached, so every 1 of the list is the same reference
+        integerList.pushBack(2);
+        integerList.pushBack(1);
+        integerList.pushBack(3);
+        Node<Integer> node = integerList.find(1);
+        // The new 1 shifts the node and fills the chunk, so the next insert splits it
+        integerList.pushFront(1);
+        integerList.addAfter(node, 9);
+        assertEquals("[1 2 1 9 3 ]", integerList.toString());
+
+        integerList.pushFront(1);
+        integerList.pushFront(1);
+        integerList.pushFront(1);
+        integerList.addBefore(node, 8);
+        integerList.addAfter(node, 7);
+        assertEquals("[1 1 1 1 2 8 1 7 9 3 ]", integerList.toString());
+    }
+
+    @Test
+    public void testRandomOperationsMatchArrayList() {
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            int value = random.nextInt(200);
+            int operation = random.nextInt(6);
+            if (operation == 0) {
+                integerList.pushFront(value);
+                expected.add(0, value);
+            } else if (operation == 1) {
+                integerList.pushBack(value);
+                expected.add(value);
+            } else if (operation == 2 && !expected.isEmpty()) {
+                assertEquals(expected.remove(0), integerList.popFront());
+            } else if (operation == 3 && !expected.isEmpty()) {
+                assertEquals(expected.remove(expected.size() - 1), integerList.popBack());
+            } else if (operation == 4 && expected.contains(value)) {
+                integerList.erase(value);
+                expected.remove(Integer.valueOf(value));
+            } else if (operation == 5 && expected.contains(value)) {
+                Node<Integer> node = integerList.find(value);
+                int index = expected.indexOf(value);
+                if (random.nextBoolean()) {
+                    integerList.addAfter(node, step);
+                    expected.add(index + 1, step);
+                } else {
+                    integerList.addBefore(node, step);
+                    expected.add(index, step);
+                }
+            }
+            assertEquals(expected.isEmpty(), integerList.isEmpty());
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (Integer value : expected) {
+            sb.append(value).append(" ");
+        }
+        assertEquals(sb.append("]").toString().trim(), integerList.toString());
+    }
+}